@@ -17,28 +17,33 @@
 package com.b3dgs.lionengine.headless.graphic;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 
 import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Config;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Media;
-import com.b3dgs.lionengine.UtilConversion;
-import com.b3dgs.lionengine.geom.Rectangle;
 import com.b3dgs.lionengine.graphic.ColorRgba;
 import com.b3dgs.lionengine.graphic.FactoryGraphic;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.ImageFormat;
 import com.b3dgs.lionengine.graphic.Screen;
 import com.b3dgs.lionengine.graphic.Text;
 import com.b3dgs.lionengine.graphic.TextStyle;
 import com.b3dgs.lionengine.graphic.Transform;
 import com.b3dgs.lionengine.graphic.Transparency;
+import com.b3dgs.lionengine.graphic.UtilColor;
 import com.b3dgs.lionengine.graphic.drawable.ImageHeader;
 import com.b3dgs.lionengine.graphic.drawable.ImageInfo;
 
 /**
  * Graphic factory implementation.
+ * <p>
+ * Images are stored and processed as pixels arrays. PNG images are decoded, other formats give a blank image of the
+ * right size. Images are saved as PNG.
+ * </p>
  */
 // CHECKSTYLE IGNORE LINE: ClassDataAbstractionCoupling
 public final class FactoryGraphicHeadless implements FactoryGraphic
@@ -119,15 +124,27 @@ public final class FactoryGraphicHeadless implements FactoryGraphic
     {
         Check.notNull(media);
 
+        final ImageHeader info;
         try
         {
-            final ImageHeader info = ImageInfo.get(media);
-            return new ImageBufferHeadless(info.getWidth(), info.getHeight(), Transparency.BITMASK);
+            info = ImageInfo.get(media);
         }
         catch (final LionEngineException exception)
         {
             throw new LionEngineException(exception, media, ERROR_IMAGE_READING);
         }
+        if (ImageFormat.PNG != info.getFormat())
+        {
+            return new ImageBufferHeadless(info.getWidth(), info.getHeight(), Transparency.BITMASK);
+        }
+        try (InputStream input = media.getInputStream())
+        {
+            return ToolsHeadless.getImage(input);
+        }
+        catch (final IOException exception)
+        {
+            throw new LionEngineException(exception, media, ERROR_IMAGE_READING);
+        }
     }
 
     @Override
@@ -169,27 +186,28 @@ public final class FactoryGraphicHeadless implements FactoryGraphic
     {
         Check.notNull(image);
 
-        final ImageBuffer[] images = new ImageBuffer[h * v];
-        for (int i = 0; i < images.length; i++)
-        {
-            images[i] = new ImageBufferHeadless(image.getWidth() / h, image.getHeight() / v, image.getTransparency());
-        }
-        return images;
+        return ToolsHeadless.splitImage(image.getSurface(), h, v);
     }
 
     @Override
     public ImageBuffer rotate(ImageBuffer image, int angle)
     {
-        final Rectangle rotated = new Rectangle(0, 0, image.getWidth(), image.getHeight());
-        rotated.rotate(angle);
+        Check.notNull(image);
 
-        return new ImageBufferHeadless(rotated.getWidth(), rotated.getHeight(), image.getTransparency());
+        return ToolsHeadless.rotate(image.getSurface(), angle);
     }
 
     @Override
     public ImageBuffer resize(ImageBuffer image, int width, int height)
     {
-        return new ImageBufferHeadless(width, height, image.getTransparency());
+        Check.notNull(image);
+
+        final ImageBuffer resized = new ImageBufferHeadless(width, height, image.getTransparency());
+        final Graphic g = resized.createGraphic();
+        g.drawImage(image, 0, 0, width, height, 0, 0, image.getWidth(), image.getHeight());
+        g.dispose();
+
+        return resized;
     }
 
     @Override
@@ -197,18 +215,13 @@ public final class FactoryGraphicHeadless implements FactoryGraphic
     {
         Check.notNull(image);
 
-        final ImageBuffer flip = new ImageBufferHeadless((ImageBufferHeadless) image);
-        final int height = flip.getHeight();
-        final int width = flip.getWidth();
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final ImageBuffer flip = new ImageBufferHeadless(width, height, image.getTransparency());
+        final Graphic g = flip.createGraphic();
+        g.drawImage(image, 0, 0, width, height, width, 0, 0, height);
+        g.dispose();
 
-        for (int y = 0; y < height; y++)
-        {
-            for (int x = 0; x < width; x++)
-            {
-                final int rgba = flip.getRgb(x, y);
-                flip.setRgb(width - x - 1, y, rgba);
-            }
-        }
         return flip;
     }
 
@@ -217,18 +230,13 @@ public final class FactoryGraphicHeadless implements FactoryGraphic
     {
         Check.notNull(image);
 
-        final ImageBuffer flip = new ImageBufferHeadless((ImageBufferHeadless) image);
-        final int height = flip.getHeight();
-        final int width = flip.getWidth();
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final ImageBuffer flip = new ImageBufferHeadless(width, height, image.getTransparency());
+        final Graphic g = flip.createGraphic();
+        g.drawImage(image, 0, 0, width, height, 0, height, width, 0);
+        g.dispose();
 
-        for (int y = 0; y < height; y++)
-        {
-            for (int x = 0; x < width; x++)
-            {
-                final int rgba = flip.getRgb(x, y);
-                flip.setRgb(x, height - y - 1, rgba);
-            }
-        }
         return flip;
     }
 
@@ -239,8 +247,7 @@ public final class FactoryGraphicHeadless implements FactoryGraphic
 
         try (OutputStream output = media.getOutputStream())
         {
-            output.write(UtilConversion.intToByteArray(image.getWidth()));
-            output.write(UtilConversion.intToByteArray(image.getHeight()));
+            ToolsHeadless.saveImage(image.getSurface(), output);
         }
         catch (final IOException exception)
         {
@@ -253,6 +260,12 @@ public final class FactoryGraphicHeadless implements FactoryGraphic
     {
         Check.notNull(image);
 
-        return new ImageBufferHeadless((ImageBufferHeadless) image);
+        final ImageBufferHeadless raster = new ImageBufferHeadless((ImageBufferHeadless) image);
+        final int[] pixels = raster.getBuffer();
+        for (int i = 0; i < pixels.length; i++)
+        {
+            pixels[i] = UtilColor.multiplyRgb(pixels[i], fr, fg, fb);
+        }
+        return raster;
     }
 }
@@ -16,6 +16,9 @@
  */
 package com.b3dgs.lionengine.headless.graphic;
 
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.Origin;
 import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.graphic.ColorGradient;
@@ -23,18 +26,84 @@ import com.b3dgs.lionengine.graphic.ColorRgba;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.ImageSurface;
 import com.b3dgs.lionengine.graphic.Transform;
+import com.b3dgs.lionengine.graphic.Transparency;
 
 /**
  * Main interface with the graphic output, representing the screen buffer.
+ * <p>
+ * Software renderer drawing on the pixels of an {@link ImageBufferHeadless}, clipped to its bounds. Images are drawn
+ * depending of their {@link Transparency}: opaque rows are copied in bulk, bitmask pixels are copied if not fully
+ * transparent, and translucent pixels are alpha blended. Colors with alpha are blended too. Scaling uses nearest
+ * neighbor.
+ * </p>
  */
 final class GraphicHeadless implements Graphic
 {
+    /** Opaque alpha. */
+    private static final int OPAQUE = 0xFF;
+
+    /**
+     * Blend source pixel over destination pixel.
+     * 
+     * @param src The source pixel.
+     * @param dst The destination pixel.
+     * @return The blended pixel.
+     */
+    static int blend(int src, int dst)
+    {
+        final int sa = src >>> Constant.BYTE_4;
+        if (sa == OPAQUE)
+        {
+            return src;
+        }
+        if (sa == 0)
+        {
+            return dst;
+        }
+        final int da = dst >>> Constant.BYTE_4;
+        final int ia = OPAQUE - sa;
+        if (da == OPAQUE)
+        {
+            final int r = ((src >> Constant.BYTE_3 & OPAQUE) * sa + (dst >> Constant.BYTE_3 & OPAQUE) * ia) / OPAQUE;
+            final int g = ((src >> Constant.BYTE_2 & OPAQUE) * sa + (dst >> Constant.BYTE_2 & OPAQUE) * ia) / OPAQUE;
+            final int b = ((src & OPAQUE) * sa + (dst & OPAQUE) * ia) / OPAQUE;
+            return OPAQUE << Constant.BYTE_4 | r << Constant.BYTE_3 | g << Constant.BYTE_2 | b;
+        }
+        final int dw = da * ia / OPAQUE;
+        final int oa = sa + dw;
+        final int r = ((src >> Constant.BYTE_3 & OPAQUE) * sa + (dst >> Constant.BYTE_3 & OPAQUE) * dw) / oa;
+        final int g = ((src >> Constant.BYTE_2 & OPAQUE) * sa + (dst >> Constant.BYTE_2 & OPAQUE) * dw) / oa;
+        final int b = ((src & OPAQUE) * sa + (dst & OPAQUE) * dw) / oa;
+
+        return oa << Constant.BYTE_4 | r << Constant.BYTE_3 | g << Constant.BYTE_2 | b;
+    }
+
+    /**
+     * Interpolate color channels.
+     * 
+     * @param color1 The first color.
+     * @param color2 The second color.
+     * @param ratio The interpolation ratio, from first color to second color [0-1].
+     * @return The interpolated color.
+     */
+    private static int interpolate(ColorRgba color1, ColorRgba color2, double ratio)
+    {
+        final int a = color1.getAlpha() + (int) Math.round((color2.getAlpha() - color1.getAlpha()) * ratio);
+        final int r = color1.getRed() + (int) Math.round((color2.getRed() - color1.getRed()) * ratio);
+        final int g = color1.getGreen() + (int) Math.round((color2.getGreen() - color1.getGreen()) * ratio);
+        final int b = color1.getBlue() + (int) Math.round((color2.getBlue() - color1.getBlue()) * ratio);
+
+        return a << Constant.BYTE_4 | r << Constant.BYTE_3 | g << Constant.BYTE_2 | b;
+    }
+
     /** Graphic representation. */
     private ImageBufferHeadless g;
     /** Current color. */
     private ColorRgba color = ColorRgba.WHITE;
     /** Color gradient. */
     private ColorGradient gradient;
+    /** Source column of each destination column for scaled drawing (<code>-1</code> if outside source). */
+    private int[] columns = new int[0];
 
     /**
      * Internal constructor.
@@ -56,22 +125,233 @@ final class GraphicHeadless implements Graphic
         this.g = g;
     }
 
-    /*
-     * Graphic
+    /**
+     * Fill area with pixel, clipped to buffer, blended if not opaque.
+     * 
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param width The area width.
+     * @param height The area height.
+     * @param rgba The pixel value.
      */
+    private void fill(int x, int y, int width, int height, int rgba)
+    {
+        final int x1 = Math.max(0, x);
+        final int y1 = Math.max(0, y);
+        final int x2 = Math.min(g.getWidth(), x + width);
+        final int y2 = Math.min(g.getHeight(), y + height);
+        if (x1 >= x2 || y1 >= y2 || rgba >>> Constant.BYTE_4 == 0)
+        {
+            return;
+        }
+        final int[] buffer = g.getBuffer();
+        final int stride = g.getWidth();
+        for (int j = y1; j < y2; j++)
+        {
+            final int offset = j * stride;
+            if (rgba >>> Constant.BYTE_4 == OPAQUE)
+            {
+                Arrays.fill(buffer, offset + x1, offset + x2, rgba);
+            }
+            else
+            {
+                for (int i = offset + x1; i < offset + x2; i++)
+                {
+                    buffer[i] = blend(rgba, buffer[i]);
+                }
+            }
+        }
+    }
 
-    @Override
-    public void clear(int x, int y, int width, int height)
+    /**
+     * Plot pixel if inside buffer, blended if not opaque.
+     * 
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     * @param rgba The pixel value.
+     */
+    private void plot(int x, int y, int rgba)
+    {
+        if (x >= 0 && y >= 0 && x < g.getWidth() && y < g.getHeight())
+        {
+            final int[] buffer = g.getBuffer();
+            final int index = y * g.getWidth() + x;
+            buffer[index] = blend(rgba, buffer[index]);
+        }
+    }
+
+    /**
+     * Draw a row of source pixels on a row of buffer.
+     * 
+     * @param src The source pixels.
+     * @param srcIndex The first source pixel index.
+     * @param dstIndex The first buffer pixel index.
+     * @param length The number of pixels.
+     * @param transparency The source transparency.
+     */
+    private void drawRow(int[] src, int srcIndex, int dstIndex, int length, Transparency transparency)
+    {
+        final int[] dst = g.getBuffer();
+        if (Transparency.OPAQUE == transparency)
+        {
+            System.arraycopy(src, srcIndex, dst, dstIndex, length);
+        }
+        else if (Transparency.BITMASK == transparency)
+        {
+            for (int i = 0; i < length; i++)
+            {
+                final int pixel = src[srcIndex + i];
+                if (pixel >>> Constant.BYTE_4 != 0)
+                {
+                    dst[dstIndex + i] = pixel;
+                }
+            }
+        }
+        else
+        {
+            for (int i = 0; i < length; i++)
+            {
+                dst[dstIndex + i] = blend(src[srcIndex + i], dst[dstIndex + i]);
+            }
+        }
+    }
+
+    /**
+     * Draw source pixel on buffer.
+     * 
+     * @param pixel The source pixel.
+     * @param dstIndex The buffer pixel index.
+     * @param transparency The source transparency.
+     */
+    private void drawPixel(int pixel, int dstIndex, Transparency transparency)
+    {
+        final int[] dst = g.getBuffer();
+        if (Transparency.OPAQUE == transparency)
+        {
+            dst[dstIndex] = pixel;
+        }
+        else if (Transparency.BITMASK == transparency)
+        {
+            if (pixel >>> Constant.BYTE_4 != 0)
+            {
+                dst[dstIndex] = pixel;
+            }
+        }
+        else
+        {
+            dst[dstIndex] = blend(pixel, dst[dstIndex]);
+        }
+    }
+
+    /**
+     * Draw an image area without scaling, clipped to image and buffer.
+     * 
+     * @param image The image to draw.
+     * @param sx The source horizontal location.
+     * @param sy The source vertical location.
+     * @param dx The destination horizontal location.
+     * @param dy The destination vertical location.
+     * @param width The area width.
+     * @param height The area height.
+     */
+    private void blit(ImageBufferHeadless image, int sx, int sy, int dx, int dy, int width, int height)
+    {
+        final int offsetX = Math.max(Math.max(0, -sx), -dx);
+        final int offsetY = Math.max(Math.max(0, -sy), -dy);
+        final int w = Math.min(Math.min(width, image.getWidth() - sx), g.getWidth() - dx) - offsetX;
+        final int h = Math.min(Math.min(height, image.getHeight() - sy), g.getHeight() - dy) - offsetY;
+        if (w <= 0 || h <= 0)
+        {
+            return;
+        }
+        final int[] src = image.getBuffer();
+        final int srcStride = image.getWidth();
+        final int dstStride = g.getWidth();
+        final Transparency transparency = image.getTransparency();
+        for (int j = offsetY; j < offsetY + h; j++)
+        {
+            drawRow(src,
+                    (sy + j) * srcStride + sx + offsetX,
+                    (dy + j) * dstStride + dx + offsetX,
+                    w,
+                    transparency);
+        }
+    }
+
+    /**
+     * Draw an image area scaled to destination area, clipped to image and buffer. Area is flipped if coordinates are
+     * reversed.
+     * 
+     * @param image The image to draw.
+     * @param dx1 The first destination horizontal corner.
+     * @param dy1 The first destination vertical corner.
+     * @param dx2 The second destination horizontal corner.
+     * @param dy2 The second destination vertical corner.
+     * @param sx1 The first source horizontal corner.
+     * @param sy1 The first source vertical corner.
+     * @param sx2 The second source horizontal corner.
+     * @param sy2 The second source vertical corner.
+     */
+    private void blitScaled(ImageBufferHeadless image,
+                            int dx1,
+                            int dy1,
+                            int dx2,
+                            int dy2,
+                            int sx1,
+                            int sy1,
+                            int sx2,
+                            int sy2)
     {
-        for (int i = x; i < width; i++)
+        final double scaleX = (sx2 - sx1) / (double) (dx2 - dx1);
+        final double scaleY = (sy2 - sy1) / (double) (dy2 - dy1);
+        final int minX = Math.max(0, Math.min(dx1, dx2));
+        final int minY = Math.max(0, Math.min(dy1, dy2));
+        final int maxX = Math.min(g.getWidth(), Math.max(dx1, dx2));
+        final int maxY = Math.min(g.getHeight(), Math.max(dy1, dy2));
+        final int[] src = image.getBuffer();
+        final int srcWidth = image.getWidth();
+        final int srcHeight = image.getHeight();
+        final int dstStride = g.getWidth();
+        final Transparency transparency = image.getTransparency();
+
+        if (columns.length < maxX - minX)
+        {
+            columns = new int[maxX - minX];
+        }
+        for (int x = minX; x < maxX; x++)
+        {
+            final int sx = (int) Math.floor(sx1 + (x + 0.5 - dx1) * scaleX);
+            columns[x - minX] = sx >= 0 && sx < srcWidth ? sx : -1;
+        }
+        for (int y = minY; y < maxY; y++)
         {
-            for (int j = y; j < height; j++)
+            final int sy = (int) Math.floor(sy1 + (y + 0.5 - dy1) * scaleY);
+            if (sy >= 0 && sy < srcHeight)
             {
-                g.setRgb(x, y, ColorRgba.BLACK.getRgba());
+                final int srcOffset = sy * srcWidth;
+                final int dstOffset = y * dstStride;
+                for (int x = minX; x < maxX; x++)
+                {
+                    final int sx = columns[x - minX];
+                    if (sx >= 0)
+                    {
+                        drawPixel(src[srcOffset + sx], dstOffset + x, transparency);
+                    }
+                }
             }
         }
     }
 
+    /*
+     * Graphic
+     */
+
+    @Override
+    public void clear(int x, int y, int width, int height)
+    {
+        fill(x, y, width, height, ColorRgba.BLACK.getRgba());
+    }
+
     @Override
     public void dispose()
     {
@@ -81,65 +361,98 @@ final class GraphicHeadless implements Graphic
     @Override
     public void copyArea(int x, int y, int width, int height, int dx, int dy)
     {
-        // Nothing to do
+        final int x1 = Math.max(Math.max(0, x), -dx);
+        final int y1 = Math.max(Math.max(0, y), -dy);
+        final int x2 = Math.min(Math.min(g.getWidth(), x + width), g.getWidth() - dx);
+        final int y2 = Math.min(Math.min(g.getHeight(), y + height), g.getHeight() - dy);
+        if (x1 >= x2 || y1 >= y2)
+        {
+            return;
+        }
+        final int[] buffer = g.getBuffer();
+        final int stride = g.getWidth();
+        final int length = x2 - x1;
+        if (dy > 0)
+        {
+            for (int j = y2 - 1; j >= y1; j--)
+            {
+                System.arraycopy(buffer, j * stride + x1, buffer, (j + dy) * stride + x1 + dx, length);
+            }
+        }
+        else
+        {
+            for (int j = y1; j < y2; j++)
+            {
+                System.arraycopy(buffer, j * stride + x1, buffer, (j + dy) * stride + x1 + dx, length);
+            }
+        }
     }
 
     @Override
     public void drawImage(ImageSurface image, int x, int y)
     {
         final ImageBufferHeadless surface = image.getSurface();
-        for (int i = x; i < image.getWidth(); i++)
-        {
-            for (int j = y; j < image.getHeight(); j++)
-            {
-                g.setRgb(x + i, y + j, surface.getRgb(i, j));
-            }
-        }
+        blit(surface, 0, 0, x, y, surface.getWidth(), surface.getHeight());
     }
 
     @Override
     public void drawImage(ImageSurface image, Transform transform, int x, int y)
     {
         final ImageBufferHeadless surface = image.getSurface();
-        for (int i = x; i < image.getWidth(); i++)
+        final int width = surface.getWidth();
+        final int height = surface.getHeight();
+        final int scaledWidth = (int) Math.round(width * transform.getScaleX());
+        final int scaledHeight = (int) Math.round(height * transform.getScaleY());
+        if (scaledWidth == width && scaledHeight == height)
         {
-            for (int j = y; j < image.getHeight(); j++)
-            {
-                g.setRgb(x + i, y + j, surface.getRgb(i, j));
-            }
+            blit(surface, 0, 0, x, y, width, height);
+        }
+        else if (scaledWidth > 0 && scaledHeight > 0)
+        {
+            blitScaled(surface, x, y, x + scaledWidth, y + scaledHeight, 0, 0, width, height);
         }
     }
 
     @Override
     public void drawImage(ImageSurface image, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2, int sy2)
     {
-        // Nothing to do
+        if (dx1 == dx2 || dy1 == dy2 || sx1 == sx2 || sy1 == sy2)
+        {
+            return;
+        }
+        final ImageBufferHeadless surface = image.getSurface();
+        if (dx2 - dx1 == sx2 - sx1 && dy2 - dy1 == sy2 - sy1 && dx2 > dx1 && dy2 > dy1)
+        {
+            blit(surface, sx1, sy1, dx1, dy1, dx2 - dx1, dy2 - dy1);
+        }
+        else
+        {
+            blitScaled(surface, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2);
+        }
     }
 
     @Override
     public void drawRect(int x, int y, int width, int height, boolean fill)
     {
+        final int rgba = color.getRgba();
         if (fill)
         {
-            for (int i = x; i < width; i++)
-            {
-                for (int j = y; j < height; j++)
-                {
-                    g.setRgb(x, y, color.getRgba());
-                }
-            }
+            fill(x, y, width, height, rgba);
         }
-        else
+        else if (width >= 0 && height >= 0)
         {
-            for (int i = x; i < width; i++)
+            fill(x, y, width + 1, 1, rgba);
+            if (height > 0)
             {
-                g.setRgb(i, y, color.getRgba());
-                g.setRgb(i, y + height - 1, color.getRgba());
+                fill(x, y + height, width + 1, 1, rgba);
             }
-            for (int j = y; j < height; j++)
+            if (height > 1)
             {
-                g.setRgb(x, j, color.getRgba());
-                g.setRgb(x + width - 1, j, color.getRgba());
+                fill(x, y + 1, 1, height - 1, rgba);
+                if (width > 0)
+                {
+                    fill(x + width, y + 1, 1, height - 1, rgba);
+                }
             }
         }
     }
@@ -155,11 +468,36 @@ final class GraphicHeadless implements Graphic
     @Override
     public void drawGradient(int x, int y, int width, int height)
     {
-        for (int i = x; i < width; i++)
+        if (gradient == null)
+        {
+            return;
+        }
+        final int x1 = Math.max(0, x);
+        final int y1 = Math.max(0, y);
+        final int x2 = Math.min(g.getWidth(), x + width);
+        final int y2 = Math.min(g.getHeight(), y + height);
+        final double vx = gradient.getX2() - (double) gradient.getX1();
+        final double vy = gradient.getY2() - (double) gradient.getY1();
+        final double length = vx * vx + vy * vy;
+        final int[] buffer = g.getBuffer();
+        final int stride = g.getWidth();
+
+        for (int j = y1; j < y2; j++)
         {
-            for (int j = y; j < height; j++)
+            for (int i = x1; i < x2; i++)
             {
-                g.setRgb(x, y, gradient.getColor1().getRgba());
+                final double ratio;
+                if (Double.compare(length, 0.0) == 0)
+                {
+                    ratio = 0.0;
+                }
+                else
+                {
+                    final double projection = (i - gradient.getX1()) * vx + (j - gradient.getY1()) * vy;
+                    ratio = Math.max(0.0, Math.min(1.0, projection / length));
+                }
+                final int index = j * stride + i;
+                buffer[index] = blend(interpolate(gradient.getColor1(), gradient.getColor2(), ratio), buffer[index]);
             }
         }
     }
@@ -175,30 +513,33 @@ final class GraphicHeadless implements Graphic
     @Override
     public void drawLine(int x1, int y1, int x2, int y2)
     {
-        final double dx = x1 - (double) x2;
-        final double dy = y1 - (double) y2;
-        final double norm = Math.sqrt(dx * dx + dy * dy);
-        final double sx;
-        final double sy;
-        if (Double.compare(norm, 0.0) == 0)
-        {
-            sx = 0;
-            sy = 0;
-        }
-        else
-        {
-            sx = dx / norm;
-            sy = dy / norm;
-        }
-
-        double x = x1;
-        double y = y1;
+        final int rgba = color.getRgba();
+        final int dx = Math.abs(x2 - x1);
+        final int dy = -Math.abs(y2 - y1);
+        final int sx = x1 < x2 ? 1 : -1;
+        final int sy = y1 < y2 ? 1 : -1;
+        int error = dx + dy;
+        int x = x1;
+        int y = y1;
 
-        for (int count = 0; count < norm; count++)
+        while (true)
         {
-            g.setRgb((int) Math.floor(x), (int) Math.floor(y), color.getRgba());
-            x += sx;
-            y += sy;
+            plot(x, y, rgba);
+            if (x == x2 && y == y2)
+            {
+                break;
+            }
+            final int error2 = 2 * error;
+            if (error2 >= dy)
+            {
+                error += dy;
+                x += sx;
+            }
+            if (error2 <= dx)
+            {
+                error += dx;
+                y += sy;
+            }
         }
     }
 
@@ -214,13 +555,57 @@ final class GraphicHeadless implements Graphic
     @Override
     public void drawOval(int x, int y, int width, int height, boolean fill)
     {
-        // Nothing to do
+        if (width <= 0 || height <= 0)
+        {
+            return;
+        }
+        final int rgba = color.getRgba();
+        final double rx = width / 2.0;
+        final double ry = height / 2.0;
+        final double cx = x + rx;
+        final double cy = y + ry;
+        for (int j = y; j < y + height; j++)
+        {
+            final double dy = (j + 0.5 - cy) / ry;
+            final double half = rx * Math.sqrt(Math.max(0.0, 1.0 - dy * dy));
+            final int start = (int) Math.ceil(cx - half - 0.5);
+            final int end = (int) Math.floor(cx + half - 0.5);
+            if (fill)
+            {
+                fill(start, j, end - start + 1, 1, rgba);
+            }
+            else
+            {
+                plot(start, j, rgba);
+                if (end != start)
+                {
+                    plot(end, j, rgba);
+                }
+            }
+        }
+        if (!fill)
+        {
+            for (int i = x; i < x + width; i++)
+            {
+                final double dx = (i + 0.5 - cx) / rx;
+                final double half = ry * Math.sqrt(Math.max(0.0, 1.0 - dx * dx));
+                final int start = (int) Math.ceil(cy - half - 0.5);
+                final int end = (int) Math.floor(cy + half - 0.5);
+                plot(i, start, rgba);
+                if (end != start)
+                {
+                    plot(i, end, rgba);
+                }
+            }
+        }
     }
 
     @Override
     public void drawOval(Viewer viewer, Origin origin, double x, double y, int width, int height, boolean fill)
     {
-        // Nothing to do
+        final int px = (int) origin.getX(viewer.getViewpointX(x), width);
+        final int py = (int) origin.getY(viewer.getViewpointY(y), height);
+        drawOval(px, py, width, height, fill);
     }
 
     @Override
@@ -26,7 +26,7 @@ import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.Transparency;
 
 /**
- * Image buffer implementation.
+ * Image buffer implementation, storing pixels as ARGB values in an <code>int</code> array, row after row.
  */
 final class ImageBufferHeadless implements ImageBuffer
 {
@@ -70,14 +70,31 @@ final class ImageBufferHeadless implements ImageBuffer
      * @throws LionEngineException If invalid argument.
      */
     ImageBufferHeadless(int width, int height, int[] pixels)
+    {
+        this(width, height, pixels, Transparency.BITMASK);
+    }
+
+    /**
+     * Internal constructor.
+     * 
+     * @param width The image width (must be strictly positive).
+     * @param height The image height (must be strictly positive).
+     * @param pixels The pixels raw data, copied (must not be <code>null</code>).
+     * @param transparency The transparency used (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    ImageBufferHeadless(int width, int height, int[] pixels, Transparency transparency)
     {
         super();
 
+        Check.notNull(pixels);
+        Check.notNull(transparency);
+
         this.width = width;
         this.height = height;
         buffer = new int[pixels.length];
         System.arraycopy(pixels, 0, buffer, 0, pixels.length);
-        transparency = Transparency.BITMASK;
+        this.transparency = transparency;
     }
 
     /**
@@ -99,6 +116,16 @@ final class ImageBufferHeadless implements ImageBuffer
         transparency = image.getTransparency();
     }
 
+    /**
+     * Get the pixels buffer, shared with image. Pixel at <code>(x, y)</code> is at index <code>y * width + x</code>.
+     * 
+     * @return The pixels buffer.
+     */
+    int[] getBuffer()
+    {
+        return buffer;
+    }
+
     /*
      * ImageBuffer
      */
@@ -131,17 +158,9 @@ final class ImageBufferHeadless implements ImageBuffer
     public void setRgb(int startX, int startY, int w, int h, int[] rgbArray, int offset, int scansize)
     {
         int yoff = offset;
-        int off;
-        int color;
-
         for (int y = startY; y < startY + h; y++, yoff += scansize)
         {
-            off = yoff;
-            for (int x = startX; x < startX + w; x++)
-            {
-                color = rgbArray[off++];
-                buffer[y * width + x] = color;
-            }
+            System.arraycopy(rgbArray, yoff, buffer, y * width + startX, w);
         }
     }
 
@@ -0,0 +1,822 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.headless.graphic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.UtilConversion;
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.geom.Rectangle;
+import com.b3dgs.lionengine.graphic.Transparency;
+
+/**
+ * Misc tools for headless images, working on their pixels: PNG decoding and encoding, rotation and split.
+ * <p>
+ * PNG decoding supports all color types and bit depths, palette and transparency chunks, and interlacing. Images are
+ * encoded as non interlaced 8 bits RGBA.
+ * </p>
+ */
+final class ToolsHeadless
+{
+    /** Invalid image message. */
+    static final String ERROR_IMAGE = "Invalid image !";
+    /** PNG signature. */
+    private static final byte[] SIGNATURE =
+    {
+        (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'
+    };
+    /** Header chunk. */
+    private static final int CHUNK_IHDR = 0x49_48_44_52;
+    /** Palette chunk. */
+    private static final int CHUNK_PLTE = 0x50_4C_54_45;
+    /** Transparency chunk. */
+    private static final int CHUNK_TRNS = 0x74_52_4E_53;
+    /** Data chunk. */
+    private static final int CHUNK_IDAT = 0x49_44_41_54;
+    /** End chunk. */
+    private static final int CHUNK_IEND = 0x49_45_4E_44;
+    /** Gray color type. */
+    private static final int TYPE_GRAY = 0;
+    /** RGB color type. */
+    private static final int TYPE_RGB = 2;
+    /** Palette color type. */
+    private static final int TYPE_PALETTE = 3;
+    /** Gray with alpha color type. */
+    private static final int TYPE_GRAY_ALPHA = 4;
+    /** RGB with alpha color type. */
+    private static final int TYPE_RGBA = 6;
+    /** Interlace passes horizontal start. */
+    private static final int[] PASS_X =
+    {
+        0, 4, 0, 2, 0, 1, 0
+    };
+    /** Interlace passes vertical start. */
+    private static final int[] PASS_Y =
+    {
+        0, 0, 4, 0, 2, 0, 1
+    };
+    /** Interlace passes horizontal step. */
+    private static final int[] STEP_X =
+    {
+        8, 8, 4, 4, 2, 2, 1
+    };
+    /** Interlace passes vertical step. */
+    private static final int[] STEP_Y =
+    {
+        8, 8, 8, 4, 4, 2, 2
+    };
+    /** Channel mask. */
+    private static final int MASK = 0xFF;
+    /** Sampling tolerance, avoiding rounding errors on pixel borders. */
+    private static final double EPSILON = 1E-9;
+    /** Header chunk length. */
+    private static final int HEADER_LENGTH = 13;
+    /** Paeth filter. */
+    private static final int FILTER_PAETH = 4;
+
+    /**
+     * Decode a PNG image.
+     * 
+     * @param input The image input stream.
+     * @return The decoded image. Transparency is deduced from alpha values.
+     * @throws IOException If error on reading image.
+     */
+    static ImageBufferHeadless getImage(InputStream input) throws IOException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final byte[] read = new byte[Constant.THOUSAND * 8];
+        int count;
+        while ((count = input.read(read)) > 0)
+        {
+            bytes.write(read, 0, count);
+        }
+        return new Decoder(bytes.toByteArray()).decode();
+    }
+
+    /**
+     * Encode image as PNG.
+     * 
+     * @param image The image to save.
+     * @param output The output stream.
+     * @throws IOException If error when saving image.
+     */
+    static void saveImage(ImageBufferHeadless image, OutputStream output) throws IOException
+    {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int[] pixels = image.getBuffer();
+        final boolean opaque = Transparency.OPAQUE == image.getTransparency();
+
+        final ByteArrayOutputStream header = new ByteArrayOutputStream();
+        header.write(UtilConversion.intToByteArray(width));
+        header.write(UtilConversion.intToByteArray(height));
+        header.write(new byte[]
+        {
+            8, TYPE_RGBA, 0, 0, 0
+        });
+
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        final Deflater deflater = new Deflater();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(data, deflater))
+        {
+            final byte[] row = new byte[1 + width * 4];
+            for (int y = 0; y < height; y++)
+            {
+                for (int x = 0; x < width; x++)
+                {
+                    final int pixel = pixels[y * width + x];
+                    final int index = 1 + x * 4;
+                    row[index] = (byte) (pixel >> Constant.BYTE_3);
+                    row[index + 1] = (byte) (pixel >> Constant.BYTE_2);
+                    row[index + 2] = (byte) pixel;
+                    row[index + 3] = (byte) (opaque ? MASK : pixel >>> Constant.BYTE_4);
+                }
+                deflate.write(row);
+            }
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        output.write(SIGNATURE);
+        writeChunk(output, CHUNK_IHDR, header.toByteArray());
+        writeChunk(output, CHUNK_IDAT, data.toByteArray());
+        writeChunk(output, CHUNK_IEND, new byte[0]);
+    }
+
+    /**
+     * Rotate an image with an angle in degree, around its center, in the bounds of the rotated image.
+     * 
+     * @param image The input image.
+     * @param angle The angle in degree to apply.
+     * @return The rotated image.
+     */
+    static ImageBufferHeadless rotate(ImageBufferHeadless image, int angle)
+    {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final Rectangle rectangle = new Rectangle(0, 0, width, height);
+        rectangle.rotate(angle);
+
+        final int rotatedWidth = rectangle.getWidth();
+        final int rotatedHeight = rectangle.getHeight();
+        final ImageBufferHeadless rotated = new ImageBufferHeadless(rotatedWidth,
+                                                                    rotatedHeight,
+                                                                    image.getTransparency());
+
+        final double ox = rotatedWidth - (double) width;
+        final double oy = rotatedHeight - (double) height;
+        final double cos = UtilMath.cos(angle);
+        final double sin = UtilMath.sin(angle);
+        final int tx = (int) ((ox - (sin * ox + cos * oy)) / 2.0);
+        final int ty = (int) ((oy - (-sin * oy + cos * ox)) / 2.0);
+        final double cx = rotatedWidth / 2.0;
+        final double cy = rotatedHeight / 2.0;
+        final double radians = Math.toRadians(angle);
+        final double rcos = Math.cos(radians);
+        final double rsin = Math.sin(radians);
+        final int[] src = image.getBuffer();
+        final int[] dst = rotated.getBuffer();
+
+        for (int y = 0; y < rotatedHeight; y++)
+        {
+            for (int x = 0; x < rotatedWidth; x++)
+            {
+                final double px = x + 0.5 - cx;
+                final double py = y + 0.5 - cy;
+                final int sx = (int) Math.floor(px * rcos + py * rsin + cx - tx + EPSILON);
+                final int sy = (int) Math.floor(-px * rsin + py * rcos + cy - ty + EPSILON);
+                if (sx >= 0 && sy >= 0 && sx < width && sy < height)
+                {
+                    dst[y * rotatedWidth + x] = src[sy * width + sx];
+                }
+            }
+        }
+        return rotated;
+    }
+
+    /**
+     * Split an image into an array of sub image, row after row.
+     * 
+     * @param image The image to split.
+     * @param h The number of horizontal divisions (strictly positive).
+     * @param v The number of vertical divisions (strictly positive).
+     * @return The split images array.
+     */
+    static ImageBufferHeadless[] splitImage(ImageBufferHeadless image, int h, int v)
+    {
+        final int width = image.getWidth() / h;
+        final int height = image.getHeight() / v;
+        final int stride = image.getWidth();
+        final int[] src = image.getBuffer();
+        final ImageBufferHeadless[] images = new ImageBufferHeadless[h * v];
+        int frame = 0;
+
+        for (int y = 0; y < v; y++)
+        {
+            for (int x = 0; x < h; x++)
+            {
+                final ImageBufferHeadless split = new ImageBufferHeadless(width, height, image.getTransparency());
+                final int[] dst = split.getBuffer();
+                for (int j = 0; j < height; j++)
+                {
+                    System.arraycopy(src, (y * height + j) * stride + x * width, dst, j * width, width);
+                }
+                images[frame] = split;
+                frame++;
+            }
+        }
+        return images;
+    }
+
+    /**
+     * Write a PNG chunk.
+     * 
+     * @param output The output stream.
+     * @param type The chunk type.
+     * @param data The chunk data.
+     * @throws IOException If error when writing.
+     */
+    private static void writeChunk(OutputStream output, int type, byte[] data) throws IOException
+    {
+        final byte[] name = UtilConversion.intToByteArray(type);
+        final CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(data);
+
+        output.write(UtilConversion.intToByteArray(data.length));
+        output.write(name);
+        output.write(data);
+        output.write(UtilConversion.intToByteArray((int) crc.getValue()));
+    }
+
+    /**
+     * Private constructor.
+     */
+    private ToolsHeadless()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+
+    /**
+     * PNG decoder.
+     */
+    private static final class Decoder
+    {
+        /** Encoded data. */
+        private final byte[] data;
+        /** Image width. */
+        private int width;
+        /** Image height. */
+        private int height;
+        /** Bits per channel. */
+        private int depth;
+        /** Color type. */
+        private int type;
+        /** Interlaced flag. */
+        private boolean interlaced;
+        /** Palette colors (<code>null</code> if none). */
+        private int[] palette;
+        /** Transparent gray or RGB raw value (<code>-1</code> if none). */
+        private long key = -1L;
+        /** Decoded pixels. */
+        private int[] pixels;
+        /** Transparent pixel found. */
+        private boolean transparent;
+        /** Translucent pixel found. */
+        private boolean translucent;
+
+        /**
+         * Create decoder.
+         * 
+         * @param data The encoded data.
+         */
+        private Decoder(byte[] data)
+        {
+            super();
+
+            this.data = data;
+        }
+
+        /**
+         * Decode image.
+         * 
+         * @return The decoded image.
+         * @throws IOException If invalid image.
+         */
+        private ImageBufferHeadless decode() throws IOException
+        {
+            for (int i = 0; i < SIGNATURE.length; i++)
+            {
+                if (data.length <= i || data[i] != SIGNATURE[i])
+                {
+                    throw new IOException(ERROR_IMAGE);
+                }
+            }
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            int offset = SIGNATURE.length;
+            boolean end = false;
+            while (!end && offset + 8 <= data.length)
+            {
+                final int length = readInt(offset);
+                final int chunk = readInt(offset + 4);
+                final int start = offset + 8;
+                if (length < 0 || start + length > data.length)
+                {
+                    throw new IOException(ERROR_IMAGE);
+                }
+                if (CHUNK_IHDR == chunk)
+                {
+                    readHeader(start, length);
+                }
+                else if (CHUNK_PLTE == chunk)
+                {
+                    readPalette(start, length);
+                }
+                else if (CHUNK_TRNS == chunk)
+                {
+                    readTransparency(start, length);
+                }
+                else if (CHUNK_IDAT == chunk)
+                {
+                    compressed.write(data, start, length);
+                }
+                end = CHUNK_IEND == chunk;
+                offset = start + length + 4;
+            }
+            if (width <= 0 || height <= 0 || type == TYPE_PALETTE && palette == null)
+            {
+                throw new IOException(ERROR_IMAGE);
+            }
+
+            final byte[] raw = inflate(compressed.toByteArray());
+            pixels = new int[width * height];
+            if (interlaced)
+            {
+                int index = 0;
+                for (int pass = 0; pass < PASS_X.length; pass++)
+                {
+                    index = decodePass(raw, index, PASS_X[pass], PASS_Y[pass], STEP_X[pass], STEP_Y[pass]);
+                }
+            }
+            else
+            {
+                decodePass(raw, 0, 0, 0, 1, 1);
+            }
+
+            final Transparency transparency;
+            if (translucent)
+            {
+                transparency = Transparency.TRANSLUCENT;
+            }
+            else if (transparent)
+            {
+                transparency = Transparency.BITMASK;
+            }
+            else
+            {
+                transparency = Transparency.OPAQUE;
+            }
+            return new ImageBufferHeadless(width, height, pixels, transparency);
+        }
+
+        /**
+         * Read header chunk.
+         * 
+         * @param offset The chunk data offset.
+         * @param length The chunk data length.
+         * @throws IOException If unsupported header.
+         */
+        private void readHeader(int offset, int length) throws IOException
+        {
+            if (length < HEADER_LENGTH)
+            {
+                throw new IOException(ERROR_IMAGE);
+            }
+            width = readInt(offset);
+            height = readInt(offset + 4);
+            depth = data[offset + 8] & MASK;
+            type = data[offset + 9] & MASK;
+            interlaced = data[offset + 12] != 0;
+            if (getChannels() == 0 || depth != 1 && depth != 2 && depth != 4 && depth != 8 && depth != 16)
+            {
+                throw new IOException(ERROR_IMAGE);
+            }
+        }
+
+        /**
+         * Read palette chunk.
+         * 
+         * @param offset The chunk data offset.
+         * @param length The chunk data length.
+         */
+        private void readPalette(int offset, int length)
+        {
+            palette = new int[length / 3];
+            for (int i = 0; i < palette.length; i++)
+            {
+                final int index = offset + i * 3;
+                palette[i] = MASK << Constant.BYTE_4
+                             | (data[index] & MASK) << Constant.BYTE_3
+                             | (data[index + 1] & MASK) << Constant.BYTE_2
+                             | data[index + 2] & MASK;
+            }
+        }
+
+        /**
+         * Read transparency chunk.
+         * 
+         * @param offset The chunk data offset.
+         * @param length The chunk data length.
+         */
+        private void readTransparency(int offset, int length)
+        {
+            if (type == TYPE_PALETTE && palette != null)
+            {
+                for (int i = 0; i < Math.min(length, palette.length); i++)
+                {
+                    palette[i] = palette[i] & 0x00_FF_FF_FF | (data[offset + i] & MASK) << Constant.BYTE_4;
+                }
+            }
+            else if (type == TYPE_GRAY && length >= 2)
+            {
+                key = readShort(offset);
+            }
+            else if (type == TYPE_RGB && length >= 6)
+            {
+                key = (long) readShort(offset) << 32 | (long) readShort(offset + 2) << 16 | readShort(offset + 4);
+            }
+        }
+
+        /**
+         * Inflate image data.
+         * 
+         * @param compressed The compressed data.
+         * @return The filtered scanlines.
+         * @throws IOException If invalid data.
+         */
+        private byte[] inflate(byte[] compressed) throws IOException
+        {
+            int size = 0;
+            if (interlaced)
+            {
+                for (int pass = 0; pass < PASS_X.length; pass++)
+                {
+                    final int passWidth = getPassSize(width, PASS_X[pass], STEP_X[pass]);
+                    if (passWidth > 0)
+                    {
+                        size += getPassSize(height, PASS_Y[pass], STEP_Y[pass]) * (1 + getRowBytes(passWidth));
+                    }
+                }
+            }
+            else
+            {
+                size = height * (1 + getRowBytes(width));
+            }
+            final byte[] raw = new byte[size];
+            final Inflater inflater = new Inflater();
+            try
+            {
+                inflater.setInput(compressed);
+                int read = 0;
+                while (read < size && !inflater.finished() && !inflater.needsInput())
+                {
+                    read += inflater.inflate(raw, read, size - read);
+                }
+                if (read < size)
+                {
+                    throw new IOException(ERROR_IMAGE);
+                }
+            }
+            catch (final DataFormatException exception)
+            {
+                throw new IOException(ERROR_IMAGE, exception);
+            }
+            finally
+            {
+                inflater.end();
+            }
+            return raw;
+        }
+
+        /**
+         * Decode an interlace pass, or the whole image if not interlaced.
+         * 
+         * @param raw The filtered scanlines.
+         * @param offset The pass offset in scanlines.
+         * @param startX The first horizontal pixel.
+         * @param startY The first vertical pixel.
+         * @param stepX The horizontal step.
+         * @param stepY The vertical step.
+         * @return The next pass offset.
+         * @throws IOException If invalid filter.
+         */
+        private int decodePass(byte[] raw, int offset, int startX, int startY, int stepX, int stepY)
+                throws IOException
+        {
+            final int passWidth = getPassSize(width, startX, stepX);
+            final int passHeight = getPassSize(height, startY, stepY);
+            if (passWidth == 0 || passHeight == 0)
+            {
+                return offset;
+            }
+            final int rowBytes = getRowBytes(passWidth);
+            final int bpp = Math.max(1, getChannels() * depth / 8);
+            byte[] previous = new byte[rowBytes];
+            byte[] current = new byte[rowBytes];
+            int index = offset;
+
+            for (int j = 0; j < passHeight; j++)
+            {
+                final int filter = raw[index] & MASK;
+                System.arraycopy(raw, index + 1, current, 0, rowBytes);
+                unfilter(filter, current, previous, bpp);
+                final int y = startY + j * stepY;
+                for (int i = 0; i < passWidth; i++)
+                {
+                    pixels[y * width + startX + i * stepX] = getPixel(current, i);
+                }
+                final byte[] swap = previous;
+                previous = current;
+                current = swap;
+                index += 1 + rowBytes;
+            }
+            return index;
+        }
+
+        /**
+         * Remove scanline filter.
+         * 
+         * @param filter The filter type.
+         * @param current The current scanline.
+         * @param previous The previous scanline.
+         * @param bpp The bytes per complete pixel.
+         * @throws IOException If invalid filter.
+         */
+        private static void unfilter(int filter, byte[] current, byte[] previous, int bpp) throws IOException
+        {
+            if (filter > FILTER_PAETH)
+            {
+                throw new IOException(ERROR_IMAGE);
+            }
+            for (int i = 0; i < current.length; i++)
+            {
+                final int a = i >= bpp ? current[i - bpp] & MASK : 0;
+                final int b = previous[i] & MASK;
+                final int c = i >= bpp ? previous[i - bpp] & MASK : 0;
+                final int predictor;
+                if (filter == 1)
+                {
+                    predictor = a;
+                }
+                else if (filter == 2)
+                {
+                    predictor = b;
+                }
+                else if (filter == 3)
+                {
+                    predictor = a + b >> 1;
+                }
+                else if (filter == FILTER_PAETH)
+                {
+                    predictor = paeth(a, b, c);
+                }
+                else
+                {
+                    predictor = 0;
+                }
+                current[i] = (byte) (current[i] + predictor);
+            }
+        }
+
+        /**
+         * Paeth predictor.
+         * 
+         * @param a The left byte.
+         * @param b The above byte.
+         * @param c The upper left byte.
+         * @return The predicted byte.
+         */
+        private static int paeth(int a, int b, int c)
+        {
+            final int p = a + b - c;
+            final int pa = Math.abs(p - a);
+            final int pb = Math.abs(p - b);
+            final int pc = Math.abs(p - c);
+            if (pa <= pb && pa <= pc)
+            {
+                return a;
+            }
+            if (pb <= pc)
+            {
+                return b;
+            }
+            return c;
+        }
+
+        /**
+         * Get ARGB pixel from unfiltered scanline.
+         * 
+         * @param row The scanline.
+         * @param i The pixel index in scanline.
+         * @return The ARGB pixel.
+         * @throws IOException If invalid palette index.
+         */
+        private int getPixel(byte[] row, int i) throws IOException
+        {
+            final int pixel;
+            if (type == TYPE_PALETTE)
+            {
+                final int index = getSample(row, i, 0);
+                if (index >= palette.length)
+                {
+                    throw new IOException(ERROR_IMAGE);
+                }
+                pixel = palette[index];
+            }
+            else if (type == TYPE_GRAY || type == TYPE_GRAY_ALPHA)
+            {
+                final int gray = getSample(row, i, 0);
+                final int value = to8(gray);
+                final int alpha;
+                if (type == TYPE_GRAY_ALPHA)
+                {
+                    alpha = to8(getSample(row, i, 1));
+                }
+                else
+                {
+                    alpha = gray == key ? 0 : MASK;
+                }
+                pixel = alpha << Constant.BYTE_4 | value << Constant.BYTE_3 | value << Constant.BYTE_2 | value;
+            }
+            else
+            {
+                final int r = getSample(row, i, 0);
+                final int g = getSample(row, i, 1);
+                final int b = getSample(row, i, 2);
+                final int alpha;
+                if (type == TYPE_RGBA)
+                {
+                    alpha = to8(getSample(row, i, 3));
+                }
+                else
+                {
+                    alpha = ((long) r << 32 | (long) g << 16 | b) == key ? 0 : MASK;
+                }
+                pixel = alpha << Constant.BYTE_4 | to8(r) << Constant.BYTE_3 | to8(g) << Constant.BYTE_2 | to8(b);
+            }
+
+            final int alpha = pixel >>> Constant.BYTE_4;
+            if (alpha == 0)
+            {
+                transparent = true;
+            }
+            else if (alpha != MASK)
+            {
+                translucent = true;
+            }
+            return pixel;
+        }
+
+        /**
+         * Get raw sample value.
+         * 
+         * @param row The scanline.
+         * @param i The pixel index in scanline.
+         * @param channel The channel index.
+         * @return The raw sample value.
+         */
+        private int getSample(byte[] row, int i, int channel)
+        {
+            final int channels = getChannels();
+            if (depth == 16)
+            {
+                final int index = (i * channels + channel) * 2;
+                return (row[index] & MASK) << 8 | row[index + 1] & MASK;
+            }
+            if (depth == 8)
+            {
+                return row[i * channels + channel] & MASK;
+            }
+            final int bit = i * depth;
+            final int shift = 8 - depth - (bit & 7);
+            return row[bit >> 3] >> shift & (1 << depth) - 1;
+        }
+
+        /**
+         * Convert raw sample to 8 bits value.
+         * 
+         * @param sample The raw sample.
+         * @return The 8 bits value.
+         */
+        private int to8(int sample)
+        {
+            if (depth == 16)
+            {
+                return sample >> 8;
+            }
+            if (depth == 8 || type == TYPE_PALETTE)
+            {
+                return sample;
+            }
+            return sample * MASK / ((1 << depth) - 1);
+        }
+
+        /**
+         * Get channels number.
+         * 
+         * @return The channels number, <code>0</code> if unsupported color type.
+         */
+        private int getChannels()
+        {
+            switch (type)
+            {
+                case TYPE_GRAY:
+                case TYPE_PALETTE:
+                    return 1;
+                case TYPE_GRAY_ALPHA:
+                    return 2;
+                case TYPE_RGB:
+                    return 3;
+                case TYPE_RGBA:
+                    return 4;
+                default:
+                    return 0;
+            }
+        }
+
+        /**
+         * Get scanline bytes.
+         * 
+         * @param pixels The pixels per scanline.
+         * @return The scanline bytes, without filter type.
+         */
+        private int getRowBytes(int pixels)
+        {
+            return (pixels * getChannels() * depth + 7) / 8;
+        }
+
+        /**
+         * Get pass size.
+         * 
+         * @param size The image size.
+         * @param start The pass start.
+         * @param step The pass step.
+         * @return The pass size.
+         */
+        private static int getPassSize(int size, int start, int step)
+        {
+            return Math.max(0, (size - start + step - 1) / step);
+        }
+
+        /**
+         * Read big endian integer.
+         * 
+         * @param offset The data offset.
+         * @return The integer value.
+         */
+        private int readInt(int offset)
+        {
+            return (data[offset] & MASK) << Constant.BYTE_4
+                   | (data[offset + 1] & MASK) << Constant.BYTE_3
+                   | (data[offset + 2] & MASK) << Constant.BYTE_2
+                   | data[offset + 3] & MASK;
+        }
+
+        /**
+         * Read big endian unsigned short.
+         * 
+         * @param offset The data offset.
+         * @return The short value.
+         */
+        private int readShort(int offset)
+        {
+            return (data[offset] & MASK) << Constant.BYTE_2 | data[offset + 1] & MASK;
+        }
+    }
+}
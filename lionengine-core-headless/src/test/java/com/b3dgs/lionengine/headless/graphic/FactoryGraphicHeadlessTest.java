@@ -16,6 +16,7 @@
  */
 package com.b3dgs.lionengine.headless.graphic;
 
+import static com.b3dgs.lionengine.UtilAssert.assertArrayEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
 
@@ -24,10 +25,14 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import com.b3dgs.lionengine.FactoryMediaDefault;
+import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.UtilFile;
+import com.b3dgs.lionengine.graphic.ColorRgba;
 import com.b3dgs.lionengine.graphic.FactoryGraphicTest;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transparency;
 
 /**
  * Test {@link FactoryGraphicHeadless}.
@@ -76,4 +81,72 @@ public final class FactoryGraphicHeadlessTest extends FactoryGraphicTest
         rotate.dispose();
         image.dispose();
     }
+
+    /**
+     * Test image pixels are decoded.
+     */
+    @Test
+    public void testGetImageBufferPixels()
+    {
+        final ImageBuffer image = Graphics.getImageBuffer(Medias.create("image_palette.png"));
+
+        assertEquals(Transparency.TRANSLUCENT, image.getTransparency());
+        assertEquals(ColorRgba.RED.getRgba(), image.getRgb(0, 0));
+        assertEquals(ColorRgba.TRANSPARENT.getRgba(), image.getRgb(0, 1));
+
+        image.dispose();
+    }
+
+    /**
+     * Test operations on pixels.
+     */
+    @Test
+    public void testOperationsPixels()
+    {
+        final ImageBuffer image = new ImageBufferHeadless(2, 2, new int[]
+        {
+            0xFF_00_00_01, 0xFF_00_00_02, 0xFF_00_00_03, 0xFF_00_00_04
+        }, Transparency.OPAQUE);
+
+        assertArrayEquals(new int[]
+        {
+            0xFF_00_00_01, 0xFF_00_00_02, 0xFF_00_00_03, 0xFF_00_00_04
+        }, image.getRgb(0, 0, 2, 2, null, 0, 2));
+        assertArrayEquals(new int[]
+        {
+            0xFF_00_00_02, 0xFF_00_00_01, 0xFF_00_00_04, 0xFF_00_00_03
+        }, Graphics.flipHorizontal(image).getRgb(0, 0, 2, 2, null, 0, 2));
+        assertArrayEquals(new int[]
+        {
+            0xFF_00_00_03, 0xFF_00_00_04, 0xFF_00_00_01, 0xFF_00_00_02
+        }, Graphics.flipVertical(image).getRgb(0, 0, 2, 2, null, 0, 2));
+        assertArrayEquals(new int[]
+        {
+            0xFF_00_00_03, 0xFF_00_00_03, 0xFF_00_00_04, 0xFF_00_00_04
+        }, Graphics.resize(image, 4, 1).getRgb(0, 0, 4, 1, null, 0, 4));
+        assertArrayEquals(new int[]
+        {
+            0xFF_00_00_00, 0xFF_00_00_01, 0xFF_00_00_01, 0xFF_00_00_02
+        }, Graphics.getRasterBuffer(image, 0.0, 0.0, 0.5).getRgb(0, 0, 2, 2, null, 0, 2));
+    }
+
+    /**
+     * Test save and load pixels.
+     */
+    @Test
+    public void testSaveLoadPixels()
+    {
+        final ImageBuffer image = Graphics.getImageBuffer(Medias.create("image_rgba_interlaced.png"));
+        final Media media = Medias.create("image_save_pixels.png");
+        Graphics.saveImage(image, media);
+
+        final ImageBuffer loaded = Graphics.getImageBuffer(media);
+
+        assertArrayEquals(image.getRgb(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth()),
+                          loaded.getRgb(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth()));
+
+        UtilFile.deleteFile(media.getFile());
+        image.dispose();
+        loaded.dispose();
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.headless.graphic;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.Transform;
+import com.b3dgs.lionengine.graphic.Transparency;
+
+/**
+ * Benchmark {@link GraphicHeadless} blits per second on a 320x240 buffer:
+ * <ul>
+ * <li><code>blit</code>: draw a square image, moving across buffer, partially clipped on borders.</li>
+ * <li><code>area</code>: draw a tile from a sheet, as done by sprites and map rendering.</li>
+ * <li><code>scale</code>: draw a full buffer scaled by 2 on a 640x480 buffer, as done by screen rendering.</li>
+ * </ul>
+ * <p>
+ * Run with {@link #main(String[])} from test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphicHeadlessBenchmark
+{
+    /** Buffer width. */
+    private static final int WIDTH = 320;
+    /** Buffer height. */
+    private static final int HEIGHT = 240;
+    /** Tiles per sheet row. */
+    private static final int SHEET = 8;
+
+    /**
+     * Run benchmark.
+     * 
+     * @param args Not used.
+     * @throws RunnerException If error.
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(GraphicHeadlessBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Create an image with pixels depending of transparency.
+     * 
+     * @param width The image width.
+     * @param height The image height.
+     * @param transparency The image transparency.
+     * @return The created image.
+     */
+    private static ImageBufferHeadless create(int width, int height, Transparency transparency)
+    {
+        final int[] pixels = new int[width * height];
+        for (int i = 0; i < pixels.length; i++)
+        {
+            final int alpha;
+            if (Transparency.OPAQUE == transparency)
+            {
+                alpha = 0xFF;
+            }
+            else if (Transparency.BITMASK == transparency)
+            {
+                alpha = i % 3 == 0 ? 0 : 0xFF;
+            }
+            else
+            {
+                alpha = i * 7 % 256;
+            }
+            pixels[i] = alpha << 24 | i * 31 & 0xFF_FF_FF;
+        }
+        return new ImageBufferHeadless(width, height, pixels, transparency);
+    }
+
+    /** Image transparency. */
+    @Param(
+    {
+        "OPAQUE", "BITMASK", "TRANSLUCENT"
+    })
+    private Transparency transparency;
+    /** Image size in pixel. */
+    @Param(
+    {
+        "16", "64"
+    })
+    private int size;
+
+    /** Buffer graphic. */
+    private Graphic graphic;
+    /** Scaled buffer graphic. */
+    private Graphic scaled;
+    /** Image to draw. */
+    private ImageBufferHeadless image;
+    /** Tiles sheet. */
+    private ImageBufferHeadless sheet;
+    /** Full buffer image. */
+    private ImageBufferHeadless frame;
+    /** Scale transform. */
+    private Transform transform;
+    /** Current step. */
+    private int step;
+
+    /**
+     * Setup benchmark.
+     */
+    @Setup
+    public void setup()
+    {
+        graphic = new ImageBufferHeadless(WIDTH, HEIGHT, Transparency.OPAQUE).createGraphic();
+        scaled = new ImageBufferHeadless(WIDTH * 2, HEIGHT * 2, Transparency.OPAQUE).createGraphic();
+        image = create(size, size, transparency);
+        sheet = create(size * SHEET, size * SHEET, transparency);
+        frame = create(WIDTH, HEIGHT, transparency);
+        transform = new TransformHeadless();
+        transform.scale(2.0, 2.0);
+    }
+
+    /**
+     * Draw a moving image.
+     */
+    @Benchmark
+    public void blit()
+    {
+        step++;
+        graphic.drawImage(image, step % (WIDTH + size) - size, step * 7 % (HEIGHT + size) - size);
+    }
+
+    /**
+     * Draw a tile from sheet.
+     */
+    @Benchmark
+    public void area()
+    {
+        step++;
+        final int sx = step % SHEET * size;
+        final int sy = step / SHEET % SHEET * size;
+        final int dx = step * 13 % (WIDTH - size);
+        final int dy = step * 7 % (HEIGHT - size);
+        graphic.drawImage(sheet, dx, dy, dx + size, dy + size, sx, sy, sx + size, sy + size);
+    }
+
+    /**
+     * Draw the full buffer scaled.
+     */
+    @Benchmark
+    public void scale()
+    {
+        scaled.drawImage(frame, transform, 0, 0);
+    }
+}
@@ -16,15 +16,20 @@
  */
 package com.b3dgs.lionengine.headless.graphic;
 
+import static com.b3dgs.lionengine.UtilAssert.assertArrayEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import com.b3dgs.lionengine.graphic.ColorGradient;
 import com.b3dgs.lionengine.graphic.ColorRgba;
+import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.GraphicTest;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.Transform;
+import com.b3dgs.lionengine.graphic.Transparency;
 
 /**
  * Test {@link GraphicHeadless}.
@@ -50,4 +55,212 @@ public final class GraphicHeadlessTest extends GraphicTest
 
         assertEquals(ColorRgba.BLACK.getRgba(), Graphics.applyMask(image, ColorRgba.TRANSPARENT).getRgb(0, 0));
     }
+
+    /**
+     * Create an image from pixels.
+     * 
+     * @param width The image width.
+     * @param transparency The image transparency.
+     * @param pixels The image pixels.
+     * @return The created image.
+     */
+    private static ImageBufferHeadless create(int width, Transparency transparency, int... pixels)
+    {
+        return new ImageBufferHeadless(width, pixels.length / width, pixels, transparency);
+    }
+
+    /**
+     * Test draw image, clipped to buffer.
+     */
+    @Test
+    public void testDrawImageClip()
+    {
+        final ImageBufferHeadless buffer = create(3, Transparency.OPAQUE, new int[9]);
+        final Graphic g = buffer.createGraphic();
+        g.drawImage(create(2, Transparency.OPAQUE, 1, 2, 3, 4), 2, -1);
+        g.drawImage(create(2, Transparency.OPAQUE, 5, 6, 7, 8), -1, 2);
+
+        assertArrayEquals(new int[]
+        {
+            0, 0, 3, 0, 0, 0, 6, 0, 0
+        }, buffer.getBuffer());
+
+        g.drawImage(create(2, Transparency.OPAQUE, 1, 2, 3, 4), 5, 5);
+        g.drawImage(create(2, Transparency.OPAQUE, 1, 2, 3, 4), -5, -5);
+
+        assertArrayEquals(new int[]
+        {
+            0, 0, 3, 0, 0, 0, 6, 0, 0
+        }, buffer.getBuffer());
+    }
+
+    /**
+     * Test draw image with transparency.
+     */
+    @Test
+    public void testDrawImageTransparency()
+    {
+        final int red = ColorRgba.RED.getRgba();
+        final int blue = ColorRgba.BLUE.getRgba();
+        final ImageBufferHeadless buffer = create(2, Transparency.OPAQUE, red, red);
+        final Graphic g = buffer.createGraphic();
+
+        g.drawImage(create(2, Transparency.BITMASK, 0x00_00_00_FF, blue), 0, 0);
+
+        assertArrayEquals(new int[]
+        {
+            red, blue
+        }, buffer.getBuffer());
+
+        g.drawImage(create(2, Transparency.TRANSLUCENT, 0x80_00_00_FF, 0x00_FF_FF_FF), 0, 0);
+
+        assertArrayEquals(new int[]
+        {
+            0xFF_7F_00_80, blue
+        }, buffer.getBuffer());
+    }
+
+    /**
+     * Test draw image with transform.
+     */
+    @Test
+    public void testDrawImageTransform()
+    {
+        final ImageBufferHeadless buffer = create(4, Transparency.OPAQUE, new int[8]);
+        final Graphic g = buffer.createGraphic();
+        final Transform transform = Graphics.createTransform();
+        transform.scale(2.0, 2.0);
+        g.drawImage(create(2, Transparency.OPAQUE, 1, 2), transform, 0, 0);
+
+        assertArrayEquals(new int[]
+        {
+            1, 1, 2, 2, 1, 1, 2, 2
+        }, buffer.getBuffer());
+
+        transform.scale(1.0, 1.0);
+        g.drawImage(create(2, Transparency.OPAQUE, 3, 4), transform, 1, 1);
+
+        assertArrayEquals(new int[]
+        {
+            1, 1, 2, 2, 1, 3, 4, 2
+        }, buffer.getBuffer());
+    }
+
+    /**
+     * Test draw image area, scaled and flipped.
+     */
+    @Test
+    public void testDrawImageArea()
+    {
+        final ImageBufferHeadless image = create(3, Transparency.OPAQUE, 1, 2, 3, 4, 5, 6);
+        final ImageBufferHeadless buffer = create(3, Transparency.OPAQUE, new int[6]);
+        final Graphic g = buffer.createGraphic();
+
+        g.drawImage(image, 0, 0, 2, 1, 1, 1, 3, 2);
+
+        assertArrayEquals(new int[]
+        {
+            5, 6, 0, 0, 0, 0
+        }, buffer.getBuffer());
+
+        g.drawImage(image, 0, 0, 3, 2, 3, 0, 0, 2);
+
+        assertArrayEquals(new int[]
+        {
+            3, 2, 1, 6, 5, 4
+        }, buffer.getBuffer());
+
+        g.drawImage(image, 0, 0, 3, 2, 0, 0, 1, 1);
+
+        assertArrayEquals(new int[]
+        {
+            1, 1, 1, 1, 1, 1
+        }, buffer.getBuffer());
+    }
+
+    /**
+     * Test copy area.
+     */
+    @Test
+    public void testCopyArea()
+    {
+        final ImageBufferHeadless buffer = create(3, Transparency.OPAQUE, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        final Graphic g = buffer.createGraphic();
+        g.copyArea(0, 0, 2, 2, 1, 1);
+
+        assertArrayEquals(new int[]
+        {
+            1, 2, 3, 4, 1, 2, 7, 4, 5
+        }, buffer.getBuffer());
+
+        g.copyArea(1, 1, 2, 2, -1, -1);
+
+        assertArrayEquals(new int[]
+        {
+            1, 2, 3, 4, 5, 2, 7, 4, 5
+        }, buffer.getBuffer());
+    }
+
+    /**
+     * Test shapes.
+     */
+    @Test
+    public void testShapes()
+    {
+        final int white = ColorRgba.WHITE.getRgba();
+        final int black = ColorRgba.BLACK.getRgba();
+        final ImageBufferHeadless buffer = create(4, Transparency.OPAQUE, new int[16]);
+        final Graphic g = buffer.createGraphic();
+        g.clear(0, 0, 4, 4);
+        g.drawRect(0, 0, 3, 3, false);
+
+        assertArrayEquals(new int[]
+        {
+            white, white, white, white,
+            white, black, black, white,
+            white, black, black, white,
+            white, white, white, white
+        }, buffer.getBuffer());
+
+        g.clear(0, 0, 4, 4);
+        g.drawLine(0, 0, 3, 3);
+        g.drawLine(3, 0, 3, 0);
+
+        assertArrayEquals(new int[]
+        {
+            white, black, black, white,
+            black, white, black, black,
+            black, black, white, black,
+            black, black, black, white
+        }, buffer.getBuffer());
+
+        g.setColor(ColorRgba.TRANSPARENT);
+        g.drawRect(0, 0, 4, 4, true);
+        g.setColor(new ColorRgba(255, 255, 255, 128));
+        g.drawRect(-2, 1, 3, 1, true);
+
+        assertEquals(0xFF_80_80_80, buffer.getBuffer()[4]);
+        assertEquals(white, buffer.getBuffer()[5]);
+    }
+
+    /**
+     * Test gradient.
+     */
+    @Test
+    public void testGradient()
+    {
+        final ImageBufferHeadless buffer = create(5, Transparency.OPAQUE, new int[5]);
+        final Graphic g = buffer.createGraphic();
+        g.drawGradient(0, 0, 5, 1);
+
+        assertArrayEquals(new int[5], buffer.getBuffer());
+
+        g.setColorGradient(new ColorGradient(1, 0, ColorRgba.BLACK, 3, 0, ColorRgba.WHITE));
+        g.drawGradient(0, 0, 5, 1);
+
+        assertArrayEquals(new int[]
+        {
+            0xFF_00_00_00, 0xFF_00_00_00, 0xFF_80_80_80, 0xFF_FF_FF_FF, 0xFF_FF_FF_FF
+        }, buffer.getBuffer());
+    }
 }
@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.headless.graphic;
+
+import static com.b3dgs.lionengine.UtilAssert.assertArrayEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertPrivateConstructor;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.FactoryMediaDefault;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.graphic.Transparency;
+
+/**
+ * Test {@link ToolsHeadless}.
+ */
+public final class ToolsHeadlessTest
+{
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setFactoryMedia(new FactoryMediaDefault());
+        Medias.setLoadFromJar(ToolsHeadlessTest.class);
+    }
+
+    /**
+     * Clean tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setLoadFromJar(null);
+    }
+
+    /**
+     * Load image from resources.
+     * 
+     * @param name The image name.
+     * @return The decoded image.
+     * @throws IOException If error.
+     */
+    private static ImageBufferHeadless load(String name) throws IOException
+    {
+        try (InputStream input = Medias.create(name).getInputStream())
+        {
+            return ToolsHeadless.getImage(input);
+        }
+    }
+
+    /**
+     * Test constructor.
+     */
+    @Test
+    public void testConstructorPrivate()
+    {
+        assertPrivateConstructor(ToolsHeadless.class);
+    }
+
+    /**
+     * Test RGB image decoding.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testDecodeRgb() throws IOException
+    {
+        final ImageBufferHeadless image = load("image.png");
+
+        assertEquals(64, image.getWidth());
+        assertEquals(32, image.getHeight());
+        assertEquals(Transparency.OPAQUE, image.getTransparency());
+        for (final int pixel : image.getBuffer())
+        {
+            assertEquals(0xFF, pixel >>> 24);
+        }
+    }
+
+    /**
+     * Test interlaced RGBA image decoding, with all filter types.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testDecodeRgbaInterlaced() throws IOException
+    {
+        final ImageBufferHeadless image = load("image_rgba_interlaced.png");
+
+        assertEquals(13, image.getWidth());
+        assertEquals(7, image.getHeight());
+        assertEquals(Transparency.TRANSLUCENT, image.getTransparency());
+        for (int y = 0; y < image.getHeight(); y++)
+        {
+            for (int x = 0; x < image.getWidth(); x++)
+            {
+                final int expected = x * y * 7 % 256 << 24
+                                     | x * 19 % 256 << 16
+                                     | y * 37 % 256 << 8
+                                     | (x + y) * 11 % 256;
+                assertEquals(expected, image.getBuffer()[y * image.getWidth() + x]);
+            }
+        }
+    }
+
+    /**
+     * Test palette image decoding, with 2 bits depth and transparency.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testDecodePalette() throws IOException
+    {
+        final ImageBufferHeadless image = load("image_palette.png");
+        final int[] palette =
+        {
+            0xFF_FF_00_00, 0x80_00_FF_00, 0x00_00_00_FF, 0xFF_0A_14_1E
+        };
+
+        assertEquals(9, image.getWidth());
+        assertEquals(5, image.getHeight());
+        assertEquals(Transparency.TRANSLUCENT, image.getTransparency());
+        for (int y = 0; y < image.getHeight(); y++)
+        {
+            for (int x = 0; x < image.getWidth(); x++)
+            {
+                assertEquals(palette[(x + 2 * y) % 4], image.getBuffer()[y * image.getWidth() + x]);
+            }
+        }
+    }
+
+    /**
+     * Test gray image decoding, with 16 bits depth and transparent key.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testDecodeGray16() throws IOException
+    {
+        final ImageBufferHeadless image = load("image_gray16.png");
+
+        assertEquals(Transparency.BITMASK, image.getTransparency());
+        for (int y = 0; y < image.getHeight(); y++)
+        {
+            for (int x = 0; x < image.getWidth(); x++)
+            {
+                final int expected;
+                if ((x + y) % 3 == 0)
+                {
+                    expected = 0x00_12_12_12;
+                }
+                else
+                {
+                    final int gray = (x * 9000 + y * 3000) % 65_536 >> 8;
+                    expected = 0xFF_00_00_00 | gray << 16 | gray << 8 | gray;
+                }
+                assertEquals(expected, image.getBuffer()[y * image.getWidth() + x]);
+            }
+        }
+    }
+
+    /**
+     * Test invalid image.
+     */
+    @Test
+    public void testDecodeInvalid()
+    {
+        assertThrows(IOException.class,
+                     () -> ToolsHeadless.getImage(new ByteArrayInputStream(new byte[]
+                     {
+                         1, 2, 3
+                     })),
+                     ToolsHeadless.ERROR_IMAGE);
+    }
+
+    /**
+     * Test save and load.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testSaveLoad() throws IOException
+    {
+        final ImageBufferHeadless image = load("image_rgba_interlaced.png");
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ToolsHeadless.saveImage(image, output);
+
+        final ImageBufferHeadless loaded = ToolsHeadless.getImage(new ByteArrayInputStream(output.toByteArray()));
+
+        assertEquals(image.getWidth(), loaded.getWidth());
+        assertEquals(image.getHeight(), loaded.getHeight());
+        assertEquals(image.getTransparency(), loaded.getTransparency());
+        assertArrayEquals(image.getBuffer(), loaded.getBuffer());
+    }
+
+    /**
+     * Test rotate.
+     */
+    @Test
+    public void testRotate()
+    {
+        final ImageBufferHeadless image = new ImageBufferHeadless(3, 2, new int[]
+        {
+            1, 2, 3, 4, 5, 6
+        }, Transparency.OPAQUE);
+
+        final ImageBufferHeadless rotated = ToolsHeadless.rotate(image, 90);
+
+        assertEquals(2, rotated.getWidth());
+        assertEquals(3, rotated.getHeight());
+        assertArrayEquals(new int[]
+        {
+            4, 1, 5, 2, 6, 3
+        }, rotated.getBuffer());
+        assertArrayEquals(image.getBuffer(), ToolsHeadless.rotate(image, 0).getBuffer());
+    }
+
+    /**
+     * Test split.
+     */
+    @Test
+    public void testSplit()
+    {
+        final ImageBufferHeadless image = new ImageBufferHeadless(4, 2, new int[]
+        {
+            1, 2, 3, 4, 5, 6, 7, 8
+        }, Transparency.BITMASK);
+
+        final ImageBufferHeadless[] split = ToolsHeadless.splitImage(image, 2, 2);
+
+        assertEquals(4, split.length);
+        assertArrayEquals(new int[]
+        {
+            1, 2
+        }, split[0].getBuffer());
+        assertArrayEquals(new int[]
+        {
+            3, 4
+        }, split[1].getBuffer());
+        assertArrayEquals(new int[]
+        {
+            5, 6
+        }, split[2].getBuffer());
+        assertArrayEquals(new int[]
+        {
+            7, 8
+        }, split[3].getBuffer());
+        assertEquals(Transparency.BITMASK, split[0].getTransparency());
+    }
+}
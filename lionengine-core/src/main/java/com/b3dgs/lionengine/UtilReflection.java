@@ -81,15 +81,33 @@ public final class UtilReflection
      * @throws NoSuchMethodException If no constructor found.
      * @throws LionEngineException If invalid parameters.
      */
-    @SuppressWarnings("unchecked")
     public static <T> T createReduce(Class<T> type, Object... params) throws NoSuchMethodException
+    {
+        final Constructor<T> constructor = getCompatibleConstructorReduce(type, params);
+        return create(type, constructor, getReducedParams(constructor, params));
+    }
+
+    /**
+     * Get a compatible constructor with the following parameters, reducing parameter types array as a queue until
+     * empty in order to find a constructor. Constructor is accessible, and its parameters are the last ones of the
+     * maximum parameters (see {@link #getReducedParams(Constructor, Object...)}).
+     * 
+     * @param <T> The element type used.
+     * @param type The class type (must not be <code>null</code>).
+     * @param params The maximum parameters in sequential order (must not be <code>null</code>).
+     * @return The constructor found.
+     * @throws NoSuchMethodException If no constructor found.
+     * @throws LionEngineException If invalid parameters.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Constructor<T> getCompatibleConstructorReduce(Class<T> type, Object... params)
+            throws NoSuchMethodException
     {
         Check.notNull(type);
         Check.notNull(params);
 
         final Class<?>[] paramTypes = getParamTypes(params);
         final Queue<Class<?>> typesQueue = new ArrayDeque<>(Arrays.asList(paramTypes));
-        final Queue<Object> paramsQueue = new ArrayDeque<>(Arrays.asList(params));
         boolean stop = false;
         while (!stop)
         {
@@ -101,13 +119,13 @@ public final class UtilReflection
                 if (constructorTypes.length == typesLength
                     && (typesLength == 0 || hasCompatibleConstructor(typesArray, constructorTypes)))
                 {
-                    return create(type, (Constructor<T>) constructor, paramsQueue.toArray());
+                    setAccessible(constructor, true);
+                    return (Constructor<T>) constructor;
                 }
             }
 
-            stop = paramsQueue.isEmpty();
+            stop = typesQueue.isEmpty();
             typesQueue.poll();
-            paramsQueue.poll();
         }
         throw new NoSuchMethodException(ERROR_NO_CONSTRUCTOR_COMPATIBLE
                                         + type.getName()
@@ -115,6 +133,23 @@ public final class UtilReflection
                                         + Arrays.asList(paramTypes));
     }
 
+    /**
+     * Get the parameters used by a constructor found with {@link #getCompatibleConstructorReduce(Class, Object...)}.
+     * 
+     * @param constructor The constructor found (must not be <code>null</code>).
+     * @param params The maximum parameters in sequential order used to find constructor (must not be
+     *            <code>null</code>).
+     * @return The constructor parameters.
+     * @throws LionEngineException If invalid parameters.
+     */
+    public static Object[] getReducedParams(Constructor<?> constructor, Object... params)
+    {
+        Check.notNull(constructor);
+        Check.notNull(params);
+
+        return Arrays.copyOfRange(params, params.length - constructor.getParameterCount(), params.length);
+    }
+
     /**
      * Get the parameter types as array.
      * 
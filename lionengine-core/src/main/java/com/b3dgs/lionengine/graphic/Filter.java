@@ -40,4 +40,24 @@ public interface Filter
      * @return The associated transform.
      */
     Transform getTransform(double scaleX, double scaleY);
+
+    /**
+     * Enable or disable pooled mode. When pooled, pixel arrays and filtered image are kept and reused while source
+     * size does not change. Filtered image is then owned by the filter: it must not be disposed, and is overwritten by
+     * the next call. Disabled by default.
+     * 
+     * @param pooled <code>true</code> to reuse buffers between calls, <code>false</code> to allocate them on each call.
+     */
+    default void setPooled(boolean pooled)
+    {
+        // Nothing by default
+    }
+
+    /**
+     * Release pooled buffers, if any. Next filtering will allocate them again.
+     */
+    default void release()
+    {
+        // Nothing by default
+    }
 }
@@ -16,6 +16,8 @@
  */
 package com.b3dgs.lionengine.graphic.engine;
 
+import java.util.Optional;
+
 import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Config;
 import com.b3dgs.lionengine.Context;
@@ -24,12 +26,14 @@ import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.graphic.Screen;
 
 /**
- * Wrap screen into context to avoid direct reference.
+ * Wrap screen into context to avoid direct reference. May also define the loop to use, overriding the sequence one.
  */
 final class ContextWrapper implements Context
 {
     /** Screen reference. */
     private final Screen screen;
+    /** Loop override. */
+    private final Optional<Loop> loop;
 
     /**
      * Create wrapper.
@@ -44,6 +48,35 @@ final class ContextWrapper implements Context
         Check.notNull(screen);
 
         this.screen = screen;
+        loop = Optional.empty();
+    }
+
+    /**
+     * Create wrapper with a loop override.
+     * 
+     * @param screen The wrapper screen (must not be <code>null</code>).
+     * @param loop The loop used by all sequences instead of their own (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments.
+     */
+    ContextWrapper(Screen screen, Loop loop)
+    {
+        super();
+
+        Check.notNull(screen);
+        Check.notNull(loop);
+
+        this.screen = screen;
+        this.loop = Optional.of(loop);
+    }
+
+    /**
+     * Get the loop override.
+     * 
+     * @return The loop override, empty if sequence loop must be used.
+     */
+    Optional<Loop> getLoop()
+    {
+        return loop;
     }
 
     /*
@@ -32,6 +32,10 @@ import com.b3dgs.lionengine.graphic.Screen;
  * Routine starter, need to be called only one time with the first {@link Sequence} to start, by using
  * {@link #start(Config, Class, Object...)}.
  * <p>
+ * Sequences can also be run without window nor rendering synchronization, by using
+ * {@link #simulate(Config, LoopSimulation, Class, Object...)}.
+ * </p>
+ * <p>
  * This class is Thread-Safe.
  * </p>
  */
@@ -59,7 +63,42 @@ public final class Loader
         Check.notNull(sequenceClass);
         Check.notNull(arguments);
 
-        final Runnable runnable = () -> handle(config, sequenceClass, arguments);
+        return run(() -> handle(config, sequenceClass, arguments));
+    }
+
+    /**
+     * Start the loader with an initial sequence in simulation mode. No window is created, and all sequences use the
+     * simulation loop instead of their own. A graphic factory is still required in order to create the off-screen
+     * rendering buffer.
+     * 
+     * @param config The configuration used (must not be <code>null</code>).
+     * @param loop The simulation loop used by all sequences (must not be <code>null</code>).
+     * @param sequenceClass The the next sequence to start (must not be <code>null</code>).
+     * @param arguments The sequence arguments list if needed by its constructor.
+     * @return The asynchronous task executed.
+     * @throws LionEngineException If sequence is invalid or wrong arguments.
+     */
+    public static TaskFuture simulate(Config config,
+                                      LoopSimulation loop,
+                                      Class<? extends Sequencable> sequenceClass,
+                                      Object... arguments)
+    {
+        Check.notNull(config);
+        Check.notNull(loop);
+        Check.notNull(sequenceClass);
+        Check.notNull(arguments);
+
+        return run(() -> handle(new ScreenSimulation(config), loop, sequenceClass, arguments));
+    }
+
+    /**
+     * Run the sequences handling in the engine thread.
+     * 
+     * @param runnable The sequences handling.
+     * @return The asynchronous task executed.
+     */
+    private static TaskFuture run(Runnable runnable)
+    {
         final Thread thread = new Thread(runnable, Constant.ENGINE_NAME);
         final AtomicReference<Throwable> reference = new AtomicReference<>();
         thread.setUncaughtExceptionHandler((t, e) ->
@@ -83,13 +122,37 @@ public final class Loader
      */
     private static void handle(Config config, Class<? extends Sequencable> sequenceClass, Object... arguments)
     {
-        final Screen screen = Graphics.createScreen(config);
+        handle(Graphics.createScreen(config), null, sequenceClass, arguments);
+    }
+
+    /**
+     * Handle the sequence with the screen until no more sequence to run.
+     * 
+     * @param screen The screen used.
+     * @param loop The loop used by all sequences (<code>null</code> to use their own loop).
+     * @param sequenceClass The the next sequence to start.
+     * @param arguments The sequence arguments list if needed by its constructor.
+     * @throws LionEngineException If an exception occurred.
+     */
+    private static void handle(Screen screen,
+                               Loop loop,
+                               Class<? extends Sequencable> sequenceClass,
+                               Object... arguments)
+    {
         try
         {
             screen.start();
             screen.awaitReady();
 
-            final Context context = new ContextWrapper(screen);
+            final Context context;
+            if (loop == null)
+            {
+                context = new ContextWrapper(screen);
+            }
+            else
+            {
+                context = new ContextWrapper(screen, loop);
+            }
             Sequencable nextSequence = UtilSequence.create(sequenceClass, context, arguments);
             while (nextSequence != null)
             {
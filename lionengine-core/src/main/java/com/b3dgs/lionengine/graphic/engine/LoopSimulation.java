@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.graphic.engine;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.graphic.Screen;
+
+/**
+ * Simulation loop. Update as fast as possible with a fixed extrapolation value, without any screen synchronization.
+ * <p>
+ * Rendering is skipped, or performed only every rendering period ticks. Screen readiness is ignored. Loop can be
+ * limited to a maximum number of ticks, counted across all started sequences.
+ * </p>
+ * <p>
+ * Reported frame rate is the number of ticks per second.
+ * </p>
+ * 
+ * @see Loader#simulate(com.b3dgs.lionengine.Config, LoopSimulation, Class, Object...)
+ */
+public final class LoopSimulation implements Loop
+{
+    /** Unlimited ticks. */
+    public static final long UNLIMITED = 0L;
+    /** No rendering. */
+    public static final int NO_RENDER = 0;
+    /** End verbose. */
+    private static final String SIMULATION_END = "Simulation: ";
+    /** Ticks verbose. */
+    private static final String SIMULATION_TICKS = " ticks at ";
+    /** Rate verbose. */
+    private static final String SIMULATION_RATE = " ticks/s";
+
+    /** Extrapolation value. */
+    private final double extrp;
+    /** Maximum ticks ({@link #UNLIMITED} for no limit). */
+    private final long maxTicks;
+    /** Rendering period in ticks ({@link #NO_RENDER} for none). */
+    private final int renderPeriod;
+    /** Running flag. */
+    private volatile boolean isRunning;
+    /** Total ticks performed. */
+    private volatile long ticks;
+    /** Total rendering performed. */
+    private volatile long rendered;
+    /** Total time spent in loop in nano. */
+    private volatile long elapsedNano;
+
+    /**
+     * Create an unlimited loop without rendering, using {@link Constant#EXTRP}.
+     */
+    public LoopSimulation()
+    {
+        this(Constant.EXTRP, UNLIMITED, NO_RENDER);
+    }
+
+    /**
+     * Create loop.
+     * 
+     * @param extrp The extrapolation value used for each tick (must be strictly positive).
+     * @param maxTicks The maximum number of ticks (superior or equal to 0, {@link #UNLIMITED} for no limit).
+     * @param renderPeriod The rendering period in ticks (superior or equal to 0, {@link #NO_RENDER} for none).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public LoopSimulation(double extrp, long maxTicks, int renderPeriod)
+    {
+        super();
+
+        Check.superiorStrict(extrp, 0.0);
+        Check.superiorOrEqual(maxTicks, UNLIMITED);
+        Check.superiorOrEqual(renderPeriod, NO_RENDER);
+
+        this.extrp = extrp;
+        this.maxTicks = maxTicks;
+        this.renderPeriod = renderPeriod;
+    }
+
+    /**
+     * Get the total number of ticks performed.
+     * 
+     * @return The ticks number.
+     */
+    public long getTicks()
+    {
+        return ticks;
+    }
+
+    /**
+     * Get the total number of rendering performed.
+     * 
+     * @return The rendering number.
+     */
+    public long getRendered()
+    {
+        return rendered;
+    }
+
+    /**
+     * Get the average number of ticks per second since first start.
+     * 
+     * @return The ticks per second (<code>0</code> if never started).
+     */
+    public double getTickRate()
+    {
+        final long elapsed = elapsedNano;
+        if (elapsed == 0L)
+        {
+            return 0.0;
+        }
+        return ticks * (double) Constant.ONE_SECOND_IN_NANO / elapsed;
+    }
+
+    /**
+     * Check if ticks limit has been reached.
+     * 
+     * @param count The current ticks count.
+     * @return <code>true</code> if limit reached, <code>false</code> else.
+     */
+    private boolean isExhausted(long count)
+    {
+        return maxTicks != UNLIMITED && count >= maxTicks;
+    }
+
+    /*
+     * Loop
+     */
+
+    /**
+     * {@inheritDoc}
+     * Counters are published every second and when loop ends.
+     */
+    @Override
+    public void start(Screen screen, Frame frame)
+    {
+        Check.notNull(screen);
+        Check.notNull(frame);
+
+        final long startNano = System.nanoTime();
+        final long startElapsed = elapsedNano;
+        long windowNano = startNano;
+        long windowTicks = 0L;
+        long count = ticks;
+        long renders = rendered;
+        isRunning = !isExhausted(count);
+
+        while (isRunning)
+        {
+            frame.update(extrp);
+            count++;
+            windowTicks++;
+
+            if (renderPeriod != NO_RENDER && count % renderPeriod == 0L)
+            {
+                screen.preUpdate();
+                frame.render();
+                screen.update();
+                renders++;
+            }
+
+            final long now = System.nanoTime();
+            if (now - windowNano >= Constant.ONE_SECOND_IN_NANO)
+            {
+                frame.computeFrameRate(now - Math.max(1L, (now - windowNano) / windowTicks), now);
+                ticks = count;
+                rendered = renders;
+                elapsedNano = startElapsed + now - startNano;
+                windowNano = now;
+                windowTicks = 0L;
+            }
+            if (isExhausted(count))
+            {
+                isRunning = false;
+            }
+        }
+        ticks = count;
+        rendered = renders;
+        elapsedNano = startElapsed + Math.max(1L, System.nanoTime() - startNano);
+
+        Verbose.info(SIMULATION_END,
+                     String.valueOf(count),
+                     SIMULATION_TICKS,
+                     String.valueOf(Math.round(getTickRate())),
+                     SIMULATION_RATE);
+    }
+
+    @Override
+    public void stop()
+    {
+        isRunning = false;
+    }
+
+    @Override
+    public void notifyRateChanged(int rate)
+    {
+        // Nothing to do, fixed extrapolation
+    }
+}
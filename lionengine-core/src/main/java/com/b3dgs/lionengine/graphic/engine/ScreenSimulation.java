@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.graphic.engine;
+
+import com.b3dgs.lionengine.Config;
+import com.b3dgs.lionengine.InputDeviceKeyListener;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Resolution;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+import com.b3dgs.lionengine.graphic.ScreenAbstract;
+
+/**
+ * Simulation screen, without window nor input device. Always ready once started.
+ * <p>
+ * Rendering is performed on an off-screen buffer of the output resolution.
+ * </p>
+ * 
+ * @see LoopSimulation
+ */
+final class ScreenSimulation extends ScreenAbstract
+{
+    /** Off-screen buffer (<code>null</code> if not started). */
+    private ImageBuffer buffer;
+
+    /**
+     * Create screen.
+     * 
+     * @param config The config reference (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    ScreenSimulation(Config config)
+    {
+        super(config, 0L);
+    }
+
+    /*
+     * Screen
+     */
+
+    @Override
+    public void start()
+    {
+        final Resolution output = config.getOutput();
+        buffer = Graphics.createImageBuffer(output.getWidth(), output.getHeight());
+        graphics.setGraphic(buffer.createGraphic().getGraphic());
+    }
+
+    @Override
+    public void preUpdate()
+    {
+        // Nothing to do
+    }
+
+    @Override
+    public void update()
+    {
+        // Nothing to do
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (buffer != null)
+        {
+            buffer.dispose();
+            buffer = null;
+        }
+    }
+
+    @Override
+    public void requestFocus()
+    {
+        // Nothing to do
+    }
+
+    @Override
+    public void hideCursor()
+    {
+        // Nothing to do
+    }
+
+    @Override
+    public void showCursor()
+    {
+        // Nothing to do
+    }
+
+    @Override
+    public void addKeyListener(InputDeviceKeyListener listener)
+    {
+        // Nothing to do
+    }
+
+    @Override
+    public void setIcon(String filename)
+    {
+        // Nothing to do
+    }
+
+    @Override
+    public int getX()
+    {
+        return 0;
+    }
+
+    @Override
+    public int getY()
+    {
+        return 0;
+    }
+
+    @Override
+    public boolean isReady()
+    {
+        return true;
+    }
+
+    @Override
+    public void onSourceChanged(Resolution source)
+    {
+        // Nothing to do
+    }
+}
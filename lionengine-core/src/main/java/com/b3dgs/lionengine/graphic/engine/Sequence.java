@@ -46,6 +46,23 @@ import com.b3dgs.lionengine.graphic.ScreenListener;
 public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeControl, SourceResolutionProvider,
                                ScreenListener
 {
+    /**
+     * Get the loop to use, which may be overridden by context.
+     * 
+     * @param context The context reference.
+     * @param loop The sequence loop.
+     * @return The loop to use.
+     * @see Loader#simulate(Config, LoopSimulation, Class, Object...)
+     */
+    private static Loop getLoop(Context context, Loop loop)
+    {
+        if (context instanceof ContextWrapper)
+        {
+            return ((ContextWrapper) context).getLoop().orElse(loop);
+        }
+        return loop;
+    }
+
     /** Context reference. */
     private final Context context;
     /** Native resolution. */
@@ -106,7 +123,7 @@ public abstract class Sequence implements Sequencable, Sequencer, Zooming, TimeC
 
         this.context = context;
         this.resolution = resolution;
-        this.loop = loop;
+        this.loop = getLoop(context, loop);
         source = resolution;
         config = context.getConfig();
         renderer = new SequenceRenderer(context, resolution, this::render);
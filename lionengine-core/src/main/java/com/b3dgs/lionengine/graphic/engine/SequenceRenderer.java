@@ -87,13 +87,16 @@ final class SequenceRenderer
     }
 
     /**
-     * Set the filter to use.
+     * Set the filter to use. Filter is used in pooled mode, as its result is only drawn. Previous filter buffers are
+     * released and its pooled mode disabled.
      * 
      * @param filter The filter to use (if <code>null</code> then {@link FilterNone#INSTANCE} is used).
      */
     void setFilter(Filter filter)
     {
+        this.filter.setPooled(false);
         this.filter = Optional.ofNullable(filter).orElse(FilterNone.INSTANCE);
+        this.filter.setPooled(true);
         transform = getTransform();
     }
 
@@ -109,6 +112,7 @@ final class SequenceRenderer
 
         setSystemCursorVisible(cursorVisibility.booleanValue());
         this.source = source;
+        filter.release();
         screen.onSourceChanged(source);
         final int width = source.getWidth();
         final int height = source.getHeight();
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Compute rows of a frame by bands, in parallel on a {@link ForkJoinPool}. Each output row must only depend on source
+ * rows, which are shared by all bands and never written during computation. Bands write disjoint rows, so result is
+ * the same as serial computation.
+ */
+final class FilterBands
+{
+    /** Minimum number of pixels computed by a single band, below which frame is computed serially. */
+    static final int THRESHOLD = 16_384;
+
+    /**
+     * Compute all rows, in parallel if pool is defined and frame is large enough.
+     * 
+     * @param pool The pool used (<code>null</code> for serial computation).
+     * @param rows The number of rows.
+     * @param width The number of pixels per row.
+     * @param band The band computation.
+     */
+    static void compute(ForkJoinPool pool, int rows, int width, Band band)
+    {
+        final int step = Math.max(1, THRESHOLD / Math.max(1, width));
+        if (pool == null || rows <= step)
+        {
+            band.compute(0, rows);
+        }
+        else
+        {
+            pool.invoke(new Task(band, 0, rows, step));
+        }
+    }
+
+    /**
+     * Private constructor.
+     */
+    private FilterBands()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+
+    /**
+     * Band computation.
+     */
+    @FunctionalInterface
+    interface Band
+    {
+        /**
+         * Compute rows.
+         * 
+         * @param start The first row (included).
+         * @param end The last row (excluded).
+         */
+        void compute(int start, int end);
+    }
+
+    /**
+     * Band task, splitting its rows until they fit the step.
+     */
+    private static final class Task extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        /** Band computation. */
+        private final transient Band band;
+        /** First row (included). */
+        private final int start;
+        /** Last row (excluded). */
+        private final int end;
+        /** Maximum number of rows computed by a single task. */
+        private final int step;
+
+        /**
+         * Create task.
+         * 
+         * @param band The band computation.
+         * @param start The first row (included).
+         * @param end The last row (excluded).
+         * @param step The maximum number of rows computed by a single task.
+         */
+        private Task(Band band, int start, int end, int step)
+        {
+            super();
+
+            this.band = band;
+            this.start = start;
+            this.end = end;
+            this.step = step;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (end - start > step)
+            {
+                final int middle = start + end >>> 1;
+                invokeAll(new Task(band, start, middle, step), new Task(band, middle, end, step));
+            }
+            else
+            {
+                band.compute(start, end);
+            }
+        }
+    }
+}
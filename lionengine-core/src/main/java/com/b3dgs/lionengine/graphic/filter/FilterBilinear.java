@@ -26,7 +26,7 @@ import com.b3dgs.lionengine.graphic.Transform;
 /**
  * Bilinear filter implementation.
  * <p>
- * This class is Thread-Safe.
+ * This class is Thread-Safe, except in pooled mode.
  * </p>
  */
 public class FilterBilinear implements Filter
@@ -128,6 +128,9 @@ public class FilterBilinear implements Filter
         }
     }
 
+    /** Filter buffers. */
+    private final FilterBuffers buffers = new FilterBuffers();
+
     /**
      * Create the filter.
      */
@@ -146,14 +149,14 @@ public class FilterBilinear implements Filter
         final int width = source.getWidth();
         final int height = source.getHeight();
 
-        final int[] inPixels = new int[width * height];
-        final int[] outPixels = new int[width * height];
+        final int[] inPixels = buffers.getIn(width * height);
+        final int[] outPixels = buffers.getOut(width * height);
         source.getRgb(0, 0, width, height, inPixels, 0, width);
 
         compute(inPixels, outPixels, width, height, 1);
         compute(outPixels, inPixels, height, width, 1);
 
-        final ImageBuffer dest = Graphics.createImageBuffer(width, height, source.getTransparentColor());
+        final ImageBuffer dest = buffers.getImage(width, height, source.getTransparentColor());
         dest.setRgb(0, 0, width, height, inPixels, 0, width);
         return dest;
     }
@@ -165,4 +168,16 @@ public class FilterBilinear implements Filter
         transform.scale(scaleX, scaleY);
         return transform;
     }
+
+    @Override
+    public void setPooled(boolean pooled)
+    {
+        buffers.setPooled(pooled);
+    }
+
+    @Override
+    public void release()
+    {
+        buffers.release();
+    }
 }
@@ -16,7 +16,11 @@
  */
 package com.b3dgs.lionengine.graphic.filter;
 
+import java.util.concurrent.ForkJoinPool;
+
+import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.UtilMath;
 import com.b3dgs.lionengine.graphic.Filter;
 import com.b3dgs.lionengine.graphic.Graphics;
@@ -25,6 +29,10 @@ import com.b3dgs.lionengine.graphic.Transform;
 
 /**
  * Blur filter implementation.
+ * <p>
+ * Separable passes can be computed in parallel by row bands on a {@link ForkJoinPool}, giving the same result as
+ * serial computation. Small frames are computed serially.
+ * </p>
  */
 public class FilterBlur implements Filter
 {
@@ -47,14 +55,24 @@ public class FilterBlur implements Filter
      * @param height The image height.
      * @param alpha The alpha flag.
      * @param edge The edge flag.
+     * @param start The first row (included).
+     * @param end The last row (excluded).
      */
-    private static void compute(Kernel kernel, int[] in, int[] out, int width, int height, boolean alpha, int edge)
+    private static void compute(Kernel kernel,
+                                int[] in,
+                                int[] out,
+                                int width,
+                                int height,
+                                boolean alpha,
+                                int edge,
+                                int start,
+                                int end)
     {
         final float[] matrix = kernel.getMatrix();
         final int cols = kernel.getWidth();
         final int cols2 = cols / 2;
 
-        for (int y = 0; y < height; y++)
+        for (int y = start; y < end; y++)
         {
             int index = y;
             final int ioffset = y * width;
@@ -166,11 +184,9 @@ public class FilterBlur implements Filter
      * Create a blur kernel.
      * 
      * @param radius The blur radius.
-     * @param width The image width.
-     * @param height The image height.
      * @return The blur kernel.
      */
-    private static Kernel createKernel(float radius, int width, int height)
+    private static Kernel createKernel(float radius)
     {
         final int r = (int) Math.ceil(radius);
         final int rows = r * 2 + 1;
@@ -202,10 +218,7 @@ public class FilterBlur implements Filter
             matrix[i] /= total;
         }
 
-        final float[] data = new float[width * height];
-        System.arraycopy(matrix, 0, data, 0, rows);
-
-        return new Kernel(rows, data);
+        return new Kernel(rows, matrix);
     }
 
     /**
@@ -219,6 +232,10 @@ public class FilterBlur implements Filter
         return UtilMath.clamp(value, 0, 255);
     }
 
+    /** Filter buffers. */
+    private final FilterBuffers buffers = new FilterBuffers();
+    /** Bands pool (<code>null</code> if serial). */
+    private final ForkJoinPool pool;
     /** Current radius. */
     private volatile float radius = RADIUS_DEFAULT;
     /** Alpha flag. */
@@ -232,6 +249,23 @@ public class FilterBlur implements Filter
     public FilterBlur()
     {
         super();
+
+        pool = null;
+    }
+
+    /**
+     * Create the filter with parallel computation.
+     * 
+     * @param pool The pool used to compute row bands (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public FilterBlur(ForkJoinPool pool)
+    {
+        super();
+
+        Check.notNull(pool);
+
+        this.pool = pool;
     }
 
     /**
@@ -280,15 +314,23 @@ public class FilterBlur implements Filter
             return source;
         }
 
-        final int[] inPixels = new int[width * height];
-        final int[] outPixels = new int[width * height];
+        final int[] inPixels = buffers.getIn(width * height);
+        final int[] outPixels = buffers.getOut(width * height);
         source.getRgb(0, 0, width, height, inPixels, 0, width);
 
-        final Kernel kernel = createKernel(radius, width, height);
-        compute(kernel, inPixels, outPixels, width, height, alpha, edge);
-        compute(kernel, outPixels, inPixels, height, width, alpha, edge);
+        final Kernel kernel = createKernel(radius);
+        final boolean a = alpha;
+        final int e = edge;
+        FilterBands.compute(pool,
+                            height,
+                            width,
+                            (start, end) -> compute(kernel, inPixels, outPixels, width, height, a, e, start, end));
+        FilterBands.compute(pool,
+                            width,
+                            height,
+                            (start, end) -> compute(kernel, outPixels, inPixels, height, width, a, e, start, end));
 
-        final ImageBuffer dest = Graphics.createImageBuffer(width, height, source.getTransparentColor());
+        final ImageBuffer dest = buffers.getImage(width, height, source.getTransparentColor());
         dest.setRgb(0, 0, width, height, inPixels, 0, width);
         return dest;
     }
@@ -300,4 +342,16 @@ public class FilterBlur implements Filter
         transform.scale(scaleX, scaleY);
         return transform;
     }
+
+    @Override
+    public void setPooled(boolean pooled)
+    {
+        buffers.setPooled(pooled);
+    }
+
+    @Override
+    public void release()
+    {
+        buffers.release();
+    }
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import java.util.Objects;
+
+import com.b3dgs.lionengine.graphic.ColorRgba;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Filter buffers provider. When pooled, pixel arrays and output image are kept and reused while their size does not
+ * change, else they are allocated on each request.
+ * <p>
+ * This class is NOT Thread-Safe.
+ * </p>
+ */
+final class FilterBuffers
+{
+    /** Pooled flag. */
+    private boolean pooled;
+    /** Source pixels (<code>null</code> if none). */
+    private int[] in;
+    /** Destination pixels (<code>null</code> if none). */
+    private int[] out;
+    /** Output image (<code>null</code> if none). */
+    private ImageBuffer image;
+    /** Output image transparency (<code>null</code> if none). */
+    private ColorRgba transparency;
+
+    /**
+     * Create buffers.
+     */
+    FilterBuffers()
+    {
+        super();
+    }
+
+    /**
+     * Enable or disable pooled mode. Disabling releases current buffers.
+     * 
+     * @param pooled <code>true</code> to reuse buffers, <code>false</code> to allocate them on each request.
+     */
+    void setPooled(boolean pooled)
+    {
+        this.pooled = pooled;
+        if (!pooled)
+        {
+            release();
+        }
+    }
+
+    /**
+     * Get the source pixels array.
+     * 
+     * @param length The array length.
+     * @return The source pixels array.
+     */
+    int[] getIn(int length)
+    {
+        if (!pooled)
+        {
+            return new int[length];
+        }
+        if (in == null || in.length != length)
+        {
+            in = new int[length];
+        }
+        return in;
+    }
+
+    /**
+     * Get the destination pixels array.
+     * 
+     * @param length The array length.
+     * @return The destination pixels array.
+     */
+    int[] getOut(int length)
+    {
+        if (!pooled)
+        {
+            return new int[length];
+        }
+        if (out == null || out.length != length)
+        {
+            out = new int[length];
+        }
+        return out;
+    }
+
+    /**
+     * Get the output image.
+     * 
+     * @param width The image width.
+     * @param height The image height.
+     * @param transparency The transparent color (can be <code>null</code>).
+     * @return The output image.
+     */
+    ImageBuffer getImage(int width, int height, ColorRgba transparency)
+    {
+        if (!pooled)
+        {
+            return Graphics.createImageBuffer(width, height, transparency);
+        }
+        if (image == null
+            || image.getWidth() != width
+            || image.getHeight() != height
+            || !Objects.equals(this.transparency, transparency))
+        {
+            if (image != null)
+            {
+                image.dispose();
+            }
+            image = Graphics.createImageBuffer(width, height, transparency);
+            this.transparency = transparency;
+        }
+        return image;
+    }
+
+    /**
+     * Release buffers.
+     */
+    void release()
+    {
+        in = null;
+        out = null;
+        if (image != null)
+        {
+            image.dispose();
+            image = null;
+        }
+        transparency = null;
+    }
+}
@@ -16,6 +16,10 @@
  */
 package com.b3dgs.lionengine.graphic.filter;
 
+import java.util.concurrent.ForkJoinPool;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.graphic.Filter;
 import com.b3dgs.lionengine.graphic.Graphics;
 import com.b3dgs.lionengine.graphic.ImageBuffer;
@@ -24,17 +28,43 @@ import com.b3dgs.lionengine.graphic.Transform;
 /**
  * HQ2X implementation.
  * <p>
- * This class is Thread-Safe.
+ * Rows can be scaled in parallel by bands on a {@link ForkJoinPool}, giving the same result as serial scaling. Small
+ * frames are scaled serially.
+ * </p>
+ * <p>
+ * This class is Thread-Safe, except in pooled mode.
  * </p>
  */
 public final class FilterHq2x implements Filter
 {
+    /** Filter buffers. */
+    private final FilterBuffers buffers = new FilterBuffers();
+    /** Bands pool (<code>null</code> if serial). */
+    private final ForkJoinPool pool;
+
     /**
      * Create an Hq2x filter.
      */
     public FilterHq2x()
     {
         super();
+
+        pool = null;
+    }
+
+    /**
+     * Create an Hq2x filter with parallel scaling.
+     * 
+     * @param pool The pool used to scale row bands (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public FilterHq2x(ForkJoinPool pool)
+    {
+        super();
+
+        Check.notNull(pool);
+
+        this.pool = pool;
     }
 
     /*
@@ -46,20 +76,15 @@ public final class FilterHq2x implements Filter
     {
         final int width = source.getWidth();
         final int height = source.getHeight();
-        final int[] srcData = new int[width * height];
+        final int scaledWidth = width * RawScale2x.SCALE;
+        final int scaledHeight = height * RawScale2x.SCALE;
+        final int[] srcData = buffers.getIn(width * height);
+        final int[] dstData = buffers.getOut(scaledWidth * scaledHeight);
         source.getRgb(0, 0, width, height, srcData, 0, width);
 
         final RawScale2x scaler = new RawScale2x(width, height);
-        final ImageBuffer image = Graphics.createImageBuffer(width * RawScale2x.SCALE,
-                                                             height * RawScale2x.SCALE,
-                                                             source.getTransparentColor());
-        image.setRgb(0,
-                     0,
-                     width * RawScale2x.SCALE,
-                     height * RawScale2x.SCALE,
-                     scaler.getScaledData(srcData),
-                     0,
-                     width * RawScale2x.SCALE);
+        final ImageBuffer image = buffers.getImage(scaledWidth, scaledHeight, source.getTransparentColor());
+        image.setRgb(0, 0, scaledWidth, scaledHeight, scaler.getScaledData(srcData, dstData, pool), 0, scaledWidth);
 
         return image;
     }
@@ -71,4 +96,16 @@ public final class FilterHq2x implements Filter
         transform.scale(scaleX / RawScale2x.SCALE, scaleY / RawScale2x.SCALE);
         return transform;
     }
+
+    @Override
+    public void setPooled(boolean pooled)
+    {
+        buffers.setPooled(pooled);
+    }
+
+    @Override
+    public void release()
+    {
+        buffers.release();
+    }
 }
@@ -16,6 +16,8 @@
  */
 package com.b3dgs.lionengine.graphic.filter;
 
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * The raw scale implementation.
  */
@@ -192,24 +194,40 @@ final class RawScale3x
     }
 
     /**
-     * Get the scaled data.
+     * Get the scaled data, stored in the destination array, computing source rows by bands.
      * 
-     * @param srcImage The image source
-     * @return The data array.
+     * @param srcImage The image source.
+     * @param dstImage The image destination (length must be source length multiplied by square scale).
+     * @param pool The pool used to compute row bands (<code>null</code> for serial computation).
+     * @return The destination array.
      */
-    int[] getScaledData(int[] srcImage)
+    int[] getScaledData(int[] srcImage, int[] dstImage, ForkJoinPool pool)
     {
-        final int[] dstImage = new int[srcImage.length * SCALE * SCALE];
+        FilterBands.compute(pool,
+                            height,
+                            width * SCALE * SCALE,
+                            (start, end) -> processRows(srcImage, dstImage, start, end));
 
-        for (int y = 0; y < height; y++)
+        return dstImage;
+    }
+
+    /**
+     * Process source rows.
+     * 
+     * @param srcImage The image source.
+     * @param dstImage The image destination.
+     * @param start The first row (included).
+     * @param end The last row (excluded).
+     */
+    private void processRows(int[] srcImage, int[] dstImage, int start, int end)
+    {
+        for (int y = start; y < end; y++)
         {
             for (int x = 0; x < width; x++)
             {
                 process(srcImage, dstImage, x, y);
             }
         }
-
-        return dstImage;
     }
 
     /**
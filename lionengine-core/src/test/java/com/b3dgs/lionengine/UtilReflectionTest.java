@@ -26,6 +26,7 @@ import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import java.io.Serializable;
 import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -159,6 +160,26 @@ public final class UtilReflectionTest
         UtilReflection.createReduce(Reduce.class, Integer.valueOf(1), "test", Integer.valueOf(3));
     }
 
+    /**
+     * Test get compatible constructor reduce and its parameters.
+     * 
+     * @throws NoSuchMethodException If error.
+     */
+    @Test
+    public void testGetCompatibleConstructorReduce() throws NoSuchMethodException
+    {
+        final Object[] params = new Object[]
+        {
+            Integer.valueOf(1), "test", Integer.valueOf(3)
+        };
+        final Constructor<Reduce> constructor = UtilReflection.getCompatibleConstructorReduce(Reduce.class, params);
+
+        assertEquals(1, constructor.getParameterCount());
+        assertTrue(constructor.isAccessible());
+        assertEquals(Arrays.asList(Integer.valueOf(3)),
+                     Arrays.asList(UtilReflection.getReducedParams(constructor, params)));
+    }
+
     /**
      * Test the accessibility setting.
      */
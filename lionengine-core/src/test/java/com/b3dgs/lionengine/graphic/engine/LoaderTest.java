@@ -27,6 +27,7 @@ import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.AfterAll;
@@ -36,6 +37,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.b3dgs.lionengine.Config;
+import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.Engine;
 import com.b3dgs.lionengine.EngineMock;
 import com.b3dgs.lionengine.LionEngineException;
@@ -333,6 +335,45 @@ public final class LoaderTest
         }
     }
 
+    /**
+     * Test simulation with ticks limit and sampled rendering.
+     */
+    @Test
+    public void testSimulate()
+    {
+        final LoopSimulation loop = new LoopSimulation(Constant.EXTRP, 100L, 10);
+        final AtomicLong updates = new AtomicLong();
+        final AtomicLong renders = new AtomicLong();
+        Loader.simulate(CONFIG, loop, SequenceSimulationMock.class, updates, renders).await();
+
+        assertEquals(100L, updates.get());
+        assertEquals(10L, renders.get());
+        assertEquals(100L, loop.getTicks());
+    }
+
+    /**
+     * Test simulation with next sequence.
+     */
+    @Test
+    public void testSimulateNext()
+    {
+        final LoopSimulation loop = new LoopSimulation();
+        Loader.simulate(CONFIG, loop, SequenceSingleMock.class).await();
+
+        assertEquals(2L, loop.getTicks());
+        assertEquals(0L, loop.getRendered());
+    }
+
+    /**
+     * Test simulation with <code>null</code> loop.
+     */
+    @Test
+    public void testSimulateNullLoop()
+    {
+        assertThrows(() -> Loader.simulate(CONFIG, null, SequenceSingleMock.class).await(),
+                     "Unexpected null argument !");
+    }
+
     /**
      * Test engine started.
      */
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.graphic.engine;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTimeout;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Config;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.Resolution;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.Screen;
+import com.b3dgs.lionengine.graphic.ScreenMock;
+
+/**
+ * Test {@link LoopSimulation}.
+ */
+public final class LoopSimulationTest
+{
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+    }
+
+    /**
+     * Clean up tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Graphics.setFactoryGraphic(null);
+    }
+
+    private final AtomicLong rendered = new AtomicLong();
+    private final AtomicLong tick = new AtomicLong();
+    private final AtomicLong stopTick = new AtomicLong(-1L);
+    private final AtomicReference<Double> extrapolation = new AtomicReference<>();
+
+    private Thread getTask(final Loop loop, final Screen screen)
+    {
+        return new Thread(() -> loop.start(screen, new Frame()
+        {
+            @Override
+            public void update(double extrp)
+            {
+                extrapolation.set(Double.valueOf(extrp));
+                if (tick.incrementAndGet() == stopTick.get())
+                {
+                    loop.stop();
+                }
+            }
+
+            @Override
+            public void render()
+            {
+                rendered.incrementAndGet();
+            }
+
+            @Override
+            public void computeFrameRate(long lastTime, long currentTime)
+            {
+                // Mock
+            }
+        }));
+    }
+
+    /**
+     * Test constructor with invalid arguments.
+     */
+    @Test
+    public void testConstructorInvalid()
+    {
+        assertThrows(() -> new LoopSimulation(0.0, 1L, 1), "Invalid argument: 0.0 is not strictly superior to 0.0");
+        assertThrows(() -> new LoopSimulation(1.0, -1L, 1), "Invalid argument: -1.0 is not superior or equal to 0.0");
+        assertThrows(() -> new LoopSimulation(1.0, 1L, -1), "Invalid argument: -1 is not superior or equal to 0");
+    }
+
+    /**
+     * Test loop limited by ticks with sampled rendering.
+     */
+    @Test
+    public void testTicks()
+    {
+        ScreenMock.setScreenWait(true);
+
+        final LoopSimulation loop = new LoopSimulation(2.5, 10L, 3);
+        final Thread thread = getTask(loop, new ScreenMock(new Config(new Resolution(320, 240, 50), 16, true)));
+        thread.start();
+
+        try
+        {
+            assertTimeout(1000L, thread::join);
+        }
+        finally
+        {
+            ScreenMock.setScreenWait(false);
+        }
+        assertEquals(10L, tick.get());
+        assertEquals(10L, loop.getTicks());
+        assertEquals(3L, rendered.get());
+        assertEquals(3L, loop.getRendered());
+        assertEquals(Double.valueOf(2.5), extrapolation.get());
+        assertTrue(loop.getTickRate() > 0.0, String.valueOf(loop.getTickRate()));
+
+        final Thread exhausted = getTask(loop, new ScreenMock(new Config(new Resolution(320, 240, 50), 16, true)));
+        exhausted.start();
+
+        assertTimeout(1000L, exhausted::join);
+        assertEquals(10L, tick.get());
+    }
+
+    /**
+     * Test unlimited loop without rendering, stopped.
+     */
+    @Test
+    public void testStop()
+    {
+        stopTick.set(5L);
+
+        final LoopSimulation loop = new LoopSimulation();
+        assertEquals(0.0, loop.getTickRate());
+
+        final Thread thread = getTask(loop, new ScreenMock(new Config(new Resolution(320, 240, 50), 16, true)));
+        thread.start();
+
+        assertTimeout(1000L, thread::join);
+        assertEquals(5L, tick.get());
+        assertEquals(5L, loop.getTicks());
+        assertEquals(0L, rendered.get());
+        assertEquals(Double.valueOf(Constant.EXTRP), extrapolation.get());
+
+        loop.notifyRateChanged(0);
+    }
+}
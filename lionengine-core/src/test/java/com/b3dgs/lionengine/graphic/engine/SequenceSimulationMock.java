@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.graphic.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.b3dgs.lionengine.Context;
+import com.b3dgs.lionengine.UtilTests;
+import com.b3dgs.lionengine.graphic.Graphic;
+
+/**
+ * Simulation sequence mock, never ending by itself.
+ */
+final class SequenceSimulationMock extends Sequence
+{
+    /** Updates counter. */
+    private final AtomicLong updates;
+    /** Renders counter. */
+    private final AtomicLong renders;
+
+    /**
+     * Constructor.
+     * 
+     * @param context The context reference.
+     * @param updates The updates counter.
+     * @param renders The renders counter.
+     */
+    SequenceSimulationMock(Context context, AtomicLong updates, AtomicLong renders)
+    {
+        super(context, UtilTests.RESOLUTION_320_240, new LoopFrameSkipping());
+
+        this.updates = updates;
+        this.renders = renders;
+    }
+
+    @Override
+    public void load()
+    {
+        // Mock
+    }
+
+    @Override
+    public void update(double extrp)
+    {
+        updates.incrementAndGet();
+    }
+
+    @Override
+    public void render(Graphic g)
+    {
+        renders.incrementAndGet();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertPrivateConstructor;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link FilterBands}.
+ */
+public final class FilterBandsTest
+{
+    /** Pool used. */
+    private static ForkJoinPool pool;
+
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        pool = new ForkJoinPool(4);
+    }
+
+    /**
+     * Clean up tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * Compute bands and get them sorted by first row.
+     * 
+     * @param pool The pool used (<code>null</code> for serial computation).
+     * @param rows The number of rows.
+     * @param width The number of pixels per row.
+     * @return The computed bands, as first row (included) and last row (excluded).
+     */
+    private static List<List<Integer>> compute(ForkJoinPool pool, int rows, int width)
+    {
+        final List<List<Integer>> bands = Collections.synchronizedList(new ArrayList<>());
+        FilterBands.compute(pool,
+                            rows,
+                            width,
+                            (start, end) -> bands.add(Arrays.asList(Integer.valueOf(start), Integer.valueOf(end))));
+        bands.sort((a, b) -> a.get(0).compareTo(b.get(0)));
+        return bands;
+    }
+
+    /**
+     * Check bands cover all rows once, without exceeding the step.
+     * 
+     * @param bands The sorted bands.
+     * @param rows The number of rows.
+     * @param step The maximum number of rows per band.
+     */
+    private static void assertCovered(List<List<Integer>> bands, int rows, int step)
+    {
+        int next = 0;
+        for (final List<Integer> band : bands)
+        {
+            final int start = band.get(0).intValue();
+            final int end = band.get(1).intValue();
+
+            assertEquals(next, start);
+            assertTrue(end > start);
+            assertTrue(end - start <= step);
+
+            next = end;
+        }
+        assertEquals(rows, next);
+    }
+
+    /**
+     * Test constructor.
+     */
+    @Test
+    public void testConstructor()
+    {
+        assertPrivateConstructor(FilterBands.class);
+    }
+
+    /**
+     * Test serial computation without pool, as a single band.
+     */
+    @Test
+    public void testSerial()
+    {
+        assertEquals(Arrays.asList(Arrays.asList(Integer.valueOf(0), Integer.valueOf(100))),
+                     compute(null, 100, FilterBands.THRESHOLD));
+    }
+
+    /**
+     * Test small frame, computed as a single band even with pool.
+     */
+    @Test
+    public void testSingleBand()
+    {
+        assertEquals(Arrays.asList(Arrays.asList(Integer.valueOf(0), Integer.valueOf(16))),
+                     compute(pool, 16, FilterBands.THRESHOLD / 16));
+        assertEquals(Arrays.asList(Arrays.asList(Integer.valueOf(0), Integer.valueOf(3))), compute(pool, 3, 0));
+    }
+
+    /**
+     * Test frame with less rows than bands, where each band is a single row.
+     */
+    @Test
+    public void testRowsLowerThanBands()
+    {
+        final List<List<Integer>> bands = compute(pool, 3, FilterBands.THRESHOLD * 2);
+
+        assertEquals(3, bands.size());
+        assertCovered(bands, 3, 1);
+    }
+
+    /**
+     * Test frame where rows are not a multiple of band step, so last band is not full.
+     */
+    @Test
+    public void testLastBandNotFull()
+    {
+        final int step = 4;
+        final List<List<Integer>> bands = compute(pool, 10, FilterBands.THRESHOLD / step);
+
+        assertCovered(bands, 10, step);
+
+        final List<Integer> last = bands.get(bands.size() - 1);
+
+        assertEquals(10, last.get(1).intValue());
+        assertTrue(last.get(1).intValue() - last.get(0).intValue() < step);
+    }
+
+    /**
+     * Test large frame, split in bands covering all rows.
+     */
+    @Test
+    public void testBands()
+    {
+        final int width = 320;
+        final int step = FilterBands.THRESHOLD / width;
+        final List<List<Integer>> bands = compute(pool, 241, width);
+
+        assertTrue(bands.size() > 1);
+        assertCovered(bands, 241, step);
+    }
+}
@@ -94,4 +94,13 @@ public final class FilterBilinearTest
         image.dispose();
         filtered.dispose();
     }
+
+    /**
+     * Test pooled filter, which must give same pixels while reusing its result.
+     */
+    @Test
+    public void testPooled()
+    {
+        UtilFilter.testPooled(new FilterBilinear());
+    }
 }
@@ -19,6 +19,7 @@ package com.b3dgs.lionengine.graphic.filter;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -169,4 +170,31 @@ public final class FilterBlurTest
         image.dispose();
         filtered.dispose();
     }
+
+    /**
+     * Test pooled filter, which must give same pixels while reusing its result.
+     */
+    @Test
+    public void testPooled()
+    {
+        UtilFilter.testPooled(new FilterBlur());
+    }
+
+    /**
+     * Test constructor with <code>null</code> pool.
+     */
+    @Test
+    public void testConstructorNullPool()
+    {
+        assertThrows(() -> new FilterBlur(null), "Unexpected null argument !");
+    }
+
+    /**
+     * Test parallel filter, which must give same pixels as serial one.
+     */
+    @Test
+    public void testParallel()
+    {
+        UtilFilter.testParallel(FilterBlur::new, FilterBlur::new);
+    }
 }
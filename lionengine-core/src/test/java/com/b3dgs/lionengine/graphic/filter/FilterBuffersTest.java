@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.graphic.ColorRgba;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Test {@link FilterBuffers}.
+ */
+public final class FilterBuffersTest
+{
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+    }
+
+    /**
+     * Clean up tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Graphics.setFactoryGraphic(null);
+    }
+
+    /**
+     * Test buffers are allocated on each request when not pooled.
+     */
+    @Test
+    public void testNotPooled()
+    {
+        final FilterBuffers buffers = new FilterBuffers();
+
+        assertEquals(4, buffers.getIn(4).length);
+        assertEquals(4, buffers.getOut(4).length);
+        assertFalse(buffers.getIn(4) == buffers.getIn(4));
+        assertFalse(buffers.getOut(4) == buffers.getOut(4));
+
+        final ImageBuffer first = buffers.getImage(2, 3, null);
+        final ImageBuffer second = buffers.getImage(2, 3, null);
+
+        assertFalse(first == second);
+        assertEquals(2, first.getWidth());
+        assertEquals(3, first.getHeight());
+
+        first.dispose();
+        second.dispose();
+    }
+
+    /**
+     * Test buffers are acquired once and reused while their size does not change when pooled.
+     */
+    @Test
+    public void testPooled()
+    {
+        final FilterBuffers buffers = new FilterBuffers();
+        buffers.setPooled(true);
+
+        final int[] in = buffers.getIn(4);
+        final int[] out = buffers.getOut(6);
+        final ImageBuffer image = buffers.getImage(2, 3, null);
+
+        assertEquals(4, in.length);
+        assertEquals(6, out.length);
+        assertTrue(in == buffers.getIn(4));
+        assertTrue(out == buffers.getOut(6));
+        assertTrue(in != out);
+        assertTrue(image == buffers.getImage(2, 3, null));
+
+        buffers.release();
+    }
+
+    /**
+     * Test pooled buffers are allocated again on size or transparency change.
+     */
+    @Test
+    public void testSizeChange()
+    {
+        final FilterBuffers buffers = new FilterBuffers();
+        buffers.setPooled(true);
+
+        final int[] in = buffers.getIn(4);
+        final int[] out = buffers.getOut(4);
+        final ImageBuffer image = buffers.getImage(2, 3, null);
+
+        final int[] inResized = buffers.getIn(8);
+        final int[] outResized = buffers.getOut(8);
+
+        assertFalse(in == inResized);
+        assertFalse(out == outResized);
+        assertEquals(8, inResized.length);
+        assertEquals(8, outResized.length);
+        assertTrue(inResized == buffers.getIn(8));
+
+        final ImageBuffer wider = buffers.getImage(3, 3, null);
+
+        assertFalse(image == wider);
+        assertEquals(3, wider.getWidth());
+
+        final ImageBuffer higher = buffers.getImage(3, 4, null);
+
+        assertFalse(wider == higher);
+        assertEquals(4, higher.getHeight());
+
+        final ImageBuffer transparent = buffers.getImage(3, 4, ColorRgba.BLACK);
+
+        assertFalse(higher == transparent);
+        assertTrue(transparent == buffers.getImage(3, 4, ColorRgba.BLACK));
+
+        buffers.release();
+    }
+
+    /**
+     * Test release, which must allocate pooled buffers again on next request.
+     */
+    @Test
+    public void testRelease()
+    {
+        final FilterBuffers buffers = new FilterBuffers();
+        buffers.setPooled(true);
+
+        final int[] in = buffers.getIn(4);
+        final int[] out = buffers.getOut(4);
+        final ImageBuffer image = buffers.getImage(2, 3, null);
+
+        buffers.release();
+
+        assertFalse(in == buffers.getIn(4));
+        assertFalse(out == buffers.getOut(4));
+        assertFalse(image == buffers.getImage(2, 3, null));
+
+        final int[] pooled = buffers.getIn(4);
+        buffers.setPooled(false);
+        buffers.setPooled(true);
+
+        assertFalse(pooled == buffers.getIn(4));
+
+        buffers.release();
+    }
+}
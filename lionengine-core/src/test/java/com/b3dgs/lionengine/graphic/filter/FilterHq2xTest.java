@@ -19,6 +19,7 @@ package com.b3dgs.lionengine.graphic.filter;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -94,4 +95,31 @@ public final class FilterHq2xTest
         image.dispose();
         filtered.dispose();
     }
+
+    /**
+     * Test pooled filter, which must give same pixels while reusing its result.
+     */
+    @Test
+    public void testPooled()
+    {
+        UtilFilter.testPooled(new FilterHq2x());
+    }
+
+    /**
+     * Test constructor with <code>null</code> pool.
+     */
+    @Test
+    public void testConstructorNullPool()
+    {
+        assertThrows(() -> new FilterHq2x(null), "Unexpected null argument !");
+    }
+
+    /**
+     * Test parallel filter, which must give same pixels as serial one.
+     */
+    @Test
+    public void testParallel()
+    {
+        UtilFilter.testParallel(FilterHq2x::new, FilterHq2x::new);
+    }
 }
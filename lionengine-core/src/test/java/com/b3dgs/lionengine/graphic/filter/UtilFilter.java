@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.graphic.filter;
+
+import static com.b3dgs.lionengine.UtilAssert.assertArrayEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.graphic.Filter;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Filter test utility.
+ */
+final class UtilFilter
+{
+    /** Image sizes checked in parallel: full bands, last band not full, fewer rows than bands, single band. */
+    private static final int[][] SIZES =
+    {
+        {
+            320, 240
+        },
+        {
+            257, 131
+        },
+        {
+            FilterBands.THRESHOLD, 3
+        },
+        {
+            64, 2
+        }
+    };
+
+    /**
+     * Create an opaque image filled with a pattern of seven colors.
+     * 
+     * @param width The image width.
+     * @param height The image height.
+     * @return The created image.
+     */
+    static ImageBuffer createImage(int width, int height)
+    {
+        final ImageBuffer image = Graphics.createImageBuffer(width, height);
+        for (int y = 0; y < height; y++)
+        {
+            for (int x = 0; x < width; x++)
+            {
+                image.setRgb(x, y, (x * 31 + y * 17) % 7 * 0x10_20_30 | 0xFF_00_00_00);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Get image pixels.
+     * 
+     * @param image The image reference.
+     * @return The image pixels.
+     */
+    static int[] getRgb(ImageBuffer image)
+    {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        return image.getRgb(0, 0, width, height, new int[width * height], 0, width);
+    }
+
+    /**
+     * Test pooled filter, which must give same pixels as not pooled one while reusing its result.
+     * 
+     * @param filter The filter to test (not pooled).
+     */
+    static void testPooled(Filter filter)
+    {
+        final ImageBuffer image = createImage(64, 32);
+        final ImageBuffer expected = filter.filter(image);
+
+        filter.setPooled(true);
+        final ImageBuffer pooled = filter.filter(image);
+        final ImageBuffer reused = filter.filter(image);
+
+        assertEquals(pooled, reused);
+        assertArrayEquals(getRgb(expected), getRgb(reused));
+
+        // Disposes pooled image
+        filter.release();
+        final ImageBuffer released = filter.filter(image);
+
+        assertNotEquals(reused, released);
+        assertArrayEquals(getRgb(expected), getRgb(released));
+
+        // Disposes released image
+        filter.setPooled(false);
+        final ImageBuffer first = filter.filter(image);
+        final ImageBuffer second = filter.filter(image);
+
+        assertNotEquals(first, second);
+
+        first.dispose();
+        second.dispose();
+        image.dispose();
+        expected.dispose();
+    }
+
+    /**
+     * Test parallel filter, which must give same pixels as serial one for each checked image size.
+     * 
+     * @param serial The serial filter factory.
+     * @param parallel The parallel filter factory.
+     */
+    static void testParallel(Supplier<Filter> serial, Function<ForkJoinPool, Filter> parallel)
+    {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            for (final int[] size : SIZES)
+            {
+                final ImageBuffer image = createImage(size[0], size[1]);
+                final ImageBuffer expected = serial.get().filter(image);
+                final ImageBuffer filtered = parallel.apply(pool).filter(image);
+
+                assertArrayEquals(getRgb(expected), getRgb(filtered));
+
+                image.dispose();
+                expected.dispose();
+                filtered.dispose();
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Private constructor.
+     */
+    private UtilFilter()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.Collection;
+
+/**
+ * Declare the feature types accessed by a component during its update, allowing {@link Handler} to run independent
+ * components in parallel in the same phase. Two components are independent if none of them writes a type (or a
+ * related type) read or written by the other one.
+ * <p>
+ * Components not implementing this interface are always run alone, in their own phase. This is the case of built-in
+ * updaters such as {@link ComponentRefreshable} and collision components, as they run user callbacks whose accessed
+ * types are unknown.
+ * </p>
+ * 
+ * @see Handler#Handler(Services, java.util.concurrent.ForkJoinPool)
+ */
+public interface ComponentAccess
+{
+    /**
+     * Get the feature types only read during update.
+     * 
+     * @return The read types.
+     */
+    Collection<Class<?>> getReads();
+
+    /**
+     * Get the feature types modified during update.
+     * 
+     * @return The written types.
+     */
+    Collection<Class<?>> getWrites();
+}
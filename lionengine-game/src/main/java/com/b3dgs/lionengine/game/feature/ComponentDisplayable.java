@@ -16,13 +16,18 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.game.FeatureProvider;
 import com.b3dgs.lionengine.graphic.Graphic;
 
@@ -30,11 +35,18 @@ import com.b3dgs.lionengine.graphic.Graphic;
  * Renderer component implementation which render {@link Displayable} elements with {@link Layerable} support to order
  * rendering. If there is not {@link Layerable} feature, {@link #LAYER_DEFAULT} will be used as default layer value.
  * The lower layer index is handled first.
+ * <p>
+ * Culling can be enabled by providing a {@link Viewer}: {@link Transformable} elements are then stored in a spatial
+ * index for each layer, and only the ones viewable with the specified margin are rendered. Elements without
+ * {@link Transformable} are always rendered.
+ * </p>
  */
 public class ComponentDisplayable implements ComponentRenderer, HandlerListener, LayerableListener
 {
     /** Default layer value. */
     private static final Integer LAYER_DEFAULT = Integer.valueOf(0);
+    /** Culling index cell size. */
+    private static final double CULLING_CELL = 128.0;
 
     /**
      * Get the featurable layer.
@@ -56,6 +68,14 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
     private final Set<Integer> indexs = new TreeSet<>();
     /** Layers to render. */
     private final Map<Integer, Collection<Displayable>> layers = new HashMap<>();
+    /** Layers culling index. */
+    private final Map<Integer, SpatialIndex<Displayable>> culled = new HashMap<>();
+    /** Viewable elements cache. */
+    private final List<Displayable> viewable = new ArrayList<>();
+    /** Viewer used for culling (<code>null</code> if no culling). */
+    private final Viewer viewer;
+    /** Culling margin. */
+    private final int margin;
 
     /**
      * Create component.
@@ -63,6 +83,27 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
     public ComponentDisplayable()
     {
         super();
+
+        viewer = null;
+        margin = 0;
+    }
+
+    /**
+     * Create component with culling.
+     * 
+     * @param viewer The viewer used for culling (must not be <code>null</code>).
+     * @param margin The margin around viewer, elements inside are still rendered (must be positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public ComponentDisplayable(Viewer viewer, int margin)
+    {
+        super();
+
+        Check.notNull(viewer);
+        Check.superiorOrEqual(margin, 0);
+
+        this.viewer = viewer;
+        this.margin = margin;
     }
 
     /**
@@ -86,6 +127,28 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
         return displayables;
     }
 
+    /**
+     * Get the culling index at the specified layer. Creates an empty index if not already defined.
+     * 
+     * @param layer The layer index.
+     * @return The layer culling index.
+     */
+    private SpatialIndex<Displayable> getCulled(Integer layer)
+    {
+        return culled.computeIfAbsent(layer, l -> new SpatialIndex<>(CULLING_CELL));
+    }
+
+    /**
+     * Check if featurable is culled.
+     * 
+     * @param provider The provider reference.
+     * @return <code>true</code> if culled, <code>false</code> if always rendered.
+     */
+    private boolean isCulled(FeatureProvider provider)
+    {
+        return viewer != null && provider.hasFeature(Transformable.class);
+    }
+
     /**
      * Remove displayable and its layer.
      * 
@@ -96,12 +159,33 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
     {
         final Collection<Displayable> displayables = getLayer(layer);
         displayables.remove(displayable);
-        if (displayables.isEmpty())
+        if (displayables.isEmpty() && (!culled.containsKey(layer) || culled.get(layer).isEmpty()))
         {
             indexs.remove(layer);
         }
     }
 
+    /**
+     * Render viewable elements of layer.
+     * 
+     * @param g The graphic output.
+     * @param layer The layer index.
+     */
+    private void renderCulled(Graphic g, Integer layer)
+    {
+        final SpatialIndex<Displayable> index = culled.get(layer);
+        if (index != null)
+        {
+            index.find(viewer, margin, viewable);
+            final int n = viewable.size();
+            for (int i = 0; i < n; i++)
+            {
+                viewable.get(i).render(g);
+            }
+            viewable.clear();
+        }
+    }
+
     /*
      * ComponentRenderer
      */
@@ -115,6 +199,10 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
             {
                 displayable.render(g);
             }
+            if (viewer != null)
+            {
+                renderCulled(g, layer);
+            }
         }
     }
 
@@ -130,7 +218,14 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
             final Displayable displayable = featurable.getFeature(Displayable.class);
             final Integer layer = getLayer(featurable);
             final Collection<Displayable> displayables = getLayer(layer);
-            displayables.add(displayable);
+            if (isCulled(featurable))
+            {
+                getCulled(layer).add(featurable.getFeature(Transformable.class), displayable);
+            }
+            else
+            {
+                displayables.add(displayable);
+            }
             indexs.add(layer);
         }
     }
@@ -142,6 +237,10 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
         {
             final Displayable displayable = featurable.getFeature(Displayable.class);
             final Integer layer = getLayer(featurable);
+            if (isCulled(featurable))
+            {
+                getCulled(layer).remove(featurable.getFeature(Transformable.class));
+            }
             remove(layer, displayable);
         }
     }
@@ -160,8 +259,18 @@ public class ComponentDisplayable implements ComponentRenderer, HandlerListener,
         if (provider.hasFeature(Displayable.class))
         {
             final Displayable displayable = provider.getFeature(Displayable.class);
-            getLayer(layerDisplayOld).remove(displayable);
-            getLayer(layerDisplayNew).add(displayable);
+            if (isCulled(provider))
+            {
+                final Transformable transformable = provider.getFeature(Transformable.class);
+                getCulled(layerDisplayOld).remove(transformable);
+                getCulled(layerDisplayNew).add(transformable, displayable);
+                getLayer(layerDisplayNew);
+            }
+            else
+            {
+                getLayer(layerDisplayOld).remove(displayable);
+                getLayer(layerDisplayNew).add(displayable);
+            }
             indexs.add(layerDisplayNew);
         }
     }
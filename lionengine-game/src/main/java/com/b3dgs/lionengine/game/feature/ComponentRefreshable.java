@@ -16,24 +16,45 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Viewer;
 import com.b3dgs.lionengine.game.FeatureProvider;
 
 /**
  * Refresher component implementation which refreshes {@link Refreshable} elements with {@link Layerable} support to
  * order rendering. If there is not {@link Layerable} feature, {@link #LAYER_DEFAULT} will be used as default layer
  * value. The lower layer index is handled first.
+ * <p>
+ * Throttling can be enabled by providing a {@link Viewer}: {@link Transformable} elements which are not viewable with
+ * the specified margin are only refreshed once every period, with the extrapolation elapsed since their last refresh.
+ * Off screen elements are spread over the period frames. Elements without {@link Transformable} are always refreshed.
+ * </p>
+ * <p>
+ * Elements of a same layer can be refreshed in parallel by chunks with {@link #setParallel(ForkJoinPool, int)}, layers
+ * being still refreshed one after the other. Elements refresh must then not depend on other elements of the layer.
+ * {@link TransformableListener} of {@link TransformableModel} moved during a parallel refresh (such as collision broad
+ * phase and culling index) are not notified on the pool threads: notifications are deferred and sent on the update
+ * thread once the layer is refreshed, in elements order, with the final transformable state.
+ * </p>
  */
 public class ComponentRefreshable implements ComponentUpdater, HandlerListener, LayerableListener
 {
     /** Default layer value. */
     private static final Integer LAYER_DEFAULT = Integer.valueOf(0);
+    /** Throttling index cell size. */
+    private static final double CULLING_CELL = 128.0;
 
     /**
      * Get the featurable layer.
@@ -55,6 +76,30 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
     private final Set<Integer> indexs = new TreeSet<>();
     /** Layers to render. */
     private final Map<Integer, Collection<Refreshable>> layers = new HashMap<>();
+    /** Throttled elements index. */
+    private final SpatialIndex<Refreshable> index = new SpatialIndex<>(CULLING_CELL);
+    /** Throttled elements state. */
+    private final Map<Refreshable, Throttle> throttles = new HashMap<>();
+    /** Viewable elements of current frame. */
+    private final Set<Refreshable> viewable = new HashSet<>();
+    /** Layers elements array, for parallel refresh (removed on layer change). */
+    private final Map<Integer, Refreshable[]> snapshots = new HashMap<>();
+    /** Viewer used for throttling (<code>null</code> if no throttling). */
+    private final Viewer viewer;
+    /** Throttling margin. */
+    private final int margin;
+    /** Off screen refresh period in frames. */
+    private final int period;
+    /** Current frame. */
+    private int frame;
+    /** Elapsed extrapolation since first frame. */
+    private double elapsed;
+    /** Next throttled phase. */
+    private int phase;
+    /** Parallel refresh pool (<code>null</code> if sequential). */
+    private ForkJoinPool pool;
+    /** Parallel refresh minimum chunk size. */
+    private int chunk;
 
     /**
      * Create component.
@@ -62,16 +107,57 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
     public ComponentRefreshable()
     {
         super();
+
+        viewer = null;
+        margin = 0;
+        period = 1;
+    }
+
+    /**
+     * Create component with off screen throttling.
+     * 
+     * @param viewer The viewer used for throttling (must not be <code>null</code>).
+     * @param margin The margin around viewer, elements inside are refreshed each frame (must be positive).
+     * @param period The off screen refresh period in frames (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public ComponentRefreshable(Viewer viewer, int margin, int period)
+    {
+        super();
+
+        Check.notNull(viewer);
+        Check.superiorOrEqual(margin, 0);
+        Check.superiorStrict(period, 0);
+
+        this.viewer = viewer;
+        this.margin = margin;
+        this.period = period;
     }
 
     /**
-     * Get the layer set at the specified index. Creates an empty set if no set already defined.
+     * Enable parallel refresh of each layer elements, by chunks.
+     * 
+     * @param pool The pool used to refresh chunks (<code>null</code> to refresh sequentially).
+     * @param chunk The minimum elements number per chunk (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public void setParallel(ForkJoinPool pool, int chunk)
+    {
+        Check.superiorStrict(chunk, 0);
+
+        this.pool = pool;
+        this.chunk = chunk;
+    }
+
+    /**
+     * Get the layer set at the specified index, in order to modify it. Creates an empty set if no set already defined.
      * 
      * @param layer The layer index.
      * @return The layer set reference.
      */
     private Collection<Refreshable> getLayer(Integer layer)
     {
+        snapshots.remove(layer);
         final Collection<Refreshable> refreshables;
         if (!layers.containsKey(layer))
         {
@@ -85,6 +171,95 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
         return refreshables;
     }
 
+    /**
+     * Refresh layer elements.
+     * 
+     * @param layer The layer index.
+     * @param extrp The extrapolation value.
+     */
+    private void refresh(Integer layer, double extrp)
+    {
+        if (pool == null)
+        {
+            for (final Refreshable refreshable : layers.get(layer))
+            {
+                refresh(refreshable, extrp);
+            }
+        }
+        else
+        {
+            Refreshable[] refreshables = snapshots.get(layer);
+            if (refreshables == null)
+            {
+                final Collection<Refreshable> current = layers.get(layer);
+                refreshables = current.toArray(new Refreshable[current.size()]);
+                snapshots.put(layer, refreshables);
+            }
+            if (refreshables.length > chunk)
+            {
+                final Chunk root = new Chunk(refreshables, 0, refreshables.length, extrp);
+                pool.invoke(root);
+                root.notifyDeferred();
+            }
+            else
+            {
+                for (final Refreshable refreshable : refreshables)
+                {
+                    refresh(refreshable, extrp);
+                }
+            }
+        }
+    }
+
+    /**
+     * Refresh element if viewable or if its throttled refresh is due.
+     * 
+     * @param refreshable The element to refresh.
+     * @param extrp The extrapolation value.
+     */
+    private void refresh(Refreshable refreshable, double extrp)
+    {
+        if (viewer == null)
+        {
+            refreshable.update(extrp);
+            return;
+        }
+        final Throttle throttle = throttles.get(refreshable);
+        if (throttle == null)
+        {
+            refreshable.update(extrp);
+        }
+        else if (viewable.contains(refreshable) || (frame + throttle.phase) % period == 0)
+        {
+            if (throttle.frame == frame - 1)
+            {
+                refreshable.update(extrp);
+            }
+            else
+            {
+                refreshable.update(elapsed - throttle.elapsed);
+            }
+            throttle.frame = frame;
+            throttle.elapsed = elapsed;
+        }
+    }
+
+    /**
+     * Track element for throttling if has {@link Transformable}.
+     * 
+     * @param featurable The featurable reference.
+     * @param refreshable The element to track.
+     */
+    private void track(Featurable featurable, Refreshable refreshable)
+    {
+        if (viewer != null && featurable.hasFeature(Transformable.class) && !throttles.containsKey(refreshable))
+        {
+            index.add(featurable.getFeature(Transformable.class), refreshable);
+            throttles.put(refreshable, new Throttle(frame, elapsed, phase));
+            phase = (phase + 1) % period;
+        }
+    }
+
     /**
      * Remove refreshable and its layer.
      * 
@@ -108,13 +283,24 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
     @Override
     public void update(double extrp, Handlables featurables)
     {
-        for (final Integer layer : indexs)
+        if (viewer == null)
         {
-            for (final Refreshable refreshable : layers.get(layer))
+            for (final Integer layer : indexs)
             {
-                refreshable.update(extrp);
+                refresh(layer, extrp);
             }
         }
+        else
+        {
+            frame++;
+            elapsed += extrp;
+            index.find(viewer, margin, viewable);
+            for (final Integer layer : indexs)
+            {
+                refresh(layer, extrp);
+            }
+            viewable.clear();
+        }
     }
 
     /*
@@ -131,6 +317,7 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
             final Collection<Refreshable> refreshables = getLayer(layer);
             refreshables.add(refreshable);
             indexs.add(layer);
+            track(featurable, refreshable);
         }
     }
 
@@ -142,6 +329,10 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
             final Refreshable refreshable = featurable.getFeature(Refreshable.class);
             final Integer layer = getLayer(featurable);
             remove(layer, refreshable);
+            if (throttles.remove(refreshable) != null)
+            {
+                index.remove(featurable.getFeature(Transformable.class));
+            }
         }
     }
 
@@ -164,4 +355,119 @@ public class ComponentRefreshable implements ComponentUpdater, HandlerListener,
             indexs.add(layerRefreshNew);
         }
     }
+
+    /**
+     * Layer elements chunk refresh, split until minimum chunk size.
+     */
+    private final class Chunk extends RecursiveAction
+    {
+        /** Serial UID. */
+        private static final long serialVersionUID = 1L;
+
+        /** Layer elements. */
+        private final transient Refreshable[] refreshables;
+        /** First element index. */
+        private final int start;
+        /** Last element index (excluded). */
+        private final int end;
+        /** The extrapolation value. */
+        private final double extrp;
+        /** Transformed models with deferred notification (<code>null</code> if split). */
+        private List<TransformableModel> deferred;
+        /** First half (<code>null</code> if not split). */
+        private Chunk first;
+        /** Second half (<code>null</code> if not split). */
+        private Chunk second;
+
+        /**
+         * Create chunk.
+         * 
+         * @param refreshables The layer elements.
+         * @param start The first element index.
+         * @param end The last element index (excluded).
+         * @param extrp The extrapolation value.
+         */
+        Chunk(Refreshable[] refreshables, int start, int end, double extrp)
+        {
+            super();
+
+            this.refreshables = refreshables;
+            this.start = start;
+            this.end = end;
+            this.extrp = extrp;
+        }
+
+        /**
+         * Notify deferred transformations of chunk elements, in elements order. Must be called once chunk is computed.
+         */
+        void notifyDeferred()
+        {
+            if (deferred != null)
+            {
+                TransformableModel.notifyDeferred(deferred);
+            }
+            else
+            {
+                first.notifyDeferred();
+                second.notifyDeferred();
+            }
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (end - start <= chunk)
+            {
+                deferred = new ArrayList<>();
+                TransformableModel.setDeferred(deferred);
+                try
+                {
+                    for (int i = start; i < end; i++)
+                    {
+                        refresh(refreshables[i], extrp);
+                    }
+                }
+                finally
+                {
+                    TransformableModel.setDeferred(null);
+                }
+            }
+            else
+            {
+                final int middle = start + end >>> 1;
+                first = new Chunk(refreshables, start, middle, extrp);
+                second = new Chunk(refreshables, middle, end, extrp);
+                invokeAll(first, second);
+            }
+        }
+    }
+
+    /**
+     * Throttled element state.
+     */
+    private static final class Throttle
+    {
+        /** Phase in period. */
+        private final int phase;
+        /** Last refresh frame. */
+        private int frame;
+        /** Elapsed extrapolation at last refresh. */
+        private double elapsed;
+
+        /**
+         * Create throttle.
+         * 
+         * @param frame The current frame.
+         * @param elapsed The current elapsed extrapolation.
+         * @param phase The phase in period.
+         */
+        private Throttle(int frame, double elapsed, int phase)
+        {
+            super();
+
+            this.frame = frame;
+            this.elapsed = elapsed;
+            this.phase = phase;
+        }
+    }
 }
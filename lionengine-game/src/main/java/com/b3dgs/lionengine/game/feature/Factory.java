@@ -17,12 +17,9 @@
 package com.b3dgs.lionengine.game.feature;
 
 import java.lang.reflect.Constructor;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Deque;
 import java.util.HashMap;
-import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import com.b3dgs.lionengine.Check;
@@ -46,8 +43,14 @@ import com.b3dgs.lionengine.game.Feature;
  * {@link #setClassLoader(ClassLoader)}. Should be used in an OSGI environment for example.
  * </p>
  * <p>
+ * Creation steps (constructors resolution, features injection and listeners wiring) are resolved once per
+ * {@link Media} and featurable type, and replayed for next creations.
+ * </p>
+ * <p>
  * Destroyed {@link Featurable} can be cached to avoid {@link Featurable} creation if has {@link Recycler} and
- * {@link Recyclable} {@link Feature}s.
+ * {@link Recyclable} {@link Feature}s. Cache is a {@link FeaturablePool}, which may be bounded, and warmed
+ * progressively with {@link #requestWarm(Media, int)} and {@link #warm(long)}. Removed featurables which cannot be
+ * cached have their {@link Identifiable} Id released.
  * </p>
  */
 public class Factory implements HandlerListener
@@ -63,25 +66,55 @@ public class Factory implements HandlerListener
     /** Construction error. */
     static final String ERROR_CONSTRUCTOR_MISSING = "No recognized constructor found for: ";
 
+    /**
+     * Check if featurable can be cached once removed.
+     * 
+     * @param featurable The featurable to check.
+     * @return <code>true</code> if has a {@link Media} and a {@link Recycler}, <code>false</code> else.
+     */
+    static boolean isRecyclable(Featurable featurable)
+    {
+        return featurable.getMedia() != null && featurable.hasFeature(Recycler.class);
+    }
+
     /** Setups list. */
     private final Map<Media, Setup> setups = new HashMap<>();
-    /** Cached instances. */
-    private final Map<Media, Deque<Featurable>> cache = new HashMap<>();
+    /** Pending warm requests with their pool size target. */
+    private final Map<Media, Integer> warming = new LinkedHashMap<>();
+    /** Creation blueprints per media and type. */
+    private final Map<Media, Map<Class<? extends Featurable>, FeaturableBlueprint>> blueprints = new HashMap<>();
     /** Services reference. */
     private final Services services;
+    /** Cached instances. */
+    private final FeaturablePool pool;
     /** Class loader. */
     private ClassLoader classLoader;
 
     /**
-     * Create a factory.
+     * Create a factory with an unbounded cache.
      * 
      * @param services The services reference.
      */
     public Factory(Services services)
+    {
+        this(services, new FeaturablePool());
+    }
+
+    /**
+     * Create a factory.
+     * 
+     * @param services The services reference.
+     * @param pool The cache used (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public Factory(Services services, FeaturablePool pool)
     {
         super();
 
+        Check.notNull(pool);
+
         this.services = services;
+        this.pool = pool;
         classLoader = getClass().getClassLoader();
     }
 
@@ -102,25 +135,15 @@ public class Factory implements HandlerListener
      * @return The featurable instance.
      * @throws LionEngineException If {@link Media} is <code>null</code> or {@link Setup} not found.
      */
-    @SuppressWarnings("unchecked")
     public <O extends Featurable> O create(Media media)
     {
-        if (cache.containsKey(media) && !cache.get(media).isEmpty())
-        {
-            final Featurable featurable = cache.get(media).poll();
-            featurable.getFeature(Recycler.class).recycle();
-            return (O) featurable;
-        }
-        final Setup setup = getSetup(media);
-        final Class<O> type = setup.getConfigClass(classLoader);
-        try
+        final O featurable = poll(media);
+        if (featurable != null)
         {
-            return createFeaturable(type, setup);
-        }
-        catch (final NoSuchMethodException exception)
-        {
-            throw new LionEngineException(exception, ERROR_CONSTRUCTOR_MISSING + media);
+            return featurable;
         }
+        final Class<O> type = getSetup(media).getConfigClass(classLoader);
+        return createNew(media, type);
     }
 
     /**
@@ -141,28 +164,19 @@ public class Factory implements HandlerListener
      * @return The featurable instance.
      * @throws LionEngineException If {@link Media} is <code>null</code> or {@link Setup} not found.
      */
-    @SuppressWarnings("unchecked")
     public <O extends Featurable> O create(Media media, Class<O> type)
     {
-        if (cache.containsKey(media) && !cache.get(media).isEmpty())
-        {
-            final Featurable featurable = cache.get(media).poll();
-            featurable.getFeature(Recycler.class).recycle();
-            return (O) featurable;
-        }
-        final Setup setup = getSetup(media);
-        try
-        {
-            return createFeaturable(type, setup);
-        }
-        catch (final NoSuchMethodException exception)
+        final O featurable = poll(media);
+        if (featurable != null)
         {
-            throw new LionEngineException(exception, ERROR_CONSTRUCTOR_MISSING + media);
+            return featurable;
         }
+        return createNew(media, type);
     }
 
     /**
-     * Create cached medias from folder.
+     * Create cached medias from folder, until their cache contains the required number. Pending warm requests are
+     * also performed.
      * 
      * @param folder The root folder.
      * @param count The caches number.
@@ -173,29 +187,82 @@ public class Factory implements HandlerListener
         {
             if (media.getName().endsWith(FILE_DATA_DOT_EXTENSION))
             {
-                final Collection<Featurable> cached = new ArrayList<>();
-                for (int i = 0; i < count; i++)
-                {
-                    cached.add(create(media));
-                }
-                for (final Featurable featurable : cached)
+                requestWarm(media, count);
+            }
+        }
+        warm(Long.MAX_VALUE);
+    }
+
+    /**
+     * Request cache of a media to be warmed until it contains the required number (bounded by cache maximum per
+     * media). Warming is performed by {@link #warm(long)}. Replaces previous request of the media.
+     * 
+     * @param media The featurable media (must not be <code>null</code>).
+     * @param count The required cached number (must be positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public void requestWarm(Media media, int count)
+    {
+        Check.notNull(media);
+        Check.superiorOrEqual(count, 0);
+
+        warming.put(media, Integer.valueOf(Math.min(count, pool.getMaxPerMedia())));
+    }
+
+    /**
+     * Perform pending warm requests, by creating and destroying featurables, until all requests are done or duration
+     * elapsed. Can be called on each update of a loading sequence in order to warm caches while rendering loading
+     * screen. At least one featurable is created if a request is pending.
+     * <p>
+     * Request of a media is dropped if its featurables are not cached (not recyclable or evicted by cache).
+     * </p>
+     * 
+     * @param duration The maximum duration in nano seconds.
+     * @return The remaining number of featurables to create, <code>0</code> if all requests done.
+     * @throws LionEngineException If unable to create featurables.
+     */
+    public int warm(long duration)
+    {
+        final long start = System.nanoTime();
+        final Iterator<Map.Entry<Media, Integer>> iterator = warming.entrySet().iterator();
+        while (iterator.hasNext())
+        {
+            final Map.Entry<Media, Integer> entry = iterator.next();
+            final Media media = entry.getKey();
+            final int target = entry.getValue().intValue();
+            int current = pool.getSize(media);
+            while (current < target && warm(media))
+            {
+                current++;
+                if (current < target && System.nanoTime() - start >= duration)
                 {
-                    featurable.getFeature(Identifiable.class).destroy();
-                    notifyHandlableRemoved(featurable);
+                    return getWarmRemaining();
                 }
-                cached.clear();
             }
+            iterator.remove();
         }
+        return 0;
     }
 
     /**
-     * Set an external class loader.
+     * Get the featurables cache.
+     * 
+     * @return The cache reference.
+     */
+    public FeaturablePool getPool()
+    {
+        return pool;
+    }
+
+    /**
+     * Set an external class loader. Resolved creation blueprints are cleared.
      * 
      * @param classLoader The external class loader.
      */
     public void setClassLoader(ClassLoader classLoader)
     {
         this.classLoader = classLoader;
+        blueprints.clear();
     }
 
     /**
@@ -259,52 +326,99 @@ public class Factory implements HandlerListener
     }
 
     /**
-     * Create the featurable.
+     * Take a cached featurable, recycled.
      * 
      * @param <O> The featurable type.
+     * @param media The featurable media.
+     * @return The recycled featurable, <code>null</code> if none.
+     */
+    @SuppressWarnings("unchecked")
+    private <O extends Featurable> O poll(Media media)
+    {
+        final Featurable featurable = pool.poll(media);
+        if (featurable != null)
+        {
+            featurable.getFeature(Recycler.class).recycle();
+        }
+        return (O) featurable;
+    }
+
+    /**
+     * Create a new featurable from its blueprint.
+     * 
+     * @param <O> The featurable type.
+     * @param media The featurable media.
      * @param type The featurable type.
-     * @param setup The associated setup.
      * @return The featurable instance.
-     * @throws NoSuchMethodException If missing constructor.
+     * @throws LionEngineException If {@link Media} is <code>null</code> or {@link Setup} not found.
      */
-    private <O extends Featurable> O createFeaturable(Class<O> type, Setup setup) throws NoSuchMethodException
+    private <O extends Featurable> O createNew(Media media, Class<O> type)
     {
-        final O featurable = UtilReflection.createReduce(type, services, setup);
-        if (featurable.isLoadFeaturesEnabled())
+        try
         {
-            addFeatures(featurable, services, setup);
+            return getBlueprint(media, type).create();
         }
-        for (final Feature feature : featurable.getFeatures())
+        catch (final NoSuchMethodException exception)
         {
-            featurable.checkListener(feature);
-            for (final Feature other : featurable.getFeatures())
-            {
-                if (feature != other)
-                {
-                    other.checkListener(feature);
-                }
-            }
+            throw new LionEngineException(exception, ERROR_CONSTRUCTOR_MISSING + media);
         }
-        return featurable;
     }
 
     /**
-     * Add all features declared in configuration.
+     * Create a new featurable, destroy it and notify removal in order to be cached.
      * 
-     * @param featurable The featurable to handle.
-     * @param services The services reference.
-     * @param setup The setup reference.
+     * @param media The featurable media.
+     * @return <code>true</code> if cached, <code>false</code> else.
+     */
+    private boolean warm(Media media)
+    {
+        final int size = pool.getSize();
+        final Featurable featurable = createNew(media, getSetup(media).getConfigClass(classLoader));
+        featurable.getFeature(Identifiable.class).destroy();
+        notifyHandlableRemoved(featurable);
+        return pool.getSize() > size;
+    }
+
+    /**
+     * Get the remaining number of featurables to create for pending warm requests.
+     * 
+     * @return The remaining number.
+     */
+    private int getWarmRemaining()
+    {
+        int remaining = 0;
+        for (final Map.Entry<Media, Integer> entry : warming.entrySet())
+        {
+            remaining += Math.max(0, entry.getValue().intValue() - pool.getSize(entry.getKey()));
+        }
+        return remaining;
+    }
+
+    /**
+     * Get the blueprint of featurable type for a media, resolved once.
+     * 
+     * @param <O> The featurable type.
+     * @param media The featurable media.
+     * @param type The featurable type.
+     * @return The blueprint reference.
+     * @throws NoSuchMethodException If missing constructor.
      */
-    private void addFeatures(Featurable featurable, Services services, Setup setup)
+    private <O extends Featurable> FeaturableBlueprint getBlueprint(Media media, Class<O> type)
+            throws NoSuchMethodException
     {
-        final List<Feature> rawFeatures = FeaturableConfig.getFeatures(classLoader, services, setup);
-        final int length = rawFeatures.size();
-        for (int i = 0; i < length; i++)
+        Map<Class<? extends Featurable>, FeaturableBlueprint> types = blueprints.get(media);
+        if (types == null)
+        {
+            types = new HashMap<>();
+            blueprints.put(media, types);
+        }
+        FeaturableBlueprint blueprint = types.get(type);
+        if (blueprint == null)
         {
-            final Feature feature = rawFeatures.get(i);
-            featurable.addFeature(feature);
+            blueprint = new FeaturableBlueprint(type, classLoader, services, getSetup(media));
+            types.put(type, blueprint);
         }
-        featurable.addAfter(services, setup);
+        return blueprint;
     }
 
     /*
@@ -320,14 +434,13 @@ public class Factory implements HandlerListener
     @Override
     public void notifyHandlableRemoved(Featurable featurable)
     {
-        final Media media = featurable.getMedia();
-        if (media != null && featurable.hasFeature(Recycler.class))
+        if (isRecyclable(featurable))
         {
-            if (!cache.containsKey(media))
-            {
-                cache.put(media, new ArrayDeque<Featurable>());
-            }
-            cache.get(media).offer(featurable);
+            pool.offer(featurable.getMedia(), featurable);
+        }
+        else
+        {
+            featurable.getFeature(Identifiable.class).release();
         }
     }
 }
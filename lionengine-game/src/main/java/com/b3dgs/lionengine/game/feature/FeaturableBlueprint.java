@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.UtilReflection;
+import com.b3dgs.lionengine.game.Feature;
+
+/**
+ * Precompiled creation steps of a featurable type for a {@link Setup}, resolved once and replayed for each instance:
+ * <ul>
+ * <li>featurable and features constructors are resolved to method handles bound to their arguments,</li>
+ * <li>features injected fields are resolved once per class by {@link FeaturableModel},</li>
+ * <li>listener wiring only considers objects overriding their <code>checkListener</code>.</li>
+ * </ul>
+ * <p>
+ * Features constructors are resolved on first creation with features loading enabled.
+ * </p>
+ * 
+ * @see Factory
+ */
+final class FeaturableBlueprint
+{
+    /** Constructor error. */
+    static final String ERROR_CONSTRUCTOR = "Unable to create the following type: ";
+    /** Listener check method name. */
+    private static final String METHOD_CHECK_LISTENER = "checkListener";
+    /** Listener receivers flag per class. */
+    private static final Map<Class<?>, Boolean> RECEIVERS = new ConcurrentHashMap<>();
+
+    /**
+     * Get the constructor handle bound to its arguments.
+     * 
+     * @param type The type to create.
+     * @param services The services reference.
+     * @param setup The setup reference.
+     * @return The constructor handle without parameter.
+     * @throws NoSuchMethodException If no compatible constructor found.
+     * @throws LionEngineException If constructor not accessible.
+     */
+    private static MethodHandle getConstructor(Class<?> type, Services services, Setup setup)
+            throws NoSuchMethodException
+    {
+        final Constructor<?> constructor = UtilReflection.getCompatibleConstructorReduce(type, services, setup);
+        try
+        {
+            return MethodHandles.insertArguments(MethodHandles.lookup().unreflectConstructor(constructor),
+                                                 0,
+                                                 UtilReflection.getReducedParams(constructor, services, setup));
+        }
+        catch (final IllegalAccessException exception)
+        {
+            throw new LionEngineException(exception, ERROR_CONSTRUCTOR + type);
+        }
+    }
+
+    /**
+     * Create instance from its constructor handle.
+     * 
+     * @param constructor The constructor handle.
+     * @param type The type created.
+     * @return The created instance.
+     * @throws LionEngineException If error during creation.
+     */
+    private static Object create(MethodHandle constructor, Class<?> type)
+    {
+        try
+        {
+            return constructor.invoke();
+        }
+        catch (final Throwable exception) // CHECKSTYLE IGNORE LINE: IllegalCatch
+        {
+            throw new LionEngineException(exception, ERROR_CONSTRUCTOR + type);
+        }
+    }
+
+    /**
+     * Check if object type may react to listener check.
+     * 
+     * @param object The object to check.
+     * @return <code>true</code> if listener check overridden, <code>false</code> if does nothing.
+     */
+    private static boolean isReceiver(Object object)
+    {
+        return RECEIVERS.computeIfAbsent(object.getClass(), FeaturableBlueprint::hasCheckListener).booleanValue();
+    }
+
+    /**
+     * Check if type overrides the default listener check of {@link FeaturableModel} or {@link FeatureModel}.
+     * 
+     * @param type The type to check.
+     * @return <code>true</code> if overridden, <code>false</code> else.
+     */
+    private static Boolean hasCheckListener(Class<?> type)
+    {
+        try
+        {
+            final Class<?> declaring = type.getMethod(METHOD_CHECK_LISTENER, Object.class).getDeclaringClass();
+            return Boolean.valueOf(declaring != FeaturableModel.class && declaring != FeatureModel.class);
+        }
+        catch (final NoSuchMethodException exception)
+        {
+            return Boolean.TRUE;
+        }
+    }
+
+    /**
+     * Notify each feature to featurable and other features which check listeners.
+     * 
+     * @param featurable The featurable to wire.
+     */
+    private static void checkListeners(Featurable featurable)
+    {
+        final boolean featurableReceiver = isReceiver(featurable);
+        final List<Feature> all = new ArrayList<>();
+        final List<Feature> receivers = new ArrayList<>();
+        for (final Feature feature : featurable.getFeatures())
+        {
+            all.add(feature);
+            if (isReceiver(feature))
+            {
+                receivers.add(feature);
+            }
+        }
+
+        final int length = all.size();
+        final int count = receivers.size();
+        for (int i = 0; i < length; i++)
+        {
+            final Feature feature = all.get(i);
+            if (featurableReceiver)
+            {
+                featurable.checkListener(feature);
+            }
+            for (int j = 0; j < count; j++)
+            {
+                final Feature other = receivers.get(j);
+                if (feature != other)
+                {
+                    other.checkListener(feature);
+                }
+            }
+        }
+    }
+
+    /** Featurable type. */
+    private final Class<? extends Featurable> type;
+    /** Featurable constructor. */
+    private final MethodHandle constructor;
+    /** Class loader. */
+    private final ClassLoader loader;
+    /** Services reference. */
+    private final Services services;
+    /** Setup reference. */
+    private final Setup setup;
+    /** Features type (<code>null</code> if not resolved). */
+    private List<Class<? extends Feature>> featuresType;
+    /** Features constructor (<code>null</code> if not resolved). */
+    private List<MethodHandle> features;
+
+    /**
+     * Create blueprint.
+     * 
+     * @param type The featurable type.
+     * @param loader The class loader used for features.
+     * @param services The services reference.
+     * @param setup The setup reference.
+     * @throws NoSuchMethodException If no compatible featurable constructor found.
+     * @throws LionEngineException If constructor not accessible.
+     */
+    FeaturableBlueprint(Class<? extends Featurable> type, ClassLoader loader, Services services, Setup setup)
+            throws NoSuchMethodException
+    {
+        super();
+
+        this.type = type;
+        this.loader = loader;
+        this.services = services;
+        this.setup = setup;
+        constructor = getConstructor(type, services, setup);
+    }
+
+    /**
+     * Create a new featurable instance, with its configured features and listeners wired.
+     * 
+     * @param <O> The featurable type.
+     * @return The featurable instance.
+     * @throws LionEngineException If error during creation.
+     */
+    @SuppressWarnings("unchecked")
+    <O extends Featurable> O create()
+    {
+        final Featurable featurable = (Featurable) create(constructor, type);
+        if (featurable.isLoadFeaturesEnabled())
+        {
+            resolveFeatures();
+            final int length = features.size();
+            for (int i = 0; i < length; i++)
+            {
+                featurable.addFeature((Feature) create(features.get(i), featuresType.get(i)));
+            }
+            featurable.addAfter(services, setup);
+        }
+        checkListeners(featurable);
+        return (O) featurable;
+    }
+
+    /**
+     * Resolve features constructor if not already done.
+     * 
+     * @throws LionEngineException If invalid feature class or constructor.
+     */
+    private void resolveFeatures()
+    {
+        if (features == null)
+        {
+            final List<Class<? extends Feature>> classes = FeaturableConfig.getFeaturesClass(loader, setup);
+            final List<MethodHandle> handles = new ArrayList<>(classes.size());
+            for (final Class<? extends Feature> clazz : classes)
+            {
+                try
+                {
+                    handles.add(getConstructor(clazz, services, setup));
+                }
+                catch (final NoSuchMethodException exception)
+                {
+                    throw new LionEngineException(exception);
+                }
+            }
+            featuresType = classes;
+            features = handles;
+        }
+    }
+}
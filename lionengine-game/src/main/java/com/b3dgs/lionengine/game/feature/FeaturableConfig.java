@@ -179,6 +179,25 @@ public final class FeaturableConfig
         return features;
     }
 
+    /**
+     * Get all declared features class, in declaration order.
+     * 
+     * @param loader The class loader reference.
+     * @param setup The setup reference.
+     * @return The features class.
+     * @throws LionEngineException If invalid class.
+     */
+    static List<Class<? extends Feature>> getFeaturesClass(ClassLoader loader, Setup setup)
+    {
+        final Collection<Xml> children = setup.getRoot().getChildren(FeaturableConfig.NODE_FEATURE);
+        final List<Class<? extends Feature>> classes = new ArrayList<>(children.size());
+        for (final Xml featureNode : children)
+        {
+            classes.add(getClass(loader, featureNode.getText()));
+        }
+        return classes;
+    }
+
     /**
      * Get the class reference from its name using cache.
      * 
@@ -19,6 +19,8 @@ package com.b3dgs.lionengine.game.feature;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.LionEngineException;
@@ -37,17 +39,30 @@ public class FeaturableModel implements Featurable
     private static final String IN = " in ";
     /** Inject service error. */
     private static final String ERROR_INJECT = "Error during service injection !";
+    /** Accessible fields requiring injection per class. */
+    private static final Map<Class<?>, List<Field>> FIELDS_CACHE = new ConcurrentHashMap<>();
 
     /**
-     * Get all with that require an injected service.
+     * Get all with that require an injected service. Fields are computed once per class.
      * 
      * @param object The object which requires injected services.
-     * @return The field requiring injected services.
+     * @return The accessible fields requiring injected services.
      */
     private static List<Field> getServiceFields(Object object)
+    {
+        return FIELDS_CACHE.computeIfAbsent(object.getClass(), FeaturableModel::findServiceFields);
+    }
+
+    /**
+     * Find all with that require an injected service, and make them accessible.
+     * 
+     * @param type The class which requires injected services.
+     * @return The accessible fields requiring injected services.
+     */
+    private static List<Field> findServiceFields(Class<?> type)
     {
         final List<Field> toInject = new ArrayList<>();
-        Class<?> clazz = object.getClass();
+        Class<?> clazz = type;
         while (clazz != null)
         {
             final Field[] fields = clazz.getDeclaredFields();
@@ -57,6 +72,7 @@ public class FeaturableModel implements Featurable
                 final Field field = fields[i];
                 if (field.isAnnotationPresent(FeatureGet.class))
                 {
+                    UtilReflection.setAccessible(field, true);
                     toInject.add(field);
                 }
             }
@@ -110,8 +126,6 @@ public class FeaturableModel implements Featurable
         for (int i = 0; i < length; i++)
         {
             final Field field = fields.get(i);
-            UtilReflection.setAccessible(field, true);
-
             final Class<?> type = field.getType();
             setField(field, object, type);
         }
@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+
+/**
+ * Pool of recycled {@link Featurable} per {@link Media}, used by {@link Factory}.
+ * <p>
+ * Pool size is bounded per media and globally. When global budget is exceeded, featurables of the least recently used
+ * media are evicted first. Hits, misses and evictions are counted, misses being only counted for media already pooled
+ * once.
+ * </p>
+ * <p>
+ * Evicted and cleared featurables are discarded, their {@link Identifiable} Id is released.
+ * </p>
+ * <p>
+ * This class is not Thread-Safe.
+ * </p>
+ */
+public class FeaturablePool
+{
+    /** Unlimited size. */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+    /** Initial capacity. */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Load factor. */
+    private static final float LOAD_FACTOR = 0.75F;
+
+    /**
+     * Release discarded featurable Id.
+     * 
+     * @param featurable The discarded featurable.
+     */
+    private static void release(Featurable featurable)
+    {
+        featurable.getFeature(Identifiable.class).release();
+    }
+
+    /** Pooled featurables per media, from least to most recently used. */
+    private final Map<Media, Deque<Featurable>> pools = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+    /** Media pooled at least once. */
+    private final Set<Media> known = new HashSet<>();
+    /** Maximum pooled featurables per media. */
+    private final int maxPerMedia;
+    /** Maximum pooled featurables for all media. */
+    private final int budget;
+    /** Pooled featurables number. */
+    private int size;
+    /** Hits number. */
+    private long hits;
+    /** Misses number. */
+    private long misses;
+    /** Evictions number. */
+    private long evictions;
+
+    /**
+     * Create an unbounded pool.
+     */
+    public FeaturablePool()
+    {
+        this(UNLIMITED, UNLIMITED);
+    }
+
+    /**
+     * Create a bounded pool.
+     * 
+     * @param maxPerMedia The maximum pooled featurables per media (must be strictly positive).
+     * @param budget The maximum pooled featurables for all media (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public FeaturablePool(int maxPerMedia, int budget)
+    {
+        super();
+
+        Check.superiorStrict(maxPerMedia, 0);
+        Check.superiorStrict(budget, 0);
+
+        this.maxPerMedia = maxPerMedia;
+        this.budget = budget;
+    }
+
+    /**
+     * Take a pooled featurable. Media becomes the most recently used.
+     * 
+     * @param media The featurable media.
+     * @return The pooled featurable, <code>null</code> if none.
+     */
+    public Featurable poll(Media media)
+    {
+        final Deque<Featurable> pool = pools.get(media);
+        if (pool == null)
+        {
+            if (known.contains(media))
+            {
+                misses++;
+            }
+            return null;
+        }
+        final Featurable featurable = pool.poll();
+        if (pool.isEmpty())
+        {
+            pools.remove(media);
+        }
+        size--;
+        hits++;
+        return featurable;
+    }
+
+    /**
+     * Add a featurable to pool. Media becomes the most recently used. Featurables of least recently used media are
+     * evicted if budget exceeded.
+     * 
+     * @param media The featurable media.
+     * @param featurable The featurable to pool.
+     * @return <code>true</code> if pooled, <code>false</code> if evicted as media pool is full.
+     */
+    public boolean offer(Media media, Featurable featurable)
+    {
+        known.add(media);
+        Deque<Featurable> pool = pools.get(media);
+        if (pool == null)
+        {
+            pool = new ArrayDeque<>();
+            pools.put(media, pool);
+        }
+        else if (pool.size() >= maxPerMedia)
+        {
+            evictions++;
+            release(featurable);
+            return false;
+        }
+        pool.offer(featurable);
+        size++;
+
+        while (size > budget)
+        {
+            evictLeastRecentlyUsed();
+        }
+        return true;
+    }
+
+    /**
+     * Remove all pooled featurables. Counters are kept.
+     */
+    public void clear()
+    {
+        for (final Deque<Featurable> pool : pools.values())
+        {
+            for (final Featurable featurable : pool)
+            {
+                release(featurable);
+            }
+        }
+        pools.clear();
+        size = 0;
+    }
+
+    /**
+     * Reset hits, misses and evictions counters.
+     */
+    public void resetCounters()
+    {
+        hits = 0L;
+        misses = 0L;
+        evictions = 0L;
+    }
+
+    /**
+     * Get the pooled featurables number for all media.
+     * 
+     * @return The pooled featurables number.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Get the pooled featurables number of a media. Does not change media usage order.
+     * 
+     * @param media The featurable media.
+     * @return The pooled featurables number.
+     */
+    public int getSize(Media media)
+    {
+        for (final Map.Entry<Media, Deque<Featurable>> entry : pools.entrySet())
+        {
+            if (entry.getKey().equals(media))
+            {
+                return entry.getValue().size();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Get the maximum pooled featurables per media.
+     * 
+     * @return The maximum per media.
+     */
+    public int getMaxPerMedia()
+    {
+        return maxPerMedia;
+    }
+
+    /**
+     * Get the maximum pooled featurables for all media.
+     * 
+     * @return The global budget.
+     */
+    public int getBudget()
+    {
+        return budget;
+    }
+
+    /**
+     * Get the number of featurables taken from pool.
+     * 
+     * @return The hits number.
+     */
+    public long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * Get the number of empty pool requests, for media already pooled once.
+     * 
+     * @return The misses number.
+     */
+    public long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Get the number of featurables evicted from pool, or rejected as media pool was full.
+     * 
+     * @return The evictions number.
+     */
+    public long getEvictions()
+    {
+        return evictions;
+    }
+
+    /**
+     * Get the hits ratio among hits and misses.
+     * 
+     * @return The hits ratio in <code>[0, 1]</code>, <code>0</code> if no request.
+     */
+    public double getHitRatio()
+    {
+        final long requests = hits + misses;
+        if (requests == 0L)
+        {
+            return 0.0;
+        }
+        return hits / (double) requests;
+    }
+
+    /**
+     * Evict the last pooled featurable of the least recently used media.
+     */
+    private void evictLeastRecentlyUsed()
+    {
+        final Iterator<Deque<Featurable>> iterator = pools.values().iterator();
+        final Deque<Featurable> pool = iterator.next();
+        release(pool.pollLast());
+        if (pool.isEmpty())
+        {
+            iterator.remove();
+        }
+        size--;
+        evictions++;
+    }
+}
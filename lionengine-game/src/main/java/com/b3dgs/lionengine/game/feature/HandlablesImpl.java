@@ -16,12 +16,17 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.UtilReflection;
@@ -29,157 +34,213 @@ import com.b3dgs.lionengine.game.Feature;
 
 /**
  * Handlables implementation.
+ * <p>
+ * Types of featurables and features are resolved once per concrete class. Members of each type are stored in dense
+ * arrays, removed by swapping with last member, allowing fast add, remove and iteration.
+ * </p>
  */
 final class HandlablesImpl implements Handlables
 {
     /** Featurable not found error. */
     static final String ERROR_FEATURABLE_NOT_FOUND = "Featurable not found: ";
-
-    /** List of featurables (key is the featurable ID). */
-    private final Map<Integer, Featurable> featurables = new HashMap<>();
-    /** List of typed items (key is the feature type). */
-    private final Map<Class<?>, Set<Object>> items = new HashMap<>();
+    /** Initial members capacity. */
+    private static final int INITIAL_CAPACITY = 8;
+    /** Resolved featurable types cache (key is the featurable class). */
+    private static final Map<Class<?>, Class<?>[]> FEATURABLE_TYPES = new ConcurrentHashMap<>();
+    /** Resolved feature types cache (key is the feature class). */
+    private static final Map<Class<?>, Class<?>[]> FEATURE_TYPES = new ConcurrentHashMap<>();
 
     /**
-     * Create the handlables.
+     * Get the featurable types: its class, and declared interfaces of its class and parents.
+     * 
+     * @param type The featurable class.
+     * @return The featurable types.
      */
-    HandlablesImpl()
+    private static Class<?>[] getFeaturableTypes(Class<?> type)
     {
-        super();
+        return FEATURABLE_TYPES.computeIfAbsent(type, HandlablesImpl::resolveFeaturableTypes);
     }
 
     /**
-     * Add a featurable.
+     * Get the feature types: its class, and all its feature interfaces.
      * 
-     * @param featurable The featurable to add.
+     * @param type The feature class.
+     * @return The feature types.
      */
-    public void add(Featurable featurable)
+    private static Class<?>[] getFeatureTypes(Class<?> type)
     {
-        featurables.put(featurable.getFeature(Identifiable.class).getId(), featurable);
-
-        for (final Class<?> type : featurable.getClass().getInterfaces())
-        {
-            addType(type, featurable);
-        }
+        return FEATURE_TYPES.computeIfAbsent(type, HandlablesImpl::resolveFeatureTypes);
+    }
 
-        for (final Class<? extends Feature> feature : featurable.getFeaturesType())
+    /**
+     * Resolve featurable types.
+     * 
+     * @param type The featurable class.
+     * @return The featurable types.
+     */
+    private static Class<?>[] resolveFeaturableTypes(Class<?> type)
+    {
+        final Set<Class<?>> types = new LinkedHashSet<>();
+        types.add(type);
+        Class<?> current = type;
+        while (current != null)
         {
-            final Feature object = featurable.getFeature(feature);
-            addType(feature, object);
-            for (final Class<?> other : UtilReflection.getInterfaces(feature, Feature.class))
-            {
-                addType(other, object);
-            }
+            types.addAll(Arrays.asList(current.getInterfaces()));
+            current = current.getSuperclass();
         }
-        addType(featurable.getClass(), featurable);
-        addSuperClass(featurable, featurable.getClass());
+        return types.toArray(new Class<?>[types.size()]);
     }
 
     /**
-     * Remove the featurable and all its references.
+     * Resolve feature types, as registered by {@link Features}, with their parent feature interfaces.
      * 
-     * @param featurable The featurable reference.
-     * @param id The featurable ID.
+     * @param type The feature class.
+     * @return The feature types.
      */
-    public void remove(Featurable featurable, Integer id)
+    private static Class<?>[] resolveFeatureTypes(Class<?> type)
     {
-        for (final Class<?> type : featurable.getClass().getInterfaces())
+        final Set<Class<?>> types = new LinkedHashSet<>();
+        types.add(type);
+        addFeatureInterfaces(types, type);
+        for (final Class<?> feature : new ArrayList<>(types))
         {
-            remove(type, featurable);
+            types.addAll(UtilReflection.getInterfaces(feature, Feature.class));
         }
+        return types.toArray(new Class<?>[types.size()]);
+    }
 
-        for (final Class<? extends Feature> feature : featurable.getFeaturesType())
+    /**
+     * Add feature interfaces of type hierarchy.
+     * 
+     * @param types The found types.
+     * @param current The current type.
+     */
+    private static void addFeatureInterfaces(Set<Class<?>> types, Class<?> current)
+    {
+        for (final Class<?> type : current.getInterfaces())
         {
-            final Feature object = featurable.getFeature(feature);
-            remove(feature, object);
-            for (final Class<?> other : UtilReflection.getInterfaces(feature, Feature.class))
+            if (type.isAnnotationPresent(FeatureInterface.class))
             {
-                remove(other, object);
+                types.add(type);
+                addFeatureInterfaces(types, type);
             }
-
         }
-        remove(featurable.getClass(), featurable);
-        removeSuperClass(featurable, featurable.getClass());
-
-        featurables.remove(id);
+        final Class<?> parent = current.getSuperclass();
+        if (parent != null)
+        {
+            addFeatureInterfaces(types, parent);
+        }
     }
 
+    /** List of featurables (key is the featurable ID). */
+    private final IntMap<Featurable> featurables = new IntMap<>();
+    /** Featurables membership (key is the featurable ID). */
+    private final IntMap<Record> records = new IntMap<>();
+    /** List of typed items (key is the feature type). */
+    private final Map<Class<?>, Members> items = new HashMap<>();
+
     /**
-     * Get all featurables ID.
-     * 
-     * @return The IDs list.
+     * Create the handlables.
      */
-    public Collection<Integer> getIds()
+    HandlablesImpl()
     {
-        return featurables.keySet();
+        super();
     }
 
     /**
-     * Add a type from its interface.
+     * Add a featurable.
      * 
-     * @param type The type interface.
-     * @param object The type value.
+     * @param featurable The featurable to add.
      */
-    private void addType(Class<?> type, Object object)
+    public void add(Featurable featurable)
     {
-        if (!items.containsKey(type))
+        final int id = IdAllocator.getId(featurable.getFeature(Identifiable.class).getHandle());
+        final Record old = records.remove(id);
+        if (old != null)
+        {
+            old.remove();
+        }
+        featurables.put(id, featurable);
+
+        final Class<?>[] featurableTypes = getFeaturableTypes(featurable.getClass());
+        int count = featurableTypes.length;
+        for (final Feature feature : featurable.getFeatures())
+        {
+            count += getFeatureTypes(feature.getClass()).length;
+        }
+
+        final Record record = new Record(count);
+        for (final Class<?> type : featurableTypes)
         {
-            items.put(type, new HashSet<>());
+            record.add(getMembers(type), featurable);
         }
-        items.get(type).add(object);
+        for (final Feature feature : featurable.getFeatures())
+        {
+            for (final Class<?> type : getFeatureTypes(feature.getClass()))
+            {
+                record.add(getMembers(type), feature);
+            }
+        }
+        records.put(id, record);
     }
 
     /**
-     * Add object parent super type.
+     * Remove the featurable and all its references.
      * 
-     * @param object The current object to check.
-     * @param type The current class level to check.
+     * @param featurable The featurable reference.
+     * @param id The featurable ID.
      */
-    private void addSuperClass(Object object, Class<?> type)
+    public void remove(Featurable featurable, Integer id)
     {
-        for (final Class<?> types : type.getInterfaces())
-        {
-            addType(types, object);
-        }
-        final Class<?> parent = type.getSuperclass();
-        if (parent != null)
+        final Record record = records.remove(id.intValue());
+        if (record != null)
         {
-            addSuperClass(object, parent);
+            record.remove();
         }
+        featurables.remove(id.intValue());
     }
 
     /**
-     * Remove object parent super type.
+     * Get all featurables ID.
      * 
-     * @param object The current object to check.
-     * @param type The current class level to check.
+     * @return The IDs list copy.
      */
-    private void removeSuperClass(Object object, Class<?> type)
+    public Collection<Integer> getIds()
     {
-        for (final Class<?> types : type.getInterfaces())
+        final int[] ids = featurables.keys();
+        final Collection<Integer> copy = new ArrayList<>(ids.length);
+        for (final int id : ids)
         {
-            remove(types, object);
-        }
-        final Class<?> parent = type.getSuperclass();
-        if (parent != null)
-        {
-            removeSuperClass(object, parent);
+            copy.add(Integer.valueOf(id));
         }
+        return copy;
+    }
+
+    /**
+     * Get the featurables number.
+     * 
+     * @return The featurables number.
+     */
+    public int size()
+    {
+        return featurables.size();
     }
 
     /**
-     * Remove the object from its type list.
+     * Get the type members, created if needed.
      * 
      * @param type The type reference.
-     * @param object The object reference.
+     * @return The type members.
      */
-    private void remove(Class<?> type, Object object)
+    private Members getMembers(Class<?> type)
     {
-        final Set<?> set = items.get(type);
-        if (set != null)
+        Members members = items.get(type);
+        if (members == null)
         {
-            set.remove(object);
+            members = new Members();
+            items.put(type, members);
         }
+        return members;
     }
 
     /*
@@ -189,10 +250,13 @@ final class HandlablesImpl implements Handlables
     @Override
     public Featurable get(Integer id)
     {
-        final Featurable featurable = featurables.get(id);
-        if (featurable != null)
+        if (id != null)
         {
-            return featurable;
+            final Featurable featurable = featurables.get(id.intValue());
+            if (featurable != null)
+            {
+                return featurable;
+            }
         }
         throw new LionEngineException(ERROR_FEATURABLE_NOT_FOUND + String.valueOf(id));
     }
@@ -201,10 +265,10 @@ final class HandlablesImpl implements Handlables
     @SuppressWarnings("unchecked")
     public <I> Iterable<I> get(Class<I> type)
     {
-        final Set<?> typeFeaturables = items.get(type);
-        if (typeFeaturables != null)
+        final Members members = items.get(type);
+        if (members != null)
         {
-            return (Iterable<I>) typeFeaturables;
+            return (Iterable<I>) members;
         }
         return Collections.emptySet();
     }
@@ -214,4 +278,146 @@ final class HandlablesImpl implements Handlables
     {
         return featurables.values();
     }
+
+    /**
+     * Dense members of a type. Each member keeps its owner record and its index in owner record.
+     */
+    private static final class Members implements Iterable<Object>
+    {
+        /** Members. */
+        private Object[] values = new Object[INITIAL_CAPACITY];
+        /** Members owner. */
+        private Record[] owners = new Record[INITIAL_CAPACITY];
+        /** Members index in owner. */
+        private int[] indexes = new int[INITIAL_CAPACITY];
+        /** Members number. */
+        private int size;
+
+        /**
+         * Create members.
+         */
+        Members()
+        {
+            super();
+        }
+
+        /**
+         * Add member.
+         * 
+         * @param value The member value.
+         * @param owner The member owner.
+         * @param index The member index in owner.
+         * @return The member slot.
+         */
+        int add(Object value, Record owner, int index)
+        {
+            if (size == values.length)
+            {
+                final int capacity = size << 1;
+                values = Arrays.copyOf(values, capacity);
+                owners = Arrays.copyOf(owners, capacity);
+                indexes = Arrays.copyOf(indexes, capacity);
+            }
+            values[size] = value;
+            owners[size] = owner;
+            indexes[size] = index;
+            return size++;
+        }
+
+        /**
+         * Remove member by moving last member to its slot.
+         * 
+         * @param slot The member slot.
+         */
+        void remove(int slot)
+        {
+            size--;
+            if (slot < size)
+            {
+                values[slot] = values[size];
+                owners[slot] = owners[size];
+                indexes[slot] = indexes[size];
+                owners[slot].slots[indexes[slot]] = slot;
+            }
+            values[size] = null;
+            owners[size] = null;
+        }
+
+        @Override
+        public Iterator<Object> iterator()
+        {
+            return new Iterator<Object>()
+            {
+                /** Current slot. */
+                private int slot;
+
+                @Override
+                public boolean hasNext()
+                {
+                    return slot < size;
+                }
+
+                @Override
+                public Object next()
+                {
+                    if (slot >= size)
+                    {
+                        throw new NoSuchElementException();
+                    }
+                    return values[slot++];
+                }
+            };
+        }
+    }
+
+    /**
+     * Featurable membership, with its members and slot for each type.
+     */
+    private static final class Record
+    {
+        /** Members of each type. */
+        private final Members[] members;
+        /** Slot in members of each type. */
+        private final int[] slots;
+        /** Memberships number. */
+        private int count;
+
+        /**
+         * Create record.
+         * 
+         * @param capacity The memberships number.
+         */
+        Record(int capacity)
+        {
+            super();
+
+            members = new Members[capacity];
+            slots = new int[capacity];
+        }
+
+        /**
+         * Add membership.
+         * 
+         * @param type The type members.
+         * @param value The member value.
+         */
+        void add(Members type, Object value)
+        {
+            members[count] = type;
+            slots[count] = type.add(value, this, count);
+            count++;
+        }
+
+        /**
+         * Remove all memberships.
+         */
+        void remove()
+        {
+            for (int i = 0; i < count; i++)
+            {
+                members[i].remove(slots[i]);
+            }
+            count = 0;
+        }
+    }
 }
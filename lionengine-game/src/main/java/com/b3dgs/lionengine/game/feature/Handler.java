@@ -20,8 +20,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Listenable;
 import com.b3dgs.lionengine.ListenableModel;
 import com.b3dgs.lionengine.Updatable;
@@ -32,6 +37,12 @@ import com.b3dgs.lionengine.graphic.Renderable;
 /**
  * Designed to handle {@link Featurable}, updating and rendering a set of components.
  * Modifications on the list can be done at any time because they are applied at the beginning of the next update.
+ * <p>
+ * If created with a {@link ForkJoinPool}, updaters are grouped in phases: consecutive {@link ComponentAccess}
+ * updaters which are independent are run in parallel on the pool, with a barrier between phases. Other updaters are
+ * run alone on the update thread. Modifications on the list can then be requested from any updater, they are still
+ * applied at the beginning of the next update.
+ * </p>
  * 
  * @see HandlerListener
  * @see ComponentUpdater
@@ -39,10 +50,65 @@ import com.b3dgs.lionengine.graphic.Renderable;
  */
 public class Handler implements Handlables, Updatable, Renderable, IdentifiableListener, Listenable<HandlerListener>
 {
+    /**
+     * Get the featurable Id from its handle, available even if destroyed.
+     * 
+     * @param identifiable The identifiable reference.
+     * @return The featurable Id.
+     */
+    static Integer getId(Identifiable identifiable)
+    {
+        return Integer.valueOf(IdAllocator.getId(identifiable.getHandle()));
+    }
+
+    /**
+     * Check if updaters can be run in parallel.
+     * 
+     * @param a The first updater.
+     * @param b The second updater.
+     * @return <code>true</code> if both declare their access and are independent, <code>false</code> else.
+     */
+    private static boolean isIndependent(ComponentUpdater a, ComponentUpdater b)
+    {
+        if (a instanceof ComponentAccess && b instanceof ComponentAccess)
+        {
+            final ComponentAccess accessA = (ComponentAccess) a;
+            final ComponentAccess accessB = (ComponentAccess) b;
+            return !isRelated(accessA.getWrites(), accessB.getReads())
+                   && !isRelated(accessA.getWrites(), accessB.getWrites())
+                   && !isRelated(accessB.getWrites(), accessA.getReads());
+        }
+        return false;
+    }
+
+    /**
+     * Check if at least one type of first list is related to one type of the second list.
+     * 
+     * @param typesA The first types.
+     * @param typesB The second types.
+     * @return <code>true</code> if a type is assignable from the other one, <code>false</code> else.
+     */
+    private static boolean isRelated(Collection<Class<?>> typesA, Collection<Class<?>> typesB)
+    {
+        for (final Class<?> typeA : typesA)
+        {
+            for (final Class<?> typeB : typesB)
+            {
+                if (typeA.isAssignableFrom(typeB) || typeB.isAssignableFrom(typeA))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     /** Handler listeners. */
     private final ListenableModel<HandlerListener> listenable = new ListenableModel<>();
     /** List of components updater. */
     private final Collection<ComponentUpdater> updaters = new ArrayList<>();
+    /** Updaters phases, run in parallel if more than one updater. */
+    private final List<ComponentUpdater[]> phases = new ArrayList<>();
     /** List of components renderer. */
     private final Collection<ComponentRenderer> renderers = new ArrayList<>();
     /** List of featurables. */
@@ -51,15 +117,21 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
     private final Map<Integer, Featurable> toAdd = new HashMap<>();
     /** To remove list. */
     private final Collection<Integer> toRemove = new HashSet<>();
+    /** Modifications lock. */
+    private final Object lock = new Object();
     /** Services reference. */
     private final Services services;
+    /** Updaters pool (<code>null</code> if sequential). */
+    private final ForkJoinPool pool;
     /** Will remove flag. */
     private boolean willRemove;
     /** Will add flag. */
     private boolean willAdd;
+    /** Phases update required flag. */
+    private boolean willPhase;
 
     /**
-     * Create a handler.
+     * Create a handler, updaters are run sequentially.
      * 
      * @param services The services reference.
      */
@@ -68,6 +140,24 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
         super();
 
         this.services = services;
+        pool = null;
+    }
+
+    /**
+     * Create a handler, independent updaters are run in parallel.
+     * 
+     * @param services The services reference.
+     * @param pool The pool used to run independent updaters (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public Handler(Services services, ForkJoinPool pool)
+    {
+        super();
+
+        Check.notNull(pool);
+
+        this.services = services;
+        this.pool = pool;
     }
 
     /**
@@ -79,6 +169,7 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
     public final void addComponent(ComponentUpdater component)
     {
         updaters.add(component);
+        willPhase = true;
         services.add(component);
         if (component instanceof HandlerListener)
         {
@@ -109,15 +200,25 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
      * <p>
      * Automatically add {@link IdentifiableModel} if feature does not have {@link Identifiable} feature.
      * </p>
+     * <p>
+     * A featurable added again after its removal gets a new Id if its previous one has been released.
+     * </p>
      * 
      * @param featurable The featurable to add.
      */
     public final void add(Featurable featurable)
     {
         final Identifiable identifiable = featurable.getFeature(Identifiable.class);
+        if (!IdentifiableModel.isAlive(identifiable.getHandle()) && identifiable instanceof Recyclable)
+        {
+            ((Recyclable) identifiable).recycle();
+        }
         identifiable.addListener(this);
-        toAdd.put(identifiable.getId(), featurable);
-        willAdd = true;
+        synchronized (lock)
+        {
+            toAdd.put(getId(identifiable), featurable);
+            willAdd = true;
+        }
     }
 
     /**
@@ -129,8 +230,12 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
      */
     public final void remove(FeatureProvider featurable)
     {
-        toRemove.add(featurable.getFeature(Identifiable.class).getId());
-        willRemove = true;
+        final Integer id = getId(featurable.getFeature(Identifiable.class));
+        synchronized (lock)
+        {
+            toRemove.add(id);
+            willRemove = true;
+        }
     }
 
     /**
@@ -140,8 +245,11 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
      */
     public final void removeAll()
     {
-        toRemove.addAll(featurables.getIds());
-        willRemove = true;
+        synchronized (lock)
+        {
+            toRemove.addAll(featurables.getIds());
+            willRemove = true;
+        }
     }
 
     /**
@@ -151,7 +259,63 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
      */
     public final int size()
     {
-        return featurables.getIds().size();
+        return featurables.size();
+    }
+
+    /**
+     * Group updaters in phases, independent consecutive updaters share the same phase.
+     */
+    private void updatePhases()
+    {
+        phases.clear();
+        final List<ComponentUpdater> phase = new ArrayList<>();
+        for (final ComponentUpdater updater : updaters)
+        {
+            for (final ComponentUpdater other : phase)
+            {
+                if (!isIndependent(updater, other))
+                {
+                    phases.add(phase.toArray(new ComponentUpdater[phase.size()]));
+                    phase.clear();
+                    break;
+                }
+            }
+            phase.add(updater);
+        }
+        if (!phase.isEmpty())
+        {
+            phases.add(phase.toArray(new ComponentUpdater[phase.size()]));
+        }
+        willPhase = false;
+    }
+
+    /**
+     * Run updaters phases, waiting for each phase end before running the next one.
+     * 
+     * @param extrp The extrapolation value.
+     */
+    private void updatePhased(double extrp)
+    {
+        if (willPhase)
+        {
+            updatePhases();
+        }
+        for (final ComponentUpdater[] phase : phases)
+        {
+            if (phase.length == 1)
+            {
+                phase[0].update(extrp, featurables);
+            }
+            else
+            {
+                final Collection<ForkJoinTask<?>> tasks = new ArrayList<>(phase.length);
+                for (final ComponentUpdater updater : phase)
+                {
+                    tasks.add(ForkJoinTask.adapt(() -> updater.update(extrp, featurables)));
+                }
+                pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+            }
+        }
     }
 
     /**
@@ -177,7 +341,8 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
     }
 
     /**
-     * Update the remove list. Remove from main list and notify listeners. Notify featurable destroyed.
+     * Update the remove list. Remove from main list and notify listeners. Notify featurable destroyed, and release its
+     * Id if it cannot be recycled by {@link Factory}.
      */
     private void updateRemove()
     {
@@ -190,8 +355,13 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
                 {
                     listenable.get(i).notifyHandlableRemoved(featurable);
                 }
-                featurable.getFeature(Identifiable.class).notifyDestroyed();
+                final Identifiable identifiable = featurable.getFeature(Identifiable.class);
+                identifiable.notifyDestroyed();
                 featurables.remove(featurable, id);
+                if (!Factory.isRecyclable(featurable))
+                {
+                    identifiable.release();
+                }
             }
         }
         toRemove.clear();
@@ -243,17 +413,27 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
     @Override
     public void update(double extrp)
     {
-        if (willRemove)
+        synchronized (lock)
         {
-            updateRemove();
+            if (willRemove)
+            {
+                updateRemove();
+            }
+            if (willAdd)
+            {
+                updateAdd();
+            }
         }
-        if (willAdd)
+        if (pool == null)
         {
-            updateAdd();
+            for (final ComponentUpdater component : updaters)
+            {
+                component.update(extrp, featurables);
+            }
         }
-        for (final ComponentUpdater component : updaters)
+        else
         {
-            component.update(extrp, featurables);
+            updatePhased(extrp);
         }
     }
 
@@ -277,7 +457,10 @@ public class Handler implements Handlables, Updatable, Renderable, IdentifiableL
     @Override
     public final void notifyDestroyed(Integer id)
     {
-        toRemove.add(id);
-        willRemove = true;
+        synchronized (lock)
+        {
+            toRemove.add(id);
+            willRemove = true;
+        }
     }
 }
@@ -0,0 +1,376 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Lock-free unique Id allocator, safe to be used from any thread.
+ * <p>
+ * Released Ids are stored in a free-list and reused before allocating new ones. Each Id has a generation counter,
+ * incremented on acquire and on release, which allows to detect stale references with a handle (Id and generation
+ * packed in a <code>long</code>, see {@link #getHandle(int)} and {@link #isAlive(long)}).
+ * </p>
+ */
+public final class IdAllocator
+{
+    /** Free Id error. */
+    static final String ERROR_FREE_ID = "No more free id available !";
+    /** Not acquired Id error. */
+    static final String ERROR_NOT_ACQUIRED = "Id not acquired: ";
+    /** Segment size bits. */
+    private static final int SEGMENT_BITS = 10;
+    /** Ids per segment. */
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    /** Segment index mask. */
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    /** Values per Id (generation and next free Id). */
+    private static final int STRIDE = 2;
+    /** Empty free-list value. */
+    private static final int EMPTY = -1;
+    /** Integer mask. */
+    private static final long MASK = 0xFFFFFFFFL;
+    /** Integer bits. */
+    private static final int BITS = 32;
+
+    /**
+     * Get the Id from handle.
+     * 
+     * @param handle The handle.
+     * @return The Id.
+     */
+    public static int getId(long handle)
+    {
+        return (int) handle;
+    }
+
+    /**
+     * Get the generation from handle.
+     * 
+     * @param handle The handle.
+     * @return The generation.
+     */
+    public static int getGeneration(long handle)
+    {
+        return (int) (handle >>> BITS);
+    }
+
+    /**
+     * Pack free-list head.
+     * 
+     * @param tag The modification tag.
+     * @param id The first free Id, {@link #EMPTY} if none.
+     * @return The packed head.
+     */
+    private static long pack(long tag, int id)
+    {
+        return tag << BITS | id & MASK;
+    }
+
+    /**
+     * Check if generation is acquired one (odd).
+     * 
+     * @param generation The generation.
+     * @return <code>true</code> if acquired, <code>false</code> else.
+     */
+    private static boolean isAcquired(int generation)
+    {
+        return (generation & 1) == 1;
+    }
+
+    /**
+     * Get the generation index in segment.
+     * 
+     * @param id The Id.
+     * @return The generation index, next free Id is at following index.
+     */
+    private static int getIndex(int id)
+    {
+        return (id & SEGMENT_MASK) * STRIDE;
+    }
+
+    /** Segments (generation and next free Id for each Id of the segment). */
+    private final AtomicReference<AtomicIntegerArray[]> segments = new AtomicReference<>(new AtomicIntegerArray[0]);
+    /** Free-list head (modification tag and first free Id). */
+    private final AtomicLong free = new AtomicLong(pack(0L, EMPTY));
+    /** Next never acquired Id. */
+    private final AtomicInteger next = new AtomicInteger();
+    /** Acquired Ids number. */
+    private final AtomicInteger count = new AtomicInteger();
+    /** Maximum Ids number. */
+    private final int max;
+
+    /**
+     * Create allocator with {@link Integer#MAX_VALUE} Ids.
+     */
+    public IdAllocator()
+    {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create allocator.
+     * 
+     * @param max The maximum Ids number (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public IdAllocator(int max)
+    {
+        super();
+
+        Check.superiorStrict(max, 0);
+
+        this.max = max;
+    }
+
+    /**
+     * Acquire a free Id, released one first.
+     * 
+     * @return The acquired Id.
+     * @throws LionEngineException If there is more than maximum Ids at the same time.
+     */
+    public int acquire()
+    {
+        int id = pop();
+        if (id == EMPTY)
+        {
+            id = allocate();
+        }
+        getSegment(id).incrementAndGet(getIndex(id));
+        count.incrementAndGet();
+        return id;
+    }
+
+    /**
+     * Release an acquired Id, which becomes free. Handles of this Id are not alive anymore.
+     * 
+     * @param id The Id to release.
+     * @throws LionEngineException If Id not acquired.
+     */
+    public void release(int id)
+    {
+        final AtomicIntegerArray segment = getSegmentChecked(id);
+        final int index = getIndex(id);
+        int generation;
+        do
+        {
+            generation = segment.get(index);
+            if (!isAcquired(generation))
+            {
+                throw new LionEngineException(ERROR_NOT_ACQUIRED + String.valueOf(id));
+            }
+        }
+        while (!segment.compareAndSet(index, generation, generation + 1));
+
+        count.decrementAndGet();
+        push(segment, index, id);
+    }
+
+    /**
+     * Get the current handle of an Id.
+     * 
+     * @param id The Id.
+     * @return The handle (generation and Id).
+     * @throws LionEngineException If Id not acquired.
+     */
+    public long getHandle(int id)
+    {
+        final int generation = getSegmentChecked(id).get(getIndex(id));
+        if (!isAcquired(generation))
+        {
+            throw new LionEngineException(ERROR_NOT_ACQUIRED + String.valueOf(id));
+        }
+        return (long) generation << BITS | id & MASK;
+    }
+
+    /**
+     * Check if handle is still alive (its Id has not been released since handle creation).
+     * 
+     * @param handle The handle to check.
+     * @return <code>true</code> if alive, <code>false</code> if stale.
+     */
+    public boolean isAlive(long handle)
+    {
+        final int id = getId(handle);
+        final AtomicIntegerArray[] current = segments.get();
+        final int segment = id >>> SEGMENT_BITS;
+        if (id < 0 || segment >= current.length)
+        {
+            return false;
+        }
+        final int generation = current[segment].get(getIndex(id));
+        return isAcquired(generation) && generation == getGeneration(handle);
+    }
+
+    /**
+     * Get the acquired Ids number.
+     * 
+     * @return The acquired Ids number.
+     */
+    public int getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * Get the maximum Ids number.
+     * 
+     * @return The maximum Ids number.
+     */
+    public int getMax()
+    {
+        return max;
+    }
+
+    /**
+     * Release all Ids and restart from first one. Not thread safe, must be used when no Id is used.
+     */
+    void reset()
+    {
+        segments.set(new AtomicIntegerArray[0]);
+        free.set(pack(0L, EMPTY));
+        next.set(0);
+        count.set(0);
+    }
+
+    /**
+     * Take the first released Id from free-list.
+     * 
+     * @return The free Id, {@link #EMPTY} if none.
+     */
+    private int pop()
+    {
+        long head;
+        int id;
+        long tag;
+        do
+        {
+            head = free.get();
+            id = (int) head;
+            if (id == EMPTY)
+            {
+                return EMPTY;
+            }
+            tag = head >>> BITS;
+        }
+        while (!free.compareAndSet(head, pack(tag + 1L, getSegment(id).get(getIndex(id) + 1))));
+
+        return id;
+    }
+
+    /**
+     * Add a released Id to free-list.
+     * 
+     * @param segment The Id segment.
+     * @param index The Id generation index.
+     * @param id The released Id.
+     */
+    private void push(AtomicIntegerArray segment, int index, int id)
+    {
+        long head;
+        do
+        {
+            head = free.get();
+            segment.set(index + 1, (int) head);
+        }
+        while (!free.compareAndSet(head, pack((head >>> BITS) + 1L, id)));
+    }
+
+    /**
+     * Allocate a never acquired Id.
+     * 
+     * @return The new Id.
+     * @throws LionEngineException If there is no more Id.
+     */
+    private int allocate()
+    {
+        int id;
+        do
+        {
+            id = next.get();
+            if (id >= max)
+            {
+                throw new LionEngineException(ERROR_FREE_ID);
+            }
+        }
+        while (!next.compareAndSet(id, id + 1));
+
+        ensureSegment(id >>> SEGMENT_BITS);
+        return id;
+    }
+
+    /**
+     * Ensure segment exists, grow segments if needed.
+     * 
+     * @param segment The segment index.
+     */
+    private void ensureSegment(int segment)
+    {
+        AtomicIntegerArray[] current;
+        AtomicIntegerArray[] grown;
+        do
+        {
+            current = segments.get();
+            if (segment < current.length)
+            {
+                return;
+            }
+            grown = Arrays.copyOf(current, segment + 1);
+            for (int i = current.length; i < grown.length; i++)
+            {
+                grown[i] = new AtomicIntegerArray(SEGMENT_SIZE * STRIDE);
+            }
+        }
+        while (!segments.compareAndSet(current, grown));
+    }
+
+    /**
+     * Get the segment of an existing Id.
+     * 
+     * @param id The Id.
+     * @return The Id segment.
+     */
+    private AtomicIntegerArray getSegment(int id)
+    {
+        return segments.get()[id >>> SEGMENT_BITS];
+    }
+
+    /**
+     * Get the segment of an Id, checked.
+     * 
+     * @param id The Id.
+     * @return The Id segment.
+     * @throws LionEngineException If Id not acquired.
+     */
+    private AtomicIntegerArray getSegmentChecked(int id)
+    {
+        final AtomicIntegerArray[] current = segments.get();
+        final int segment = id >>> SEGMENT_BITS;
+        if (id < 0 || segment >= current.length)
+        {
+            throw new LionEngineException(ERROR_NOT_ACQUIRED + String.valueOf(id));
+        }
+        return current[segment];
+    }
+}
@@ -35,6 +35,14 @@ public interface Identifiable extends Feature, Listenable<IdentifiableListener>
      */
     Integer getId();
 
+    /**
+     * Get the generational handle, which allows to detect stale references once Id has been released and reused.
+     * 
+     * @return The handle (generation and Id).
+     * @see IdentifiableModel#isAlive(long)
+     */
+    long getHandle();
+
     /**
      * Declare as removable. Can be destroyed only one time.
      * {@link #notifyDestroyed()} should be called when recycle can be performed.
@@ -45,4 +53,10 @@ public interface Identifiable extends Feature, Listenable<IdentifiableListener>
      * Notify effective destruction, and allow to recycle destroyed Id.
      */
     void notifyDestroyed();
+
+    /**
+     * Release the Id, which can then be reused by another featurable. Must be called only when featurable will not be
+     * used anymore (not recycled). {@link #getId()} will then return <code>null</code>, until recycled with a new Id.
+     */
+    void release();
 }
@@ -16,56 +16,48 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
-import java.util.Collection;
-import java.util.HashSet;
-
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.ListenableModel;
 
 /**
  * Identifiable model implementation.
  * <p>
- * Handle a list of unique Id, provide the next free Id, and recycle destroyed Id.
+ * Unique Id is provided by a shared {@link IdAllocator}, allowing featurables creation from any thread. Id is kept
+ * when recycled, and can be reused by next featurables once released. A released Id is replaced by a new one on
+ * recycle.
  * </p>
  */
 public class IdentifiableModel extends FeatureModel implements Identifiable, Recyclable
 {
     /** Free Id error. */
-    static final String ERROR_FREE_ID = "No more free id available !";
-    /** Id used. */
-    private static final Collection<Integer> IDS = new HashSet<>();
-    /** Last Id used (last maximum id value). */
-    private static int lastId;
+    static final String ERROR_FREE_ID = IdAllocator.ERROR_FREE_ID;
+    /** Id allocator. */
+    private static final IdAllocator IDS = new IdAllocator();
 
     /**
-     * Get the next unused Id.
+     * Check if handle is still alive (its Id has not been released since handle creation).
      * 
-     * @return The next unused Id.
-     * @throws LionEngineException If there is more than {@link Integer#MAX_VALUE} at the same time.
+     * @param handle The handle to check.
+     * @return <code>true</code> if alive, <code>false</code> if stale.
+     * @see Identifiable#getHandle()
      */
-    private static Integer getFreeId()
+    public static boolean isAlive(long handle)
     {
-        if (IDS.size() == Integer.MAX_VALUE)
-        {
-            throw new LionEngineException(ERROR_FREE_ID);
-        }
-        Integer id;
-        while (IDS.contains(id = Integer.valueOf(lastId))) // CHECKSTYLE IGNORE LINE: TrailingComment|InnerAssignment
-        {
-            lastId++;
-        }
-        IDS.add(id);
-        return id;
+        return IDS.isAlive(handle);
     }
 
     /** Listeners. */
     private final ListenableModel<IdentifiableListener> listenable = new ListenableModel<>();
     /** Unique Id. */
-    private final Integer id;
+    private Integer id;
+    /** Id handle. */
+    private long handle;
     /** Destroy request flag. */
     private boolean destroy;
     /** Destroyed flag. */
     private boolean destroyed;
+    /** Released flag. */
+    private boolean released;
 
     /**
      * Create feature.
@@ -76,7 +68,19 @@ public class IdentifiableModel extends FeatureModel implements Identifiable, Rec
     {
         super();
 
-        id = getFreeId();
+        acquire();
+    }
+
+    /**
+     * Acquire a new Id and its handle.
+     * 
+     * @throws LionEngineException If no free Id available.
+     */
+    private void acquire()
+    {
+        final int value = IDS.acquire();
+        id = Integer.valueOf(value);
+        handle = IDS.getHandle(value);
     }
 
     /*
@@ -98,13 +102,19 @@ public class IdentifiableModel extends FeatureModel implements Identifiable, Rec
     @Override
     public Integer getId()
     {
-        if (destroyed)
+        if (destroyed || released)
         {
             return null;
         }
         return id;
     }
 
+    @Override
+    public long getHandle()
+    {
+        return handle;
+    }
+
     @Override
     public void destroy()
     {
@@ -125,11 +135,26 @@ public class IdentifiableModel extends FeatureModel implements Identifiable, Rec
         destroyed = true;
     }
 
+    @Override
+    public void release()
+    {
+        if (!released)
+        {
+            released = true;
+            IDS.release(id.intValue());
+        }
+    }
+
     @Override
     public void recycle()
     {
         destroy = false;
         destroyed = false;
+        if (released)
+        {
+            released = false;
+            acquire();
+        }
     }
 
     /*
@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Map with primitive <code>int</code> keys, without boxing, using open addressing with linear probing.
+ * <p>
+ * Values must not be <code>null</code>. Values iteration is a live view, which must not be modified while iterating.
+ * </p>
+ * <p>
+ * This class is not Thread-Safe.
+ * </p>
+ * 
+ * @param <V> The value type.
+ */
+final class IntMap<V>
+{
+    /** Initial capacity (power of two). */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Hash multiplier (golden ratio). */
+    private static final int GOLDEN = 0x9E3779B9;
+    /** Hash shift. */
+    private static final int SHIFT = 16;
+
+    /**
+     * Get the key hash.
+     * 
+     * @param key The key.
+     * @return The key hash.
+     */
+    private static int hash(int key)
+    {
+        final int hash = key * GOLDEN;
+        return hash ^ hash >>> SHIFT;
+    }
+
+    /** Values view. */
+    private final Iterable<V> view = ValuesIterator::new;
+    /** Keys. */
+    private int[] keys = new int[INITIAL_CAPACITY];
+    /** Values (<code>null</code> for empty slot). */
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    /** Slot mask. */
+    private int mask = INITIAL_CAPACITY - 1;
+    /** Values number. */
+    private int size;
+
+    /**
+     * Create map.
+     */
+    IntMap()
+    {
+        super();
+    }
+
+    /**
+     * Put value.
+     * 
+     * @param key The key.
+     * @param value The value (must not be <code>null</code>).
+     * @return The previous value, <code>null</code> if none.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value)
+    {
+        int slot = hash(key) & mask;
+        while (values[slot] != null)
+        {
+            if (keys[slot] == key)
+            {
+                final V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = slot + 1 & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (size > values.length >>> 1)
+        {
+            grow();
+        }
+        return null;
+    }
+
+    /**
+     * Get value.
+     * 
+     * @param key The key.
+     * @return The value, <code>null</code> if none.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key)
+    {
+        final int slot = find(key);
+        if (slot < 0)
+        {
+            return null;
+        }
+        return (V) values[slot];
+    }
+
+    /**
+     * Remove value.
+     * 
+     * @param key The key.
+     * @return The removed value, <code>null</code> if none.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key)
+    {
+        int slot = find(key);
+        if (slot < 0)
+        {
+            return null;
+        }
+        final V removed = (V) values[slot];
+        int next = slot;
+        while (true)
+        {
+            next = next + 1 & mask;
+            if (values[next] == null)
+            {
+                break;
+            }
+            final int home = hash(keys[next]) & mask;
+            if (next > slot && (home <= slot || home > next) || next < slot && home <= slot && home > next)
+            {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+        }
+        values[slot] = null;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Get the keys.
+     * 
+     * @return The keys copy.
+     */
+    public int[] keys()
+    {
+        final int[] copy = new int[size];
+        int i = 0;
+        for (int slot = 0; slot < values.length; slot++)
+        {
+            if (values[slot] != null)
+            {
+                copy[i] = keys[slot];
+                i++;
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Get the values view.
+     * 
+     * @return The values view.
+     */
+    public Iterable<V> values()
+    {
+        return view;
+    }
+
+    /**
+     * Get the values number.
+     * 
+     * @return The values number.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Check if empty.
+     * 
+     * @return <code>true</code> if empty, <code>false</code> else.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Remove all values.
+     */
+    public void clear()
+    {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Find key slot.
+     * 
+     * @param key The key.
+     * @return The key slot, <code>-1</code> if not found.
+     */
+    private int find(int key)
+    {
+        int slot = hash(key) & mask;
+        while (values[slot] != null)
+        {
+            if (keys[slot] == key)
+            {
+                return slot;
+            }
+            slot = slot + 1 & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Double capacity and rehash.
+     */
+    private void grow()
+    {
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+        keys = new int[oldKeys.length << 1];
+        values = new Object[oldValues.length << 1];
+        mask = values.length - 1;
+        for (int i = 0; i < oldValues.length; i++)
+        {
+            if (oldValues[i] != null)
+            {
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != null)
+                {
+                    slot = slot + 1 & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Values iterator.
+     */
+    private final class ValuesIterator implements Iterator<V>
+    {
+        /** Next slot. */
+        private int slot;
+
+        /**
+         * Create iterator.
+         */
+        ValuesIterator()
+        {
+            super();
+
+            skip();
+        }
+
+        /**
+         * Move to next used slot.
+         */
+        private void skip()
+        {
+            while (slot < values.length && values[slot] == null)
+            {
+                slot++;
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return slot < values.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            final V value = (V) values[slot];
+            slot++;
+            skip();
+            return value;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Shape;
+import com.b3dgs.lionengine.Viewer;
+
+/**
+ * Spatial index of elements by their {@link Transformable} bounds, used to find the ones viewable by a {@link Viewer}
+ * without checking all of them.
+ * <p>
+ * Bounds are stored in a uniform grid of cells, and kept up to date as a {@link TransformableListener}. An element is
+ * only moved between cells when its covered cells change. Bounds are the transformable location extended by its size
+ * on each side, as checked by {@link Viewer#isViewable(Shape, int, int)}.
+ * </p>
+ * 
+ * @param <T> The indexed element type.
+ */
+final class SpatialIndex<T> implements TransformableListener
+{
+    /**
+     * Get cell key.
+     * 
+     * @param x The horizontal cell index.
+     * @param y The vertical cell index.
+     * @return The cell key.
+     */
+    private static Long key(int x, int y)
+    {
+        return Long.valueOf((long) x << Integer.SIZE | y & 0xFFFFFFFFL);
+    }
+
+    /** Indexed entries. */
+    private final Map<Transformable, Entry<T>> entries = new HashMap<>();
+    /** Grid cells, only existing if not empty. */
+    private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+    /** Cell size. */
+    private final double cellSize;
+    /** Current search stamp, used to find each entry only once. */
+    private int stamp;
+
+    /**
+     * Create index.
+     * 
+     * @param cellSize The cell size (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    SpatialIndex(double cellSize)
+    {
+        super();
+
+        Check.superiorStrict(cellSize, 0.0);
+
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Add element to index and listen to its transformable. Replaces previous element of transformable if any.
+     * 
+     * @param transformable The element transformable.
+     * @param element The element to index.
+     */
+    public void add(Transformable transformable, T element)
+    {
+        remove(transformable);
+
+        final Entry<T> entry = new Entry<>(transformable, element);
+        entries.put(transformable, entry);
+        transformable.addListener(this);
+        place(entry);
+    }
+
+    /**
+     * Remove element from index and stop listening to its transformable.
+     * 
+     * @param transformable The element transformable.
+     */
+    public void remove(Transformable transformable)
+    {
+        final Entry<T> entry = entries.remove(transformable);
+        if (entry != null)
+        {
+            transformable.removeListener(this);
+            removeCells(entry);
+        }
+    }
+
+    /**
+     * Find elements viewable by viewer.
+     * 
+     * @param viewer The viewer reference.
+     * @param margin The margin around viewer.
+     * @param found The found elements, each one added once.
+     */
+    public void find(Viewer viewer, int margin, Collection<T> found)
+    {
+        stamp++;
+
+        final double offsetX = viewer.getViewpointX(0.0);
+        final double offsetY = viewer.getViewpointY(0.0);
+        final int minX = index(viewer.getViewX() - offsetX - margin);
+        final int maxX = index(viewer.getViewX() + viewer.getWidth() - offsetX + margin);
+        final int minY = index(offsetY - viewer.getViewY() - viewer.getHeight() - margin);
+        final int maxY = index(offsetY - viewer.getViewY() + margin);
+
+        for (int y = minY; y <= maxY; y++)
+        {
+            for (int x = minX; x <= maxX; x++)
+            {
+                final List<Entry<T>> cell = cells.get(key(x, y));
+                if (cell != null)
+                {
+                    find(viewer, margin, cell, found);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if index is empty.
+     * 
+     * @return <code>true</code> if no element indexed, <code>false</code> else.
+     */
+    public boolean isEmpty()
+    {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Get the number of cells in use.
+     * 
+     * @return The number of cells in use.
+     */
+    int getCellsNumber()
+    {
+        return cells.size();
+    }
+
+    /**
+     * Find viewable elements of cell, not already checked during current search.
+     * 
+     * @param viewer The viewer reference.
+     * @param margin The margin around viewer.
+     * @param cell The cell entries.
+     * @param found The found elements.
+     */
+    private void find(Viewer viewer, int margin, List<Entry<T>> cell, Collection<T> found)
+    {
+        final int n = cell.size();
+        for (int i = 0; i < n; i++)
+        {
+            final Entry<T> entry = cell.get(i);
+            if (entry.stamp != stamp)
+            {
+                entry.stamp = stamp;
+                if (viewer.isViewable(entry.transformable, margin, margin))
+                {
+                    found.add(entry.element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get cell index of location.
+     * 
+     * @param location The location value.
+     * @return The cell index.
+     */
+    private int index(double location)
+    {
+        return (int) Math.floor(location / cellSize);
+    }
+
+    /**
+     * Place entry in the cells covered by its current bounds, if changed.
+     * 
+     * @param entry The entry to place.
+     */
+    private void place(Entry<T> entry)
+    {
+        final Transformable transformable = entry.transformable;
+        final int minX = index(transformable.getX() - transformable.getWidth());
+        final int minY = index(transformable.getY() - transformable.getHeight());
+        final int maxX = index(transformable.getX() + transformable.getWidth());
+        final int maxY = index(transformable.getY() + transformable.getHeight());
+
+        if (!entry.placed || minX != entry.minX || minY != entry.minY || maxX != entry.maxX || maxY != entry.maxY)
+        {
+            removeCells(entry);
+            for (int y = minY; y <= maxY; y++)
+            {
+                for (int x = minX; x <= maxX; x++)
+                {
+                    cells.computeIfAbsent(key(x, y), k -> new ArrayList<>()).add(entry);
+                }
+            }
+            entry.minX = minX;
+            entry.minY = minY;
+            entry.maxX = maxX;
+            entry.maxY = maxY;
+            entry.placed = true;
+        }
+    }
+
+    /**
+     * Remove entry from its cells, and remove cells left empty.
+     * 
+     * @param entry The entry to remove.
+     */
+    private void removeCells(Entry<T> entry)
+    {
+        if (entry.placed)
+        {
+            for (int y = entry.minY; y <= entry.maxY; y++)
+            {
+                for (int x = entry.minX; x <= entry.maxX; x++)
+                {
+                    final Long key = key(x, y);
+                    final List<Entry<T>> cell = cells.get(key);
+                    cell.remove(entry);
+                    if (cell.isEmpty())
+                    {
+                        cells.remove(key);
+                    }
+                }
+            }
+            entry.placed = false;
+        }
+    }
+
+    /*
+     * TransformableListener
+     */
+
+    @Override
+    public void notifyTransformed(Transformable transformable)
+    {
+        final Entry<T> entry = entries.get(transformable);
+        if (entry != null)
+        {
+            place(entry);
+        }
+    }
+
+    /**
+     * Indexed element with its covered cells.
+     * 
+     * @param <T> The indexed element type.
+     */
+    private static final class Entry<T>
+    {
+        /** Element transformable. */
+        private final Transformable transformable;
+        /** Indexed element. */
+        private final T element;
+        /** Min horizontal cell. */
+        private int minX;
+        /** Min vertical cell. */
+        private int minY;
+        /** Max horizontal cell. */
+        private int maxX;
+        /** Max vertical cell. */
+        private int maxY;
+        /** Placed in cells flag. */
+        private boolean placed;
+        /** Last search stamp. */
+        private int stamp;
+
+        /**
+         * Create entry.
+         * 
+         * @param transformable The element transformable.
+         * @param element The indexed element.
+         */
+        private Entry(Transformable transformable, T element)
+        {
+            super();
+
+            this.transformable = transformable;
+            this.element = element;
+        }
+    }
+}
@@ -16,6 +16,8 @@
  */
 package com.b3dgs.lionengine.game.feature;
 
+import java.util.List;
+
 import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.ListenableModel;
@@ -30,6 +32,43 @@ import com.b3dgs.lionengine.game.SizeConfig;
  */
 public class TransformableModel extends FeatureModel implements Transformable, Recyclable
 {
+    /** Deferred notifications of current thread (<code>null</code> if notified immediately). */
+    private static final ThreadLocal<List<TransformableModel>> DEFERRED = new ThreadLocal<>();
+
+    /**
+     * Defer listeners notification of models transformed by current thread, instead of notifying them immediately.
+     * Allows to transform models in parallel while listeners are not thread safe.
+     * 
+     * @param deferred The list receiving transformed models, in order (<code>null</code> to notify immediately).
+     * @see #notifyDeferred(List)
+     */
+    static void setDeferred(List<TransformableModel> deferred)
+    {
+        if (deferred == null)
+        {
+            DEFERRED.remove();
+        }
+        else
+        {
+            DEFERRED.set(deferred);
+        }
+    }
+
+    /**
+     * Notify listeners of deferred transformed models, in order, with their current state. List is cleared.
+     * 
+     * @param deferred The deferred transformed models.
+     */
+    static void notifyDeferred(List<TransformableModel> deferred)
+    {
+        final int n = deferred.size();
+        for (int i = 0; i < n; i++)
+        {
+            deferred.get(i).notifyListeners();
+        }
+        deferred.clear();
+    }
+
     /** Listeners. */
     private final ListenableModel<TransformableListener> listenable = new ListenableModel<>();
     /** Mover model. */
@@ -77,7 +116,8 @@ public class TransformableModel extends FeatureModel implements Transformable, R
     }
 
     /**
-     * Notify transformable modification.
+     * Notify transformable modification, or defer it if requested for current thread. Consecutive deferred
+     * modifications of the same model are notified once.
      * 
      * @param teleport <code>true</code> if teleport, <code>false</code> else.
      */
@@ -90,13 +130,29 @@ public class TransformableModel extends FeatureModel implements Transformable, R
             || Double.compare(getWidth(), getOldWidth()) != 0
             || Double.compare(getHeight(), getOldHeight()) != 0)
         {
-            for (int i = 0; i < listenable.size(); i++)
+            final List<TransformableModel> deferred = DEFERRED.get();
+            if (deferred == null)
+            {
+                notifyListeners();
+            }
+            else if (deferred.isEmpty() || deferred.get(deferred.size() - 1) != this)
             {
-                listenable.get(i).notifyTransformed(this);
+                deferred.add(this);
             }
         }
     }
 
+    /**
+     * Notify listeners with current state.
+     */
+    private void notifyListeners()
+    {
+        for (int i = 0; i < listenable.size(); i++)
+        {
+            listenable.get(i).notifyTransformed(this);
+        }
+    }
+
     /*
      * Transformable
      */
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Collection;
+
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.geom.Area;
+
+/**
+ * Collision broad phase strategy, used by {@link ComponentCollision} to find the {@link Collidable} couples which may
+ * collide. Only the found couples are then checked with {@link Collidable#collide(Collidable)}.
+ * <p>
+ * A couple is only relevant if the group of the second collidable is accepted by the first one (see
+ * {@link Collidable#getAccepted()}).
+ * </p>
+ * 
+ * @see BroadPhaseGrid
+ * @see BroadPhaseSweep
+ * @see BroadPhaseTree
+ */
+public interface BroadPhase
+{
+    /**
+     * Update collidable location. Collidable is added on first call.
+     * 
+     * @param transformable The transformable reference.
+     * @param collidable The collidable reference.
+     */
+    void move(Transformable transformable, Collidable collidable);
+
+    /**
+     * Remove collidable.
+     * 
+     * @param collidable The collidable reference.
+     */
+    void remove(Collidable collidable);
+
+    /**
+     * Find the candidate couples. Each couple must be stored only one time, in a deterministic order.
+     * 
+     * @param candidates The candidates found.
+     */
+    void findCandidates(CollisionCandidates candidates);
+
+    /**
+     * Find the collidables with a collision bound inside area.
+     * 
+     * @param area The area used.
+     * @param inside The elements inside area found.
+     */
+    void findInside(Area area, Collection<Collidable> inside);
+}
@@ -0,0 +1,739 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.geom.Area;
+
+/**
+ * Sparse uniform grid broad phase, storing {@link Collidable} by group and by cell. Works best when collidables have
+ * similar sizes, close to the cell size.
+ * <p>
+ * Cells are keyed by their packed coordinates inside an open addressing table. Each collidable keeps track of its
+ * current cells range, so a move only touches the cells which have been left or entered. Cells and ranges are
+ * recycled, so there is no allocation once the grid has been filled.
+ * </p>
+ */
+public final class BroadPhaseGrid implements BroadPhase
+{
+    /**
+     * Pack cell coordinates.
+     * 
+     * @param x The horizontal cell index.
+     * @param y The vertical cell index.
+     * @return The packed key.
+     */
+    private static long key(int x, int y)
+    {
+        return (long) x << Integer.SIZE | y & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Check if cell is inside range.
+     * 
+     * @param range The range reference.
+     * @param x The horizontal cell index.
+     * @param y The vertical cell index.
+     * @return <code>true</code> if inside, <code>false</code> else.
+     */
+    private static boolean contains(Range range, int x, int y)
+    {
+        return x >= range.minX && x <= range.maxX && y >= range.minY && y <= range.maxY;
+    }
+
+    /**
+     * Check if cell is the first one shared by both ranges. Ensures a pair is checked only one time even if both
+     * share more than one cell.
+     * 
+     * @param a The first range.
+     * @param b The second range.
+     * @param cell The current cell.
+     * @return <code>true</code> if first shared cell, <code>false</code> else.
+     */
+    private static boolean isFirstShared(Range a, Range b, Cell cell)
+    {
+        return cell.x == Math.max(a.minX, b.minX) && cell.y == Math.max(a.minY, b.minY);
+    }
+
+    /**
+     * Check range against others of the same cell.
+     * 
+     * @param rangeA The range to check.
+     * @param cell The current cell.
+     * @param others The others cell.
+     * @param candidates The candidates found.
+     */
+    private static void checkOthers(Range rangeA, Cell cell, Cell others, CollisionCandidates candidates)
+    {
+        for (int j = 0; j < others.size; j++)
+        {
+            final Range rangeB = others.ranges[j];
+            if (rangeA != rangeB && isFirstShared(rangeA, rangeB, cell))
+            {
+                candidates.add(rangeA.collidable, rangeB.collidable);
+            }
+        }
+    }
+
+    /**
+     * Check elements inside area.
+     * 
+     * @param cell The cell to check.
+     * @param area The area to check.
+     * @param inside The elements inside the area found.
+     */
+    private static void checkInside(Cell cell, Area area, Collection<Collidable> inside)
+    {
+        for (int i = 0; i < cell.size; i++)
+        {
+            final Collidable current = cell.ranges[i].collidable;
+            if (CollidableBounds.isInside(current, area))
+            {
+                inside.add(current);
+            }
+        }
+    }
+
+    /** Cells by group. */
+    private final Map<Integer, Cells> groups = new HashMap<>();
+    /** Cells by group, for iteration. */
+    private final List<Cells> groupsList = new ArrayList<>();
+    /** Tracked ranges. */
+    private final Map<Collidable, Range> ranges = new HashMap<>();
+    /** Recycled cells. */
+    private final Deque<Cell> pool = new ArrayDeque<>();
+    /** Previous range cache, used on move. */
+    private final Range previous = new Range(null);
+    /** Cell size. */
+    private final double cellSize;
+
+    /**
+     * Create grid.
+     * 
+     * @param cellSize The cell size (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     */
+    public BroadPhaseGrid(double cellSize)
+    {
+        super();
+
+        Check.superiorStrict(cellSize, 0.0);
+
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Get the current number of active cells.
+     * 
+     * @return The number of active cells.
+     */
+    int getCellsNumber()
+    {
+        int count = 0;
+        final int n = groupsList.size();
+        for (int i = 0; i < n; i++)
+        {
+            count += groupsList.get(i).size;
+        }
+        return count;
+    }
+
+    /*
+     * BroadPhase
+     */
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only cells left and entered since last update are modified.
+     * </p>
+     */
+    @Override
+    public void move(Transformable transformable, Collidable collidable)
+    {
+        Range range = ranges.get(collidable);
+        if (range == null)
+        {
+            range = new Range(collidable);
+            ranges.put(collidable, range);
+        }
+
+        final int minX = getIndex(transformable.getX() - collidable.getMaxWidth());
+        final int minY = getIndex(transformable.getY() - collidable.getMaxHeight());
+        final int maxX = getIndex(transformable.getX() + collidable.getMaxWidth());
+        final int maxY = getIndex(transformable.getY() + collidable.getMaxHeight());
+        final Cells cells = getCells(collidable.getGroup());
+
+        if (range.cells == null)
+        {
+            range.set(cells, minX, minY, maxX, maxY);
+            addAll(range);
+        }
+        else if (range.cells != cells)
+        {
+            removeAll(range);
+            range.set(cells, minX, minY, maxX, maxY);
+            addAll(range);
+        }
+        else if (!range.equals(minX, minY, maxX, maxY))
+        {
+            previous.set(range.cells, range.minX, range.minY, range.maxX, range.maxY);
+            range.set(cells, minX, minY, maxX, maxY);
+            removeLeft(previous, range);
+            addEntered(previous, range);
+        }
+    }
+
+    @Override
+    public void remove(Collidable collidable)
+    {
+        final Range range = ranges.remove(collidable);
+        if (range != null && range.cells != null)
+        {
+            removeAll(range);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Couples sharing more than one cell are stored from their first shared cell only.
+     * </p>
+     */
+    @Override
+    public void findCandidates(CollisionCandidates candidates)
+    {
+        final int n = groupsList.size();
+        for (int i = 0; i < n; i++)
+        {
+            final Cell[] cells = groupsList.get(i).values;
+            for (final Cell cell : cells)
+            {
+                if (cell != null)
+                {
+                    checkCell(cell, candidates);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void findInside(Area area, Collection<Collidable> inside)
+    {
+        final int minX = getIndex(area.getX() - area.getWidth());
+        final int minY = getIndex(area.getY() - area.getHeight());
+        final int maxX = getIndex(area.getX() + area.getWidth());
+        final int maxY = getIndex(area.getY() + area.getHeight());
+
+        final int n = groupsList.size();
+        for (int i = 0; i < n; i++)
+        {
+            final Cells cells = groupsList.get(i);
+            for (int x = minX; x <= maxX; x++)
+            {
+                for (int y = minY; y <= maxY; y++)
+                {
+                    final Cell cell = cells.get(key(x, y));
+                    if (cell != null)
+                    {
+                        checkInside(cell, area, inside);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Check cell elements against accepted groups elements in the same cell.
+     * 
+     * @param cell The cell to check.
+     * @param candidates The candidates found.
+     */
+    private void checkCell(Cell cell, CollisionCandidates candidates)
+    {
+        for (int i = 0; i < cell.size; i++)
+        {
+            final Range rangeA = cell.ranges[i];
+            for (final Integer acceptedGroup : rangeA.collidable.getAccepted())
+            {
+                // Others to compare only in accepted group
+                final Cells accepted = groups.get(acceptedGroup);
+                if (accepted != null)
+                {
+                    final Cell others = accepted.get(cell.key);
+                    if (others != null)
+                    {
+                        checkOthers(rangeA, cell, others, candidates);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get cells of group, create them if not existing.
+     * 
+     * @param group The group reference.
+     * @return The group cells.
+     */
+    private Cells getCells(Integer group)
+    {
+        Cells cells = groups.get(group);
+        if (cells == null)
+        {
+            cells = new Cells();
+            groups.put(group, cells);
+            groupsList.add(cells);
+        }
+        return cells;
+    }
+
+    /**
+     * Add range to all its cells.
+     * 
+     * @param range The range reference.
+     */
+    private void addAll(Range range)
+    {
+        for (int x = range.minX; x <= range.maxX; x++)
+        {
+            for (int y = range.minY; y <= range.maxY; y++)
+            {
+                add(range, x, y);
+            }
+        }
+    }
+
+    /**
+     * Remove range from all its cells.
+     * 
+     * @param range The range reference.
+     */
+    private void removeAll(Range range)
+    {
+        for (int x = range.minX; x <= range.maxX; x++)
+        {
+            for (int y = range.minY; y <= range.maxY; y++)
+            {
+                remove(range, x, y);
+            }
+        }
+    }
+
+    /**
+     * Add range to cells entered only.
+     * 
+     * @param old The old range.
+     * @param range The new range.
+     */
+    private void addEntered(Range old, Range range)
+    {
+        for (int x = range.minX; x <= range.maxX; x++)
+        {
+            for (int y = range.minY; y <= range.maxY; y++)
+            {
+                if (!contains(old, x, y))
+                {
+                    add(range, x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove range from cells left only.
+     * 
+     * @param old The old range.
+     * @param range The new range.
+     */
+    private void removeLeft(Range old, Range range)
+    {
+        for (int x = old.minX; x <= old.maxX; x++)
+        {
+            for (int y = old.minY; y <= old.maxY; y++)
+            {
+                if (!contains(range, x, y))
+                {
+                    remove(range, x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add range to cell.
+     * 
+     * @param range The range reference.
+     * @param x The horizontal cell index.
+     * @param y The vertical cell index.
+     */
+    private void add(Range range, int x, int y)
+    {
+        final long key = key(x, y);
+        Cell cell = range.cells.get(key);
+        if (cell == null)
+        {
+            cell = pool.poll();
+            if (cell == null)
+            {
+                cell = new Cell();
+            }
+            cell.set(key, x, y);
+            range.cells.put(cell);
+        }
+        cell.add(range);
+    }
+
+    /**
+     * Remove range from cell. Cell is recycled when empty.
+     * 
+     * @param range The range reference.
+     * @param x The horizontal cell index.
+     * @param y The vertical cell index.
+     */
+    private void remove(Range range, int x, int y)
+    {
+        final long key = key(x, y);
+        final Cell cell = range.cells.get(key);
+        if (cell != null)
+        {
+            cell.remove(range);
+            if (cell.size == 0)
+            {
+                range.cells.remove(key);
+                pool.push(cell);
+            }
+        }
+    }
+
+    /**
+     * Convert real position value to cell index.
+     * 
+     * @param value The real position value.
+     * @return The cell index.
+     */
+    private int getIndex(double value)
+    {
+        return (int) Math.floor(value / cellSize);
+    }
+
+    /**
+     * Collidable cells range.
+     */
+    private static final class Range
+    {
+        /** Collidable reference. */
+        private final Collidable collidable;
+        /** Group cells where range is stored, <code>null</code> if not stored. */
+        private Cells cells;
+        /** Min horizontal cell index. */
+        private int minX;
+        /** Min vertical cell index. */
+        private int minY;
+        /** Max horizontal cell index. */
+        private int maxX;
+        /** Max vertical cell index. */
+        private int maxY;
+
+        /**
+         * Create range.
+         * 
+         * @param collidable The collidable reference.
+         */
+        Range(Collidable collidable)
+        {
+            super();
+
+            this.collidable = collidable;
+        }
+
+        /**
+         * Set range.
+         * 
+         * @param cells The group cells.
+         * @param minX The min horizontal cell index.
+         * @param minY The min vertical cell index.
+         * @param maxX The max horizontal cell index.
+         * @param maxY The max vertical cell index.
+         */
+        void set(Cells cells, int minX, int minY, int maxX, int maxY)
+        {
+            this.cells = cells;
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+
+        /**
+         * Check if range is the same.
+         * 
+         * @param minX The min horizontal cell index.
+         * @param minY The min vertical cell index.
+         * @param maxX The max horizontal cell index.
+         * @param maxY The max vertical cell index.
+         * @return <code>true</code> if same range, <code>false</code> else.
+         */
+        boolean equals(int minX, int minY, int maxX, int maxY)
+        {
+            return this.minX == minX && this.minY == minY && this.maxX == maxX && this.maxY == maxY;
+        }
+    }
+
+    /**
+     * Grid cell, containing ranges.
+     */
+    private static final class Cell
+    {
+        /** Default capacity. */
+        private static final int DEFAULT_CAPACITY = 4;
+
+        /** Ranges inside cell. */
+        private Range[] ranges = new Range[DEFAULT_CAPACITY];
+        /** Number of ranges. */
+        private int size;
+        /** Packed key. */
+        private long key;
+        /** Horizontal cell index. */
+        private int x;
+        /** Vertical cell index. */
+        private int y;
+
+        /**
+         * Create cell.
+         */
+        Cell()
+        {
+            super();
+        }
+
+        /**
+         * Set cell location.
+         * 
+         * @param key The packed key.
+         * @param x The horizontal cell index.
+         * @param y The vertical cell index.
+         */
+        void set(long key, int x, int y)
+        {
+            this.key = key;
+            this.x = x;
+            this.y = y;
+        }
+
+        /**
+         * Add range.
+         * 
+         * @param range The range to add.
+         */
+        void add(Range range)
+        {
+            if (size == ranges.length)
+            {
+                ranges = Arrays.copyOf(ranges, size * 2);
+            }
+            ranges[size] = range;
+            size++;
+        }
+
+        /**
+         * Remove range by swapping last one.
+         * 
+         * @param range The range to remove.
+         */
+        void remove(Range range)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                if (ranges[i] == range)
+                {
+                    size--;
+                    ranges[i] = ranges[size];
+                    ranges[size] = null;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Open addressing table of cells, keyed by packed cell coordinates, with linear probing.
+     */
+    private static final class Cells
+    {
+        /** Default capacity (must be a power of two). */
+        private static final int DEFAULT_CAPACITY = 64;
+
+        /**
+         * Get key hash.
+         * 
+         * @param key The packed key.
+         * @return The key hash.
+         */
+        private static int hash(long key)
+        {
+            final long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ hash >>> Integer.SIZE);
+        }
+
+        /** Keys. */
+        private long[] keys = new long[DEFAULT_CAPACITY];
+        /** Cells, <code>null</code> for free slot. */
+        private Cell[] values = new Cell[DEFAULT_CAPACITY];
+        /** Index mask. */
+        private int mask = DEFAULT_CAPACITY - 1;
+        /** Number of cells. */
+        private int size;
+
+        /**
+         * Create cells.
+         */
+        Cells()
+        {
+            super();
+        }
+
+        /**
+         * Get cell.
+         * 
+         * @param key The packed key.
+         * @return The cell, <code>null</code> if none.
+         */
+        Cell get(long key)
+        {
+            int i = hash(key) & mask;
+            while (values[i] != null)
+            {
+                if (keys[i] == key)
+                {
+                    return values[i];
+                }
+                i = i + 1 & mask;
+            }
+            return null;
+        }
+
+        /**
+         * Put cell. Must not be already stored.
+         * 
+         * @param cell The cell to put.
+         */
+        void put(Cell cell)
+        {
+            if (size + 1 > values.length >> 1)
+            {
+                resize(values.length << 1);
+            }
+            insert(cell);
+            size++;
+        }
+
+        /**
+         * Remove cell. Following slots are shifted back, so no tombstone is needed.
+         * 
+         * @param key The packed key.
+         */
+        void remove(long key)
+        {
+            int i = hash(key) & mask;
+            while (values[i] != null && keys[i] != key)
+            {
+                i = i + 1 & mask;
+            }
+            if (values[i] == null)
+            {
+                return;
+            }
+            values[i] = null;
+            size--;
+
+            int j = i;
+            while (true)
+            {
+                j = j + 1 & mask;
+                if (values[j] == null)
+                {
+                    break;
+                }
+                final int k = hash(keys[j]) & mask;
+                final boolean stay;
+                if (j > i)
+                {
+                    stay = k > i && k <= j;
+                }
+                else
+                {
+                    stay = k > i || k <= j;
+                }
+                if (!stay)
+                {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    values[j] = null;
+                    i = j;
+                }
+            }
+        }
+
+        /**
+         * Insert cell in first free slot.
+         * 
+         * @param cell The cell to insert.
+         */
+        private void insert(Cell cell)
+        {
+            int i = hash(cell.key) & mask;
+            while (values[i] != null)
+            {
+                i = i + 1 & mask;
+            }
+            keys[i] = cell.key;
+            values[i] = cell;
+        }
+
+        /**
+         * Resize table.
+         * 
+         * @param capacity The new capacity (must be a power of two).
+         */
+        private void resize(int capacity)
+        {
+            final Cell[] old = values;
+            keys = new long[capacity];
+            values = new Cell[capacity];
+            mask = capacity - 1;
+            for (final Cell cell : old)
+            {
+                if (cell != null)
+                {
+                    insert(cell);
+                }
+            }
+        }
+    }
+}
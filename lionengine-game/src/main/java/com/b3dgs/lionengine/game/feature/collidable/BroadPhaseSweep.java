@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.geom.Area;
+
+/**
+ * Sort and sweep broad phase on horizontal axis. Bounds are kept sorted by their min horizontal value with an
+ * insertion sort, which is almost linear as order changes a little between frames. Works best with many small
+ * collidables spread horizontally, and does not depend on a cell size.
+ */
+public final class BroadPhaseSweep implements BroadPhase
+{
+    /** Default capacity. */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** Bounds by collidable. */
+    private final Map<Collidable, CollidableBounds> bounds = new HashMap<>();
+    /** Bounds sorted by min horizontal value (only the first {@link #size} are used). */
+    private CollidableBounds[] sorted = new CollidableBounds[DEFAULT_CAPACITY];
+    /** Number of sorted bounds. */
+    private int size;
+    /** Next creation order. */
+    private int order;
+    /** Removed bounds are pending flag. */
+    private boolean removed;
+
+    /**
+     * Create broad phase.
+     */
+    public BroadPhaseSweep()
+    {
+        super();
+    }
+
+    /**
+     * Remove pending bounds and sort remaining ones.
+     */
+    private void sort()
+    {
+        if (removed)
+        {
+            int count = 0;
+            for (int i = 0; i < size; i++)
+            {
+                if (!sorted[i].isRemoved())
+                {
+                    sorted[count] = sorted[i];
+                    count++;
+                }
+            }
+            Arrays.fill(sorted, count, size, null);
+            size = count;
+            removed = false;
+        }
+        for (int i = 1; i < size; i++)
+        {
+            final CollidableBounds current = sorted[i];
+            int j = i - 1;
+            while (j >= 0 && sorted[j].getMinX() > current.getMinX())
+            {
+                sorted[j + 1] = sorted[j];
+                j--;
+            }
+            sorted[j + 1] = current;
+        }
+    }
+
+    /*
+     * BroadPhase
+     */
+
+    @Override
+    public void move(Transformable transformable, Collidable collidable)
+    {
+        CollidableBounds current = bounds.get(collidable);
+        if (current == null)
+        {
+            current = new CollidableBounds(collidable, order++);
+            bounds.put(collidable, current);
+            if (size == sorted.length)
+            {
+                sorted = Arrays.copyOf(sorted, size * 2);
+            }
+            sorted[size] = current;
+            size++;
+        }
+        current.update(transformable);
+    }
+
+    @Override
+    public void remove(Collidable collidable)
+    {
+        final CollidableBounds current = bounds.remove(collidable);
+        if (current != null)
+        {
+            current.setRemoved(true);
+            removed = true;
+        }
+    }
+
+    @Override
+    public void findCandidates(CollisionCandidates candidates)
+    {
+        sort();
+        for (int i = 0; i < size; i++)
+        {
+            final CollidableBounds boundsA = sorted[i];
+            final double maxX = boundsA.getMaxX();
+            for (int j = i + 1; j < size && sorted[j].getMinX() <= maxX; j++)
+            {
+                final CollidableBounds boundsB = sorted[j];
+                if (boundsA.intersects(boundsB))
+                {
+                    if (boundsA.getOrder() < boundsB.getOrder())
+                    {
+                        candidates.addAccepted(boundsA.getCollidable(), boundsB.getCollidable());
+                    }
+                    else
+                    {
+                        candidates.addAccepted(boundsB.getCollidable(), boundsA.getCollidable());
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void findInside(Area area, Collection<Collidable> inside)
+    {
+        sort();
+        final double minX = area.getX() - area.getWidth();
+        final double minY = area.getY() - area.getHeight();
+        final double maxX = area.getX() + area.getWidth();
+        final double maxY = area.getY() + area.getHeight();
+
+        for (int i = 0; i < size && sorted[i].getMinX() <= maxX; i++)
+        {
+            final CollidableBounds current = sorted[i];
+            if (current.intersects(minX, minY, maxX, maxY) && CollidableBounds.isInside(current.getCollidable(), area))
+            {
+                inside.add(current.getCollidable());
+            }
+        }
+    }
+}
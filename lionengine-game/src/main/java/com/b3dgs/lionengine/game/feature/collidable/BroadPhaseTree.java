@@ -0,0 +1,664 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.geom.Area;
+
+/**
+ * Dynamic bounding box tree broad phase. Each collidable is a leaf storing its bounds enlarged by a margin, so a move
+ * only updates the tree when the collidable leaves its enlarged bounds. Tree is kept tight by local rotations. Works
+ * best with sparse maps and collidables of very different sizes.
+ * <p>
+ * Nodes are stored interleaved in flat arrays (one box and one links block per node), and recycled with a free list.
+ * </p>
+ */
+public final class BroadPhaseTree implements BroadPhase
+{
+    /** Default nodes capacity. */
+    private static final int DEFAULT_CAPACITY = 64;
+    /** Values per node. */
+    private static final int STRIDE = 4;
+    /** Min horizontal box offset. */
+    private static final int MIN_X = 0;
+    /** Min vertical box offset. */
+    private static final int MIN_Y = 1;
+    /** Max horizontal box offset. */
+    private static final int MAX_X = 2;
+    /** Max vertical box offset. */
+    private static final int MAX_Y = 3;
+    /** Parent link offset (next free node when free). */
+    private static final int PARENT = 0;
+    /** First child link offset ({@link #NONE} for leaf). */
+    private static final int CHILD1 = 1;
+    /** Second child link offset ({@link #NONE} for leaf). */
+    private static final int CHILD2 = 2;
+    /** Height link offset (0 for leaf, {@link #NONE} for free node). */
+    private static final int HEIGHT = 3;
+    /** Null node. */
+    private static final int NONE = -1;
+
+    /**
+     * Check if couple is valid, only once by couple, from the first created, and store it.
+     * 
+     * @param current The current bounds.
+     * @param other The other bounds.
+     * @param candidates The candidates found.
+     */
+    private static void checkCouple(CollidableBounds current, CollidableBounds other, CollisionCandidates candidates)
+    {
+        if (current.getOrder() < other.getOrder() && current.intersects(other))
+        {
+            candidates.addAccepted(current.getCollidable(), other.getCollidable());
+        }
+    }
+
+    /** Bounds by collidable. */
+    private final Map<Collidable, CollidableBounds> bounds = new HashMap<>();
+    /** Margin added to leaf bounds. */
+    private final double margin;
+    /** Nodes boxes. */
+    private double[] box = new double[DEFAULT_CAPACITY * STRIDE];
+    /** Nodes links. */
+    private int[] links = new int[DEFAULT_CAPACITY * STRIDE];
+    /** Leaves bounds. */
+    private CollidableBounds[] leaves = new CollidableBounds[DEFAULT_CAPACITY];
+    /** Leaves by creation order (only the first {@link #size} are used). */
+    private CollidableBounds[] ordered = new CollidableBounds[DEFAULT_CAPACITY];
+    /** Query stack. */
+    private int[] stack = new int[DEFAULT_CAPACITY];
+    /** Number of ordered bounds. */
+    private int size;
+    /** Root node. */
+    private int root = NONE;
+    /** First free node. */
+    private int free = NONE;
+    /** Number of allocated nodes. */
+    private int allocated;
+    /** Next creation order. */
+    private int order;
+    /** Removed bounds are pending flag. */
+    private boolean removed;
+
+    /**
+     * Create broad phase.
+     * 
+     * @param margin The margin added to each collidable bounds (must be superior or equal to 0).
+     * @throws LionEngineException If invalid argument.
+     */
+    public BroadPhaseTree(double margin)
+    {
+        super();
+
+        Check.superiorOrEqual(margin, 0.0);
+
+        this.margin = margin;
+    }
+
+    /**
+     * Get the tree height.
+     * 
+     * @return The tree height, 0 if empty.
+     */
+    int getHeight()
+    {
+        if (root == NONE)
+        {
+            return 0;
+        }
+        return get(root, HEIGHT) + 1;
+    }
+
+    /**
+     * Get node link.
+     * 
+     * @param node The node index.
+     * @param link The link offset.
+     * @return The link value.
+     */
+    private int get(int node, int link)
+    {
+        return links[node * STRIDE + link];
+    }
+
+    /**
+     * Set node link.
+     * 
+     * @param node The node index.
+     * @param link The link offset.
+     * @param value The link value.
+     */
+    private void set(int node, int link, int value)
+    {
+        links[node * STRIDE + link] = value;
+    }
+
+    /**
+     * Get node box value.
+     * 
+     * @param node The node index.
+     * @param side The box offset.
+     * @return The box value.
+     */
+    private double box(int node, int side)
+    {
+        return box[node * STRIDE + side];
+    }
+
+    /**
+     * Replace the child of a parent node.
+     * 
+     * @param parent The parent node, {@link #NONE} if child was root.
+     * @param child The old child.
+     * @param replacement The new child.
+     */
+    private void replaceChild(int parent, int child, int replacement)
+    {
+        if (parent == NONE)
+        {
+            root = replacement;
+        }
+        else if (get(parent, CHILD1) == child)
+        {
+            set(parent, CHILD1, replacement);
+        }
+        else
+        {
+            set(parent, CHILD2, replacement);
+        }
+    }
+
+    /**
+     * Allocate a node.
+     * 
+     * @return The node index.
+     */
+    private int allocate()
+    {
+        if (free == NONE)
+        {
+            if (allocated == leaves.length)
+            {
+                final int capacity = allocated * 2;
+                box = Arrays.copyOf(box, capacity * STRIDE);
+                links = Arrays.copyOf(links, capacity * STRIDE);
+                leaves = Arrays.copyOf(leaves, capacity);
+            }
+            free = allocated;
+            set(free, PARENT, NONE);
+            allocated++;
+        }
+        final int node = free;
+        free = get(node, PARENT);
+        set(node, PARENT, NONE);
+        set(node, CHILD1, NONE);
+        set(node, CHILD2, NONE);
+        set(node, HEIGHT, 0);
+        return node;
+    }
+
+    /**
+     * Release a node.
+     * 
+     * @param node The node index.
+     */
+    private void release(int node)
+    {
+        set(node, PARENT, free);
+        set(node, HEIGHT, NONE);
+        leaves[node] = null;
+        free = node;
+    }
+
+    /**
+     * Set leaf box from collidable bounds, with margin.
+     * 
+     * @param node The leaf node.
+     * @param current The collidable bounds.
+     */
+    private void setFat(int node, CollidableBounds current)
+    {
+        final int offset = node * STRIDE;
+        box[offset + MIN_X] = current.getMinX() - margin;
+        box[offset + MIN_Y] = current.getMinY() - margin;
+        box[offset + MAX_X] = current.getMaxX() + margin;
+        box[offset + MAX_Y] = current.getMaxY() + margin;
+    }
+
+    /**
+     * Check if leaf box still contains collidable bounds.
+     * 
+     * @param node The leaf node.
+     * @param current The collidable bounds.
+     * @return <code>true</code> if contained, <code>false</code> else.
+     */
+    private boolean contains(int node, CollidableBounds current)
+    {
+        return box(node, MIN_X) <= current.getMinX()
+               && box(node, MIN_Y) <= current.getMinY()
+               && box(node, MAX_X) >= current.getMaxX()
+               && box(node, MAX_Y) >= current.getMaxY();
+    }
+
+    /**
+     * Set node box as union of its children, and update its height.
+     * 
+     * @param node The node index.
+     */
+    private void refit(int node)
+    {
+        final int a = get(node, CHILD1);
+        final int b = get(node, CHILD2);
+        final int offset = node * STRIDE;
+        box[offset + MIN_X] = Math.min(box(a, MIN_X), box(b, MIN_X));
+        box[offset + MIN_Y] = Math.min(box(a, MIN_Y), box(b, MIN_Y));
+        box[offset + MAX_X] = Math.max(box(a, MAX_X), box(b, MAX_X));
+        box[offset + MAX_Y] = Math.max(box(a, MAX_Y), box(b, MAX_Y));
+        set(node, HEIGHT, 1 + Math.max(get(a, HEIGHT), get(b, HEIGHT)));
+    }
+
+    /**
+     * Get the perimeter of the union of two nodes.
+     * 
+     * @param a The first node.
+     * @param b The second node.
+     * @return The union perimeter.
+     */
+    private double perimeter(int a, int b)
+    {
+        final double width = Math.max(box(a, MAX_X), box(b, MAX_X)) - Math.min(box(a, MIN_X), box(b, MIN_X));
+        final double height = Math.max(box(a, MAX_Y), box(b, MAX_Y)) - Math.min(box(a, MIN_Y), box(b, MIN_Y));
+        return 2.0 * (width + height);
+    }
+
+    /**
+     * Get the perimeter of a node.
+     * 
+     * @param node The node.
+     * @return The node perimeter.
+     */
+    private double perimeter(int node)
+    {
+        return 2.0 * (box(node, MAX_X) - box(node, MIN_X) + box(node, MAX_Y) - box(node, MIN_Y));
+    }
+
+    /**
+     * Get the cost of descending to child for inserting leaf.
+     * 
+     * @param child The child node.
+     * @param leaf The leaf to insert.
+     * @param inheritance The inheritance cost.
+     * @return The descending cost.
+     */
+    private double getCost(int child, int leaf, double inheritance)
+    {
+        if (get(child, HEIGHT) == 0)
+        {
+            return perimeter(child, leaf) + inheritance;
+        }
+        return perimeter(child, leaf) - perimeter(child) + inheritance;
+    }
+
+    /**
+     * Insert leaf in tree, next to the sibling with the lowest perimeter increase.
+     * 
+     * @param leaf The leaf to insert.
+     */
+    private void insert(int leaf)
+    {
+        if (root == NONE)
+        {
+            root = leaf;
+            set(leaf, PARENT, NONE);
+            return;
+        }
+
+        int index = root;
+        while (get(index, HEIGHT) > 0)
+        {
+            final double combined = perimeter(index, leaf);
+            final double cost = 2.0 * combined;
+            final double inheritance = 2.0 * (combined - perimeter(index));
+            final double cost1 = getCost(get(index, CHILD1), leaf, inheritance);
+            final double cost2 = getCost(get(index, CHILD2), leaf, inheritance);
+
+            if (cost < cost1 && cost < cost2)
+            {
+                break;
+            }
+            if (cost1 < cost2)
+            {
+                index = get(index, CHILD1);
+            }
+            else
+            {
+                index = get(index, CHILD2);
+            }
+        }
+
+        final int sibling = index;
+        final int oldParent = get(sibling, PARENT);
+        final int newParent = allocate();
+        set(newParent, PARENT, oldParent);
+        set(newParent, CHILD1, sibling);
+        set(newParent, CHILD2, leaf);
+        set(sibling, PARENT, newParent);
+        set(leaf, PARENT, newParent);
+        replaceChild(oldParent, sibling, newParent);
+        fix(newParent);
+    }
+
+    /**
+     * Remove leaf from tree. Leaf node is not released.
+     * 
+     * @param leaf The leaf to remove.
+     */
+    private void extract(int leaf)
+    {
+        if (leaf == root)
+        {
+            root = NONE;
+            return;
+        }
+
+        final int oldParent = get(leaf, PARENT);
+        final int grandParent = get(oldParent, PARENT);
+        final int sibling;
+        if (get(oldParent, CHILD1) == leaf)
+        {
+            sibling = get(oldParent, CHILD2);
+        }
+        else
+        {
+            sibling = get(oldParent, CHILD1);
+        }
+
+        replaceChild(grandParent, oldParent, sibling);
+        set(sibling, PARENT, grandParent);
+        release(oldParent);
+        fix(grandParent);
+    }
+
+    /**
+     * Refit and rotate nodes from node to root.
+     * 
+     * @param node The first node to fix.
+     */
+    private void fix(int node)
+    {
+        int index = node;
+        while (index != NONE)
+        {
+            refit(index);
+            rotate(index);
+            index = get(index, PARENT);
+        }
+    }
+
+    /**
+     * Swap a child of node with a grand child on the other side, if it reduces the perimeter of the modified child.
+     * Keeps the tree tight as leaves move, without degrading queries like height based balancing does.
+     * 
+     * @param a The node to rotate.
+     */
+    private void rotate(int a)
+    {
+        final int b = get(a, CHILD1);
+        final int c = get(a, CHILD2);
+
+        double best = 0.0;
+        int child = NONE;
+        int grandChild = NONE;
+        int parent = NONE;
+
+        if (get(c, HEIGHT) > 0)
+        {
+            final double area = perimeter(c);
+            final int f = get(c, CHILD1);
+            final int g = get(c, CHILD2);
+            final double costF = perimeter(b, g) - area;
+            final double costG = perimeter(b, f) - area;
+            if (costF < best)
+            {
+                best = costF;
+                child = b;
+                grandChild = f;
+                parent = c;
+            }
+            if (costG < best)
+            {
+                best = costG;
+                child = b;
+                grandChild = g;
+                parent = c;
+            }
+        }
+        if (get(b, HEIGHT) > 0)
+        {
+            final double area = perimeter(b);
+            final int d = get(b, CHILD1);
+            final int e = get(b, CHILD2);
+            final double costD = perimeter(c, e) - area;
+            final double costE = perimeter(c, d) - area;
+            if (costD < best)
+            {
+                best = costD;
+                child = c;
+                grandChild = d;
+                parent = b;
+            }
+            if (costE < best)
+            {
+                child = c;
+                grandChild = e;
+                parent = b;
+            }
+        }
+
+        if (child != NONE)
+        {
+            replaceChild(a, child, grandChild);
+            set(grandChild, PARENT, a);
+            replaceChild(parent, grandChild, child);
+            set(child, PARENT, parent);
+            refit(parent);
+            refit(a);
+        }
+    }
+
+    /**
+     * Query tree for leaves intersecting bounds.
+     * 
+     * @param minX The min horizontal.
+     * @param minY The min vertical.
+     * @param maxX The max horizontal.
+     * @param maxY The max vertical.
+     * @param current The bounds requesting the query, <code>null</code> if none.
+     * @param candidates The candidates found, <code>null</code> if none.
+     * @param area The area to check inside, <code>null</code> if none.
+     * @param inside The elements inside area found, <code>null</code> if none.
+     */
+    private void query(double minX,
+                       double minY,
+                       double maxX,
+                       double maxY,
+                       CollidableBounds current,
+                       CollisionCandidates candidates,
+                       Area area,
+                       Collection<Collidable> inside)
+    {
+        final double[] boxes = box;
+        int[] nodes = stack;
+        int count = 0;
+        nodes[count++] = root;
+        while (count > 0)
+        {
+            final int node = nodes[--count];
+            final int offset = node * STRIDE;
+            if (boxes[offset + MIN_X] <= maxX
+                && boxes[offset + MAX_X] >= minX
+                && boxes[offset + MIN_Y] <= maxY
+                && boxes[offset + MAX_Y] >= minY)
+            {
+                if (get(node, HEIGHT) == 0)
+                {
+                    final CollidableBounds other = leaves[node];
+                    if (current != null)
+                    {
+                        checkCouple(current, other, candidates);
+                    }
+                    else if (other.intersects(minX, minY, maxX, maxY)
+                             && CollidableBounds.isInside(other.getCollidable(), area))
+                    {
+                        inside.add(other.getCollidable());
+                    }
+                }
+                else
+                {
+                    if (count + 2 > nodes.length)
+                    {
+                        nodes = Arrays.copyOf(nodes, nodes.length * 2);
+                        stack = nodes;
+                    }
+                    nodes[count++] = get(node, CHILD2);
+                    nodes[count++] = get(node, CHILD1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove pending bounds from creation order.
+     */
+    private void compact()
+    {
+        int count = 0;
+        for (int i = 0; i < size; i++)
+        {
+            if (!ordered[i].isRemoved())
+            {
+                ordered[count] = ordered[i];
+                count++;
+            }
+        }
+        Arrays.fill(ordered, count, size, null);
+        size = count;
+        removed = false;
+    }
+
+    /*
+     * BroadPhase
+     */
+
+    @Override
+    public void move(Transformable transformable, Collidable collidable)
+    {
+        CollidableBounds current = bounds.get(collidable);
+        if (current == null)
+        {
+            current = new CollidableBounds(collidable, order++);
+            bounds.put(collidable, current);
+            current.update(transformable);
+
+            final int leaf = allocate();
+            current.setIndex(leaf);
+            leaves[leaf] = current;
+            setFat(leaf, current);
+            insert(leaf);
+
+            if (size == ordered.length)
+            {
+                ordered = Arrays.copyOf(ordered, size * 2);
+            }
+            ordered[size] = current;
+            size++;
+        }
+        else
+        {
+            current.update(transformable);
+            final int leaf = current.getIndex();
+            if (!contains(leaf, current))
+            {
+                extract(leaf);
+                setFat(leaf, current);
+                insert(leaf);
+            }
+        }
+    }
+
+    @Override
+    public void remove(Collidable collidable)
+    {
+        final CollidableBounds current = bounds.remove(collidable);
+        if (current != null)
+        {
+            final int leaf = current.getIndex();
+            extract(leaf);
+            release(leaf);
+            current.setRemoved(true);
+            removed = true;
+        }
+    }
+
+    @Override
+    public void findCandidates(CollisionCandidates candidates)
+    {
+        if (removed)
+        {
+            compact();
+        }
+        if (root == NONE)
+        {
+            return;
+        }
+        for (int i = 0; i < size; i++)
+        {
+            final CollidableBounds current = ordered[i];
+            query(current.getMinX(),
+                  current.getMinY(),
+                  current.getMaxX(),
+                  current.getMaxY(),
+                  current,
+                  candidates,
+                  null,
+                  null);
+        }
+    }
+
+    @Override
+    public void findInside(Area area, Collection<Collidable> inside)
+    {
+        if (root != NONE)
+        {
+            query(area.getX() - area.getWidth(),
+                  area.getY() - area.getHeight(),
+                  area.getX() + area.getWidth(),
+                  area.getY() + area.getHeight(),
+                  null,
+                  null,
+                  area,
+                  inside);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.List;
+
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.geom.Area;
+import com.b3dgs.lionengine.geom.Rectangle;
+
+/**
+ * Collidable bounding box, covering its max collision size around its old and current locations, so the whole
+ * movement checked by {@link Collidable#collide(Collidable)} is included.
+ */
+final class CollidableBounds
+{
+    /**
+     * Check if one of the collidable collision bounds is inside area.
+     * 
+     * @param collidable The collidable to check.
+     * @param area The area to check.
+     * @return <code>true</code> if inside, <code>false</code> else.
+     */
+    static boolean isInside(Collidable collidable, Area area)
+    {
+        final List<Rectangle> bounds = collidable.getCollisionBounds();
+        final int n = bounds.size();
+        for (int i = 0; i < n; i++)
+        {
+            final Rectangle bound = bounds.get(i);
+            if (area.intersects(bound) || area.contains(bound))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Collidable reference. */
+    private final Collidable collidable;
+    /** Creation order, used for deterministic couples. */
+    private final int order;
+    /** Min horizontal. */
+    private double minX;
+    /** Min vertical. */
+    private double minY;
+    /** Max horizontal. */
+    private double maxX;
+    /** Max vertical. */
+    private double maxY;
+    /** Index inside broad phase storage. */
+    private int index;
+    /** Removed flag. */
+    private boolean removed;
+
+    /**
+     * Create bounds.
+     * 
+     * @param collidable The collidable reference.
+     * @param order The creation order.
+     */
+    CollidableBounds(Collidable collidable, int order)
+    {
+        super();
+
+        this.collidable = collidable;
+        this.order = order;
+    }
+
+    /**
+     * Update bounds from transformable.
+     * 
+     * @param transformable The transformable reference.
+     */
+    void update(Transformable transformable)
+    {
+        final int width = collidable.getMaxWidth();
+        final int height = collidable.getMaxHeight();
+        minX = Math.min(transformable.getOldX(), transformable.getX()) - width;
+        minY = Math.min(transformable.getOldY(), transformable.getY()) - height;
+        maxX = Math.max(transformable.getOldX(), transformable.getX()) + width;
+        maxY = Math.max(transformable.getOldY(), transformable.getY()) + height;
+    }
+
+    /**
+     * Check if bounds intersect.
+     * 
+     * @param minX The min horizontal.
+     * @param minY The min vertical.
+     * @param maxX The max horizontal.
+     * @param maxY The max vertical.
+     * @return <code>true</code> if intersect, <code>false</code> else.
+     */
+    boolean intersects(double minX, double minY, double maxX, double maxY)
+    {
+        return this.minX <= maxX && this.maxX >= minX && this.minY <= maxY && this.maxY >= minY;
+    }
+
+    /**
+     * Check if bounds intersect.
+     * 
+     * @param other The other bounds.
+     * @return <code>true</code> if intersect, <code>false</code> else.
+     */
+    boolean intersects(CollidableBounds other)
+    {
+        return intersects(other.minX, other.minY, other.maxX, other.maxY);
+    }
+
+    /**
+     * Set the index inside broad phase storage.
+     * 
+     * @param index The index value.
+     */
+    void setIndex(int index)
+    {
+        this.index = index;
+    }
+
+    /**
+     * Set removed flag.
+     * 
+     * @param removed <code>true</code> if removed, <code>false</code> else.
+     */
+    void setRemoved(boolean removed)
+    {
+        this.removed = removed;
+    }
+
+    /**
+     * Check if removed.
+     * 
+     * @return <code>true</code> if removed, <code>false</code> else.
+     */
+    boolean isRemoved()
+    {
+        return removed;
+    }
+
+    /**
+     * Get the collidable.
+     * 
+     * @return The collidable reference.
+     */
+    Collidable getCollidable()
+    {
+        return collidable;
+    }
+
+    /**
+     * Get the index inside broad phase storage.
+     * 
+     * @return The index value.
+     */
+    int getIndex()
+    {
+        return index;
+    }
+
+    /**
+     * Get the creation order.
+     * 
+     * @return The creation order.
+     */
+    int getOrder()
+    {
+        return order;
+    }
+
+    /**
+     * Get the min horizontal.
+     * 
+     * @return The min horizontal.
+     */
+    double getMinX()
+    {
+        return minX;
+    }
+
+    /**
+     * Get the min vertical.
+     * 
+     * @return The min vertical.
+     */
+    double getMinY()
+    {
+        return minY;
+    }
+
+    /**
+     * Get the max horizontal.
+     * 
+     * @return The max horizontal.
+     */
+    double getMaxX()
+    {
+        return maxX;
+    }
+
+    /**
+     * Get the max vertical.
+     * 
+     * @return The max vertical.
+     */
+    double getMaxY()
+    {
+        return maxY;
+    }
+}
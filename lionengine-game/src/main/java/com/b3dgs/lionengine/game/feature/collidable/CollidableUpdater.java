@@ -41,7 +41,8 @@ import com.b3dgs.lionengine.geom.Rectangle;
 final class CollidableUpdater implements IdentifiableListener, CollisionChecker
 {
     /**
-     * Check if other collides with collision and its rectangle area.
+     * Check if other collides with collision and its rectangle area. Rectangle is swept from old to current location
+     * without being modified, so checks can be performed concurrently while collidables are not transformed.
      * 
      * @param origin The origin used.
      * @param provider The provider owner.
@@ -86,29 +87,40 @@ final class CollidableUpdater implements IdentifiableListener, CollisionChecker
             sy = dv;
         }
 
-        final double oldX = rectangle.getX();
-        final double oldY = rectangle.getY();
+        final double width = rectangle.getWidthReal();
+        final double height = rectangle.getHeightReal();
+        double x = rectangle.getX();
+        double y = rectangle.getY();
         for (int count = 0; count < max + 1; count++)
         {
-            if (checkCollide(with, rectangle, other, collisions))
+            if (checkCollide(with, x, y, width, height, other, collisions))
             {
                 return;
             }
-            rectangle.translate(sx, sy);
+            x += sx;
+            y += sy;
         }
-        rectangle.set(oldX, oldY, rectangle.getWidth(), rectangle.getHeight());
     }
 
     /**
-     * Check if current area collides other collidable area.
+     * Check if current area collides other collidable area. Areas are only read.
      * 
      * @param with The collision to check with.
-     * @param area The current area.
+     * @param x The current area horizontal location.
+     * @param y The current area vertical location.
+     * @param width The current area width.
+     * @param height The current area height.
      * @param other The other collidable.
      * @param collisions The collisions couple.
      * @return <code>true</code> if collided, <code>false</code> else.
      */
-    private static boolean checkCollide(Collision with, Area area, Collidable other, List<CollisionCouple> collisions)
+    private static boolean checkCollide(Collision with,
+                                        double x,
+                                        double y,
+                                        double width,
+                                        double height,
+                                        Collidable other,
+                                        List<CollisionCouple> collisions)
     {
         final List<Rectangle> others = other.getCollisionBounds();
         final List<Collision> othersColl = other.getCollisions();
@@ -119,7 +131,8 @@ final class CollidableUpdater implements IdentifiableListener, CollisionChecker
             final Area current = others.get(i);
             final Collision by = othersColl.get(i);
 
-            if (other.isEnabled(by) && (area.intersects(current) || area.contains(current)))
+            if (other.isEnabled(by)
+                && (intersects(x, y, width, height, current) || contains(x, y, width, height, current)))
             {
                 collisions.add(new CollisionCouple(with, by));
                 collided = true;
@@ -128,6 +141,42 @@ final class CollidableUpdater implements IdentifiableListener, CollisionChecker
         return collided;
     }
 
+    /**
+     * Check if area intersects the other area. Same as {@link Rectangle#intersects(Area)}.
+     * 
+     * @param x The area horizontal location.
+     * @param y The area vertical location.
+     * @param width The area width.
+     * @param height The area height.
+     * @param other The other area.
+     * @return <code>true</code> if intersects, <code>false</code> else.
+     */
+    private static boolean intersects(double x, double y, double width, double height, Area other)
+    {
+        return other.getX() + other.getWidthReal() > x
+               && other.getY() + other.getHeightReal() > y
+               && other.getX() < x + width
+               && other.getY() < y + height;
+    }
+
+    /**
+     * Check if area contains the other area. Same as {@link Rectangle#contains(Area)}.
+     * 
+     * @param x The area horizontal location.
+     * @param y The area vertical location.
+     * @param width The area width.
+     * @param height The area height.
+     * @param other The other area.
+     * @return <code>true</code> if contains, <code>false</code> else.
+     */
+    private static boolean contains(double x, double y, double width, double height, Area other)
+    {
+        return other.getX() >= x
+               && other.getY() >= y
+               && other.getX() + other.getWidthReal() <= x + width
+               && other.getY() + other.getHeightReal() <= y + height;
+    }
+
     /**
      * Get the collision mirror.
      * 
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.Arrays;
+
+/**
+ * Candidate couples found by a {@link BroadPhase}, to be checked by {@link Collidable#collide(Collidable)}.
+ * Storage is kept between frames, so no allocation is performed once its capacity has been reached.
+ */
+public final class CollisionCandidates
+{
+    /** Default capacity. */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** First collidables (the ones which collide). */
+    private Collidable[] first = new Collidable[DEFAULT_CAPACITY];
+    /** Second collidables (the ones which are collided). */
+    private Collidable[] second = new Collidable[DEFAULT_CAPACITY];
+    /** Current number of candidates. */
+    private int size;
+
+    /**
+     * Create candidates.
+     */
+    public CollisionCandidates()
+    {
+        super();
+    }
+
+    /**
+     * Add a candidate couple.
+     * 
+     * @param collidableA The collidable which collides.
+     * @param collidableB The collidable which is collided.
+     */
+    public void add(Collidable collidableA, Collidable collidableB)
+    {
+        if (size == first.length)
+        {
+            first = Arrays.copyOf(first, size * 2);
+            second = Arrays.copyOf(second, size * 2);
+        }
+        first[size] = collidableA;
+        second[size] = collidableB;
+        size++;
+    }
+
+    /**
+     * Add a candidate couple in each direction where the other group is accepted.
+     * 
+     * @param collidableA The first collidable.
+     * @param collidableB The second collidable.
+     */
+    public void addAccepted(Collidable collidableA, Collidable collidableB)
+    {
+        if (collidableA.getAccepted().contains(collidableB.getGroup()))
+        {
+            add(collidableA, collidableB);
+        }
+        if (collidableB.getAccepted().contains(collidableA.getGroup()))
+        {
+            add(collidableB, collidableA);
+        }
+    }
+
+    /**
+     * Clear candidates. References are released, capacity is kept.
+     */
+    public void clear()
+    {
+        Arrays.fill(first, 0, size, null);
+        Arrays.fill(second, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Get the number of candidates.
+     * 
+     * @return The number of candidates.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Get the collidable which collides.
+     * 
+     * @param index The candidate index.
+     * @return The collidable which collides.
+     */
+    public Collidable getFirst(int index)
+    {
+        return first[index];
+    }
+
+    /**
+     * Get the collidable which is collided.
+     * 
+     * @param index The candidate index.
+     * @return The collidable which is collided.
+     */
+    public Collidable getSecond(int index)
+    {
+        return second[index];
+    }
+}
@@ -18,104 +18,106 @@ package com.b3dgs.lionengine.game.feature.collidable;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.game.feature.ComponentUpdater;
 import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.Handlables;
+import com.b3dgs.lionengine.game.feature.Handler;
 import com.b3dgs.lionengine.game.feature.HandlerListener;
 import com.b3dgs.lionengine.game.feature.Transformable;
 import com.b3dgs.lionengine.game.feature.TransformableListener;
 import com.b3dgs.lionengine.geom.Area;
-import com.b3dgs.lionengine.geom.Point;
-import com.b3dgs.lionengine.geom.Rectangle;
 
 /**
  * Default collision component implementation. Designed to check collision between {@link Collidable}.
  * Collision events are notified to {@link CollidableListener}.
+ * <p>
+ * Couples to check are found by a {@link BroadPhase}, which can be selected for each {@link Handler}. Default one
+ * is a {@link BroadPhaseGrid} with a cell size of 256. Candidates and notifications storage are reused between
+ * frames.
+ * </p>
+ * <p>
+ * Narrow phase can optionally be performed in parallel on a {@link ForkJoinPool}: candidates are split in ranges
+ * checked concurrently, while the engine thread waits. Checking does not modify collidables, and as nothing is
+ * transformed during this phase, all checks see the same state. Results are then merged in candidates order and
+ * notified on the engine thread, giving the same notification order as the sequential mode.
+ * </p>
  * 
  * @see Collidable
  * @see CollidableListener
+ * @see BroadPhase
  */
 public class ComponentCollision implements ComponentUpdater, HandlerListener, TransformableListener
 {
     /** Location reduce factor (the higher it is, the lower is the map division per location). */
     static final double REDUCE_FACTOR = 256.0;
 
+    /** Broad phase used. */
+    private final BroadPhase broadPhase;
+    /** Narrow phase pool (<code>null</code> if sequential). */
+    private final ForkJoinPool pool;
+    /** Maximum number of candidates checked by a single narrow phase task. */
+    private final int threshold;
+    /** Collisions found for each candidate by parallel narrow phase (recycled between frames). */
+    private final List<List<CollisionCouple>> results = new ArrayList<>();
+    /** Candidates found by broad phase. */
+    private final CollisionCandidates candidates = new CollisionCandidates();
+    /** To be notified (recycled between frames, only the first {@link #notified} are active). */
+    private final List<Collided> toNotify = new ArrayList<>();
+    /** Number of active notifications. */
+    private int notified;
+
     /**
-     * Get point representing the area.
-     * 
-     * @param area The area reference.
-     * @return The area divided in point depending of reduce factor.
+     * Create component with default {@link BroadPhaseGrid}.
      */
-    private static Collection<Point> getPoints(Area area)
+    public ComponentCollision()
     {
-        final Collection<Point> points = new HashSet<>(4);
-        final int oldMinX = getIndex(area.getX() - area.getWidth());
-        final int oldMinY = getIndex(area.getY() - area.getHeight());
-        final int oldMaxX = getIndex(area.getX() + area.getWidth());
-        final int oldMaxY = getIndex(area.getY() + area.getHeight());
-
-        for (int x = oldMinX; x <= oldMaxX; x++)
-        {
-            for (int y = oldMinY; y <= oldMaxY; y++)
-            {
-                points.add(new Point(x, y));
-            }
-        }
-        return points;
+        this(new BroadPhaseGrid(REDUCE_FACTOR));
     }
 
     /**
-     * Check elements inside area.
+     * Create component.
      * 
-     * @param elements The elements to check.
-     * @param area The area to check.
-     * @param inside The elements inside the area found.
+     * @param broadPhase The broad phase used (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
      */
-    private static void checkInside(Collection<Collidable> elements, Area area, Collection<Collidable> inside)
+    public ComponentCollision(BroadPhase broadPhase)
     {
-        for (final Collidable current : elements)
-        {
-            for (final Rectangle bound : current.getCollisionBounds())
-            {
-                if (area.intersects(bound) || area.contains(bound))
-                {
-                    inside.add(current);
-                }
-            }
-        }
+        super();
+
+        Check.notNull(broadPhase);
+
+        this.broadPhase = broadPhase;
+        pool = null;
+        threshold = 0;
     }
 
     /**
-     * Convert real position value to index.
+     * Create component with a parallel narrow phase.
      * 
-     * @param value The real position value.
-     * @return The index value.
+     * @param broadPhase The broad phase used (must not be <code>null</code>).
+     * @param pool The pool used to perform narrow phase (must not be <code>null</code>).
+     * @param threshold The maximum number of candidates checked by a single task, below which candidates are checked
+     *            on the engine thread (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
      */
-    private static int getIndex(double value)
+    public ComponentCollision(BroadPhase broadPhase, ForkJoinPool pool, int threshold)
     {
-        return (int) Math.floor(value / REDUCE_FACTOR);
-    }
+        super();
 
-    /** Mapping reduced. */
-    private final Map<Integer, Map<Point, Set<Collidable>>> collidables = new HashMap<>();
-    /** Already collided mapping. */
-    private final Map<Collidable, Collidable> done = new HashMap<>(1);
-    /** To be notified. */
-    private final List<Collided> toNotify = new ArrayList<>();
+        Check.notNull(broadPhase);
+        Check.notNull(pool);
+        Check.superiorStrict(threshold, 0);
 
-    /**
-     * Create component.
-     */
-    public ComponentCollision()
-    {
-        super();
+        this.broadPhase = broadPhase;
+        this.pool = pool;
+        this.threshold = threshold;
     }
 
     /**
@@ -127,200 +129,60 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
     public Collection<Collidable> getInside(Area area)
     {
         final Collection<Collidable> inside = new HashSet<>();
-        final Collection<Point> points = getPoints(area);
-
-        for (final Map<Point, Set<Collidable>> groups : collidables.values())
-        {
-            for (final Point point : points)
-            {
-                final Collection<Collidable> elements = groups.get(point);
-                if (elements != null)
-                {
-                    checkInside(elements, area, inside);
-                }
-            }
-        }
-
+        broadPhase.findInside(area, inside);
         return inside;
     }
 
     /**
-     * Remove point and adjacent points depending of the collidable max collision size.
-     * 
-     * @param transformable The transformable reference.
-     * @param collidable The collidable reference.
-     */
-    private void removePoints(Transformable transformable, Collidable collidable)
-    {
-        final int oldMinX = getIndex(transformable.getOldX() - collidable.getMaxWidth());
-        final int oldMinY = getIndex(transformable.getOldY() - collidable.getMaxHeight());
-        final int oldMaxX = getIndex(transformable.getOldX() + collidable.getMaxWidth());
-        final int oldMaxY = getIndex(transformable.getOldY() + collidable.getMaxHeight());
-
-        for (int x = oldMinX; x <= oldMaxX; x++)
-        {
-            for (int y = oldMinY; y <= oldMaxY; y++)
-            {
-                removePoint(new Point(x, y), collidable);
-            }
-        }
-    }
-
-    /**
-     * Remove point. Remove list of no more collidable.
-     * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
-     */
-    private void removePoint(Point point, Collidable collidable)
-    {
-        final Integer group = collidable.getGroup();
-        if (collidables.containsKey(group))
-        {
-            final Map<Point, Set<Collidable>> elements = collidables.get(group);
-            if (elements.containsKey(point))
-            {
-                removePoint(point, collidable, elements, group);
-            }
-        }
-    }
-
-    /**
-     * Remove point. Remove list of no more collidable.
-     * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
-     * @param elements The current group elements.
-     * @param group The current group.
-     */
-    private void removePoint(Point point, Collidable collidable, Map<Point, Set<Collidable>> elements, Integer group)
-    {
-        final Set<Collidable> points = elements.get(point);
-        points.remove(collidable);
-        if (points.isEmpty())
-        {
-            elements.remove(point);
-        }
-        if (elements.isEmpty())
-        {
-            collidables.remove(group);
-        }
-    }
-
-    /**
-     * Add point and adjacent points depending of the collidable max collision size.
-     * 
-     * @param transformable The transformable reference.
-     * @param collidable The collidable reference.
-     */
-    private void addPoints(Transformable transformable, Collidable collidable)
-    {
-        final int minX = getIndex(transformable.getX() - collidable.getMaxWidth());
-        final int minY = getIndex(transformable.getY() - collidable.getMaxHeight());
-        final int maxX = getIndex(transformable.getX() + collidable.getMaxWidth());
-        final int maxY = getIndex(transformable.getY() + collidable.getMaxHeight());
-
-        for (int x = minX; x <= maxX; x++)
-        {
-            for (int y = minY; y <= maxY; y++)
-            {
-                addPoint(new Point(x, y), collidable);
-            }
-        }
-    }
-
-    /**
-     * Add point. Create empty list of not existing.
+     * Check candidates in parallel and store collisions to be notified in candidates order.
      * 
-     * @param point The point to remove.
-     * @param collidable The associated collidable.
+     * @param n The number of candidates.
      */
-    private void addPoint(Point point, Collidable collidable)
+    private void checkParallel(int n)
     {
-        final Integer group = collidable.getGroup();
-        if (!collidables.containsKey(group))
+        while (results.size() < n)
         {
-            collidables.put(group, new HashMap<Point, Set<Collidable>>());
+            results.add(null);
         }
-        final Map<Point, Set<Collidable>> elements = collidables.get(group);
-        if (!elements.containsKey(point))
-        {
-            elements.put(point, new HashSet<Collidable>());
-        }
-        elements.get(point).add(collidable);
-    }
+        pool.invoke(new NarrowPhase(0, n));
 
-    /**
-     * Check elements in group.
-     * 
-     * @param current The elements in group.
-     */
-    private void checkGroup(Entry<Point, Set<Collidable>> current)
-    {
-        final Set<Collidable> elements = current.getValue();
-        for (final Collidable objectA : elements)
+        for (int i = 0; i < n; i++)
         {
-            checkOthers(objectA, current);
+            store(candidates.getFirst(i), candidates.getSecond(i), results.get(i));
+            results.set(i, null);
         }
     }
 
     /**
-     * Check others element.
+     * Check candidate and store collisions to be notified.
      * 
-     * @param objectA The collidable reference.
-     * @param current The current group to check.
+     * @param objectA The collidable which collides.
+     * @param objectB The collidable which is collided.
      */
-    private void checkOthers(Collidable objectA, Entry<Point, Set<Collidable>> current)
+    private void check(Collidable objectA, Collidable objectB)
     {
-        for (final Integer acceptedGroup : objectA.getAccepted())
-        {
-            // Others to compare only in accepted group
-            if (collidables.containsKey(acceptedGroup))
-            {
-                checkOthers(objectA, current, acceptedGroup);
-            }
-        }
+        store(objectA, objectB, objectA.collide(objectB));
     }
 
     /**
-     * Check others element.
+     * Store collisions to be notified.
      * 
-     * @param objectA The collidable reference.
-     * @param current The current group to check.
-     * @param acceptedGroup The accepted group.
+     * @param objectA The collidable which collides.
+     * @param objectB The collidable which is collided.
+     * @param collisions The collisions found.
      */
-    private void checkOthers(Collidable objectA, Entry<Point, Set<Collidable>> current, Integer acceptedGroup)
+    private void store(Collidable objectA, Collidable objectB, List<CollisionCouple> collisions)
     {
-        final Map<Point, Set<Collidable>> acceptedElements = collidables.get(acceptedGroup);
-        final Point point = current.getKey();
-        if (acceptedElements.containsKey(point))
+        final int n = collisions.size();
+        for (int i = 0; i < n; i++)
         {
-            checkPoint(objectA, acceptedElements, point);
-        }
-    }
-
-    /**
-     * Check others element at specified point.
-     * 
-     * @param objectA The collidable reference.
-     * @param acceptedElements The current elements to check.
-     * @param point The point to check.
-     */
-    private void checkPoint(Collidable objectA, Map<Point, Set<Collidable>> acceptedElements, Point point)
-    {
-        final Set<Collidable> others = acceptedElements.get(point);
-        for (final Collidable objectB : others)
-        {
-            // Ensures not already collided with object with other point (because of subdivision mapping)
-            if (objectA != objectB && done.get(objectA) != objectB)
+            final CollisionCouple collision = collisions.get(i);
+            if (notified == toNotify.size())
             {
-                final List<CollisionCouple> collisions = objectA.collide(objectB);
-                for (final CollisionCouple collision : collisions)
-                {
-                    toNotify.add(new Collided(objectA, objectB, collision));
-                    done.put(objectA, objectB);
-                }
+                toNotify.add(new Collided());
             }
+            toNotify.get(notified).set(objectA, objectB, collision);
+            notified++;
         }
     }
 
@@ -331,19 +193,28 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
     @Override
     public void update(double extrp, Handlables objects)
     {
-        done.clear();
-        for (final Map<Point, Set<Collidable>> groups : collidables.values())
+        broadPhase.findCandidates(candidates);
+        final int n = candidates.size();
+        if (pool != null && n > threshold)
+        {
+            checkParallel(n);
+        }
+        else
         {
-            for (final Entry<Point, Set<Collidable>> current : groups.entrySet())
+            for (int i = 0; i < n; i++)
             {
-                checkGroup(current);
+                check(candidates.getFirst(i), candidates.getSecond(i));
             }
         }
-        for (final Collided collided : toNotify)
+        candidates.clear();
+
+        for (int i = 0; i < notified; i++)
         {
+            final Collided collided = toNotify.get(i);
             collided.collidableA.notifyCollided(collided.collidableB, collided.with, collided.by);
+            collided.clear();
         }
-        toNotify.clear();
+        notified = 0;
     }
 
     /*
@@ -368,7 +239,7 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
             final Transformable transformable = featurable.getFeature(Transformable.class);
             final Collidable collidable = transformable.getFeature(Collidable.class);
 
-            removePoints(transformable, collidable);
+            broadPhase.remove(collidable);
 
             transformable.removeListener(this);
         }
@@ -383,8 +254,51 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
     {
         final Collidable collidable = transformable.getFeature(Collidable.class);
 
-        removePoints(transformable, collidable);
-        addPoints(transformable, collidable);
+        broadPhase.move(transformable, collidable);
+    }
+
+    /**
+     * Narrow phase task, checking a range of candidates and storing their result at their index.
+     */
+    private final class NarrowPhase extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        /** First candidate index (included). */
+        private final int start;
+        /** Last candidate index (excluded). */
+        private final int end;
+
+        /**
+         * Create task.
+         * 
+         * @param start The first candidate index (included).
+         * @param end The last candidate index (excluded).
+         */
+        private NarrowPhase(int start, int end)
+        {
+            super();
+
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (end - start > threshold)
+            {
+                final int middle = start + end >>> 1;
+                invokeAll(new NarrowPhase(start, middle), new NarrowPhase(middle, end));
+            }
+            else
+            {
+                for (int i = start; i < end; i++)
+                {
+                    results.set(i, candidates.getFirst(i).collide(candidates.getSecond(i)));
+                }
+            }
+        }
     }
 
     /**
@@ -392,26 +306,43 @@ public class ComponentCollision implements ComponentUpdater, HandlerListener, Tr
      */
     private static final class Collided
     {
-        private final Collidable collidableA;
-        private final Collidable collidableB;
-        private final Collision with;
-        private final Collision by;
+        private Collidable collidableA;
+        private Collidable collidableB;
+        private Collision with;
+        private Collision by;
 
         /**
          * Create collided data.
+         */
+        private Collided()
+        {
+            super();
+        }
+
+        /**
+         * Set collided data.
          * 
          * @param collidableA The first collidable.
          * @param collidableB The second collidable.
          * @param collision The associated collision.
          */
-        private Collided(Collidable collidableA, Collidable collidableB, CollisionCouple collision)
+        private void set(Collidable collidableA, Collidable collidableB, CollisionCouple collision)
         {
-            super();
-
             this.collidableA = collidableA;
             this.collidableB = collidableB;
             with = collision.getWith();
             by = collision.getBy();
         }
+
+        /**
+         * Release references.
+         */
+        private void clear()
+        {
+            collidableA = null;
+            collidableB = null;
+            with = null;
+            by = null;
+        }
     }
 }
@@ -150,6 +150,20 @@ public interface MapTile extends SurfaceTile, Featurable, Listenable<TileSetList
      */
     void setTile(Tile tile);
 
+    /**
+     * Set tiles at their map location. Listeners are notified once with {@link TileSetListener#onTilesSet(Collection)}.
+     * <p>
+     * The tiles location must be between 0 and map size ({@link #getInTileWidth()}, {@link #getInTileHeight()}).
+     * </p>
+     * <p>
+     * If a tile exists at a tile location, it will be removed.
+     * </p>
+     * 
+     * @param tiles The tiles reference.
+     * @throws LionEngineException If outside map range.
+     */
+    void setTiles(Collection<Tile> tiles);
+
     /**
      * Get tile from specified map location (in tile index). If the returned tile is equal to <code>null</code>, this
      * means that there is not tile at this location. It is not an error, just a way to avoid useless tile storage.
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+
+/**
+ * Tile based map with a compact tiles storage, designed for large maps. Can be used in place of {@link MapTileGame}.
+ * <p>
+ * Tiles sheet and number are stored in primitive arrays, split in chunks of 32x32 tiles which are only allocated when
+ * a tile is set inside. {@link Tile} instances are only created by {@link #getTile(int, int)} when requested, and then
+ * kept with their features. {@link Tile} set with its own state (custom class or features) is kept as is. Sheet id
+ * must be positive and lower than {@link Short#MAX_VALUE}.
+ * </p>
+ * 
+ * @see MapTileGame
+ */
+public class MapTileChunked extends MapTileGame
+{
+    /**
+     * Create a map tile.
+     */
+    public MapTileChunked()
+    {
+        super(new MapTileStorageChunked());
+    }
+}
@@ -21,7 +21,6 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 
 import com.b3dgs.lionengine.Check;
@@ -43,7 +42,8 @@ import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
 
 /**
  * Abstract representation of a standard tile based map. This class uses a List of List to store tiles, a TreeMap to
- * store sheets references ({@link SpriteTiled}), and collisions.
+ * store sheets references ({@link SpriteTiled}), and collisions. See {@link MapTileChunked} for a compact tiles
+ * storage.
  * <p>
  * The way to prepare a map is the following:
  * </p>
@@ -58,6 +58,7 @@ import com.b3dgs.lionengine.graphic.drawable.SpriteTiled;
  * </p>
  * 
  * @see Tile
+ * @see MapTileChunked
  */
 public class MapTileGame extends FeaturableModel implements MapTile
 {
@@ -82,15 +83,27 @@ public class MapTileGame extends FeaturableModel implements MapTile
     private int heightInTile;
     /** Map radius. */
     private int radius;
-    /** Tiles map. */
-    private List<List<Tile>> tiles;
+    /** Tiles storage. */
+    private final MapTileStorage tiles;
 
     /**
      * Create a map tile.
      */
     public MapTileGame()
+    {
+        this(new MapTileStorageList());
+    }
+
+    /**
+     * Create a map tile.
+     * 
+     * @param tiles The tiles storage.
+     */
+    MapTileGame(MapTileStorage tiles)
     {
         super();
+
+        this.tiles = tiles;
     }
 
     /**
@@ -101,31 +114,7 @@ public class MapTileGame extends FeaturableModel implements MapTile
      */
     final void resize(int newWidth, int newHeight)
     {
-        final int oldWidth = widthInTile;
-        final int oldheight = heightInTile;
-
-        // Adjust height
-        for (int v = 0; v < newHeight - oldheight; v++)
-        {
-            tiles.add(new ArrayList<Tile>(newWidth));
-        }
-        // Adjust width
-        for (int v = 0; v < newHeight; v++)
-        {
-            final int width;
-            if (v < oldheight)
-            {
-                width = newWidth - oldWidth;
-            }
-            else
-            {
-                width = newWidth;
-            }
-            for (int h = 0; h < width; h++)
-            {
-                tiles.get(v).add(null);
-            }
-        }
+        tiles.resize(widthInTile, heightInTile, newWidth, newHeight);
 
         widthInTile = newWidth;
         heightInTile = newHeight;
@@ -152,16 +141,7 @@ public class MapTileGame extends FeaturableModel implements MapTile
         this.heightInTile = heightInTile;
 
         radius = (int) Math.ceil(StrictMath.sqrt(widthInTile * widthInTile + heightInTile * (double) heightInTile));
-        tiles = new ArrayList<>(heightInTile);
-
-        for (int v = 0; v < heightInTile; v++)
-        {
-            tiles.add(v, new ArrayList<Tile>(widthInTile));
-            for (int h = 0; h < widthInTile; h++)
-            {
-                tiles.get(v).add(h, null);
-            }
-        }
+        tiles.create(widthInTile, heightInTile);
     }
 
     @Override
@@ -252,12 +232,8 @@ public class MapTileGame extends FeaturableModel implements MapTile
     @Override
     public void clear()
     {
-        if (tiles != null)
+        if (tiles.isCreated())
         {
-            for (final List<Tile> list : tiles)
-            {
-                list.clear();
-            }
             tiles.clear();
             widthInTile = 0;
             heightInTile = 0;
@@ -284,7 +260,7 @@ public class MapTileGame extends FeaturableModel implements MapTile
         Check.inferiorStrict(tx, getInTileWidth());
         Check.inferiorStrict(ty, getInTileHeight());
 
-        tiles.get(ty).set(tx, tile);
+        tiles.setTile(tx, ty, tile);
 
         for (int i = 0; i < listenable.size(); i++)
         {
@@ -292,6 +268,25 @@ public class MapTileGame extends FeaturableModel implements MapTile
         }
     }
 
+    @Override
+    public void setTiles(Collection<Tile> tiles)
+    {
+        for (final Tile tile : tiles)
+        {
+            final int tx = tile.getInTileX();
+            final int ty = tile.getInTileY();
+            Check.inferiorStrict(tx, getInTileWidth());
+            Check.inferiorStrict(ty, getInTileHeight());
+
+            this.tiles.setTile(tx, ty, tile);
+        }
+
+        for (int i = 0; i < listenable.size(); i++)
+        {
+            listenable.get(i).onTilesSet(tiles);
+        }
+    }
+
     @Override
     public Tile getTile(int tx, int ty)
     {
@@ -299,7 +294,7 @@ public class MapTileGame extends FeaturableModel implements MapTile
         {
             return null;
         }
-        return tiles.get(ty).get(tx);
+        return tiles.getTile(this, tx, ty);
     }
 
     @Override
@@ -409,19 +404,11 @@ public class MapTileGame extends FeaturableModel implements MapTile
     @Override
     public int getTilesNumber()
     {
-        int tilesNumber = 0;
-        for (int ty = 0; ty < heightInTile; ty++)
+        if (tiles.isCreated())
         {
-            for (int tx = 0; tx < widthInTile; tx++)
-            {
-                final Tile tile = getTile(tx, ty);
-                if (tile != null)
-                {
-                    tilesNumber++;
-                }
-            }
+            return tiles.getTilesNumber();
         }
-        return tilesNumber;
+        return 0;
     }
 
     @Override
@@ -457,7 +444,7 @@ public class MapTileGame extends FeaturableModel implements MapTile
     @Override
     public boolean isCreated()
     {
-        return tiles != null;
+        return tiles.isCreated();
     }
 
     /*
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+
+/**
+ * Tiles storage used by {@link MapTileGame}. Locations are always checked by map before access.
+ */
+interface MapTileStorage
+{
+    /**
+     * Create storage with empty tiles. Previous tiles are discarded.
+     * 
+     * @param widthInTile The map width in tile.
+     * @param heightInTile The map height in tile.
+     */
+    void create(int widthInTile, int heightInTile);
+
+    /**
+     * Resize storage. Existing tiles are kept at their location, new ones are empty.
+     * 
+     * @param oldWidth The old width in tile.
+     * @param oldHeight The old height in tile.
+     * @param newWidth The new width in tile.
+     * @param newHeight The new height in tile.
+     */
+    void resize(int oldWidth, int oldHeight, int newWidth, int newHeight);
+
+    /**
+     * Remove all tiles.
+     */
+    void clear();
+
+    /**
+     * Set tile at its location.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param tile The tile reference.
+     */
+    void setTile(int tx, int ty, Tile tile);
+
+    /**
+     * Get tile at location.
+     * 
+     * @param map The map owner, used to create tile if needed.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The tile found, <code>null</code> if none.
+     */
+    Tile getTile(MapTile map, int tx, int ty);
+
+    /**
+     * Get number of defined tiles.
+     * 
+     * @return The number of tiles.
+     */
+    int getTilesNumber();
+
+    /**
+     * Check if storage has been created.
+     * 
+     * @return <code>true</code> if created, <code>false</code> else.
+     */
+    boolean isCreated();
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.game.Feature;
+import com.b3dgs.lionengine.game.feature.IdentifiableModel;
+import com.b3dgs.lionengine.game.feature.Recycler;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileGame;
+
+/**
+ * Tiles storage using primitive arrays split in square chunks.
+ * <p>
+ * Each chunk stores tile sheet and number, and is only allocated when a tile is set inside. Tile instances are only
+ * created when requested, and kept in their chunk, so features added to them are preserved. Tile set is kept as is if
+ * it carries its own state (custom class or features), or if its chunk has already been requested.
+ * </p>
+ */
+final class MapTileStorageChunked implements MapTileStorage
+{
+    /** Chunk size shift. */
+    private static final int CHUNK_SHIFT = 5;
+    /** Chunk size in tile. */
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    /** Chunk location mask. */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    /** Empty sheet value. */
+    private static final short EMPTY = 0;
+
+    /**
+     * Get chunks number to cover tiles.
+     * 
+     * @param inTile The tiles number.
+     * @return The chunks number.
+     */
+    private static int getChunks(int inTile)
+    {
+        return inTile + CHUNK_MASK >> CHUNK_SHIFT;
+    }
+
+    /**
+     * Get index inside chunk.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The index inside chunk.
+     */
+    private static int getIndex(int tx, int ty)
+    {
+        return (ty & CHUNK_MASK) << CHUNK_SHIFT | tx & CHUNK_MASK;
+    }
+
+    /**
+     * Check if tile carries its own state, and cannot be created again from its sheet and number.
+     * 
+     * @param tile The tile to check.
+     * @return <code>true</code> if tile is not a base {@link TileGame} or has additional features, <code>false</code>
+     *         else.
+     */
+    private static boolean hasState(Tile tile)
+    {
+        if (tile.getClass() != TileGame.class)
+        {
+            return true;
+        }
+        for (final Feature feature : tile.getFeatures())
+        {
+            if (feature.getClass() != Recycler.class && feature.getClass() != IdentifiableModel.class)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Chunks, stored horizontally and then vertically (<code>null</code> if not created). */
+    private Chunk[] chunks;
+    /** Horizontal chunks number. */
+    private int chunksH;
+    /** Number of defined tiles. */
+    private int count;
+
+    /**
+     * Create storage.
+     */
+    MapTileStorageChunked()
+    {
+        super();
+    }
+
+    /**
+     * Get chunk containing tile.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The chunk, <code>null</code> if not allocated.
+     */
+    private Chunk getChunk(int tx, int ty)
+    {
+        return chunks[(ty >> CHUNK_SHIFT) * chunksH + (tx >> CHUNK_SHIFT)];
+    }
+
+    /*
+     * MapTileStorage
+     */
+
+    @Override
+    public void create(int widthInTile, int heightInTile)
+    {
+        chunksH = getChunks(widthInTile);
+        chunks = new Chunk[chunksH * getChunks(heightInTile)];
+        count = 0;
+    }
+
+    @Override
+    public void resize(int oldWidth, int oldHeight, int newWidth, int newHeight)
+    {
+        final int oldChunksH = chunksH;
+        final int oldChunksV = getChunks(oldHeight);
+        final Chunk[] old = chunks;
+
+        chunksH = getChunks(newWidth);
+        final int chunksV = getChunks(newHeight);
+        chunks = new Chunk[chunksH * chunksV];
+
+        for (int cy = 0; cy < Math.min(oldChunksV, chunksV); cy++)
+        {
+            System.arraycopy(old, cy * oldChunksH, chunks, cy * chunksH, Math.min(oldChunksH, chunksH));
+        }
+    }
+
+    @Override
+    public void clear()
+    {
+        if (chunks != null)
+        {
+            chunks = new Chunk[0];
+            chunksH = 0;
+            count = 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws LionEngineException If sheet is not supported.
+     */
+    @Override
+    public void setTile(int tx, int ty, Tile tile)
+    {
+        final int sheet = tile.getSheet().intValue();
+        Check.superiorOrEqual(sheet, 0);
+        Check.inferiorStrict(sheet, Short.MAX_VALUE);
+
+        final int index = (ty >> CHUNK_SHIFT) * chunksH + (tx >> CHUNK_SHIFT);
+        Chunk chunk = chunks[index];
+        if (chunk == null)
+        {
+            chunk = new Chunk();
+            chunks[index] = chunk;
+        }
+
+        final int i = getIndex(tx, ty);
+        if (chunk.sheets[i] == EMPTY)
+        {
+            count++;
+        }
+        chunk.sheets[i] = (short) (sheet + 1);
+        chunk.numbers[i] = tile.getNumber();
+        if (chunk.tiles == null && hasState(tile))
+        {
+            chunk.tiles = new Tile[CHUNK_SIZE * CHUNK_SIZE];
+        }
+        if (chunk.tiles != null)
+        {
+            chunk.tiles[i] = tile;
+        }
+    }
+
+    @Override
+    public Tile getTile(MapTile map, int tx, int ty)
+    {
+        final Chunk chunk = getChunk(tx, ty);
+        if (chunk == null)
+        {
+            return null;
+        }
+        final int i = getIndex(tx, ty);
+        final short sheet = chunk.sheets[i];
+        if (sheet == EMPTY)
+        {
+            return null;
+        }
+        if (chunk.tiles == null)
+        {
+            chunk.tiles = new Tile[CHUNK_SIZE * CHUNK_SIZE];
+        }
+        Tile tile = chunk.tiles[i];
+        if (tile == null)
+        {
+            tile = map.createTile(Integer.valueOf(sheet - 1),
+                                  chunk.numbers[i],
+                                  tx * (double) map.getTileWidth(),
+                                  ty * (double) map.getTileHeight());
+            chunk.tiles[i] = tile;
+        }
+        return tile;
+    }
+
+    @Override
+    public int getTilesNumber()
+    {
+        return count;
+    }
+
+    @Override
+    public boolean isCreated()
+    {
+        return chunks != null;
+    }
+
+    /**
+     * Square tiles chunk.
+     */
+    private static final class Chunk
+    {
+        /** Tiles sheet, shifted by one as {@link MapTileStorageChunked#EMPTY} means no tile. */
+        private final short[] sheets = new short[CHUNK_SIZE * CHUNK_SIZE];
+        /** Tiles number. */
+        private final int[] numbers = new int[CHUNK_SIZE * CHUNK_SIZE];
+        /** Requested or stateful tiles (<code>null</code> until a tile is requested or a stateful tile is set). */
+        private Tile[] tiles;
+
+        /**
+         * Create chunk.
+         */
+        private Chunk()
+        {
+            super();
+        }
+    }
+}
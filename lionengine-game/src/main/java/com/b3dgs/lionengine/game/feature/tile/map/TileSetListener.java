@@ -16,6 +16,8 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map;
 
+import java.util.Collection;
+
 import com.b3dgs.lionengine.game.feature.tile.Tile;
 
 /**
@@ -29,4 +31,17 @@ public interface TileSetListener
      * @param tile The tile set.
      */
     void onTileSet(Tile tile);
+
+    /**
+     * Called on tiles set at once. Calls {@link #onTileSet(Tile)} for each tile by default.
+     * 
+     * @param tiles The tiles set.
+     */
+    default void onTilesSet(Collection<Tile> tiles)
+    {
+        for (final Tile tile : tiles)
+        {
+            onTileSet(tile);
+        }
+    }
 }
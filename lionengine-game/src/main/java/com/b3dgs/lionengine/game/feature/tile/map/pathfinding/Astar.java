@@ -25,7 +25,7 @@ import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
 public final class Astar
 {
     /**
-     * Create a path finder.
+     * Create a path finder. Search does not allocate, except for the returned path.
      * 
      * @param map The map to be searched. Must have the
      *            {@link com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath} feature.
@@ -35,7 +35,32 @@ public final class Astar
      */
     public static PathFinder createPathFinder(MapTile map, int maxSearchDistance, Heuristic heuristic)
     {
-        return new PathFinderImpl(map, maxSearchDistance, heuristic);
+        return new PathFinderHeap(map, maxSearchDistance, heuristic);
+    }
+
+    /**
+     * Create a hierarchical path finder, for long distances on large maps. Map is partitioned into clusters, searched
+     * through their entrances, then path is refined between entrances. Found paths are close to optimal.
+     * <p>
+     * Clusters data are computed on first use per mover categories, and updated for tiles set on map. Finder is
+     * registered as map listener, and should be shared by movers by adding it to
+     * {@link com.b3dgs.lionengine.game.feature.Services}. Pathfinding must have been loaded before.
+     * </p>
+     * 
+     * @param map The map to be searched. Must have the
+     *            {@link com.b3dgs.lionengine.game.feature.tile.map.pathfinding.MapTilePath} feature.
+     * @param maxSearchDistance The maximum depth of direct searches, used for near destinations.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     * @param clusterSize The cluster size in tile (must be strictly superior to 1).
+     * @return The path finder instance.
+     * @throws LionEngineException If invalid arguments.
+     */
+    public static PathFinder createPathFinderHierarchical(MapTile map,
+                                                          int maxSearchDistance,
+                                                          Heuristic heuristic,
+                                                          int clusterSize)
+    {
+        return new PathFinderHierarchical(map, maxSearchDistance, heuristic, clusterSize);
     }
 
     /**
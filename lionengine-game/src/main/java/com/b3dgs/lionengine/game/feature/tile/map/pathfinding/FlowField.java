@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Direction field to a destination, shared by all movers with the same categories. Computed once for the whole map
+ * from destination, then each mover only follows directions from its location, without search.
+ * <p>
+ * Field is obtained from {@link FlowFields} and followed with {@link Pathfindable#setDestination(FlowField)}. It is
+ * computed on first use, and again after a tile has been set. Objects ids are ignored, movers handle them while
+ * following the field.
+ * </p>
+ */
+public final class FlowField
+{
+    /** Neighbours horizontal offset. */
+    private static final int[] OFFSET_X =
+    {
+        0, 0, -1, 1, -1, 1, -1, 1
+    };
+    /** Neighbours vertical offset. */
+    private static final int[] OFFSET_Y =
+    {
+        1, -1, 0, 0, 1, 1, -1, -1
+    };
+    /** Neighbours movement. */
+    private static final MovementTile[] MOVEMENTS = new MovementTile[OFFSET_X.length];
+    /** No direction, unreachable or destination. */
+    private static final byte NONE = 0;
+
+    static
+    {
+        for (int i = 0; i < MOVEMENTS.length; i++)
+        {
+            MOVEMENTS[i] = MovementTile.from(OFFSET_X[i], OFFSET_Y[i]);
+        }
+    }
+
+    /** Mover profile. */
+    private final PathProfile profile;
+    /** Map reference. */
+    private final MapTile map;
+    /** Destination horizontal tile. */
+    private final int dtx;
+    /** Destination vertical tile. */
+    private final int dty;
+    /** Movement index plus one to follow per tile, {@link #NONE} if unreachable or destination. */
+    private byte[] directions = new byte[0];
+    /** Computed horizontal tiles. */
+    private int width;
+    /** Computed vertical tiles. */
+    private int height;
+    /** Destination can be entered. */
+    private boolean open;
+    /** Computation required. */
+    private boolean dirty = true;
+    /** Movers following this field. */
+    private int references;
+
+    /**
+     * Create field.
+     * 
+     * @param profile The mover profile.
+     * @param map The map reference.
+     * @param dtx The destination horizontal tile.
+     * @param dty The destination vertical tile.
+     */
+    FlowField(PathProfile profile, MapTile map, int dtx, int dty)
+    {
+        super();
+
+        this.profile = profile;
+        this.map = map;
+        this.dtx = dtx;
+        this.dty = dty;
+    }
+
+    /**
+     * Get destination horizontal tile.
+     * 
+     * @return The destination horizontal tile.
+     */
+    public int getDestinationX()
+    {
+        return dtx;
+    }
+
+    /**
+     * Get destination vertical tile.
+     * 
+     * @return The destination vertical tile.
+     */
+    public int getDestinationY()
+    {
+        return dty;
+    }
+
+    /**
+     * Get the number of movers following this field.
+     * 
+     * @return The references number.
+     */
+    public int getReferences()
+    {
+        return references;
+    }
+
+    /**
+     * Check if destination can be reached from location, ignoring objects.
+     * 
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     * @return <code>true</code> if reachable, <code>false</code> else.
+     */
+    public boolean isReachable(int tx, int ty)
+    {
+        update();
+
+        final boolean inside = tx > -1 && ty > -1 && tx < width && ty < height;
+        return inside && open && (tx == dtx && ty == dty || directions[ty * width + tx] != NONE);
+    }
+
+    /**
+     * Get the path from location to destination by following directions, ignoring objects.
+     * 
+     * @param tx The horizontal start tile.
+     * @param ty The vertical start tile.
+     * @return The path, starting with location, <code>null</code> if destination is unreachable.
+     */
+    public Path getPath(int tx, int ty)
+    {
+        if (!isReachable(tx, ty))
+        {
+            return null;
+        }
+        final Path path = new Path();
+        path.appendStep(tx, ty);
+
+        int x = tx;
+        int y = ty;
+        while (x != dtx || y != dty)
+        {
+            final int direction = directions[y * width + x] - 1;
+            x += OFFSET_X[direction];
+            y += OFFSET_Y[direction];
+            path.appendStep(x, y);
+        }
+        return path;
+    }
+
+    /**
+     * Check if field is for this profile and destination.
+     * 
+     * @param profile The mover profile.
+     * @param dtx The destination horizontal tile.
+     * @param dty The destination vertical tile.
+     * @return <code>true</code> if same, <code>false</code> else.
+     */
+    boolean is(PathProfile profile, int dtx, int dty)
+    {
+        return this.dtx == dtx && this.dty == dty && this.profile.equals(profile);
+    }
+
+    /**
+     * Add a mover reference.
+     */
+    void acquire()
+    {
+        references++;
+    }
+
+    /**
+     * Remove a mover reference.
+     */
+    void release()
+    {
+        references--;
+    }
+
+    /**
+     * Require computation on next use.
+     */
+    void invalidate()
+    {
+        dirty = true;
+    }
+
+    /**
+     * Compute directions if required or if map size changed.
+     */
+    private void update()
+    {
+        if (dirty || width != map.getInTileWidth() || height != map.getInTileHeight())
+        {
+            compute();
+            dirty = false;
+        }
+    }
+
+    /**
+     * Compute directions from destination, with costs of leaving tiles and allowed movements.
+     */
+    private void compute()
+    {
+        width = map.getInTileWidth();
+        height = map.getInTileHeight();
+        final int count = width * height;
+        final int[] categories = new int[count];
+        for (int ty = 0; ty < height; ty++)
+        {
+            for (int tx = 0; tx < width; tx++)
+            {
+                categories[ty * width + tx] = getCategory(tx, ty);
+            }
+        }
+        directions = new byte[count];
+
+        final boolean inside = dtx > -1 && dty > -1 && dtx < width && dty < height;
+        open = inside && profile.isWalkable(categories[dty * width + dtx]);
+        if (!open)
+        {
+            return;
+        }
+
+        final double[] costs = new double[count];
+        Arrays.fill(costs, Double.MAX_VALUE);
+        final PathQueue queue = new PathQueue();
+        final int destination = dty * width + dtx;
+        costs[destination] = 0.0;
+        queue.push(0.0, destination);
+
+        while (!queue.isEmpty())
+        {
+            final double cost = queue.peek();
+            final int current = queue.pop();
+            if (cost <= costs[current])
+            {
+                expand(categories, costs, queue, current);
+            }
+        }
+    }
+
+    /**
+     * Update tiles which can move to current tile.
+     * 
+     * @param categories The tiles category index.
+     * @param costs The tiles cost to destination.
+     * @param queue The search queue.
+     * @param current The current tile index.
+     */
+    private void expand(int[] categories, double[] costs, PathQueue queue, int current)
+    {
+        final int cx = current % width;
+        final int cy = current / width;
+        for (int i = 0; i < MOVEMENTS.length; i++)
+        {
+            final int x = cx - OFFSET_X[i];
+            final int y = cy - OFFSET_Y[i];
+            if (x > -1 && y > -1 && x < width && y < height)
+            {
+                final int neighbour = y * width + x;
+                final int category = categories[neighbour];
+                final double next = costs[current] + profile.getCost(category);
+                if (next < costs[neighbour]
+                    && profile.isWalkable(category)
+                    && profile.isAllowed(category, MOVEMENTS[i]))
+                {
+                    costs[neighbour] = next;
+                    directions[neighbour] = (byte) (i + 1);
+                    queue.push(next, neighbour);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get tile category index.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The category index.
+     */
+    private int getCategory(int tx, int ty)
+    {
+        final Tile tile = map.getTile(tx, ty);
+        if (tile != null)
+        {
+            return profile.getIndex(tile.getFeature(TilePath.class).getCategory());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+
+/**
+ * Cache of {@link FlowField}, to move many movers to the same destination with one computation instead of one search
+ * per mover.
+ * 
+ * <pre>
+ * final FlowField field = flowFields.get(mover, tx, ty);
+ * for (final Pathfindable selected : selection)
+ * {
+ *     selected.setDestination(field);
+ * }
+ * </pre>
+ * <p>
+ * Fields are shared by movers with the same categories (cost, blocking and allowed movements). They are kept while
+ * followed by at least one mover, and fields not followed anymore are removed when another field is created. Fields
+ * are computed again on next use when a tile is set, and {@link #invalidate()} must be called after each
+ * {@link MapTilePath#loadPathfinding(Media)}.
+ * </p>
+ */
+public class FlowFields implements TileSetListener
+{
+    /** Cached fields. */
+    private final List<FlowField> fields = new ArrayList<>();
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+
+    /**
+     * Create service and register it as map tile set listener.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * <p>
+     * The {@link MapTile} must provide the following features:
+     * </p>
+     * <ul>
+     * <li>{@link MapTilePath}</li>
+     * </ul>
+     * 
+     * @param services The services reference (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     */
+    public FlowFields(Services services)
+    {
+        super();
+
+        Check.notNull(services);
+
+        map = services.get(MapTile.class);
+        mapPath = map.getFeature(MapTilePath.class);
+        map.addListener(this);
+    }
+
+    /**
+     * Get the field to a destination for the mover categories, created if not cached.
+     * 
+     * @param mover The mover reference (must not be <code>null</code>).
+     * @param dtx The destination horizontal tile.
+     * @param dty The destination vertical tile.
+     * @return The field.
+     * @throws LionEngineException If invalid argument.
+     */
+    public FlowField get(Pathfindable mover, int dtx, int dty)
+    {
+        Check.notNull(mover);
+
+        final PathProfile profile = new PathProfile(mover, mapPath.getCategories());
+        for (int i = 0; i < fields.size(); i++)
+        {
+            final FlowField field = fields.get(i);
+            if (field.is(profile, dtx, dty))
+            {
+                return field;
+            }
+        }
+        fields.removeIf(field -> field.getReferences() == 0);
+
+        final FlowField field = new FlowField(profile, map, dtx, dty);
+        fields.add(field);
+        return field;
+    }
+
+    /**
+     * Get the number of cached fields.
+     * 
+     * @return The cached fields number.
+     */
+    public int getCount()
+    {
+        return fields.size();
+    }
+
+    /**
+     * Compute all cached fields again on next use, needed when pathfinding has been loaded.
+     */
+    public void invalidate()
+    {
+        for (int i = 0; i < fields.size(); i++)
+        {
+            fields.get(i).invalidate();
+        }
+    }
+
+    /*
+     * TileSetListener
+     */
+
+    @Override
+    public void onTileSet(Tile tile)
+    {
+        invalidate();
+    }
+}
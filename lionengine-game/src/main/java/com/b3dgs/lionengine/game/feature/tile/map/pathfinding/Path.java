@@ -36,6 +36,18 @@ public final class Path
         super();
     }
 
+    /**
+     * Create a copy of another path.
+     * 
+     * @param path The path to copy.
+     */
+    Path(Path path)
+    {
+        super();
+
+        steps.addAll(path.steps);
+    }
+
     /**
      * Prepend a step to the path.
      * 
@@ -47,6 +59,17 @@ public final class Path
         steps.add(0, new Step(x, y));
     }
 
+    /**
+     * Append a step to the path.
+     * 
+     * @param x The x coordinate of the new step.
+     * @param y The y coordinate of the new step.
+     */
+    void appendStep(int x, int y)
+    {
+        steps.add(new Step(x, y));
+    }
+
     /**
      * Get the length of the path, i.e. the number of steps.
      * 
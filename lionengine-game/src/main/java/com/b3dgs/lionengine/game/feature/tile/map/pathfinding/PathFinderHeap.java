@@ -0,0 +1,490 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * A path finder implementation that uses the AStar heuristic based algorithm to determine a path, without allocation
+ * during search.
+ * <p>
+ * Nodes are stored in flat arrays indexed by <code>ty * width + tx</code>. Open list is an indexed binary heap
+ * ordered by total cost (then heuristic), which supports decrease key. Each search increments a generation counter,
+ * and node data are only valid if their stamp is equal to current generation, so nothing is cleared between searches.
+ * </p>
+ * <p>
+ * Arrays are allocated on first search and reallocated if map size changes. Tiles are read through a
+ * {@link PathGrid}, which is the map itself, or a copy when searching outside engine thread (see
+ * {@link PathRequests}).
+ * </p>
+ */
+final class PathFinderHeap implements PathFinder
+{
+    /** No parent value. */
+    private static final int NONE = -1;
+    /** Closed node heap index. */
+    private static final int CLOSED = -2;
+
+    /** Grid reference. */
+    private final PathGrid grid;
+    /** Max distance to search. */
+    private final int maxSearchDistance;
+    /** Heuristic used. */
+    private final Heuristic heuristic;
+    /** Map width used by arrays. */
+    private int width;
+    /** Node cost from start. */
+    private double[] cost = new double[0];
+    /** Node total cost (cost and heuristic). */
+    private double[] total = new double[0];
+    /** Node heuristic cost. */
+    private double[] estimate = new double[0];
+    /** Node parent index ({@link #NONE} if none). */
+    private int[] parent = new int[0];
+    /** Node depth. */
+    private int[] depth = new int[0];
+    /** Node generation stamp (data valid only if equal to {@link #generation}). */
+    private int[] stamp = new int[0];
+    /** Node index in heap, or {@link #CLOSED}. */
+    private int[] position = new int[0];
+    /** Open nodes binary heap. */
+    private int[] heap = new int[0];
+    /** Open nodes number. */
+    private int size;
+    /** Current search generation. */
+    private int generation;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param map The map to be searched. Must have the {@link MapTilePath} feature.
+     * @param maxSearchDistance The maximum depth we'll search before giving up.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     */
+    PathFinderHeap(MapTile map, int maxSearchDistance, Heuristic heuristic)
+    {
+        this(new PathGridMap(map), maxSearchDistance, heuristic);
+    }
+
+    /**
+     * Internal constructor.
+     * 
+     * @param grid The grid to be searched.
+     * @param maxSearchDistance The maximum depth we'll search before giving up.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     */
+    PathFinderHeap(PathGrid grid, int maxSearchDistance, Heuristic heuristic)
+    {
+        super();
+
+        this.heuristic = heuristic;
+        this.grid = grid;
+        this.maxSearchDistance = maxSearchDistance;
+    }
+
+    /**
+     * Find a path from the provided start, which may be different from current mover location. Destination is not
+     * replaced by the closest available tile if blocked.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The path found from start to end, or null if no path can be found.
+     */
+    Path findPath(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        return findPath(mover, stx, sty, dtx, dty, ignoreRef, maxSearchDistance);
+    }
+
+    /**
+     * Find a path from the provided start with a specific search depth. Destination is not replaced by the closest
+     * available tile if blocked.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @param maxDepth The maximum depth we'll search before giving up.
+     * @return The path found from start to end, or null if no path can be found.
+     */
+    Path findPath(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef, int maxDepth)
+    {
+        final boolean outside = stx < 0 || sty < 0 || stx >= grid.getInTileWidth() || sty >= grid.getInTileHeight();
+        if (outside || grid.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            return null;
+        }
+        return search(mover, stx, sty, dtx, dty, ignoreRef, maxDepth);
+    }
+
+    /**
+     * Allocate arrays if map size changed, and start a new search generation.
+     */
+    private void prepare()
+    {
+        final int count = grid.getInTileWidth() * grid.getInTileHeight();
+        if (width != grid.getInTileWidth() || stamp.length != count)
+        {
+            width = grid.getInTileWidth();
+            cost = new double[count];
+            total = new double[count];
+            estimate = new double[count];
+            parent = new int[count];
+            depth = new int[count];
+            stamp = new int[count];
+            position = new int[count];
+            heap = new int[count];
+            generation = 0;
+        }
+        generation++;
+        if (generation == 0)
+        {
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Check if a given location is valid for the supplied mover.
+     * 
+     * @param mover The mover that would hold a given location.
+     * @param stx The starting x coordinate.
+     * @param sty The starting y coordinate.
+     * @param dtx The x coordinate of the location to check.
+     * @param dty The y coordinate of the location to check.
+     * @param ignoreRef The ignore map reference array checking.
+     * @return <code>true</code> if the location is valid for the given mover, <code>false</code> else.
+     */
+    private boolean isValidLocation(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        boolean invalid = dtx < 0 || dty < 0 || dtx >= grid.getInTileWidth() || dty >= grid.getInTileHeight();
+
+        if (!invalid && (stx != dtx || sty != dty))
+        {
+            invalid = grid.isBlocked(mover, dtx, dty, ignoreRef);
+        }
+
+        return !invalid;
+    }
+
+    /**
+     * Update neighbours of current node.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @param current The current node index.
+     * @param maxDepth The last max depth.
+     * @return The next max depth.
+     */
+    private int updateList(Pathfindable mover,
+                           int stx,
+                           int sty,
+                           int dtx,
+                           int dty,
+                           boolean ignoreRef,
+                           int current,
+                           int maxDepth)
+    {
+        int nextDepth = maxDepth;
+        final int cx = current % width;
+        final int cy = current / width;
+        final String category = grid.getCategory(cx, cy);
+        final double nextCost = cost[current] + grid.getCost(mover, cx, cy);
+
+        for (int y = -1; y < 2; y++)
+        {
+            for (int x = -1; x < 2; x++)
+            {
+                if (!(x == 0 && y == 0) && mover.isMovementAllowed(category, MovementTile.from(x, y)))
+                {
+                    final int xp = cx + x;
+                    final int yp = cy + y;
+                    if (isValidLocation(mover, stx, sty, xp, yp, ignoreRef))
+                    {
+                        nextDepth = updateNeighbour(current, yp * width + xp, nextCost, dtx, dty, nextDepth);
+                    }
+                }
+            }
+        }
+        return nextDepth;
+    }
+
+    /**
+     * Update neighbour if not visited yet or reached with a lower cost.
+     * 
+     * @param current The current node index.
+     * @param neighbour The neighbour node index.
+     * @param nextCost The neighbour cost through current node.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param maxDepth The last max depth.
+     * @return The next max depth.
+     */
+    private int updateNeighbour(int current, int neighbour, double nextCost, int dtx, int dty, int maxDepth)
+    {
+        if (stamp[neighbour] != generation)
+        {
+            stamp[neighbour] = generation;
+            estimate[neighbour] = heuristic.getCost(neighbour % width, neighbour / width, dtx, dty);
+        }
+        else if (nextCost >= cost[neighbour])
+        {
+            return maxDepth;
+        }
+        else if (position[neighbour] > NONE)
+        {
+            return setParent(current, neighbour, nextCost, maxDepth, true);
+        }
+        return setParent(current, neighbour, nextCost, maxDepth, false);
+    }
+
+    /**
+     * Set node parent and cost, and update its heap location.
+     * 
+     * @param current The parent node index.
+     * @param neighbour The node index.
+     * @param nextCost The node cost.
+     * @param maxDepth The last max depth.
+     * @param open <code>true</code> if node is already inside heap, <code>false</code> else.
+     * @return The next max depth.
+     */
+    private int setParent(int current, int neighbour, double nextCost, int maxDepth, boolean open)
+    {
+        cost[neighbour] = nextCost;
+        total[neighbour] = nextCost + estimate[neighbour];
+        parent[neighbour] = current;
+        depth[neighbour] = depth[current] + 1;
+        if (open)
+        {
+            siftUp(position[neighbour]);
+        }
+        else
+        {
+            push(neighbour);
+        }
+        return Math.max(maxDepth, depth[neighbour]);
+    }
+
+    /**
+     * Check if first node must be before second node.
+     * 
+     * @param a The first node index.
+     * @param b The second node index.
+     * @return <code>true</code> if first node is before, <code>false</code> else.
+     */
+    private boolean isBefore(int a, int b)
+    {
+        final int compare = Double.compare(total[a], total[b]);
+        if (compare == 0)
+        {
+            return estimate[a] < estimate[b];
+        }
+        return compare < 0;
+    }
+
+    /**
+     * Add node to heap.
+     * 
+     * @param node The node index.
+     */
+    private void push(int node)
+    {
+        heap[size] = node;
+        position[node] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * Remove first node from heap, and mark it as closed.
+     * 
+     * @return The first node index.
+     */
+    private int pop()
+    {
+        final int first = heap[0];
+        size--;
+        if (size > 0)
+        {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        position[first] = CLOSED;
+        return first;
+    }
+
+    /**
+     * Move heap node up until heap is ordered.
+     * 
+     * @param index The heap index.
+     */
+    private void siftUp(int index)
+    {
+        final int node = heap[index];
+        int i = index;
+        while (i > 0)
+        {
+            final int up = i - 1 >>> 1;
+            if (!isBefore(node, heap[up]))
+            {
+                break;
+            }
+            heap[i] = heap[up];
+            position[heap[i]] = i;
+            i = up;
+        }
+        heap[i] = node;
+        position[node] = i;
+    }
+
+    /**
+     * Move heap node down until heap is ordered.
+     * 
+     * @param index The heap index.
+     */
+    private void siftDown(int index)
+    {
+        final int node = heap[index];
+        int i = index;
+        int child = (i << 1) + 1;
+        while (child < size)
+        {
+            if (child + 1 < size && isBefore(heap[child + 1], heap[child]))
+            {
+                child++;
+            }
+            if (!isBefore(heap[child], node))
+            {
+                break;
+            }
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+            child = (i << 1) + 1;
+        }
+        heap[i] = node;
+        position[node] = i;
+    }
+
+    /**
+     * Find a path from the starting location provided to the destination location avoiding blockages and attempting to
+     * honor costs provided by the tile map.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @param last The last available free tile used if blocked, <code>null</code> if none.
+     * @return The path found from start to end, or null if no path can be found.
+     */
+    private Path findPathRecursive(Pathfindable mover, int dtx, int dty, boolean ignoreRef, CoordTile last)
+    {
+        final int stx = mover.getInTileX();
+        final int sty = mover.getInTileY();
+
+        if (grid.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
+        {
+            return null;
+        }
+        if (grid.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            final CoordTile tile = grid.getClosestAvailableTile(mover, dtx, dty, stx, sty, grid.getInTileRadius());
+            if (tile == null || tile.equals(last))
+            {
+                return null;
+            }
+            return findPathRecursive(mover, tile.getX(), tile.getY(), ignoreRef, tile);
+        }
+        return search(mover, stx, sty, dtx, dty, ignoreRef, maxSearchDistance);
+    }
+
+    /**
+     * Search path between valid locations.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @param maxSearch The maximum depth we'll search before giving up.
+     * @return The path found from start to end, or null if no path can be found.
+     */
+    private Path search(Pathfindable mover, int stx, int sty, int dtx, int dty, boolean ignoreRef, int maxSearch)
+    {
+        prepare();
+
+        final int start = sty * width + stx;
+        final int destination = dty * width + dtx;
+        stamp[start] = generation;
+        cost[start] = 0.0;
+        estimate[start] = heuristic.getCost(stx, sty, dtx, dty);
+        total[start] = estimate[start];
+        parent[start] = NONE;
+        depth[start] = 0;
+        push(start);
+
+        int maxDepth = 0;
+        while (maxDepth < maxSearch && size > 0)
+        {
+            if (heap[0] == destination)
+            {
+                break;
+            }
+            maxDepth = updateList(mover, stx, sty, dtx, dty, ignoreRef, pop(), maxDepth);
+        }
+        if (stamp[destination] != generation || parent[destination] == NONE)
+        {
+            return null;
+        }
+
+        final Path path = new Path();
+        int node = destination;
+        while (node != start)
+        {
+            path.prependStep(node % width, node / width);
+            node = parent[node];
+        }
+        path.prependStep(stx, sty);
+
+        return path;
+    }
+
+    /*
+     * PathFinder
+     */
+
+    @Override
+    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        return findPathRecursive(mover, dtx, dty, ignoreRef, null);
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+
+/**
+ * Hierarchical path finder, searching first through clusters entrances, then refining path between entrances.
+ * <p>
+ * Near destinations, in the same or an adjacent cluster, are directly searched. Abstract graph is computed per mover
+ * profile (categories cost, blocking and movements), and ignores objects ids, which are only checked by refinement. If
+ * refinement fails because of objects, a direct search is performed. Resulting paths are close to optimal, but not
+ * always optimal.
+ * </p>
+ * <p>
+ * Tiles set on map invalidate only their cluster and its neighbours. Pathfinding must have been loaded before.
+ * </p>
+ */
+final class PathFinderHierarchical implements PathFinder, TileSetListener
+{
+    /** Layers per mover profile. */
+    private final Map<PathProfile, PathLayer> layers = new HashMap<>();
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Local path finder. */
+    private final PathFinderHeap finder;
+    /** The heuristic used for abstract search. */
+    private final Heuristic heuristic;
+    /** Cluster size in tile. */
+    private final int size;
+
+    /**
+     * Create finder and register it as map tile set listener.
+     * 
+     * @param map The map to be searched. Must have the {@link MapTilePath} feature.
+     * @param maxSearchDistance The maximum depth of direct searches before giving up.
+     * @param heuristic The heuristic used to determine the search order of the map.
+     * @param size The cluster size in tile.
+     * @throws LionEngineException If invalid arguments.
+     */
+    PathFinderHierarchical(MapTile map, int maxSearchDistance, Heuristic heuristic, int size)
+    {
+        super();
+
+        Check.superiorStrict(size, 1);
+
+        this.map = map;
+        this.heuristic = heuristic;
+        this.size = size;
+        mapPath = map.getFeature(MapTilePath.class);
+        finder = new PathFinderHeap(map, maxSearchDistance, heuristic);
+        map.addListener(this);
+    }
+
+    /**
+     * Find a path from the mover location, after destination has been validated.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The path found from start to end, or null if no path can be found.
+     */
+    private Path search(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        final int stx = mover.getInTileX();
+        final int sty = mover.getInTileY();
+        if (Math.abs(stx / size - dtx / size) < 2 && Math.abs(sty / size - dty / size) < 2)
+        {
+            return finder.findPath(mover, stx, sty, dtx, dty, ignoreRef);
+        }
+
+        final int[] entrances = getLayer(mover).search(stx, sty, dtx, dty);
+        if (entrances == null)
+        {
+            return null;
+        }
+
+        final Path path = refine(mover, stx, sty, dtx, dty, entrances, ignoreRef);
+        if (path == null)
+        {
+            return finder.findPath(mover, stx, sty, dtx, dty, ignoreRef);
+        }
+        return path;
+    }
+
+    /**
+     * Get mover layer, created if needed.
+     * 
+     * @param mover The mover reference.
+     * @return The mover layer.
+     */
+    private PathLayer getLayer(Pathfindable mover)
+    {
+        final PathProfile profile = new PathProfile(mover, mapPath.getCategories());
+        PathLayer layer = layers.get(profile);
+        if (layer == null || !layer.isSize(map.getInTileWidth(), map.getInTileHeight()))
+        {
+            if (layer != null)
+            {
+                layers.clear();
+            }
+            layer = new PathLayer(profile, map, heuristic, size);
+            layers.put(profile, layer);
+        }
+        return layer;
+    }
+
+    /**
+     * Compute path through entrances.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param entrances The entrances tile index.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The path, <code>null</code> if a part cannot be found.
+     */
+    private Path refine(Pathfindable mover, int stx, int sty, int dtx, int dty, int[] entrances, boolean ignoreRef)
+    {
+        final int width = map.getInTileWidth();
+        final Path path = new Path();
+        path.appendStep(stx, sty);
+
+        int x = stx;
+        int y = sty;
+        for (int i = 0; i <= entrances.length; i++)
+        {
+            final int nx = i < entrances.length ? entrances[i] % width : dtx;
+            final int ny = i < entrances.length ? entrances[i] / width : dty;
+            if (!append(mover, path, x, y, nx, ny, ignoreRef))
+            {
+                return null;
+            }
+            x = nx;
+            y = ny;
+        }
+        return path;
+    }
+
+    /**
+     * Append path part between two locations.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param path The path to complete.
+     * @param x The x coordinate of the part start, already in path.
+     * @param y The y coordinate of the part start, already in path.
+     * @param nx The x coordinate of the part end.
+     * @param ny The y coordinate of the part end.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return <code>true</code> if appended, <code>false</code> if not found.
+     */
+    private boolean append(Pathfindable mover, Path path, int x, int y, int nx, int ny, boolean ignoreRef)
+    {
+        if (x == nx && y == ny)
+        {
+            return true;
+        }
+        final boolean step = Math.max(Math.abs(nx - x), Math.abs(ny - y)) == 1;
+        if (step && (x / size != nx / size || y / size != ny / size))
+        {
+            if (mapPath.isBlocked(mover, nx, ny, ignoreRef))
+            {
+                return false;
+            }
+            path.appendStep(nx, ny);
+            return true;
+        }
+        final Path part = finder.findPath(mover, x, y, nx, ny, ignoreRef, size * size);
+        if (part == null)
+        {
+            return false;
+        }
+        for (int i = 1; i < part.getLength(); i++)
+        {
+            path.appendStep(part.getX(i), part.getY(i));
+        }
+        return true;
+    }
+
+    /**
+     * Find a path, replacing blocked destination by the closest available tile.
+     * 
+     * @param mover The entity that will be moving along the path.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @param last The last available free tile used if blocked, <code>null</code> if none.
+     * @return The path found from start to end, or null if no path can be found.
+     */
+    private Path findPathRecursive(Pathfindable mover, int dtx, int dty, boolean ignoreRef, CoordTile last)
+    {
+        final int stx = mover.getInTileX();
+        final int sty = mover.getInTileY();
+
+        if (mapPath.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
+        {
+            return null;
+        }
+        if (mapPath.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            final CoordTile tile = mapPath.getClosestAvailableTile(mover,
+                                                                   dtx,
+                                                                   dty,
+                                                                   stx,
+                                                                   sty,
+                                                                   map.getInTileRadius());
+            if (tile == null || tile.equals(last))
+            {
+                return null;
+            }
+            return findPathRecursive(mover, tile.getX(), tile.getY(), ignoreRef, tile);
+        }
+        if (stx < 0 || sty < 0 || stx >= map.getInTileWidth() || sty >= map.getInTileHeight())
+        {
+            return null;
+        }
+        return search(mover, dtx, dty, ignoreRef);
+    }
+
+    /*
+     * PathFinder
+     */
+
+    @Override
+    public Path findPath(Pathfindable mover, int dtx, int dty, boolean ignoreRef)
+    {
+        return findPathRecursive(mover, dtx, dty, ignoreRef, null);
+    }
+
+    /*
+     * TileSetListener
+     */
+
+    @Override
+    public void onTileSet(Tile tile)
+    {
+        for (final PathLayer layer : layers.values())
+        {
+            layer.invalidate(tile.getInTileX(), tile.getInTileY());
+        }
+    }
+}
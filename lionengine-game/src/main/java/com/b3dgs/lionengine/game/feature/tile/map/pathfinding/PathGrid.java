@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+/**
+ * Tiles information read by {@link PathFinderHeap} during search.
+ */
+interface PathGrid
+{
+    /**
+     * Get the number of horizontal tiles.
+     * 
+     * @return The number of horizontal tiles.
+     */
+    int getInTileWidth();
+
+    /**
+     * Get the number of vertical tiles.
+     * 
+     * @return The number of vertical tiles.
+     */
+    int getInTileHeight();
+
+    /**
+     * Get the radius in tile, used to find closest available tile.
+     * 
+     * @return The radius in tile.
+     */
+    int getInTileRadius();
+
+    /**
+     * Get the tile category.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The tile category, <code>null</code> if no tile.
+     */
+    String getCategory(int tx, int ty);
+
+    /**
+     * Get the cost of the tile for the mover.
+     * 
+     * @param mover The mover reference.
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The tile cost.
+     */
+    double getCost(Pathfindable mover, int tx, int ty);
+
+    /**
+     * Check if tile is blocked for the mover.
+     * 
+     * @param mover The mover reference.
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @param ignoreObjectsId <code>true</code> to ignore objects ids, <code>false</code> else.
+     * @return <code>true</code> if blocked or outside, <code>false</code> else.
+     */
+    boolean isBlocked(Pathfindable mover, int tx, int ty, boolean ignoreObjectsId);
+
+    /**
+     * Get the closest available tile.
+     * 
+     * @param mover The mover reference.
+     * @param stx The starting horizontal tile index.
+     * @param sty The starting vertical tile index.
+     * @param dtx The destination horizontal tile index.
+     * @param dty The destination vertical tile index.
+     * @param radius The search radius.
+     * @return The closest available tile, <code>null</code> if none.
+     */
+    CoordTile getClosestAvailableTile(Pathfindable mover, int stx, int sty, int dtx, int dty, int radius);
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.BitSet;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+
+/**
+ * Path grid reading a copy of tiles category, which can be searched from another thread while map is modified.
+ * <p>
+ * Only tiles blocking state is copied: objects ids are ignored, as they change at each step of moving objects.
+ * Copy is updated by {@link #refresh()} from engine thread, only for tiles set since last refresh, unless
+ * {@link #invalidate()} has been called or map size changed.
+ * </p>
+ */
+final class PathGridSnapshot implements PathGrid, TileSetListener
+{
+    /** Map reference. */
+    private final MapTile map;
+    /** Tiles set since last refresh. */
+    private final BitSet dirty = new BitSet();
+    /** Tiles category, indexed by <code>ty * width + tx</code>. */
+    private String[] categories = new String[0];
+    /** Horizontal tiles. */
+    private int width;
+    /** Vertical tiles. */
+    private int height;
+    /** Radius in tile. */
+    private int radius;
+    /** Full refresh required. */
+    private boolean invalid = true;
+
+    /**
+     * Create snapshot. Must be registered as map {@link TileSetListener} to track tiles modification.
+     * 
+     * @param map The map reference.
+     */
+    PathGridSnapshot(MapTile map)
+    {
+        super();
+
+        this.map = map;
+    }
+
+    /**
+     * Force a full refresh on next {@link #refresh()}, needed when pathfinding has been loaded.
+     */
+    void invalidate()
+    {
+        invalid = true;
+    }
+
+    /**
+     * Update copy from map. Must not be called while a search is running on this snapshot.
+     * 
+     * @return <code>true</code> if map size changed since last refresh, <code>false</code> else.
+     */
+    boolean refresh()
+    {
+        final boolean resized = width != map.getInTileWidth() || height != map.getInTileHeight();
+        if (invalid || resized)
+        {
+            width = map.getInTileWidth();
+            height = map.getInTileHeight();
+            radius = map.getInTileRadius();
+            if (categories.length != width * height)
+            {
+                categories = new String[width * height];
+            }
+            for (int ty = 0; ty < height; ty++)
+            {
+                for (int tx = 0; tx < width; tx++)
+                {
+                    categories[ty * width + tx] = readCategory(tx, ty);
+                }
+            }
+            invalid = false;
+        }
+        else
+        {
+            for (int i = dirty.nextSetBit(0); i >= 0 && i < categories.length; i = dirty.nextSetBit(i + 1))
+            {
+                categories[i] = readCategory(i % width, i / width);
+            }
+        }
+        dirty.clear();
+
+        return resized;
+    }
+
+    /**
+     * Read tile category from map.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The tile category, <code>null</code> if no tile or no category.
+     */
+    private String readCategory(int tx, int ty)
+    {
+        final Tile tile = map.getTile(tx, ty);
+        if (tile != null && tile.hasFeature(TilePath.class))
+        {
+            return tile.getFeature(TilePath.class).getCategory();
+        }
+        return null;
+    }
+
+    /*
+     * PathGrid
+     */
+
+    @Override
+    public int getInTileWidth()
+    {
+        return width;
+    }
+
+    @Override
+    public int getInTileHeight()
+    {
+        return height;
+    }
+
+    @Override
+    public int getInTileRadius()
+    {
+        return radius;
+    }
+
+    @Override
+    public String getCategory(int tx, int ty)
+    {
+        return categories[ty * width + tx];
+    }
+
+    @Override
+    public double getCost(Pathfindable mover, int tx, int ty)
+    {
+        final String category = categories[ty * width + tx];
+        if (category != null)
+        {
+            return mover.getCost(category);
+        }
+        return 0.0;
+    }
+
+    @Override
+    public boolean isBlocked(Pathfindable mover, int tx, int ty, boolean ignoreObjectsId)
+    {
+        if (tx < 0 || ty < 0 || tx >= width || ty >= height)
+        {
+            return true;
+        }
+        final String category = categories[ty * width + tx];
+        return category != null && mover.isBlocking(category);
+    }
+
+    @Override
+    public CoordTile getClosestAvailableTile(Pathfindable mover, int stx, int sty, int dtx, int dty, int radius)
+    {
+        // Blocked destination is resolved with objects before request
+        return null;
+    }
+
+    /*
+     * TileSetListener
+     */
+
+    @Override
+    public void onTileSet(Tile tile)
+    {
+        dirty.set(tile.getInTileY() * width + tile.getInTileX());
+    }
+}
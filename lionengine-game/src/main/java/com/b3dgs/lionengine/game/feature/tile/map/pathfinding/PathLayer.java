@@ -0,0 +1,723 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Abstract graph of map clusters for a mover profile, used by hierarchical search.
+ * <p>
+ * Map is partitioned into square clusters. Entrances are computed on clusters border where both sides can be entered,
+ * one at the middle of short openings, two at the ends of long ones, plus diagonal only crossings. Intra cluster
+ * costs between entrances are computed with a search restricted to the cluster. Clusters are computed on first use,
+ * and computed again after a tile has been set in them or in their neighbours.
+ * </p>
+ * <p>
+ * Only tiles category is considered: objects ids are ignored, as they change at each step of moving objects.
+ * </p>
+ */
+final class PathLayer
+{
+    /** Start node key. */
+    private static final int START = -2;
+    /** Goal node key. */
+    private static final int GOAL = -1;
+    /** Unreachable cost. */
+    private static final double UNREACHABLE = Double.MAX_VALUE;
+    /** Opening length from which two entrances are used instead of one. */
+    private static final int LONG_OPENING = 6;
+    /** Empty array. */
+    private static final int[] EMPTY = new int[0];
+
+    /** Mover profile. */
+    private final PathProfile profile;
+    /** Map reference. */
+    private final MapTile map;
+    /** Search heuristic. */
+    private final Heuristic heuristic;
+    /** Cluster size in tile. */
+    private final int size;
+    /** Horizontal tiles. */
+    private final int width;
+    /** Vertical tiles. */
+    private final int height;
+    /** Horizontal clusters. */
+    private final int columns;
+    /** Clusters links, as pairs of inside and outside tile index. */
+    private final int[][] links;
+    /** Clusters entrances tile index. */
+    private final int[][] nodes;
+    /** Clusters intra costs between entrances, indexed by <code>from * count + to</code>. */
+    private final double[][] intra;
+    /** Clusters requiring computation. */
+    private final boolean[] dirty;
+    /** Category index of loaded cluster tiles. */
+    private final int[] local;
+    /** Cost of loaded cluster tiles from last cluster search. */
+    private final double[] distance;
+    /** Abstract search queue. */
+    private final PathQueue open = new PathQueue();
+    /** Cluster search queue. */
+    private final PathQueue queue = new PathQueue();
+    /** Links buffer. */
+    private int[] buffer = new int[16];
+    /** Links buffer length. */
+    private int count;
+    /** Loaded cluster index, <code>-1</code> if none. */
+    private int loaded = -1;
+
+    /**
+     * Create layer. All clusters are computed on first use.
+     * 
+     * @param profile The mover profile.
+     * @param map The map reference.
+     * @param heuristic The heuristic used to determine the search order of the abstract graph.
+     * @param size The cluster size in tile.
+     */
+    PathLayer(PathProfile profile, MapTile map, Heuristic heuristic, int size)
+    {
+        super();
+
+        this.profile = profile;
+        this.map = map;
+        this.heuristic = heuristic;
+        this.size = size;
+        width = map.getInTileWidth();
+        height = map.getInTileHeight();
+        columns = (width + size - 1) / size;
+
+        final int clusters = columns * ((height + size - 1) / size);
+        links = new int[clusters][];
+        nodes = new int[clusters][];
+        intra = new double[clusters][];
+        dirty = new boolean[clusters];
+        Arrays.fill(dirty, true);
+        local = new int[size * size];
+        distance = new double[size * size];
+    }
+
+    /**
+     * Mark clusters around tile as requiring computation.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     */
+    void invalidate(int tx, int ty)
+    {
+        final int cx = tx / size;
+        final int cy = ty / size;
+        final int rows = dirty.length / columns;
+        for (int y = Math.max(0, cy - 1); y < Math.min(rows, cy + 2); y++)
+        {
+            for (int x = Math.max(0, cx - 1); x < Math.min(columns, cx + 2); x++)
+            {
+                dirty[y * columns + x] = true;
+            }
+        }
+        loaded = -1;
+    }
+
+    /**
+     * Check if layer has been computed for this map size.
+     * 
+     * @param width The horizontal tiles.
+     * @param height The vertical tiles.
+     * @return <code>true</code> if same size, <code>false</code> else.
+     */
+    boolean isSize(int width, int height)
+    {
+        return this.width == width && this.height == height;
+    }
+
+    /**
+     * Get cluster index of tile.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The cluster index.
+     */
+    int getCluster(int tx, int ty)
+    {
+        return ty / size * columns + tx / size;
+    }
+
+    /**
+     * Search entrances to cross from start to destination, without objects ids.
+     * 
+     * @param stx The x coordinate of the start location.
+     * @param sty The y coordinate of the start location.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     * @return The entrances tile index from start to destination, <code>null</code> if unreachable.
+     */
+    int[] search(int stx, int sty, int dtx, int dty)
+    {
+        final int start = getCluster(stx, sty);
+        final int goal = getCluster(dtx, dty);
+        final double[] startCosts = getCosts(start, sty * width + stx, false);
+        final double[] goalCosts = getCosts(goal, dty * width + dtx, true);
+
+        final Map<Integer, Double> costs = new HashMap<>();
+        final Map<Integer, Integer> parents = new HashMap<>();
+        final Set<Integer> closed = new HashSet<>();
+        costs.put(Integer.valueOf(START), Double.valueOf(0.0));
+        open.clear();
+        open.push(heuristic.getCost(stx, sty, dtx, dty), START);
+
+        while (!open.isEmpty())
+        {
+            final int current = open.pop();
+            if (current == GOAL)
+            {
+                return getEntrances(parents);
+            }
+            if (closed.add(Integer.valueOf(current)))
+            {
+                final double cost = costs.get(Integer.valueOf(current)).doubleValue();
+                if (current == START)
+                {
+                    relax(costs, parents, closed, nodes[start], startCosts, 0, cost, current, dtx, dty);
+                }
+                else
+                {
+                    expand(costs, parents, closed, current, cost, dtx, dty);
+                    final int index = indexOf(nodes[goal], current);
+                    if (getCluster(current % width, current / width) == goal && index > -1)
+                    {
+                        final double last = goalCosts[index];
+                        if (last < UNREACHABLE)
+                        {
+                            update(costs, parents, closed, GOAL, cost + last, current, 0.0);
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Expand entrance neighbours, inside its cluster and through its links.
+     * 
+     * @param costs The nodes cost.
+     * @param parents The nodes parent.
+     * @param closed The closed nodes.
+     * @param current The current entrance tile index.
+     * @param cost The current entrance cost.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     */
+    private void expand(Map<Integer, Double> costs,
+                        Map<Integer, Integer> parents,
+                        Set<Integer> closed,
+                        int current,
+                        double cost,
+                        int dtx,
+                        int dty)
+    {
+        final int cx = current % width;
+        final int cy = current / width;
+        final int cluster = getCluster(cx, cy);
+        compute(cluster);
+
+        final int[] entrances = nodes[cluster];
+        final int index = indexOf(entrances, current);
+        if (index < 0)
+        {
+            return;
+        }
+        relax(costs, parents, closed, entrances, intra[cluster], index * entrances.length, cost, current, dtx, dty);
+
+        final int category = getCategory(cx, cy);
+        final double next = cost + profile.getCost(category);
+        final int[] outside = links[cluster];
+        for (int i = 0; i < outside.length; i += 2)
+        {
+            final int tile = outside[i + 1];
+            final int tx = tile % width;
+            final int ty = tile / width;
+            if (outside[i] == current && profile.isAllowed(category, MovementTile.from(tx - cx, ty - cy)))
+            {
+                update(costs, parents, closed, tile, next, current, heuristic.getCost(tx, ty, dtx, dty));
+            }
+        }
+    }
+
+    /**
+     * Relax entrances with their cost from current node.
+     * 
+     * @param costs The nodes cost.
+     * @param parents The nodes parent.
+     * @param closed The closed nodes.
+     * @param entrances The entrances tile index.
+     * @param steps The entrances cost from current node.
+     * @param offset The first entrance cost index in steps.
+     * @param cost The current node cost.
+     * @param current The current node.
+     * @param dtx The x coordinate of the destination location.
+     * @param dty The y coordinate of the destination location.
+     */
+    private void relax(Map<Integer, Double> costs,
+                       Map<Integer, Integer> parents,
+                       Set<Integer> closed,
+                       int[] entrances,
+                       double[] steps,
+                       int offset,
+                       double cost,
+                       int current,
+                       int dtx,
+                       int dty)
+    {
+        for (int i = 0; i < entrances.length; i++)
+        {
+            final int tile = entrances[i];
+            final double step = steps[offset + i];
+            if (tile != current && step < UNREACHABLE)
+            {
+                final double estimate = heuristic.getCost(tile % width, tile / width, dtx, dty);
+                update(costs, parents, closed, tile, cost + step, current, estimate);
+            }
+        }
+    }
+
+    /**
+     * Update node if not closed and reached with a lower cost.
+     * 
+     * @param costs The nodes cost.
+     * @param parents The nodes parent.
+     * @param closed The closed nodes.
+     * @param node The node to update.
+     * @param cost The node cost through parent.
+     * @param parent The node parent.
+     * @param estimate The node estimated cost to destination.
+     */
+    private void update(Map<Integer, Double> costs,
+                        Map<Integer, Integer> parents,
+                        Set<Integer> closed,
+                        int node,
+                        double cost,
+                        int parent,
+                        double estimate)
+    {
+        final Integer key = Integer.valueOf(node);
+        if (!closed.contains(key))
+        {
+            final Double old = costs.get(key);
+            if (old == null || cost < old.doubleValue())
+            {
+                costs.put(key, Double.valueOf(cost));
+                parents.put(key, Integer.valueOf(parent));
+                open.push(cost + estimate, node);
+            }
+        }
+    }
+
+    /**
+     * Get entrances from start to goal.
+     * 
+     * @param parents The nodes parent.
+     * @return The entrances tile index.
+     */
+    private static int[] getEntrances(Map<Integer, Integer> parents)
+    {
+        int length = 0;
+        int node = parents.get(Integer.valueOf(GOAL)).intValue();
+        while (node != START)
+        {
+            length++;
+            node = parents.get(Integer.valueOf(node)).intValue();
+        }
+
+        final int[] entrances = new int[length];
+        node = parents.get(Integer.valueOf(GOAL)).intValue();
+        for (int i = length - 1; i > -1; i--)
+        {
+            entrances[i] = node;
+            node = parents.get(Integer.valueOf(node)).intValue();
+        }
+        return entrances;
+    }
+
+    /**
+     * Get costs between a tile and cluster entrances.
+     * 
+     * @param cluster The cluster index.
+     * @param tile The tile index inside cluster.
+     * @param reverse <code>true</code> for costs from entrances to tile, <code>false</code> for tile to entrances.
+     * @return The costs, aligned with cluster entrances.
+     */
+    private double[] getCosts(int cluster, int tile, boolean reverse)
+    {
+        compute(cluster);
+        load(cluster);
+        searchCluster(cluster, tile, reverse);
+
+        final int[] entrances = nodes[cluster];
+        final double[] costs = new double[entrances.length];
+        for (int i = 0; i < entrances.length; i++)
+        {
+            costs[i] = distance[toLocal(cluster, entrances[i])];
+        }
+        return costs;
+    }
+
+    /**
+     * Compute cluster links, entrances and intra costs if required.
+     * 
+     * @param cluster The cluster index.
+     */
+    private void compute(int cluster)
+    {
+        if (!dirty[cluster])
+        {
+            return;
+        }
+        final int x0 = cluster % columns * size;
+        final int y0 = cluster / columns * size;
+        final int x1 = Math.min(x0 + size, width);
+        final int y1 = Math.min(y0 + size, height);
+
+        count = 0;
+        if (x1 < width)
+        {
+            computeSide(x1 - 1, y0, 0, 1, y1 - y0, 1, 0, false);
+        }
+        if (x0 > 0)
+        {
+            computeSide(x0 - 1, y0, 0, 1, y1 - y0, 1, 0, true);
+        }
+        if (y1 < height)
+        {
+            computeSide(x0, y1 - 1, 1, 0, x1 - x0, 0, 1, false);
+        }
+        if (y0 > 0)
+        {
+            computeSide(x0, y0 - 1, 1, 0, x1 - x0, 0, 1, true);
+        }
+        if (x1 < width && y1 < height)
+        {
+            computeCorner(x1 - 1, y1 - 1, 1, 1);
+        }
+        if (x0 > 0 && y0 > 0)
+        {
+            computeCorner(x0, y0, -1, -1);
+        }
+        if (x1 < width && y0 > 0)
+        {
+            computeCorner(x1 - 1, y0, 1, -1);
+        }
+        if (x0 > 0 && y1 < height)
+        {
+            computeCorner(x0, y1 - 1, -1, 1);
+        }
+        links[cluster] = Arrays.copyOf(buffer, count);
+        nodes[cluster] = getNodes(links[cluster]);
+
+        final int[] entrances = nodes[cluster];
+        final double[] costs = new double[entrances.length * entrances.length];
+        load(cluster);
+        for (int i = 0; i < entrances.length; i++)
+        {
+            searchCluster(cluster, entrances[i], false);
+            for (int j = 0; j < entrances.length; j++)
+            {
+                costs[i * entrances.length + j] = distance[toLocal(cluster, entrances[j])];
+            }
+        }
+        intra[cluster] = costs;
+        dirty[cluster] = false;
+    }
+
+    /**
+     * Compute links across a cluster side. Side line is shared by both clusters, so both compute the same links.
+     * 
+     * @param lx The first line tile horizontal index.
+     * @param ly The first line tile vertical index.
+     * @param dx The line horizontal direction.
+     * @param dy The line vertical direction.
+     * @param length The line length.
+     * @param nx The other side horizontal offset.
+     * @param ny The other side vertical offset.
+     * @param flip <code>true</code> if cluster is on the other side, <code>false</code> if on the line.
+     */
+    private void computeSide(int lx, int ly, int dx, int dy, int length, int nx, int ny, boolean flip)
+    {
+        int first = -1;
+        for (int i = 0; i <= length; i++)
+        {
+            final int x = lx + i * dx;
+            final int y = ly + i * dy;
+            final boolean open = i < length && isWalkable(x, y) && isWalkable(x + nx, y + ny);
+            if (open && first < 0)
+            {
+                first = i;
+            }
+            else if (!open && first > -1)
+            {
+                addOpening(lx, ly, dx, dy, nx, ny, first, i - 1, flip);
+                first = -1;
+            }
+            if (i + 1 < length)
+            {
+                final boolean current = isWalkable(x, y);
+                final boolean other = isWalkable(x + nx, y + ny);
+                final boolean nextCurrent = isWalkable(x + dx, y + dy);
+                final boolean nextOther = isWalkable(x + dx + nx, y + dy + ny);
+                if (current && nextOther && !other && !nextCurrent)
+                {
+                    addLink(x, y, x + dx + nx, y + dy + ny, flip);
+                }
+                if (nextCurrent && other && !current && !nextOther)
+                {
+                    addLink(x + dx, y + dy, x + nx, y + ny, flip);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add entrances of an opening.
+     * 
+     * @param lx The first line tile horizontal index.
+     * @param ly The first line tile vertical index.
+     * @param dx The line horizontal direction.
+     * @param dy The line vertical direction.
+     * @param nx The other side horizontal offset.
+     * @param ny The other side vertical offset.
+     * @param first The first opening index on line.
+     * @param last The last opening index on line.
+     * @param flip <code>true</code> if cluster is on the other side, <code>false</code> if on the line.
+     */
+    private void addOpening(int lx, int ly, int dx, int dy, int nx, int ny, int first, int last, boolean flip)
+    {
+        if (last - first + 1 < LONG_OPENING)
+        {
+            final int middle = (first + last) / 2;
+            addLink(lx + middle * dx, ly + middle * dy, lx + middle * dx + nx, ly + middle * dy + ny, flip);
+        }
+        else
+        {
+            addLink(lx + first * dx, ly + first * dy, lx + first * dx + nx, ly + first * dy + ny, flip);
+            addLink(lx + last * dx, ly + last * dy, lx + last * dx + nx, ly + last * dy + ny, flip);
+        }
+    }
+
+    /**
+     * Compute diagonal only link at cluster corner.
+     * 
+     * @param tx The corner tile horizontal index inside cluster.
+     * @param ty The corner tile vertical index inside cluster.
+     * @param dx The diagonal horizontal direction.
+     * @param dy The diagonal vertical direction.
+     */
+    private void computeCorner(int tx, int ty, int dx, int dy)
+    {
+        if (isWalkable(tx, ty)
+            && isWalkable(tx + dx, ty + dy)
+            && !isWalkable(tx + dx, ty)
+            && !isWalkable(tx, ty + dy))
+        {
+            addLink(tx, ty, tx + dx, ty + dy, false);
+        }
+    }
+
+    /**
+     * Add link to buffer.
+     * 
+     * @param ax The line tile horizontal index.
+     * @param ay The line tile vertical index.
+     * @param bx The other side tile horizontal index.
+     * @param by The other side tile vertical index.
+     * @param flip <code>true</code> if cluster is on the other side, <code>false</code> if on the line.
+     */
+    private void addLink(int ax, int ay, int bx, int by, boolean flip)
+    {
+        if (count + 2 > buffer.length)
+        {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        final int a = ay * width + ax;
+        final int b = by * width + bx;
+        buffer[count] = flip ? b : a;
+        buffer[count + 1] = flip ? a : b;
+        count += 2;
+    }
+
+    /**
+     * Get distinct inside tiles of links.
+     * 
+     * @param pairs The links.
+     * @return The entrances tile index.
+     */
+    private static int[] getNodes(int[] pairs)
+    {
+        if (pairs.length == 0)
+        {
+            return EMPTY;
+        }
+        final int[] inside = new int[pairs.length / 2];
+        for (int i = 0; i < inside.length; i++)
+        {
+            inside[i] = pairs[i * 2];
+        }
+        Arrays.sort(inside);
+
+        int distinct = 1;
+        for (int i = 1; i < inside.length; i++)
+        {
+            if (inside[i] != inside[distinct - 1])
+            {
+                inside[distinct] = inside[i];
+                distinct++;
+            }
+        }
+        return Arrays.copyOf(inside, distinct);
+    }
+
+    /**
+     * Load cluster tiles category if not already loaded.
+     * 
+     * @param cluster The cluster index.
+     */
+    private void load(int cluster)
+    {
+        if (loaded == cluster)
+        {
+            return;
+        }
+        final int x0 = cluster % columns * size;
+        final int y0 = cluster / columns * size;
+        final int x1 = Math.min(x0 + size, width);
+        final int y1 = Math.min(y0 + size, height);
+        for (int y = y0; y < y1; y++)
+        {
+            for (int x = x0; x < x1; x++)
+            {
+                local[(y - y0) * size + x - x0] = getCategory(x, y);
+            }
+        }
+        loaded = cluster;
+    }
+
+    /**
+     * Search costs from tile (or to tile if reversed) for all tiles of the loaded cluster, stored in distance.
+     * 
+     * @param cluster The cluster index.
+     * @param tile The source tile index.
+     * @param reverse <code>true</code> to compute costs to tile, <code>false</code> from tile.
+     */
+    private void searchCluster(int cluster, int tile, boolean reverse)
+    {
+        final int w = Math.min(size, width - cluster % columns * size);
+        final int h = Math.min(size, height - cluster / columns * size);
+        Arrays.fill(distance, UNREACHABLE);
+
+        final int source = toLocal(cluster, tile);
+        distance[source] = 0.0;
+        queue.clear();
+        queue.push(0.0, source);
+        while (!queue.isEmpty())
+        {
+            final double cost = queue.peek();
+            final int current = queue.pop();
+            if (cost <= distance[current])
+            {
+                final int cx = current % size;
+                final int cy = current / size;
+                for (int y = Math.max(0, cy - 1); y < Math.min(h, cy + 2); y++)
+                {
+                    for (int x = Math.max(0, cx - 1); x < Math.min(w, cx + 2); x++)
+                    {
+                        final int neighbour = y * size + x;
+                        if (neighbour != current && profile.isWalkable(local[neighbour]))
+                        {
+                            final int from = reverse ? neighbour : current;
+                            final MovementTile movement = reverse ? MovementTile.from(cx - x, cy - y)
+                                                                  : MovementTile.from(x - cx, y - cy);
+                            final double next = distance[current] + profile.getCost(local[from]);
+                            if (next < distance[neighbour] && profile.isAllowed(local[from], movement))
+                            {
+                                distance[neighbour] = next;
+                                queue.push(next, neighbour);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get local index of tile inside cluster.
+     * 
+     * @param cluster The cluster index.
+     * @param tile The tile index.
+     * @return The local index.
+     */
+    private int toLocal(int cluster, int tile)
+    {
+        return (tile / width - cluster / columns * size) * size + tile % width - cluster % columns * size;
+    }
+
+    /**
+     * Get tile category index.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return The category index.
+     */
+    private int getCategory(int tx, int ty)
+    {
+        final Tile tile = map.getTile(tx, ty);
+        if (tile != null)
+        {
+            return profile.getIndex(tile.getFeature(TilePath.class).getCategory());
+        }
+        return -1;
+    }
+
+    /**
+     * Check if tile can be entered, ignoring objects.
+     * 
+     * @param tx The horizontal tile index.
+     * @param ty The vertical tile index.
+     * @return <code>true</code> if inside map and not blocking, <code>false</code> else.
+     */
+    private boolean isWalkable(int tx, int ty)
+    {
+        return tx > -1 && ty > -1 && tx < width && ty < height && profile.isWalkable(getCategory(tx, ty));
+    }
+
+    /**
+     * Get entrance index.
+     * 
+     * @param entrances The entrances tile index, sorted.
+     * @param tile The entrance tile index.
+     * @return The entrance index.
+     */
+    private static int indexOf(int[] entrances, int tile)
+    {
+        return Arrays.binarySearch(entrances, tile);
+    }
+}
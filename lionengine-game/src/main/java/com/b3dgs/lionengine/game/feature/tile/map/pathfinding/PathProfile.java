@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Mover categories behavior, used to share search data between movers which move the same way.
+ * <p>
+ * Category index <code>-1</code> represents a missing tile or category, which is never blocking and cannot be left.
+ * </p>
+ */
+final class PathProfile
+{
+    /** Categories name. */
+    private final String[] names;
+    /** Categories cost. */
+    private final double[] costs;
+    /** Categories blocking flag. */
+    private final boolean[] blocking;
+    /** Categories allowed movements, as bit mask of {@link MovementTile} ordinal. */
+    private final int[] movements;
+
+    /**
+     * Create profile.
+     * 
+     * @param mover The mover reference.
+     * @param categories The map categories.
+     */
+    PathProfile(Pathfindable mover, Collection<String> categories)
+    {
+        super();
+
+        final int count = categories.size();
+        names = categories.toArray(new String[count]);
+        costs = new double[count];
+        blocking = new boolean[count];
+        movements = new int[count];
+
+        for (int i = 0; i < count; i++)
+        {
+            final String category = names[i];
+            for (final MovementTile movement : MovementTile.values())
+            {
+                if (mover.isMovementAllowed(category, movement))
+                {
+                    movements[i] |= 1 << movement.ordinal();
+                }
+            }
+            blocking[i] = mover.isBlocking(category);
+            if (movements[i] != 0)
+            {
+                costs[i] = mover.getCost(category);
+            }
+        }
+    }
+
+    /**
+     * Get category index.
+     * 
+     * @param category The category name (can be <code>null</code>).
+     * @return The category index, <code>-1</code> if unknown.
+     */
+    int getIndex(String category)
+    {
+        if (category != null)
+        {
+            for (int i = 0; i < names.length; i++)
+            {
+                if (category.equals(names[i]))
+                {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get cost of leaving a tile of this category.
+     * 
+     * @param index The category index.
+     * @return The cost.
+     */
+    double getCost(int index)
+    {
+        if (index < 0)
+        {
+            return 0.0;
+        }
+        return costs[index];
+    }
+
+    /**
+     * Check if a tile of this category can be entered.
+     * 
+     * @param index The category index.
+     * @return <code>true</code> if not blocking, <code>false</code> else.
+     */
+    boolean isWalkable(int index)
+    {
+        return index < 0 || !blocking[index];
+    }
+
+    /**
+     * Check if movement is allowed from a tile of this category.
+     * 
+     * @param index The category index.
+     * @param movement The movement.
+     * @return <code>true</code> if allowed, <code>false</code> else.
+     */
+    boolean isAllowed(int index, MovementTile movement)
+    {
+        return index > -1 && (movements[index] & 1 << movement.ordinal()) != 0;
+    }
+
+    /*
+     * Object
+     */
+
+    @Override
+    public int hashCode()
+    {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + Arrays.hashCode(names);
+        result = prime * result + Arrays.hashCode(costs);
+        result = prime * result + Arrays.hashCode(blocking);
+        result = prime * result + Arrays.hashCode(movements);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object object)
+    {
+        if (this == object)
+        {
+            return true;
+        }
+        if (object == null || object.getClass() != getClass())
+        {
+            return false;
+        }
+        final PathProfile other = (PathProfile) object;
+        return Arrays.equals(names, other.names)
+               && Arrays.equals(costs, other.costs)
+               && Arrays.equals(blocking, other.blocking)
+               && Arrays.equals(movements, other.movements);
+    }
+}
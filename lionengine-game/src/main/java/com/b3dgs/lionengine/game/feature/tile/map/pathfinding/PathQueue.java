@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Growable binary heap of integer values ordered by lowest cost. A value can be pushed several times, outdated entries
+ * must be skipped by caller when popped.
+ */
+final class PathQueue
+{
+    /** Initial capacity. */
+    private static final int CAPACITY = 64;
+
+    /** Entries cost. */
+    private double[] costs = new double[CAPACITY];
+    /** Entries value. */
+    private int[] values = new int[CAPACITY];
+    /** Entries number. */
+    private int size;
+
+    /**
+     * Create queue.
+     */
+    PathQueue()
+    {
+        super();
+    }
+
+    /**
+     * Add value.
+     * 
+     * @param cost The value cost.
+     * @param value The value.
+     */
+    void push(double cost, int value)
+    {
+        if (size == costs.length)
+        {
+            costs = Arrays.copyOf(costs, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        int i = size;
+        size++;
+        while (i > 0)
+        {
+            final int up = i - 1 >>> 1;
+            if (costs[up] <= cost)
+            {
+                break;
+            }
+            costs[i] = costs[up];
+            values[i] = values[up];
+            i = up;
+        }
+        costs[i] = cost;
+        values[i] = value;
+    }
+
+    /**
+     * Get lowest cost. Queue must not be empty.
+     * 
+     * @return The lowest cost.
+     */
+    double peek()
+    {
+        return costs[0];
+    }
+
+    /**
+     * Remove value with lowest cost. Queue must not be empty.
+     * 
+     * @return The removed value.
+     */
+    int pop()
+    {
+        final int first = values[0];
+        size--;
+        final double cost = costs[size];
+        final int value = values[size];
+        int i = 0;
+        int child = 1;
+        while (child < size)
+        {
+            if (child + 1 < size && costs[child + 1] < costs[child])
+            {
+                child++;
+            }
+            if (cost <= costs[child])
+            {
+                break;
+            }
+            costs[i] = costs[child];
+            values[i] = values[child];
+            i = child;
+            child = (i << 1) + 1;
+        }
+        costs[i] = cost;
+        values[i] = value;
+        return first;
+    }
+
+    /**
+     * Check if queue is empty.
+     * 
+     * @return <code>true</code> if empty, <code>false</code> else.
+     */
+    boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Remove all values.
+     */
+    void clear()
+    {
+        size = 0;
+    }
+}
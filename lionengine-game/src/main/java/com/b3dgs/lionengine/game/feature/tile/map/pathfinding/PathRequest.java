@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Path request, shared by movers with same start, destination and categories.
+ */
+final class PathRequest
+{
+    /**
+     * Check if categories are equivalent (same costs, blocking and movements).
+     * 
+     * @param first The first categories.
+     * @param second The second categories.
+     * @return <code>true</code> if equivalent, <code>false</code> else.
+     */
+    private static boolean isSame(Map<String, PathData> first, Map<String, PathData> second)
+    {
+        if (first == second)
+        {
+            return true;
+        }
+        if (first.size() != second.size())
+        {
+            return false;
+        }
+        for (final Map.Entry<String, PathData> entry : first.entrySet())
+        {
+            final PathData data = entry.getValue();
+            final PathData other = second.get(entry.getKey());
+            if (other == null
+                || Double.compare(data.getCost(), other.getCost()) != 0
+                || data.isBlocking() != other.isBlocking()
+                || !data.getAllowedMovements().containsAll(other.getAllowedMovements())
+                || !other.getAllowedMovements().containsAll(data.getAllowedMovements()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Movers waiting for result. */
+    private final List<PathfindableModel> movers = new ArrayList<>(1);
+    /** Movers request ticket. */
+    private final List<Integer> tickets = new ArrayList<>(1);
+    /** Mover categories. */
+    private final Map<String, PathData> categories;
+    /** Start horizontal tile. */
+    private final int stx;
+    /** Start vertical tile. */
+    private final int sty;
+    /** Destination horizontal tile. */
+    private final int dtx;
+    /** Destination vertical tile. */
+    private final int dty;
+    /** Ignore objects ids. */
+    private final boolean ignoreRef;
+    /** Path found (<code>null</code> if none or not solved). */
+    private Path path;
+
+    /**
+     * Create request.
+     * 
+     * @param mover The first mover.
+     * @param ticket The mover request ticket.
+     * @param stx The start horizontal tile.
+     * @param sty The start vertical tile.
+     * @param dtx The destination horizontal tile.
+     * @param dty The destination vertical tile.
+     * @param ignoreRef <code>true</code> to ignore objects ids, <code>false</code> else.
+     */
+    PathRequest(PathfindableModel mover, int ticket, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        super();
+
+        categories = mover.getCategories();
+        this.stx = stx;
+        this.sty = sty;
+        this.dtx = dtx;
+        this.dty = dty;
+        this.ignoreRef = ignoreRef;
+        add(mover, ticket);
+    }
+
+    /**
+     * Add a mover waiting for the same result.
+     * 
+     * @param mover The mover reference.
+     * @param ticket The mover request ticket.
+     */
+    void add(PathfindableModel mover, int ticket)
+    {
+        movers.add(mover);
+        tickets.add(Integer.valueOf(ticket));
+    }
+
+    /**
+     * Move waiting movers to an identical request.
+     * 
+     * @param other The request receiving movers.
+     */
+    void moveTo(PathRequest other)
+    {
+        other.movers.addAll(movers);
+        other.tickets.addAll(tickets);
+        movers.clear();
+        tickets.clear();
+    }
+
+    /**
+     * Solve request.
+     * 
+     * @param finder The finder used.
+     */
+    void solve(PathFinderHeap finder)
+    {
+        path = finder.findPath(movers.get(0), stx, sty, dtx, dty, ignoreRef);
+    }
+
+    /**
+     * Notify movers with result. Each mover receives its own path.
+     */
+    void deliver()
+    {
+        final int n = movers.size();
+        for (int i = 0; i < n; i++)
+        {
+            final Path found;
+            if (path == null || i == n - 1)
+            {
+                found = path;
+            }
+            else
+            {
+                found = new Path(path);
+            }
+            movers.get(i).onPathFound(tickets.get(i).intValue(), found);
+        }
+    }
+
+    /*
+     * Object
+     */
+
+    @Override
+    public int hashCode()
+    {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + stx;
+        result = prime * result + sty;
+        result = prime * result + dtx;
+        result = prime * result + dty;
+        result = prime * result + (ignoreRef ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object object)
+    {
+        if (this == object)
+        {
+            return true;
+        }
+        if (object == null || object.getClass() != getClass())
+        {
+            return false;
+        }
+        final PathRequest other = (PathRequest) object;
+        return other.stx == stx
+               && other.sty == sty
+               && other.dtx == dtx
+               && other.dty == dty
+               && other.ignoreRef == ignoreRef
+               && isSame(other.categories, categories);
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.game.feature.ComponentUpdater;
+import com.b3dgs.lionengine.game.feature.Handlables;
+import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Solve paths of {@link PathfindableModel} outside engine thread.
+ * <p>
+ * When this service is available, {@link PathfindableModel#setDestination(int, int)} queues a request instead of
+ * searching, and the mover keeps its current behavior until result is received. Identical requests (same start,
+ * destination and categories) are solved once. Queued requests are sent as a batch to the executor, and solved
+ * against a copy of tiles blocking state. Objects ids are only considered on engine thread, to replace a blocked
+ * destination by the closest available tile. Next batch is sent when all results of the previous one have been
+ * delivered.
+ * </p>
+ * <p>
+ * Results are delivered on engine thread during {@link #update(double)} until time budget is consumed, at least one
+ * result being delivered per update. It must be updated each frame, directly or as a {@link Handler} component.
+ * </p>
+ * <p>
+ * Must be added to {@link Services} before creating {@link PathfindableModel}, and {@link #invalidate()} must be
+ * called after each {@link MapTilePath#loadPathfinding(Media)}.
+ * </p>
+ */
+public class PathRequests implements ComponentUpdater, Updatable
+{
+    /** Default delivery budget in milliseconds. */
+    public static final double DEFAULT_BUDGET = 1.0;
+
+    /** Queued requests, not sent yet. */
+    private final Map<PathRequest, PathRequest> queued = new LinkedHashMap<>();
+    /** Solved requests, not delivered yet. */
+    private final Queue<PathRequest> solved = new ConcurrentLinkedQueue<>();
+    /** Available finders, one per concurrent search. */
+    private final Queue<PathFinderHeap> finders = new ConcurrentLinkedQueue<>();
+    /** Map reference. */
+    private final MapTile map;
+    /** Map path reference. */
+    private final MapTilePath mapPath;
+    /** Tiles copy searched by executor. */
+    private final PathGridSnapshot snapshot;
+    /** Executor used to solve requests. */
+    private final Executor executor;
+    /** Delivery budget in nano seconds. */
+    private final long budget;
+    /** Sent or solved requests not delivered yet. */
+    private int pending;
+
+    /**
+     * Create service with {@link #DEFAULT_BUDGET}.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * <p>
+     * The {@link MapTile} must provide the following features:
+     * </p>
+     * <ul>
+     * <li>{@link MapTilePath}</li>
+     * </ul>
+     * 
+     * @param services The services reference (must not be <code>null</code>).
+     * @param executor The executor used to solve requests (must not be <code>null</code>).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public PathRequests(Services services, Executor executor)
+    {
+        this(services, executor, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Create service.
+     * <p>
+     * The {@link Services} must provide the following services:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * </ul>
+     * <p>
+     * The {@link MapTile} must provide the following features:
+     * </p>
+     * <ul>
+     * <li>{@link MapTilePath}</li>
+     * </ul>
+     * 
+     * @param services The services reference (must not be <code>null</code>).
+     * @param executor The executor used to solve requests (must not be <code>null</code>).
+     * @param budget The maximum time spent delivering results per update in milliseconds (must be positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public PathRequests(Services services, Executor executor, double budget)
+    {
+        super();
+
+        Check.notNull(services);
+        Check.notNull(executor);
+        Check.superiorOrEqual(budget, 0.0);
+
+        map = services.get(MapTile.class);
+        mapPath = map.getFeature(MapTilePath.class);
+        snapshot = new PathGridSnapshot(map);
+        map.addListener(snapshot);
+        this.executor = executor;
+        this.budget = (long) (budget * TimeUnit.MILLISECONDS.toNanos(1L));
+    }
+
+    /**
+     * Force a full copy of tiles blocking state on next batch. Must be called after
+     * {@link MapTilePath#loadPathfinding(Media)}.
+     */
+    public void invalidate()
+    {
+        snapshot.invalidate();
+    }
+
+    /**
+     * Get the number of requests not delivered yet.
+     * 
+     * @return The number of queued, sent and solved requests.
+     */
+    public int getPending()
+    {
+        return queued.size() + pending;
+    }
+
+    /**
+     * Queue a path request. Must be called from engine thread. Result is delivered to
+     * {@link PathfindableModel#onPathFound(int, Path)}.
+     * 
+     * @param mover The mover reference.
+     * @param ticket The mover request ticket.
+     * @param stx The start horizontal tile.
+     * @param sty The start vertical tile.
+     * @param dtx The destination horizontal tile.
+     * @param dty The destination vertical tile.
+     * @param ignoreRef <code>true</code> to ignore objects ids, <code>false</code> else.
+     */
+    void request(PathfindableModel mover, int ticket, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        if (mapPath.isBlocked(mover, dtx, dty, false) && UtilMath.getDistance(stx, sty, dtx, dty) <= 1)
+        {
+            fail(mover, ticket, stx, sty, dtx, dty, ignoreRef);
+        }
+        else if (mapPath.isBlocked(mover, dtx, dty, ignoreRef))
+        {
+            final CoordTile tile = mapPath.getClosestAvailableTile(mover, dtx, dty, stx, sty, map.getInTileRadius());
+            if (tile == null)
+            {
+                fail(mover, ticket, stx, sty, dtx, dty, ignoreRef);
+            }
+            else
+            {
+                queue(new PathRequest(mover, ticket, stx, sty, tile.getX(), tile.getY(), ignoreRef));
+            }
+        }
+        else
+        {
+            queue(new PathRequest(mover, ticket, stx, sty, dtx, dty, ignoreRef));
+        }
+    }
+
+    /**
+     * Queue request, or add its mover to an identical queued request.
+     * 
+     * @param request The request to queue.
+     */
+    private void queue(PathRequest request)
+    {
+        final PathRequest existing = queued.get(request);
+        if (existing == null)
+        {
+            queued.put(request, request);
+        }
+        else
+        {
+            request.moveTo(existing);
+        }
+    }
+
+    /**
+     * Deliver a request without path on next update.
+     * 
+     * @param mover The mover reference.
+     * @param ticket The mover request ticket.
+     * @param stx The start horizontal tile.
+     * @param sty The start vertical tile.
+     * @param dtx The destination horizontal tile.
+     * @param dty The destination vertical tile.
+     * @param ignoreRef <code>true</code> to ignore objects ids, <code>false</code> else.
+     */
+    private void fail(PathfindableModel mover, int ticket, int stx, int sty, int dtx, int dty, boolean ignoreRef)
+    {
+        pending++;
+        solved.offer(new PathRequest(mover, ticket, stx, sty, dtx, dty, ignoreRef));
+    }
+
+    /**
+     * Send queued requests to executor, with an updated tiles copy.
+     */
+    private void send()
+    {
+        if (snapshot.refresh())
+        {
+            finders.clear();
+        }
+        for (final PathRequest request : queued.values())
+        {
+            pending++;
+            executor.execute(() -> solve(request));
+        }
+        queued.clear();
+    }
+
+    /**
+     * Solve request with an available finder. Called from executor.
+     * 
+     * @param request The request to solve.
+     */
+    private void solve(PathRequest request)
+    {
+        PathFinderHeap finder = finders.poll();
+        if (finder == null)
+        {
+            final int range = (int) Math.sqrt(snapshot.getInTileWidth() * (double) snapshot.getInTileWidth()
+                                              + snapshot.getInTileHeight() * (double) snapshot.getInTileHeight());
+            finder = new PathFinderHeap(snapshot, range, Astar.createHeuristicClosest());
+        }
+        try
+        {
+            request.solve(finder);
+        }
+        finally
+        {
+            finders.offer(finder);
+            solved.offer(request);
+        }
+    }
+
+    /*
+     * Updatable
+     */
+
+    @Override
+    public void update(double extrp)
+    {
+        final long start = System.nanoTime();
+        PathRequest request = solved.poll();
+        while (request != null)
+        {
+            pending--;
+            request.deliver();
+            if (System.nanoTime() - start < budget)
+            {
+                request = solved.poll();
+            }
+            else
+            {
+                request = null;
+            }
+        }
+        if (pending == 0 && !queued.isEmpty())
+        {
+            send();
+        }
+    }
+
+    /*
+     * ComponentUpdater
+     */
+
+    @Override
+    public void update(double extrp, Handlables featurables)
+    {
+        update(extrp);
+    }
+}
@@ -105,6 +105,11 @@ public interface Pathfindable extends Feature, Tiled, Orientable, Updatable, Ren
 
     /**
      * Assign a specified location. Will move automatically until reach it after this call.
+     * <p>
+     * If path is solved by {@link PathRequests}, it is only requested and <code>false</code> is returned. Listeners
+     * are then notified with {@link PathfindableListener#notifyStartMove()} once path is received, or
+     * {@link PathfindableListener#notifyArrived()} if none.
+     * </p>
      * 
      * @param tx The horizontal location in tile.
      * @param ty The vertical location in tile.
@@ -112,6 +117,17 @@ public interface Pathfindable extends Feature, Tiled, Orientable, Updatable, Ren
      */
     boolean setDestination(int tx, int ty);
 
+    /**
+     * Assign the destination of a flow field, and follow its directions instead of searching a path. Field is
+     * followed until destination is reached, movement is stopped or another destination is assigned. If next step is
+     * used by another object, path is searched as with {@link #setDestination(int, int)}.
+     * 
+     * @param field The flow field to follow (must not be <code>null</code>).
+     * @return <code>true</code> if destination reachable, <code>false</code> else.
+     * @throws LionEngineException If invalid argument.
+     */
+    boolean setDestination(FlowField field);
+
     /**
      * Set specified location in tile.
      * 
@@ -73,6 +73,8 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     private final MapTilePath mapPath;
     /** Pathfinder reference. */
     private final PathFinder pathfinder;
+    /** Path requests reference (<code>null</code> if paths are found synchronously). */
+    private final PathRequests requests;
     /** List of categories. */
     private final Map<String, PathData> categories;
     /** Transformable model. */
@@ -81,6 +83,12 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
     private final OrientableModel orientable;
     /** Last valid path found. */
     private Path path;
+    /** Requested path received, used on next step (<code>null</code> if none or not found). */
+    private Path requested;
+    /** Last request ticket, older results are ignored. */
+    private int ticket;
+    /** Followed flow field (<code>null</code> if none). */
+    private FlowField flow;
     /** Text debug rendering. */
     private Text text;
     /** Current step index on path. */
@@ -134,6 +142,14 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
      * <li>{@link Viewer}</li>
      * </ul>
      * <p>
+     * If {@link Services} provides {@link PathRequests}, paths are requested to it instead of being found during
+     * {@link #setDestination(int, int)} and {@link #update(double)}.
+     * </p>
+     * <p>
+     * If {@link Services} provides a {@link PathFinder}, such as
+     * {@link Astar#createPathFinderHierarchical(MapTile, int, Heuristic, int)}, it is shared instead of creating one.
+     * </p>
+     * <p>
      * If the {@link Featurable} is a {@link PathfindableListener}, it will automatically
      * {@link #addListener(PathfindableListener)} on it.
      * </p>
@@ -156,7 +172,170 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
 
         final int range = (int) Math.sqrt(map.getInTileWidth() * map.getInTileWidth()
                                           + map.getInTileHeight() * (double) map.getInTileHeight());
-        pathfinder = Astar.createPathFinder(map, range, Astar.createHeuristicClosest());
+        pathfinder = services.getOptional(PathFinder.class)
+                             .orElseGet(() -> Astar.createPathFinder(map, range, Astar.createHeuristicClosest()));
+        requests = services.getOptional(PathRequests.class).orElse(null);
+    }
+
+    /**
+     * Get the categories.
+     * 
+     * @return The categories.
+     */
+    Map<String, PathData> getCategories()
+    {
+        return categories;
+    }
+
+    /**
+     * Called by {@link PathRequests} when a requested path has been solved, on engine thread. Result is ignored if
+     * another path has been requested since.
+     * <p>
+     * If moving, path will be used on next step, else it is started immediately.
+     * </p>
+     * 
+     * @param ticket The request ticket.
+     * @param found The path found, <code>null</code> if none.
+     */
+    void onPathFound(int ticket, Path found)
+    {
+        if (ticket != this.ticket)
+        {
+            return;
+        }
+        if (currentStep < getMaxStep())
+        {
+            requested = found;
+            pathFoundChanged = true;
+        }
+        else if (found == null)
+        {
+            onArrived();
+        }
+        else if (found.getX(0) != getInTileX() || found.getY(0) != getInTileY())
+        {
+            requestPath(destX, destY);
+        }
+        else
+        {
+            path = found;
+            currentStep = 0;
+
+            for (int i = 0; i < listenable.size(); i++)
+            {
+                listenable.get(i).notifyStartMove();
+            }
+        }
+    }
+
+    /**
+     * Request path from next step if moving, else from current location. Any previous request result is ignored.
+     * 
+     * @param dtx The tile horizontal destination.
+     * @param dty The tile vertical destination.
+     */
+    private void requestPath(int dtx, int dty)
+    {
+        ticket++;
+        requested = null;
+        pathFoundChanged = false;
+        if (currentStep < getMaxStep())
+        {
+            requests.request(this, ticket, path.getX(currentStep), path.getY(currentStep), dtx, dty, false);
+        }
+        else
+        {
+            requests.request(this, ticket, getInTileX(), getInTileY(), dtx, dty, true);
+        }
+    }
+
+    /**
+     * Connect requested path to current location, as it may have been received after leaving its start. Requested
+     * path is joined from its last step next to current location, else by going back on current path until its start.
+     * 
+     * @param found The requested path.
+     * @return The path from current location, <code>null</code> if unable to join requested path.
+     */
+    private Path connect(Path found)
+    {
+        final int tx = getInTileX();
+        final int ty = getInTileY();
+        for (int i = found.getLength() - 1; i >= 0; i--)
+        {
+            if (Math.abs(found.getX(i) - tx) <= 1 && Math.abs(found.getY(i) - ty) <= 1)
+            {
+                final Path connected = new Path();
+                if (found.getX(i) != tx || found.getY(i) != ty)
+                {
+                    connected.appendStep(tx, ty);
+                }
+                append(connected, found, i);
+                return connected;
+            }
+        }
+        for (int i = currentStep - 1; i >= 0; i--)
+        {
+            if (path.getX(i) == found.getX(0) && path.getY(i) == found.getY(0))
+            {
+                final Path connected = new Path();
+                for (int j = currentStep - 1; j > i; j--)
+                {
+                    connected.appendStep(path.getX(j), path.getY(j));
+                }
+                append(connected, found, 0);
+                return connected;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Append path steps.
+     * 
+     * @param connected The path to complete.
+     * @param found The steps to append.
+     * @param first The first step index to append.
+     */
+    private static void append(Path connected, Path found, int first)
+    {
+        for (int i = first; i < found.getLength(); i++)
+        {
+            connected.appendStep(found.getX(i), found.getY(i));
+        }
+    }
+
+    /**
+     * Find path to destination, by following flow field if destination is the same. Current pathfinder is used if
+     * next step of flow field is used by another object.
+     * 
+     * @param dtx The tile horizontal destination.
+     * @param dty The tile vertical destination.
+     * @param ignoreRef The ignore map array reference checking (<code>true</code> to ignore references).
+     * @return The path found, <code>null</code> if none.
+     */
+    private Path findPath(int dtx, int dty, boolean ignoreRef)
+    {
+        if (flow != null)
+        {
+            final Path found = flow.getPath(getInTileX(), getInTileY());
+            if (found == null || ignoreRef || found.getLength() < 2 || checkObjectId(found.getX(1), found.getY(1)))
+            {
+                return found;
+            }
+        }
+        return pathfinder.findPath(this, dtx, dty, ignoreRef);
+    }
+
+    /**
+     * Stop following flow field if any.
+     */
+    private void releaseFlow()
+    {
+        if (flow != null)
+        {
+            flow.release();
+            flow = null;
+        }
     }
 
     /**
@@ -396,6 +575,14 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
      */
     private void checkPathfinderChanges()
     {
+        if (pathFoundChanged && requested != null)
+        {
+            requested = connect(requested);
+            if (requested == null)
+            {
+                requestPath(destX, destY);
+            }
+        }
         if (pathFoundChanged)
         {
             if (currentStep < getMaxStep())
@@ -406,7 +593,15 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
             {
                 path.clear();
             }
-            path = pathfinder.findPath(this, destX, destY, false);
+            if (requests == null || flow != null)
+            {
+                path = findPath(destX, destY, false);
+            }
+            else
+            {
+                path = requested;
+                requested = null;
+            }
             pathFoundChanged = false;
             currentStep = 0;
             skip = false;
@@ -461,6 +656,7 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         moveX = 0.0;
         moveY = 0.0;
         sharedPathIds.clear();
+        releaseFlow();
         for (int i = 0; i < listenable.size(); i++)
         {
             listenable.get(i).notifyArrived();
@@ -698,14 +894,42 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         return setDestination(tiled.getInTileX(), tiled.getInTileY());
     }
 
+    @Override
+    public boolean setDestination(FlowField field)
+    {
+        Check.notNull(field);
+
+        field.acquire();
+        releaseFlow();
+        flow = field;
+        ticket++;
+        requested = null;
+
+        final boolean found = setDestination(field.getDestinationX(), field.getDestinationY());
+        if (path == null && !pathFoundChanged)
+        {
+            releaseFlow();
+        }
+        return found;
+    }
+
     @Override
     public boolean setDestination(int tx, int ty)
     {
-        if (getInTileX() != tx || getInTileY() != ty)
+        if (flow != null && (flow.getDestinationX() != tx || flow.getDestinationY() != ty))
+        {
+            releaseFlow();
+        }
+        if (requests != null && flow == null && (getInTileX() != tx || getInTileY() != ty))
+        {
+            prepareDestination(tx, ty);
+            requestPath(tx, ty);
+        }
+        else if (getInTileX() != tx || getInTileY() != ty)
         {
             // New first path, when object is not moving
             // CHECKSTYLE IGNORE LINE: InnerAssignment
-            if (path == null && (path = pathfinder.findPath(this, tx, ty, true)) != null)
+            if (path == null && (path = findPath(tx, ty, true)) != null)
             {
                 currentStep = 0;
                 pathFoundChanged = false;
@@ -888,6 +1112,9 @@ public class PathfindableModel extends FeatureModel implements Pathfindable, Rec
         pathFoundChanged = false;
         currentStep = 0;
         path = null;
+        requested = null;
+        ticket++;
+        releaseFlow();
         moveX = 0.0;
         moveY = 0.0;
         sharedPathIds.clear();
@@ -0,0 +1,781 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.persister;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.Constant;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Viewer;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Compact map file, split in square chunks which can be loaded on demand.
+ * <p>
+ * Data are saved this way (big endian):
+ * </p>
+ * 
+ * <pre>
+ * <code>(int)</code> magic number ({@value #MAGIC})
+ * <code>(short)</code> format version ({@value #VERSION})
+ * <code>(int)</code> tile width
+ * <code>(int)</code> tile height
+ * <code>(int)</code> width in tiles
+ * <code>(int)</code> height in tiles
+ * <code>(int)</code> chunk size in tiles
+ * <code>(short)</code> sheets configuration path length in bytes (0 if none)
+ * <code>(byte[])</code> sheets configuration path (UTF-8)
+ * for each chunk, horizontally and then vertically
+ *   <code>(int)</code> data offset from file start (0 if chunk is empty)
+ *   <code>(int)</code> compressed data length
+ *   <code>(int)</code> raw data length
+ * for each non empty chunk, deflate compressed
+ *   <code>(varint)</code> palette size
+ *   for each palette entry
+ *     <code>(varint)</code> sheet
+ *     <code>(varint)</code> number
+ *   for each tile location in chunk, horizontally and then vertically (clipped to map size)
+ *     <code>(varint)</code> palette index + 1 (0 if no tile)
+ * </pre>
+ * <p>
+ * Header and chunks table are read when file is opened, and map is created with its sheets. Chunks are then read
+ * through a {@link FileChannel} only when requested ({@link #loadChunk(int, int)}, {@link #loadViewable(Viewer, int)}
+ * or {@link #loadAll()}), and their tiles are set with {@link MapTile#setTiles(java.util.Collection)}. Media which
+ * are not a file (resources inside a jar) are read at once in memory.
+ * </p>
+ * 
+ * @see MapTilePersister
+ */
+public final class MapTileFile implements Closeable
+{
+    /** File magic number (<code>LMTF</code>). */
+    public static final int MAGIC = 0x4C4D5446;
+    /** Current format version. */
+    public static final int VERSION = 1;
+    /** Default chunk size in tile. */
+    public static final int CHUNK_SIZE = 32;
+    /** Chunk table entry size in bytes. */
+    private static final int ENTRY = 12;
+    /** Fixed header size in bytes (without sheets configuration path). */
+    private static final int HEADER = 28;
+    /** Varint value bits per byte. */
+    private static final int VARINT_BITS = 7;
+    /** Varint value mask. */
+    private static final int VARINT_MASK = 0x7F;
+    /** Varint continue flag. */
+    private static final int VARINT_MORE = 0x80;
+    /** Error format message. */
+    static final String ERROR_FORMAT = "Invalid map file format !";
+    /** Error version message. */
+    static final String ERROR_VERSION = "Unsupported map file version: ";
+    /** Error sheet missing message. */
+    private static final String ERROR_SHEET_MISSING = "Sheet missing: ";
+
+    /**
+     * Save map to file using {@link #CHUNK_SIZE}.
+     * 
+     * @param map The map to save (must not be <code>null</code>).
+     * @param output The output file (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     * @throws IOException If error on writing.
+     */
+    public static void save(MapTile map, Media output) throws IOException
+    {
+        save(map, output, CHUNK_SIZE);
+    }
+
+    /**
+     * Save map to file.
+     * 
+     * @param map The map to save (must not be <code>null</code>).
+     * @param output The output file (must not be <code>null</code>).
+     * @param chunkSize The chunk size in tile (must be strictly positive).
+     * @throws LionEngineException If invalid argument.
+     * @throws IOException If error on writing.
+     */
+    public static void save(MapTile map, Media output, int chunkSize) throws IOException
+    {
+        Check.notNull(map);
+        Check.notNull(output);
+        Check.superiorStrict(chunkSize, 0);
+
+        final byte[] config;
+        if (map.getMedia() != null)
+        {
+            config = map.getMedia().getPath().getBytes(StandardCharsets.UTF_8);
+        }
+        else
+        {
+            config = new byte[0];
+        }
+
+        final int chunksH = getChunks(map.getInTileWidth(), chunkSize);
+        final int chunksV = getChunks(map.getInTileHeight(), chunkSize);
+        final List<byte[]> compressed = new ArrayList<>(chunksH * chunksV);
+        final int[] rawLength = new int[chunksH * chunksV];
+        final Deflater deflater = new Deflater();
+        try
+        {
+            final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+            for (int cy = 0; cy < chunksV; cy++)
+            {
+                for (int cx = 0; cx < chunksH; cx++)
+                {
+                    raw.reset();
+                    if (encodeChunk(map, cx, cy, chunkSize, raw))
+                    {
+                        rawLength[cy * chunksH + cx] = raw.size();
+                        compressed.add(compress(deflater, raw.toByteArray()));
+                    }
+                    else
+                    {
+                        compressed.add(null);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        try (DataOutputStream file = new DataOutputStream(new BufferedOutputStream(output.getOutputStream())))
+        {
+            file.writeInt(MAGIC);
+            file.writeShort(VERSION);
+            file.writeInt(map.getTileWidth());
+            file.writeInt(map.getTileHeight());
+            file.writeInt(map.getInTileWidth());
+            file.writeInt(map.getInTileHeight());
+            file.writeInt(chunkSize);
+            file.writeShort(config.length);
+            file.write(config);
+
+            int offset = HEADER + config.length + compressed.size() * ENTRY;
+            for (int i = 0; i < compressed.size(); i++)
+            {
+                final byte[] data = compressed.get(i);
+                if (data == null)
+                {
+                    file.writeInt(0);
+                    file.writeInt(0);
+                    file.writeInt(0);
+                }
+                else
+                {
+                    file.writeInt(offset);
+                    file.writeInt(data.length);
+                    file.writeInt(rawLength[i]);
+                    offset += data.length;
+                }
+            }
+            for (final byte[] data : compressed)
+            {
+                if (data != null)
+                {
+                    file.write(data);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get chunks number to cover tiles.
+     * 
+     * @param inTile The tiles number.
+     * @param chunkSize The chunk size in tile.
+     * @return The chunks number.
+     */
+    private static int getChunks(int inTile, int chunkSize)
+    {
+        return (inTile + chunkSize - 1) / chunkSize;
+    }
+
+    /**
+     * Encode chunk tiles with their palette.
+     * 
+     * @param map The map reference.
+     * @param cx The horizontal chunk location.
+     * @param cy The vertical chunk location.
+     * @param chunkSize The chunk size in tile.
+     * @param raw The raw data output.
+     * @return <code>true</code> if chunk has at least one tile, <code>false</code> else.
+     */
+    private static boolean encodeChunk(MapTile map, int cx, int cy, int chunkSize, ByteArrayOutputStream raw)
+    {
+        final int sx = cx * chunkSize;
+        final int sy = cy * chunkSize;
+        final int ex = Math.min(sx + chunkSize, map.getInTileWidth());
+        final int ey = Math.min(sy + chunkSize, map.getInTileHeight());
+
+        final Map<Long, Integer> palette = new HashMap<>();
+        final List<Tile> entries = new ArrayList<>();
+        final int[] indexes = new int[(ex - sx) * (ey - sy)];
+        int i = 0;
+        for (int ty = sy; ty < ey; ty++)
+        {
+            for (int tx = sx; tx < ex; tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                if (tile != null)
+                {
+                    final Long key = Long.valueOf((long) tile.getSheet().intValue() << Integer.SIZE
+                                                  | tile.getNumber() & 0xFFFFFFFFL);
+                    Integer index = palette.get(key);
+                    if (index == null)
+                    {
+                        entries.add(tile);
+                        index = Integer.valueOf(entries.size());
+                        palette.put(key, index);
+                    }
+                    indexes[i] = index.intValue();
+                }
+                i++;
+            }
+        }
+        if (entries.isEmpty())
+        {
+            return false;
+        }
+
+        writeVarint(raw, entries.size());
+        for (final Tile tile : entries)
+        {
+            writeVarint(raw, tile.getSheet().intValue());
+            writeVarint(raw, tile.getNumber());
+        }
+        for (final int index : indexes)
+        {
+            writeVarint(raw, index);
+        }
+        return true;
+    }
+
+    /**
+     * Compress data.
+     * 
+     * @param deflater The deflater reference.
+     * @param data The data to compress.
+     * @return The compressed data.
+     */
+    private static byte[] compress(Deflater deflater, byte[] data)
+    {
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 1);
+        final byte[] buffer = new byte[Constant.BYTE_4 * Constant.BYTE_4];
+        while (!deflater.finished())
+        {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Write unsigned variable length integer.
+     * 
+     * @param out The output data.
+     * @param value The value to write.
+     */
+    private static void writeVarint(ByteArrayOutputStream out, int value)
+    {
+        int remaining = value;
+        while ((remaining & ~VARINT_MASK) != 0)
+        {
+            out.write(remaining & VARINT_MASK | VARINT_MORE);
+            remaining >>>= VARINT_BITS;
+        }
+        out.write(remaining);
+    }
+
+    /**
+     * Read whole media in memory.
+     * 
+     * @param input The input media.
+     * @return The media data.
+     * @throws IOException If error on reading.
+     */
+    private static ByteBuffer readAll(Media input) throws IOException
+    {
+        try (InputStream stream = input.getInputStream())
+        {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[Constant.BYTE_4 * Constant.BYTE_4];
+            int read;
+            while ((read = stream.read(buffer)) >= 0)
+            {
+                out.write(buffer, 0, read);
+            }
+            return ByteBuffer.wrap(out.toByteArray());
+        }
+    }
+
+    /** Chunk decompression. */
+    private final Inflater inflater = new Inflater();
+    /** Map reference. */
+    private final MapTile map;
+    /** File channel (<code>null</code> if read in memory). */
+    private final FileChannel channel;
+    /** File data (<code>null</code> if read with channel). */
+    private final ByteBuffer data;
+    /** Chunk size in tile. */
+    private final int chunkSize;
+    /** Horizontal chunks number. */
+    private final int chunksH;
+    /** Vertical chunks number. */
+    private final int chunksV;
+    /** Chunks table. */
+    private final ByteBuffer table;
+    /** Loaded chunks. */
+    private final boolean[] loaded;
+    /** Compressed data buffer. */
+    private byte[] compressed = new byte[0];
+    /** Raw data buffer. */
+    private byte[] raw = new byte[0];
+    /** Raw data size. */
+    private int rawSize;
+    /** Raw data cursor. */
+    private int cursor;
+    /** Palette sheets. */
+    private int[] sheets = new int[0];
+    /** Palette numbers. */
+    private int[] numbers = new int[0];
+
+    /**
+     * Open map file. Map is created and its sheets are loaded, without any tile.
+     * 
+     * @param map The map to load (must not be <code>null</code>).
+     * @param input The input file (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     * @throws IOException If error on reading or invalid format.
+     */
+    public MapTileFile(MapTile map, Media input) throws IOException
+    {
+        super();
+
+        Check.notNull(map);
+        Check.notNull(input);
+
+        this.map = map;
+
+        final File file = input.getFile();
+        if (file.isFile())
+        {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            data = null;
+        }
+        else
+        {
+            channel = null;
+            data = readAll(input);
+        }
+
+        try
+        {
+            final ByteBuffer header = read(0L, HEADER);
+            if (header.getInt() != MAGIC)
+            {
+                throw new IOException(ERROR_FORMAT);
+            }
+            final int version = header.getShort();
+            if (version != VERSION)
+            {
+                throw new IOException(ERROR_VERSION + version);
+            }
+            final int tileWidth = header.getInt();
+            final int tileHeight = header.getInt();
+            final int widthInTile = header.getInt();
+            final int heightInTile = header.getInt();
+            chunkSize = header.getInt();
+            final int configLength = header.getShort();
+            if (chunkSize < 1 || configLength < 0)
+            {
+                throw new IOException(ERROR_FORMAT);
+            }
+
+            map.create(tileWidth, tileHeight, widthInTile, heightInTile);
+            if (configLength > 0)
+            {
+                final ByteBuffer config = read(HEADER, configLength);
+                map.loadSheets(Medias.create(new String(config.array(), 0, configLength, StandardCharsets.UTF_8)));
+            }
+
+            chunksH = getChunks(widthInTile, chunkSize);
+            chunksV = getChunks(heightInTile, chunkSize);
+            table = read((long) HEADER + configLength, chunksH * chunksV * ENTRY);
+            loaded = new boolean[chunksH * chunksV];
+        }
+        catch (final IOException | LionEngineException exception)
+        {
+            close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Load chunk tiles if not already loaded.
+     * 
+     * @param cx The horizontal chunk location.
+     * @param cy The vertical chunk location.
+     * @throws LionEngineException If invalid location.
+     * @throws IOException If error on reading or invalid data.
+     */
+    public void loadChunk(int cx, int cy) throws IOException
+    {
+        Check.superiorOrEqual(cx, 0);
+        Check.superiorOrEqual(cy, 0);
+        Check.inferiorStrict(cx, chunksH);
+        Check.inferiorStrict(cy, chunksV);
+
+        final int index = cy * chunksH + cx;
+        if (loaded[index])
+        {
+            return;
+        }
+
+        final int offset = table.getInt(index * ENTRY);
+        if (offset > 0)
+        {
+            final int compressedLength = table.getInt(index * ENTRY + Integer.BYTES);
+            final int rawLength = table.getInt(index * ENTRY + Integer.BYTES * 2);
+            inflate(offset, compressedLength, rawLength);
+            map.setTiles(decodeChunk(cx, cy));
+        }
+        loaded[index] = true;
+    }
+
+    /**
+     * Load all chunks not already loaded.
+     * 
+     * @throws IOException If error on reading or invalid data.
+     */
+    public void loadAll() throws IOException
+    {
+        for (int cy = 0; cy < chunksV; cy++)
+        {
+            for (int cx = 0; cx < chunksH; cx++)
+            {
+                loadChunk(cx, cy);
+            }
+        }
+    }
+
+    /**
+     * Load chunks not already loaded, which are inside viewer area.
+     * 
+     * @param viewer The viewer reference (must not be <code>null</code>).
+     * @param margin The area margin in tile (must be positive).
+     * @throws LionEngineException If invalid argument.
+     * @throws IOException If error on reading or invalid data.
+     */
+    public void loadViewable(Viewer viewer, int margin) throws IOException
+    {
+        Check.notNull(viewer);
+        Check.superiorOrEqual(margin, 0);
+
+        final int tileWidth = map.getTileWidth();
+        final int tileHeight = map.getTileHeight();
+        final int sx = (int) Math.floor((viewer.getX() + viewer.getViewX()) / tileWidth) - margin;
+        final int sy = (int) Math.floor((viewer.getY() - viewer.getViewY()) / tileHeight) - margin;
+        final int ex = sx + (int) Math.ceil(viewer.getWidth() / (double) tileWidth) + margin * 2;
+        final int ey = sy + (int) Math.ceil(viewer.getHeight() / (double) tileHeight) + margin * 2;
+
+        if (ex < 0 || ey < 0)
+        {
+            return;
+        }
+
+        final int minX = Math.max(0, sx) / chunkSize;
+        final int minY = Math.max(0, sy) / chunkSize;
+        final int maxX = Math.min(chunksH - 1, ex / chunkSize);
+        final int maxY = Math.min(chunksV - 1, ey / chunkSize);
+        for (int cy = minY; cy <= maxY; cy++)
+        {
+            for (int cx = minX; cx <= maxX; cx++)
+            {
+                loadChunk(cx, cy);
+            }
+        }
+    }
+
+    /**
+     * Check if chunk has been loaded.
+     * 
+     * @param cx The horizontal chunk location.
+     * @param cy The vertical chunk location.
+     * @return <code>true</code> if loaded, <code>false</code> else.
+     * @throws LionEngineException If invalid location.
+     */
+    public boolean isLoaded(int cx, int cy)
+    {
+        Check.superiorOrEqual(cx, 0);
+        Check.superiorOrEqual(cy, 0);
+        Check.inferiorStrict(cx, chunksH);
+        Check.inferiorStrict(cy, chunksV);
+
+        return loaded[cy * chunksH + cx];
+    }
+
+    /**
+     * Get the chunk size.
+     * 
+     * @return The chunk size in tile.
+     */
+    public int getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    /**
+     * Get the horizontal chunks number.
+     * 
+     * @return The horizontal chunks number.
+     */
+    public int getChunksHorizontal()
+    {
+        return chunksH;
+    }
+
+    /**
+     * Get the vertical chunks number.
+     * 
+     * @return The vertical chunks number.
+     */
+    public int getChunksVertical()
+    {
+        return chunksV;
+    }
+
+    /**
+     * Read data at position.
+     * 
+     * @param position The position from file start.
+     * @param length The data length.
+     * @return The data read, with backing array.
+     * @throws IOException If error on reading.
+     */
+    private ByteBuffer read(long position, int length) throws IOException
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        read(position, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Read data at position until buffer is full.
+     * 
+     * @param position The position from file start.
+     * @param buffer The buffer to fill.
+     * @throws IOException If error on reading.
+     */
+    private void read(long position, ByteBuffer buffer) throws IOException
+    {
+        if (channel != null)
+        {
+            while (buffer.hasRemaining())
+            {
+                if (channel.read(buffer, position + buffer.position()) < 0)
+                {
+                    throw new EOFException(ERROR_FORMAT);
+                }
+            }
+        }
+        else
+        {
+            if (position + buffer.remaining() > data.limit())
+            {
+                throw new EOFException(ERROR_FORMAT);
+            }
+            final ByteBuffer source = data.duplicate();
+            source.position((int) position);
+            source.limit((int) position + buffer.remaining());
+            buffer.put(source);
+        }
+    }
+
+    /**
+     * Read and decompress chunk data to raw buffer.
+     * 
+     * @param offset The data offset.
+     * @param compressedLength The compressed data length.
+     * @param rawLength The raw data length.
+     * @throws IOException If error on reading or invalid data.
+     */
+    private void inflate(int offset, int compressedLength, int rawLength) throws IOException
+    {
+        if (compressedLength < 0 || rawLength < 0)
+        {
+            throw new IOException(ERROR_FORMAT);
+        }
+        if (compressed.length < compressedLength)
+        {
+            compressed = new byte[compressedLength];
+        }
+        if (raw.length < rawLength)
+        {
+            raw = new byte[rawLength];
+        }
+        read(offset, ByteBuffer.wrap(compressed, 0, compressedLength));
+
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        try
+        {
+            int inflated = 0;
+            while (inflated < rawLength && !inflater.finished())
+            {
+                final int count = inflater.inflate(raw, inflated, rawLength - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    throw new IOException(ERROR_FORMAT);
+                }
+                inflated += count;
+            }
+        }
+        catch (final DataFormatException exception)
+        {
+            throw new IOException(ERROR_FORMAT, exception);
+        }
+        rawSize = rawLength;
+        cursor = 0;
+    }
+
+    /**
+     * Decode chunk tiles from raw buffer.
+     * 
+     * @param cx The horizontal chunk location.
+     * @param cy The vertical chunk location.
+     * @return The chunk tiles.
+     * @throws IOException If invalid data.
+     */
+    private List<Tile> decodeChunk(int cx, int cy) throws IOException
+    {
+        final int paletteSize = readVarint();
+        if (paletteSize < 0 || paletteSize > chunkSize * chunkSize)
+        {
+            throw new IOException(ERROR_FORMAT);
+        }
+        if (sheets.length < paletteSize)
+        {
+            sheets = Arrays.copyOf(sheets, paletteSize);
+            numbers = Arrays.copyOf(numbers, paletteSize);
+        }
+        for (int i = 0; i < paletteSize; i++)
+        {
+            sheets[i] = readVarint();
+            numbers[i] = readVarint();
+            if (sheets[i] > map.getSheetsNumber())
+            {
+                throw new IOException(ERROR_SHEET_MISSING + Constant.DOUBLE_DOT + sheets[i]);
+            }
+        }
+
+        final int sx = cx * chunkSize;
+        final int sy = cy * chunkSize;
+        final int ex = Math.min(sx + chunkSize, map.getInTileWidth());
+        final int ey = Math.min(sy + chunkSize, map.getInTileHeight());
+        final double tileWidth = map.getTileWidth();
+        final double tileHeight = map.getTileHeight();
+        final List<Tile> tiles = new ArrayList<>((ex - sx) * (ey - sy));
+        for (int ty = sy; ty < ey; ty++)
+        {
+            for (int tx = sx; tx < ex; tx++)
+            {
+                final int index = readVarint() - 1;
+                if (index >= paletteSize)
+                {
+                    throw new IOException(ERROR_FORMAT);
+                }
+                if (index > -1)
+                {
+                    tiles.add(map.createTile(Integer.valueOf(sheets[index]),
+                                             numbers[index],
+                                             tx * tileWidth,
+                                             ty * tileHeight));
+                }
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Read unsigned variable length integer from raw buffer.
+     * 
+     * @return The value read.
+     * @throws IOException If invalid data.
+     */
+    private int readVarint() throws IOException
+    {
+        int value = 0;
+        int shift = 0;
+        while (shift < Integer.SIZE)
+        {
+            if (cursor >= rawSize)
+            {
+                throw new EOFException(ERROR_FORMAT);
+            }
+            final int current = raw[cursor++];
+            value |= (current & VARINT_MASK) << shift;
+            if ((current & VARINT_MORE) == 0)
+            {
+                return value;
+            }
+            shift += VARINT_BITS;
+        }
+        throw new IOException(ERROR_FORMAT);
+    }
+
+    /*
+     * Closeable
+     */
+
+    @Override
+    public void close() throws IOException
+    {
+        inflater.end();
+        if (channel != null)
+        {
+            channel.close();
+        }
+    }
+}
@@ -16,15 +16,41 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.persister;
 
+import java.io.IOException;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.game.Persistable;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
 
 /**
  * Handle the map persistence by providing saving and loading functions.
+ * <p>
+ * {@link Persistable} functions use the legacy stream format. Media functions use the compact chunked format of
+ * {@link MapTileFile}, where chunks can be loaded on demand.
+ * </p>
  */
 @FeatureInterface
 public interface MapTilePersister extends Feature, Persistable
 {
-    // Marker
+    /**
+     * Save map to compact chunked format.
+     * 
+     * @param output The output level file (must not be <code>null</code>).
+     * @throws LionEngineException If invalid argument.
+     * @throws IOException If error on writing.
+     */
+    void save(Media output) throws IOException;
+
+    /**
+     * Open map from compact chunked format. Map is created with its sheets, and tiles are then loaded by chunk with
+     * the returned file, which must be closed when no more chunk is needed.
+     * 
+     * @param input The input level file (must not be <code>null</code>).
+     * @return The opened map file.
+     * @throws LionEngineException If invalid argument.
+     * @throws IOException If error on reading or invalid format.
+     */
+    MapTileFile load(Media input) throws IOException;
 }
@@ -17,10 +17,13 @@
 package com.b3dgs.lionengine.game.feature.tile.map.persister;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.b3dgs.lionengine.Check;
 import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.game.feature.FeatureInterface;
 import com.b3dgs.lionengine.game.feature.FeatureModel;
@@ -233,7 +236,7 @@ public class MapTilePersisterModel extends FeatureModel implements MapTilePersis
      *   for each tile in this bloc
      *     create blank tile
      *     call load(file)
-     *     call setTile(...) to update map with this new tile
+     * call setTiles(...) to update map with all loaded tiles
      * </pre>
      * 
      * @param input The input level file.
@@ -251,6 +254,7 @@ public class MapTilePersisterModel extends FeatureModel implements MapTilePersis
         }
 
         final int t = input.readShort();
+        final List<Tile> tiles = new ArrayList<>();
         for (int v = 0; v < t; v++)
         {
             final int n = input.readShort();
@@ -261,8 +265,25 @@ public class MapTilePersisterModel extends FeatureModel implements MapTilePersis
                 {
                     throw new IOException(ERROR_SHEET_MISSING + Constant.DOUBLE_DOT + tile.getSheet());
                 }
-                map.setTile(tile);
+                tiles.add(tile);
             }
         }
+        map.setTiles(tiles);
+    }
+
+    /*
+     * MapTilePersister
+     */
+
+    @Override
+    public void save(Media output) throws IOException
+    {
+        MapTileFile.save(map, output);
+    }
+
+    @Override
+    public MapTileFile load(Media input) throws IOException
+    {
+        return new MapTileFile(map, input);
     }
 }
@@ -44,4 +44,9 @@ public interface MapTileViewer extends Displayable
      * Remove all renderers.
      */
     void clear();
+
+    /**
+     * Render cached tiles again, needed when sheets have changed. Does nothing if tiles rendering is not cached.
+     */
+    void invalidate();
 }
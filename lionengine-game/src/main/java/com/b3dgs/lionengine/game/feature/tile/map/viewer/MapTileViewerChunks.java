@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.viewer;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.Viewer;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileRenderer;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+import com.b3dgs.lionengine.graphic.ColorRgba;
+import com.b3dgs.lionengine.graphic.Graphic;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
+
+/**
+ * Cache of tiles rendering, by square chunks of tiles pre-rendered in an {@link ImageBuffer}, in order to draw one
+ * image per chunk instead of one per tile.
+ * <p>
+ * Chunks are rendered when first viewed, and again when viewed after one of their tiles has been set. One chunk
+ * around the view is also rendered per frame, so scrolling rarely waits for a chunk. Chunks not viewed for
+ * {@link #UNUSED_FRAMES} frames are released.
+ * </p>
+ */
+final class MapTileViewerChunks implements TileSetListener
+{
+    /** Frames after which an unused chunk is released. */
+    static final int UNUSED_FRAMES = 120;
+
+    /** Map reference. */
+    private final MapTile map;
+    /** Cached renderer. */
+    private final MapTileRenderer renderer;
+    /** Chunk size in tile. */
+    private final int size;
+    /** Chunks image, <code>null</code> if not rendered. */
+    private ImageBuffer[] chunks = new ImageBuffer[0];
+    /** Chunks requiring rendering. */
+    private boolean[] dirty = new boolean[0];
+    /** Chunks last viewed frame. */
+    private int[] viewed = new int[0];
+    /** Horizontal chunks. */
+    private int columns;
+    /** Vertical chunks. */
+    private int rows;
+    /** Cached horizontal tiles. */
+    private int width;
+    /** Cached vertical tiles. */
+    private int height;
+    /** Cached tile width. */
+    private int tileWidth;
+    /** Cached tile height. */
+    private int tileHeight;
+    /** Current frame. */
+    private int frame;
+
+    /**
+     * Create cache. Must be registered as map {@link TileSetListener}.
+     * 
+     * @param map The map reference.
+     * @param renderer The cached renderer.
+     * @param size The chunk size in tile.
+     */
+    MapTileViewerChunks(MapTile map, MapTileRenderer renderer, int size)
+    {
+        super();
+
+        this.map = map;
+        this.renderer = renderer;
+        this.size = size;
+    }
+
+    /**
+     * Render viewed chunks.
+     * 
+     * @param g The graphic output.
+     * @param viewer The viewer reference.
+     */
+    void render(Graphic g, Viewer viewer)
+    {
+        update();
+        frame++;
+
+        final int sx = (int) Math.floor((viewer.getX() + viewer.getViewX()) / tileWidth);
+        final int sy = (int) Math.floor((viewer.getY() - viewer.getViewY()) / tileHeight);
+        final int ex = sx + (int) Math.ceil(viewer.getWidth() / (double) tileWidth);
+        final int ey = sy + (int) Math.ceil(viewer.getHeight() / (double) tileHeight);
+        final int minX = Math.max(0, Math.floorDiv(sx, size));
+        final int minY = Math.max(0, Math.floorDiv(sy, size));
+        final int maxX = Math.min(columns - 1, Math.floorDiv(ex, size));
+        final int maxY = Math.min(rows - 1, Math.floorDiv(ey, size));
+
+        final double viewX = viewer.getX();
+        final double viewY = viewer.getY() - viewer.getViewY() + viewer.getScreenHeight() - viewer.getViewY();
+
+        for (int cy = minY; cy <= maxY; cy++)
+        {
+            for (int cx = minX; cx <= maxX; cx++)
+            {
+                final int index = cy * columns + cx;
+                if (dirty[index])
+                {
+                    draw(cx, cy);
+                }
+                viewed[index] = frame;
+
+                final int x = (int) Math.floor(cx * size * (double) tileWidth - viewX);
+                final int y = (int) Math.floor(-(cy + 1) * size * (double) tileHeight + viewY);
+                g.drawImage(chunks[index], x, y);
+            }
+        }
+        prefetch(minX - 1, minY - 1, maxX + 1, maxY + 1);
+        if (frame % UNUSED_FRAMES == 0)
+        {
+            release();
+        }
+    }
+
+    /**
+     * Render all chunks again when viewed.
+     */
+    void invalidate()
+    {
+        Arrays.fill(dirty, true);
+    }
+
+    /**
+     * Release all chunks.
+     */
+    void dispose()
+    {
+        for (int i = 0; i < chunks.length; i++)
+        {
+            if (chunks[i] != null)
+            {
+                chunks[i].dispose();
+                chunks[i] = null;
+            }
+        }
+        Arrays.fill(dirty, true);
+    }
+
+    /**
+     * Reset chunks if map size or tile size changed.
+     */
+    private void update()
+    {
+        if (width != map.getInTileWidth()
+            || height != map.getInTileHeight()
+            || tileWidth != map.getTileWidth()
+            || tileHeight != map.getTileHeight())
+        {
+            dispose();
+            width = map.getInTileWidth();
+            height = map.getInTileHeight();
+            tileWidth = map.getTileWidth();
+            tileHeight = map.getTileHeight();
+            columns = (width + size - 1) / size;
+            rows = (height + size - 1) / size;
+            chunks = new ImageBuffer[columns * rows];
+            dirty = new boolean[chunks.length];
+            viewed = new int[chunks.length];
+            Arrays.fill(dirty, true);
+        }
+    }
+
+    /**
+     * Render one chunk requiring rendering around view.
+     * 
+     * @param minX The first horizontal chunk.
+     * @param minY The first vertical chunk.
+     * @param maxX The last horizontal chunk.
+     * @param maxY The last vertical chunk.
+     */
+    private void prefetch(int minX, int minY, int maxX, int maxY)
+    {
+        for (int cy = Math.max(0, minY); cy <= Math.min(rows - 1, maxY); cy++)
+        {
+            for (int cx = Math.max(0, minX); cx <= Math.min(columns - 1, maxX); cx++)
+            {
+                final int index = cy * columns + cx;
+                if (dirty[index])
+                {
+                    draw(cx, cy);
+                    viewed[index] = frame;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Release chunks not viewed recently.
+     */
+    private void release()
+    {
+        for (int i = 0; i < chunks.length; i++)
+        {
+            if (chunks[i] != null && frame - viewed[i] >= UNUSED_FRAMES)
+            {
+                chunks[i].dispose();
+                chunks[i] = null;
+                dirty[i] = true;
+            }
+        }
+    }
+
+    /**
+     * Render chunk tiles in a new image.
+     * 
+     * @param cx The horizontal chunk.
+     * @param cy The vertical chunk.
+     */
+    private void draw(int cx, int cy)
+    {
+        final int index = cy * columns + cx;
+        if (chunks[index] != null)
+        {
+            chunks[index].dispose();
+        }
+        final ImageBuffer chunk = Graphics.createImageBuffer(size * tileWidth,
+                                                             size * tileHeight,
+                                                             ColorRgba.TRANSPARENT);
+        final Graphic g = chunk.createGraphic();
+        final int tx = cx * size;
+        final int ty = cy * size;
+        for (int y = ty; y < Math.min(ty + size, height); y++)
+        {
+            for (int x = tx; x < Math.min(tx + size, width); x++)
+            {
+                final Tile tile = map.getTile(x, y);
+                if (tile != null)
+                {
+                    renderer.renderTile(g, map, tile, (x - tx) * tileWidth, (ty + size - 1 - y) * tileHeight);
+                }
+            }
+        }
+        g.dispose();
+        chunk.prepare();
+
+        chunks[index] = chunk;
+        dirty[index] = false;
+    }
+
+    /*
+     * TileSetListener
+     */
+
+    @Override
+    public void onTileSet(Tile tile)
+    {
+        if (tileWidth > 0 && tileHeight > 0)
+        {
+            final int index = tile.getInTileY() / size * columns + tile.getInTileX() / size;
+            if (index < dirty.length)
+            {
+                dirty[index] = true;
+            }
+        }
+    }
+}
@@ -41,6 +41,8 @@ public class MapTileViewerModel extends FeatureModel implements MapTileViewer
     private final MapTile map;
     /** Viewer reference. */
     private final Viewer viewer;
+    /** Default renderer chunks cache (<code>null</code> if not cached). */
+    private MapTileViewerChunks chunks;
 
     /**
      * Create feature. It uses default renderer: {@link MapTileRendererModel}.
@@ -67,6 +69,39 @@ public class MapTileViewerModel extends FeatureModel implements MapTileViewer
         renderers.add(new MapTileRendererModel());
     }
 
+    /**
+     * Create feature. It uses default renderer: {@link MapTileRendererModel}, cached by square chunks of tiles
+     * rendered once in an image, drawing one image per chunk instead of one per tile. Chunks are rendered again when
+     * one of their tiles is set, and {@link #invalidate()} must be called if sheets are changed.
+     * <p>
+     * Renderers added with {@link #addRenderer(MapTileRenderer)} are not cached, and rendered per tile over chunks.
+     * </p>
+     * <p>
+     * The {@link Services} must provide:
+     * </p>
+     * <ul>
+     * <li>{@link MapTile}</li>
+     * <li>{@link Viewer}</li>
+     * </ul>
+     * 
+     * @param services The services reference (must not be <code>null</code>).
+     * @param chunk The chunk size in tile (must be strictly positive).
+     * @throws LionEngineException If invalid arguments.
+     */
+    public MapTileViewerModel(Services services, int chunk)
+    {
+        super();
+
+        Check.notNull(services);
+        Check.superiorStrict(chunk, 0);
+
+        map = services.get(MapTile.class);
+        viewer = services.get(Viewer.class);
+
+        chunks = new MapTileViewerChunks(map, new MapTileRendererModel(), chunk);
+        map.addListener(chunks);
+    }
+
     /**
      * Render the tile from location.
      * 
@@ -134,12 +169,31 @@ public class MapTileViewerModel extends FeatureModel implements MapTileViewer
     public void clear()
     {
         renderers.clear();
+        if (chunks != null)
+        {
+            map.removeListener(chunks);
+            chunks.dispose();
+            chunks = null;
+        }
+    }
+
+    @Override
+    public void invalidate()
+    {
+        if (chunks != null)
+        {
+            chunks.invalidate();
+        }
     }
 
     @Override
     public void render(Graphic g)
     {
-        if (map.isCreated())
+        if (map.isCreated() && chunks != null)
+        {
+            chunks.render(g, viewer);
+        }
+        if (map.isCreated() && !renderers.isEmpty())
         {
             final int inTileHeight = (int) Math.ceil(viewer.getHeight() / (double) map.getTileHeight());
             final int sy = (int) Math.floor((viewer.getY() - viewer.getViewY()) / map.getTileHeight());
@@ -18,9 +18,13 @@ package com.b3dgs.lionengine.game.feature;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -181,4 +185,70 @@ public final class ComponentDisplayableTest
 
         assertEquals(1, layerable.getLayerDisplay().intValue());
     }
+
+    /**
+     * Test culling arguments.
+     */
+    @Test
+    public void testCullingArguments()
+    {
+        assertThrows(() -> new ComponentDisplayable(null, 0), "Unexpected null argument !");
+        assertThrows(() -> new ComponentDisplayable(new Camera(), -1), "Invalid argument: -1 is not superior or equal to 0");
+    }
+
+    /**
+     * Test the component with culling.
+     */
+    @Test
+    public void testCulling()
+    {
+        final Camera camera = new Camera();
+        camera.setView(0, 0, 100, 100, 100);
+        final ComponentDisplayable component = new ComponentDisplayable(camera, 10);
+        final List<String> rendered = new ArrayList<>();
+
+        final Featurable near = new FeaturableModel();
+        final Transformable nearTransformable = near.addFeatureAndGet(new TransformableModel());
+        nearTransformable.setSize(4, 4);
+        nearTransformable.teleport(50.0, 50.0);
+        near.addFeature(new DisplayableModel(g -> rendered.add("near")));
+
+        final Featurable far = new FeaturableModel();
+        final Transformable farTransformable = far.addFeatureAndGet(new TransformableModel());
+        farTransformable.setSize(4, 4);
+        farTransformable.teleport(1000.0, 1000.0);
+        far.addFeature(new DisplayableModel(g -> rendered.add("far")));
+
+        final Featurable always = new FeaturableModel();
+        always.addFeature(new DisplayableModel(g -> rendered.add("always")));
+
+        component.notifyHandlableAdded(near);
+        component.notifyHandlableAdded(far);
+        component.notifyHandlableAdded(always);
+        component.render(null, null);
+
+        assertEquals(Arrays.asList("always", "near"), rendered);
+
+        rendered.clear();
+        farTransformable.teleport(105.0, 50.0);
+        nearTransformable.teleport(-50.0, 50.0);
+        component.render(null, null);
+
+        assertEquals(Arrays.asList("always", "far"), rendered);
+
+        rendered.clear();
+        component.notifyLayerChanged(far, null, null, Integer.valueOf(0), Integer.valueOf(1));
+        component.notifyHandlableRemoved(always);
+        component.render(null, null);
+
+        assertEquals(Arrays.asList("far"), rendered);
+
+        rendered.clear();
+        component.notifyLayerChanged(far, null, null, Integer.valueOf(1), Integer.valueOf(0));
+        component.notifyHandlableRemoved(near);
+        component.notifyHandlableRemoved(far);
+        component.render(null, null);
+
+        assertTrue(rendered.isEmpty());
+    }
 }
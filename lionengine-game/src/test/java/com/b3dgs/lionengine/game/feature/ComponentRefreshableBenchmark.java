@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark {@link ComponentRefreshable} refreshing moving featurables, sequentially or in parallel (including
+ * deferred transform notifications).
+ * <p>
+ * Run with {@link #main(String[])} from test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentRefreshableBenchmark
+{
+    /**
+     * Run benchmark.
+     * 
+     * @param args Not used.
+     * @throws RunnerException If error.
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(ComponentRefreshableBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /** Number of featurables. */
+    @Param(
+    {
+        "1000", "10000"
+    }) public int count;
+
+    /** Parallel refresh flag. */
+    @Param(
+    {
+        "false", "true"
+    }) public boolean parallel;
+
+    private final Services services = new Services();
+    private final Handler handler = new Handler(services);
+    private ForkJoinPool pool;
+
+    /**
+     * Prepare featurables.
+     */
+    @Setup(Level.Trial)
+    public void prepare()
+    {
+        final ComponentRefreshable refreshable = new ComponentRefreshable();
+        if (parallel)
+        {
+            pool = new ForkJoinPool();
+            refreshable.setParallel(pool, 256);
+        }
+        handler.addComponent(refreshable);
+        for (int i = 0; i < count; i++)
+        {
+            final Featurable featurable = new FeaturableModel();
+            final Transformable transformable = featurable.addFeatureAndGet(new TransformableModel());
+            transformable.addListener(moved ->
+            {
+                // Notified
+            });
+            final double angle = i;
+            featurable.addFeature(new RefreshableModel(extrp -> transformable.moveLocation(extrp,
+                                                                                          Math.cos(angle),
+                                                                                          Math.sin(angle))));
+            handler.add(featurable);
+        }
+        handler.update(0.0);
+    }
+
+    /**
+     * Terminate pool.
+     */
+    @TearDown(Level.Trial)
+    public void terminate()
+    {
+        if (pool != null)
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Refresh all featurables once.
+     * 
+     * @return The number of featurables.
+     */
+    @Benchmark
+    public int refresh()
+    {
+        handler.update(1.0);
+        return handler.size();
+    }
+}
@@ -18,10 +18,15 @@ package com.b3dgs.lionengine.game.feature;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -99,6 +104,49 @@ public final class ComponentRefreshableTest
         assertEquals(object3.getFeature(Identifiable.class).getId().intValue(), last.get());
     }
 
+    /**
+     * Test the component with parallel refresh by chunks.
+     */
+    @Test
+    public void testParallel()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try
+        {
+            final ComponentRefreshable component = new ComponentRefreshable();
+            component.setParallel(pool, 2);
+            final AtomicInteger refreshed = new AtomicInteger();
+            for (int i = 0; i < 9; i++)
+            {
+                final Featurable featurable = new FeaturableModel();
+                featurable.addFeature(new RefreshableModel(extrp -> refreshed.incrementAndGet()));
+                component.notifyHandlableAdded(featurable);
+            }
+            component.update(1.0, null);
+
+            assertEquals(9, refreshed.get());
+
+            final Featurable featurable = new FeaturableModel();
+            featurable.addFeature(new RefreshableModel(extrp -> refreshed.incrementAndGet()));
+            component.notifyHandlableAdded(featurable);
+            refreshed.set(0);
+            component.update(1.0, null);
+
+            assertEquals(10, refreshed.get());
+
+            component.notifyHandlableRemoved(featurable);
+            refreshed.set(0);
+            component.update(1.0, null);
+
+            assertEquals(9, refreshed.get());
+            assertThrows(() -> component.setParallel(pool, 0), "Invalid argument: 0 is not strictly superior to 0");
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
     /**
      * Test the component with default value.
      */
@@ -181,4 +229,70 @@ public final class ComponentRefreshableTest
 
         assertEquals(1, layerable.getLayerRefresh().intValue());
     }
+
+    /**
+     * Test throttling arguments.
+     */
+    @Test
+    public void testThrottlingArguments()
+    {
+        final Camera camera = new Camera();
+
+        assertThrows(() -> new ComponentRefreshable(null, 0, 1), "Unexpected null argument !");
+        assertThrows(() -> new ComponentRefreshable(camera, -1, 1), "Invalid argument: -1 is not superior or equal to 0");
+        assertThrows(() -> new ComponentRefreshable(camera, 0, 0),
+                     "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test the component with off screen throttling.
+     */
+    @Test
+    public void testThrottling()
+    {
+        final Camera camera = new Camera();
+        camera.setView(0, 0, 100, 100, 100);
+        final ComponentRefreshable component = new ComponentRefreshable(camera, 0, 4);
+
+        final List<Double> far = new ArrayList<>();
+        final Featurable featurableFar = new FeaturableModel();
+        final Transformable transformableFar = featurableFar.addFeatureAndGet(new TransformableModel());
+        transformableFar.teleport(1000.0, 1000.0);
+        featurableFar.addFeature(new RefreshableModel(extrp -> far.add(Double.valueOf(extrp))));
+
+        final List<Double> near = new ArrayList<>();
+        final Featurable featurableNear = new FeaturableModel();
+        final Transformable transformableNear = featurableNear.addFeatureAndGet(new TransformableModel());
+        transformableNear.teleport(50.0, 50.0);
+        featurableNear.addFeature(new RefreshableModel(extrp -> near.add(Double.valueOf(extrp))));
+
+        final AtomicInteger always = new AtomicInteger();
+        final Featurable featurableAlways = new FeaturableModel();
+        featurableAlways.addFeature(new RefreshableModel(extrp -> always.incrementAndGet()));
+
+        component.notifyHandlableAdded(featurableFar);
+        component.notifyHandlableAdded(featurableNear);
+        component.notifyHandlableAdded(featurableAlways);
+
+        for (int i = 0; i < 8; i++)
+        {
+            component.update(1.0, null);
+        }
+
+        assertEquals(Arrays.asList(Double.valueOf(4.0), Double.valueOf(4.0)), far);
+        assertEquals(8, near.size());
+        assertEquals(8, always.get());
+
+        far.clear();
+        transformableFar.teleport(50.0, 50.0);
+        component.update(1.0, null);
+        component.update(1.0, null);
+
+        assertEquals(Arrays.asList(Double.valueOf(1.0), Double.valueOf(1.0)), far);
+
+        component.notifyHandlableRemoved(featurableFar);
+        component.update(1.0, null);
+
+        assertEquals(2, far.size());
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.UtilFolder;
+import com.b3dgs.lionengine.UtilReflection;
+import com.b3dgs.lionengine.Xml;
+import com.b3dgs.lionengine.game.Feature;
+import com.b3dgs.lionengine.game.feature.body.BodyModel;
+import com.b3dgs.lionengine.game.feature.collidable.CollidableModel;
+
+/**
+ * Benchmark {@link Factory#create(Media)} of a projectile like featurable (transformable, mirrorable, layerable, body
+ * and collidable features) without recycling, against the reflective creation steps resolved on each call.
+ * <p>
+ * Run with {@link #main(String[])} from test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactoryBenchmark
+{
+    /**
+     * Run benchmark.
+     * 
+     * @param args Not used.
+     * @throws RunnerException If error.
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(FactoryBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private final Services services = new Services();
+    private final Factory factory = new Factory(services);
+    private File folder;
+    private Media media;
+    private com.b3dgs.lionengine.game.feature.Setup setup;
+
+    /**
+     * Prepare media.
+     * 
+     * @throws IOException If error.
+     */
+    @Setup(Level.Trial)
+    public void prepare() throws IOException
+    {
+        folder = Files.createTempDirectory(FactoryBenchmark.class.getSimpleName()).toFile();
+        Medias.setResourcesDirectory(folder.getPath());
+        services.add(new Camera());
+        services.add(new ComponentDisplayable());
+
+        final Xml root = new Xml("projectile");
+        root.add(FeaturableConfig.exportClass(FeaturableModel.class.getName()));
+        for (final Class<?> feature : new Class<?>[]
+        {
+            TransformableModel.class, MirrorableModel.class, LayerableModel.class, BodyModel.class,
+            CollidableModel.class
+        })
+        {
+            root.createChild(FeaturableConfig.NODE_FEATURE).setText(feature.getName());
+        }
+        media = Medias.create("projectile.xml");
+        root.save(media);
+        setup = factory.getSetup(media);
+    }
+
+    /**
+     * Clean up media.
+     */
+    @TearDown(Level.Trial)
+    public void cleanup()
+    {
+        Medias.setResourcesDirectory(null);
+        UtilFolder.deleteDirectory(folder);
+    }
+
+    /**
+     * Create from factory blueprint.
+     * 
+     * @return The created featurable.
+     */
+    @Benchmark
+    public Featurable blueprint()
+    {
+        return factory.create(media);
+    }
+
+    /**
+     * Create by resolving each step by reflection.
+     * 
+     * @return The created featurable.
+     * @throws NoSuchMethodException If error.
+     */
+    @Benchmark
+    public Featurable reflection() throws NoSuchMethodException
+    {
+        final Featurable featurable = UtilReflection.createReduce(FeaturableModel.class, services, setup);
+        for (final Feature feature : FeaturableConfig.getFeatures(getClass().getClassLoader(), services, setup))
+        {
+            featurable.addFeature(feature);
+        }
+        for (final Feature feature : featurable.getFeatures())
+        {
+            featurable.checkListener(feature);
+            for (final Feature other : featurable.getFeatures())
+            {
+                if (feature != other)
+                {
+                    other.checkListener(feature);
+                }
+            }
+        }
+        return featurable;
+    }
+}
@@ -18,12 +18,15 @@ package com.b3dgs.lionengine.game.feature;
 
 import static com.b3dgs.lionengine.UtilAssert.assertCause;
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertNull;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.AfterAll;
@@ -32,6 +35,8 @@ import org.junit.jupiter.api.Test;
 
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Xml;
+import com.b3dgs.lionengine.game.Feature;
 import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphics;
 
@@ -115,6 +120,47 @@ public final class FactoryTest
         assertTrue(featurable.hasFeature(Mirrorable.class));
     }
 
+    /**
+     * Test the object creation from blueprint, with features injected and listeners checked for each instance.
+     */
+    @Test
+    public void testCreateBlueprint()
+    {
+        final Xml root = new Xml("test");
+        root.add(FeaturableConfig.exportClass(FeaturableModel.class.getName()));
+        root.createChild(FeaturableConfig.NODE_FEATURE).setText(Listened.class.getName());
+        root.createChild(FeaturableConfig.NODE_FEATURE).setText(Injected.class.getName());
+        final Media media = Medias.create("blueprint.xml");
+        root.save(media);
+
+        try
+        {
+            final Featurable featurable1 = factory.create(media);
+            final Featurable featurable2 = factory.create(media);
+
+            assertNotEquals(featurable1, featurable2);
+            for (final Featurable featurable : new Featurable[]
+            {
+                featurable1, featurable2
+            })
+            {
+                final Listened listened = featurable.getFeature(Listened.class);
+                final Injected injected = featurable.getFeature(Injected.class);
+
+                assertEquals(listened, injected.listened);
+                assertEquals(3, listened.checked.size());
+                assertTrue(listened.checked.contains(injected));
+                assertTrue(listened.checked.contains(featurable.getFeature(Identifiable.class)));
+                assertTrue(listened.checked.contains(featurable.getFeature(Recycler.class)));
+            }
+            assertNotEquals(featurable1.getFeature(Listened.class), featurable2.getFeature(Listened.class));
+        }
+        finally
+        {
+            assertTrue(media.getFile().delete());
+        }
+    }
+
     /**
      * Test the object creation with unknown feature.
      */
@@ -200,6 +246,81 @@ public final class FactoryTest
         assertEquals(featurable2, factory.create(media));
     }
 
+    /**
+     * Test removed featurable which cannot be cached has its Id released, cached one keeps it.
+     */
+    @Test
+    public void testRemovedRelease()
+    {
+        final Featurable featurable = new FeaturableModel();
+        final long handle = featurable.getFeature(Identifiable.class).getHandle();
+        factory.notifyHandlableRemoved(featurable);
+
+        assertFalse(IdentifiableModel.isAlive(handle));
+
+        final Featurable cached = factory.create(UtilSetup.createMedia(ObjectWithIdentifiable.class));
+        final long cachedHandle = cached.getFeature(Identifiable.class).getHandle();
+        factory.notifyHandlableRemoved(cached);
+
+        assertTrue(IdentifiableModel.isAlive(cachedHandle));
+    }
+
+    /**
+     * Test the progressive cache warming.
+     */
+    @Test
+    public void testWarm()
+    {
+        final Media media = UtilSetup.createMedia(ObjectWithIdentifiable.class);
+        factory.requestWarm(media, 3);
+
+        assertEquals(2, factory.warm(0L));
+        assertEquals(1, factory.getPool().getSize(media));
+
+        assertEquals(0, factory.warm(Long.MAX_VALUE));
+        assertEquals(3, factory.getPool().getSize(media));
+        assertEquals(0, factory.warm(0L));
+
+        assertNotNull(factory.create(media));
+        assertEquals(2, factory.getPool().getSize(media));
+        assertEquals(1L, factory.getPool().getHits());
+
+        final Media other = Medias.create("object_features.xml");
+        factory.requestWarm(other, 2);
+        factory.requestWarm(media, 3);
+
+        assertEquals(0, factory.warm(Long.MAX_VALUE));
+        assertEquals(2, factory.getPool().getSize(other));
+        assertEquals(3, factory.getPool().getSize(media));
+
+        assertThrows(() -> factory.requestWarm(media, -1), "Invalid argument: -1 is not superior or equal to 0");
+    }
+
+    /**
+     * Test the bounded cache.
+     */
+    @Test
+    public void testPoolBounded()
+    {
+        final Factory factory = new Factory(services, new FeaturablePool(2, 3));
+        final Media media = UtilSetup.createMedia(ObjectWithIdentifiable.class);
+        factory.requestWarm(media, 5);
+
+        assertEquals(0, factory.warm(Long.MAX_VALUE));
+        assertEquals(2, factory.getPool().getSize(media));
+
+        final Featurable featurable = factory.create(media, ObjectWithIdentifiable.class);
+        final Featurable created = factory.create(media, ObjectWithIdentifiable.class);
+        final Featurable extra = factory.create(media, ObjectWithIdentifiable.class);
+        factory.notifyHandlableRemoved(featurable);
+        factory.notifyHandlableRemoved(created);
+        factory.notifyHandlableRemoved(extra);
+
+        assertEquals(2, factory.getPool().getSize(media));
+        assertEquals(1L, factory.getPool().getEvictions());
+        assertEquals(2L, factory.getPool().getHits());
+    }
+
     /**
      * Test with handler notification.
      */
@@ -247,4 +368,48 @@ public final class FactoryTest
         assertEquals(featurable, added.get());
         assertEquals(featurable, removed.get());
     }
+
+    /**
+     * Feature recording listeners checked.
+     */
+    @FeatureInterface
+    static final class Listened extends FeatureModel
+    {
+        /** Checked listeners. */
+        private final List<Object> checked = new ArrayList<>();
+
+        /**
+         * Create feature.
+         */
+        Listened()
+        {
+            super();
+        }
+
+        @Override
+        public void checkListener(Object listener)
+        {
+            super.checkListener(listener);
+
+            checked.add(listener);
+        }
+    }
+
+    /**
+     * Feature with injected feature.
+     */
+    @FeatureInterface
+    static final class Injected extends FeatureModel
+    {
+        /** Injected feature. */
+        private @FeatureGet Listened listened;
+
+        /**
+         * Create feature.
+         */
+        Injected()
+        {
+            super();
+        }
+    }
 }
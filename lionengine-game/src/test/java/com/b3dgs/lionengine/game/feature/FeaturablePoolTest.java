@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+
+/**
+ * Test {@link FeaturablePool}.
+ */
+public final class FeaturablePoolTest
+{
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void setUp()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void cleanUp()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    private final Media media1 = Medias.create("pool1.xml");
+    private final Media media2 = Medias.create("pool2.xml");
+
+    /**
+     * Test the unbounded pool.
+     */
+    @Test
+    public void testUnbounded()
+    {
+        final FeaturablePool pool = new FeaturablePool();
+        final Featurable featurable1 = new FeaturableModel();
+        final Featurable featurable2 = new FeaturableModel();
+
+        assertEquals(FeaturablePool.UNLIMITED, pool.getMaxPerMedia());
+        assertEquals(FeaturablePool.UNLIMITED, pool.getBudget());
+        assertNull(pool.poll(media1));
+        assertEquals(0L, pool.getMisses());
+
+        assertTrue(pool.offer(media1, featurable1));
+        assertTrue(pool.offer(media1, featurable2));
+
+        assertEquals(2, pool.getSize());
+        assertEquals(2, pool.getSize(media1));
+        assertEquals(0, pool.getSize(media2));
+
+        assertEquals(featurable1, pool.poll(media1));
+        assertEquals(featurable2, pool.poll(media1));
+        assertNull(pool.poll(media1));
+
+        assertEquals(0, pool.getSize());
+        assertEquals(2L, pool.getHits());
+        assertEquals(1L, pool.getMisses());
+        assertEquals(2.0 / 3.0, pool.getHitRatio());
+    }
+
+    /**
+     * Test the maximum per media.
+     */
+    @Test
+    public void testMaxPerMedia()
+    {
+        final FeaturablePool pool = new FeaturablePool(1, FeaturablePool.UNLIMITED);
+
+        final Featurable rejected = new FeaturableModel();
+
+        assertTrue(pool.offer(media1, new FeaturableModel()));
+        assertFalse(pool.offer(media1, rejected));
+        assertTrue(pool.offer(media2, new FeaturableModel()));
+
+        assertEquals(2, pool.getSize());
+        assertEquals(1L, pool.getEvictions());
+        assertNull(rejected.getFeature(Identifiable.class).getId());
+    }
+
+    /**
+     * Test the budget eviction of least recently used media.
+     */
+    @Test
+    public void testBudget()
+    {
+        final FeaturablePool pool = new FeaturablePool(FeaturablePool.UNLIMITED, 2);
+        final Featurable featurable1 = new FeaturableModel();
+        final Featurable featurable2 = new FeaturableModel();
+        final Featurable featurable3 = new FeaturableModel();
+
+        assertTrue(pool.offer(media1, featurable1));
+        assertTrue(pool.offer(media2, featurable2));
+        assertTrue(pool.offer(media2, featurable3));
+
+        assertEquals(2, pool.getSize());
+        assertEquals(0, pool.getSize(media1));
+        assertEquals(2, pool.getSize(media2));
+        assertEquals(1L, pool.getEvictions());
+
+        assertTrue(pool.offer(media1, featurable1));
+
+        assertEquals(1, pool.getSize(media1));
+        assertEquals(1, pool.getSize(media2));
+        assertEquals(featurable2, pool.poll(media2));
+        assertEquals(2L, pool.getEvictions());
+    }
+
+    /**
+     * Test clear and counters reset.
+     */
+    @Test
+    public void testClear()
+    {
+        final FeaturablePool pool = new FeaturablePool();
+        pool.offer(media1, new FeaturableModel());
+        pool.poll(media1);
+        pool.poll(media1);
+        pool.offer(media1, new FeaturableModel());
+
+        pool.clear();
+
+        assertEquals(0, pool.getSize());
+        assertNull(pool.poll(media1));
+        assertEquals(1L, pool.getHits());
+        assertEquals(2L, pool.getMisses());
+
+        pool.resetCounters();
+
+        assertEquals(0L, pool.getHits());
+        assertEquals(0L, pool.getMisses());
+        assertEquals(0L, pool.getEvictions());
+        assertEquals(0.0, pool.getHitRatio());
+    }
+
+    /**
+     * Test with invalid arguments.
+     */
+    @Test
+    public void testInvalidArguments()
+    {
+        assertThrows(() -> new FeaturablePool(0, 1), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new FeaturablePool(1, 0), "Invalid argument: 0 is not strictly superior to 0");
+    }
+}
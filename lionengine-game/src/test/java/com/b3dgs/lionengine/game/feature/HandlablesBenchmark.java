@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark {@link HandlablesImpl} with a spawn wave (add all featurables), a typed iteration and a mass death
+ * (remove all featurables).
+ * <p>
+ * Run with {@link #main(String[])} from test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlablesBenchmark
+{
+    /**
+     * Run benchmark.
+     * 
+     * @param args Not used.
+     * @throws RunnerException If error.
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(HandlablesBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /** Number of featurables. */
+    @Param(
+    {
+        "1000", "10000"
+    }) public int count;
+
+    private final List<Featurable> featurables = new ArrayList<>();
+    private final List<Integer> ids = new ArrayList<>();
+
+    /**
+     * Prepare featurables.
+     */
+    @Setup(Level.Trial)
+    public void prepare()
+    {
+        for (int i = 0; i < count; i++)
+        {
+            final Featurable featurable = new FeaturableModel();
+            featurable.addFeature(new MirrorableModel());
+            featurables.add(featurable);
+            ids.add(Handler.getId(featurable.getFeature(Identifiable.class)));
+        }
+    }
+
+    /**
+     * Add all featurables, iterate a type, and remove all featurables.
+     * 
+     * @return The number of iterated features.
+     */
+    @Benchmark
+    public int wave()
+    {
+        final HandlablesImpl handlables = new HandlablesImpl();
+        for (int i = 0; i < count; i++)
+        {
+            handlables.add(featurables.get(i));
+        }
+        int iterated = 0;
+        for (final Mirrorable mirrorable : handlables.get(Mirrorable.class))
+        {
+            if (mirrorable != null)
+            {
+                iterated++;
+            }
+        }
+        for (int i = 0; i < count; i++)
+        {
+            handlables.remove(featurables.get(i), ids.get(i));
+        }
+        return iterated;
+    }
+}
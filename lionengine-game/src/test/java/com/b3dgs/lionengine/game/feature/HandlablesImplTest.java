@@ -22,6 +22,11 @@ import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -121,6 +126,61 @@ public final class HandlablesImplTest
         assertFalse(featurables.get(Mirrorable.class).iterator().hasNext());
     }
 
+    /**
+     * Test members consistency with many additions and removals.
+     */
+    @Test
+    public void testSwapRemove()
+    {
+        final List<Featurable> added = new ArrayList<>();
+        for (int i = 0; i < 20; i++)
+        {
+            final Featurable featurable = new FeaturableModel();
+            featurable.addFeature(new MirrorableModel());
+            featurables.add(featurable);
+            added.add(featurable);
+        }
+        final Set<Object> expected = new HashSet<>();
+        for (int i = 0; i < added.size(); i++)
+        {
+            final Featurable featurable = added.get(i);
+            if (i % 3 == 0)
+            {
+                featurables.remove(featurable, featurable.getFeature(Identifiable.class).getId());
+            }
+            else
+            {
+                expected.add(featurable.getFeature(Mirrorable.class));
+            }
+        }
+        featurables.add(added.get(1));
+
+        final Set<Object> found = new HashSet<>();
+        for (final Mirrorable mirrorable : featurables.get(Mirrorable.class))
+        {
+            assertTrue(found.add(mirrorable));
+        }
+        assertEquals(expected, found);
+        assertEquals(expected.size(), featurables.size());
+
+        int count = 0;
+        for (final Featurable featurable : featurables.get(Featurable.class))
+        {
+            assertTrue(expected.contains(featurable.getFeature(Mirrorable.class)));
+            count++;
+        }
+        assertEquals(expected.size(), count);
+
+        for (final Featurable featurable : added)
+        {
+            featurables.remove(featurable, featurable.getFeature(Identifiable.class).getId());
+        }
+
+        assertFalse(featurables.get(Mirrorable.class).iterator().hasNext());
+        assertFalse(featurables.get(Featurable.class).iterator().hasNext());
+        assertEquals(0, featurables.size());
+    }
+
     /**
      * Test type with complex object manipulation.
      */
@@ -23,6 +23,12 @@ import static com.b3dgs.lionengine.UtilAssert.assertNull;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -30,6 +36,7 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import com.b3dgs.lionengine.UtilReflection;
 import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphics;
 
@@ -148,6 +155,37 @@ public final class HandlerTest
         assertEquals(0, handler.size());
     }
 
+    /**
+     * Test removed featurable which cannot be recycled has its Id released, and gets a new one when added again.
+     */
+    @Test
+    public void testRemoveReleaseId()
+    {
+        final Handler handler = new Handler(new Services());
+        final Featurable featurable = new FeaturableModel();
+        final Identifiable identifiable = featurable.getFeature(Identifiable.class);
+        final long handle = identifiable.getHandle();
+        handler.add(featurable);
+        handler.update(1.0);
+        handler.remove(featurable);
+        handler.update(1.0);
+
+        assertFalse(IdentifiableModel.isAlive(handle));
+        assertNull(identifiable.getId());
+
+        handler.add(featurable);
+        handler.update(1.0);
+
+        assertEquals(1, handler.size());
+        assertTrue(IdentifiableModel.isAlive(identifiable.getHandle()));
+        assertEquals(featurable, handler.get(identifiable.getId()));
+
+        handler.removeAll();
+        handler.update(1.0);
+
+        assertFalse(IdentifiableModel.isAlive(identifiable.getHandle()));
+    }
+
     /**
      * Add a featurable and destroy it.
      */
@@ -260,6 +298,67 @@ public final class HandlerTest
         assertEquals(0, handler.size());
     }
 
+    /**
+     * Run independent updaters in parallel phases.
+     */
+    @Test
+    public void testParallelPhases()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try
+        {
+            final Handler handler = new Handler(new Services(), pool);
+            final List<String> done = Collections.synchronizedList(new ArrayList<>());
+            final Featurable featurable = new FeaturableModel();
+            handler.addComponent(new AccessUpdater(Arrays.asList(Layerable.class),
+                                                   Arrays.asList(Mirrorable.class),
+                                                   () ->
+                                                   {
+                                                       done.add("mirror");
+                                                       handler.remove(featurable);
+                                                   }));
+            handler.addComponent(new AccessUpdater(Collections.emptyList(),
+                                                   Arrays.asList(Transformable.class),
+                                                   () -> done.add("transform")));
+            handler.addComponent((ComponentUpdater) (extrp, featurables) -> done.add("exclusive"));
+            handler.addComponent(new AccessUpdater(Arrays.asList(Mirrorable.class),
+                                                   Collections.emptyList(),
+                                                   () -> done.add("read")));
+            handler.addComponent(new AccessUpdater(Arrays.asList(MirrorableModel.class),
+                                                   Collections.emptyList(),
+                                                   () -> done.add("reread")));
+            handler.addComponent(new AccessUpdater(Collections.emptyList(),
+                                                   Arrays.asList(MirrorableModel.class),
+                                                   () -> done.add("write")));
+            handler.add(featurable);
+            handler.update(1.0);
+
+            final List<ComponentUpdater[]> phases = UtilReflection.getField(handler, "phases");
+
+            assertEquals(4, phases.size());
+            assertEquals(2, phases.get(0).length);
+            assertEquals(1, phases.get(1).length);
+            assertEquals(2, phases.get(2).length);
+            assertEquals(1, phases.get(3).length);
+
+            assertEquals(6, done.size());
+            assertTrue(done.subList(0, 2).containsAll(Arrays.asList("mirror", "transform")));
+            assertEquals("exclusive", done.get(2));
+            assertTrue(done.subList(3, 5).containsAll(Arrays.asList("read", "reread")));
+            assertEquals("write", done.get(5));
+            assertEquals(1, handler.size());
+
+            handler.update(1.0);
+
+            assertEquals(0, handler.size());
+            assertThrows(() -> new Handler(new Services(), null), "Unexpected null argument !");
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
     /**
      * Add renderable component.
      */
@@ -384,4 +483,51 @@ public final class HandlerTest
             remove.set(true);
         }
     }
+
+    /**
+     * Updater with declared access.
+     */
+    private static final class AccessUpdater implements ComponentUpdater, ComponentAccess
+    {
+        /** Read types. */
+        private final Collection<Class<?>> reads;
+        /** Written types. */
+        private final Collection<Class<?>> writes;
+        /** Update action. */
+        private final Runnable action;
+
+        /**
+         * Create updater.
+         * 
+         * @param reads The read types.
+         * @param writes The written types.
+         * @param action The update action.
+         */
+        AccessUpdater(Collection<Class<?>> reads, Collection<Class<?>> writes, Runnable action)
+        {
+            super();
+
+            this.reads = reads;
+            this.writes = writes;
+            this.action = action;
+        }
+
+        @Override
+        public void update(double extrp, Handlables featurables)
+        {
+            action.run();
+        }
+
+        @Override
+        public Collection<Class<?>> getReads()
+        {
+            return reads;
+        }
+
+        @Override
+        public Collection<Class<?>> getWrites()
+        {
+            return writes;
+        }
+    }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link IdAllocator}.
+ */
+public final class IdAllocatorTest
+{
+    /**
+     * Test acquire and release.
+     */
+    @Test
+    public void testAcquireRelease()
+    {
+        final IdAllocator ids = new IdAllocator();
+
+        assertEquals(Integer.MAX_VALUE, ids.getMax());
+        assertEquals(0, ids.acquire());
+        assertEquals(1, ids.acquire());
+        assertEquals(2, ids.acquire());
+        assertEquals(3, ids.getCount());
+
+        ids.release(1);
+        ids.release(0);
+
+        assertEquals(1, ids.getCount());
+        assertEquals(0, ids.acquire());
+        assertEquals(1, ids.acquire());
+        assertEquals(3, ids.acquire());
+
+        assertThrows(() -> ids.release(4), IdAllocator.ERROR_NOT_ACQUIRED + 4);
+        assertThrows(() -> ids.release(-1), IdAllocator.ERROR_NOT_ACQUIRED + -1);
+        assertThrows(() -> ids.release(Integer.MAX_VALUE), IdAllocator.ERROR_NOT_ACQUIRED + Integer.MAX_VALUE);
+
+        ids.release(3);
+
+        assertThrows(() -> ids.release(3), IdAllocator.ERROR_NOT_ACQUIRED + 3);
+        assertThrows(() -> ids.getHandle(3), IdAllocator.ERROR_NOT_ACQUIRED + 3);
+    }
+
+    /**
+     * Test the handle generation.
+     */
+    @Test
+    public void testHandle()
+    {
+        final IdAllocator ids = new IdAllocator();
+        final int id = ids.acquire();
+        final long handle = ids.getHandle(id);
+
+        assertEquals(id, IdAllocator.getId(handle));
+        assertEquals(1, IdAllocator.getGeneration(handle));
+        assertTrue(ids.isAlive(handle));
+
+        ids.release(id);
+
+        assertFalse(ids.isAlive(handle));
+        assertEquals(id, ids.acquire());
+
+        final long reused = ids.getHandle(id);
+
+        assertEquals(3, IdAllocator.getGeneration(reused));
+        assertFalse(ids.isAlive(handle));
+        assertTrue(ids.isAlive(reused));
+        assertFalse(ids.isAlive(-1L));
+        assertFalse(ids.isAlive(Integer.MAX_VALUE));
+    }
+
+    /**
+     * Test the maximum Ids.
+     */
+    @Test
+    public void testMax()
+    {
+        final IdAllocator ids = new IdAllocator(2);
+        ids.acquire();
+        ids.acquire();
+
+        assertThrows(() -> ids.acquire(), IdAllocator.ERROR_FREE_ID);
+
+        ids.release(0);
+
+        assertEquals(0, ids.acquire());
+        assertThrows(() -> new IdAllocator(0), "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test the reset.
+     */
+    @Test
+    public void testReset()
+    {
+        final IdAllocator ids = new IdAllocator();
+        final long handle = ids.getHandle(ids.acquire());
+        ids.acquire();
+        ids.reset();
+
+        assertEquals(0, ids.getCount());
+        assertFalse(ids.isAlive(handle));
+        assertEquals(0, ids.acquire());
+    }
+
+    /**
+     * Test concurrent acquire and release, Ids must be unique.
+     * 
+     * @throws Exception If error.
+     */
+    @Test
+    public void testConcurrent() throws Exception
+    {
+        final IdAllocator ids = new IdAllocator();
+        final int threads = 4;
+        final int count = 5000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            final Collection<Callable<List<Integer>>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++)
+            {
+                tasks.add(() ->
+                {
+                    final List<Integer> kept = new ArrayList<>();
+                    for (int i = 0; i < count; i++)
+                    {
+                        final int id = ids.acquire();
+                        if (i % 2 == 0)
+                        {
+                            ids.release(id);
+                        }
+                        else
+                        {
+                            kept.add(Integer.valueOf(id));
+                        }
+                    }
+                    return kept;
+                });
+            }
+            final BitSet used = new BitSet();
+            for (final Future<List<Integer>> future : executor.invokeAll(tasks))
+            {
+                for (final Integer id : future.get())
+                {
+                    assertFalse(used.get(id.intValue()));
+                    used.set(id.intValue());
+                }
+            }
+
+            assertEquals(threads * count / 2, used.cardinality());
+            assertEquals(threads * count / 2, ids.getCount());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.b3dgs.lionengine.game.feature;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertHashEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertHashNotEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
@@ -25,12 +26,10 @@ import static com.b3dgs.lionengine.UtilAssert.assertNull;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
@@ -49,12 +48,8 @@ public final class IdentifiableModelTest
     @Test
     public void testId() throws ReflectiveOperationException
     {
-        final Collection<Integer> ids = UtilReflection.getField(IdentifiableModel.class, "IDS");
-        ids.clear();
-
-        final Field field = IdentifiableModel.class.getDeclaredField("lastId");
-        UtilReflection.setAccessible(field, true);
-        field.set(IdentifiableModel.class, Integer.valueOf(0));
+        final IdAllocator ids = UtilReflection.getField(IdentifiableModel.class, "IDS");
+        ids.reset();
 
         final Collection<Identifiable> identifiables = new ArrayList<>();
         for (int i = 0; i < 10; i++)
@@ -96,6 +91,47 @@ public final class IdentifiableModelTest
         assertNotNull(identifiable.getId());
     }
 
+    /**
+     * Test the id release and stale handle.
+     * 
+     * @throws ReflectiveOperationException If error.
+     */
+    @Test
+    public void testRelease() throws ReflectiveOperationException
+    {
+        final IdAllocator ids = UtilReflection.getField(IdentifiableModel.class, "IDS");
+        ids.reset();
+
+        final Identifiable identifiable = new IdentifiableModel();
+        final long handle = identifiable.getHandle();
+
+        assertEquals(Integer.valueOf(0), identifiable.getId());
+        assertTrue(IdentifiableModel.isAlive(handle));
+
+        identifiable.release();
+        identifiable.release();
+
+        assertNull(identifiable.getId());
+        assertFalse(IdentifiableModel.isAlive(handle));
+
+        final Identifiable reused = new IdentifiableModel();
+
+        assertEquals(Integer.valueOf(0), reused.getId());
+        assertNotEquals(Long.valueOf(handle), Long.valueOf(reused.getHandle()));
+        assertFalse(IdentifiableModel.isAlive(handle));
+        assertTrue(IdentifiableModel.isAlive(reused.getHandle()));
+
+        final IdentifiableModel recycled = new IdentifiableModel();
+        recycled.release();
+        recycled.recycle();
+
+        assertEquals(Integer.valueOf(1), recycled.getId());
+        assertTrue(IdentifiableModel.isAlive(recycled.getHandle()));
+
+        recycled.release();
+        reused.release();
+    }
+
     /**
      * Test the maximum id.
      * 
@@ -104,16 +140,10 @@ public final class IdentifiableModelTest
     @Test
     public void testMaxId() throws ReflectiveOperationException
     {
-        final HashSet<?> ids = UtilReflection.getField(IdentifiableModel.class, "IDS");
-        final HashMap<?, ?> map = UtilReflection.getField(ids, "map");
-        final Field size = map.getClass().getDeclaredField("size");
-        UtilReflection.setAccessible(size, true);
-        ids.clear();
-        size.setInt(map, Integer.MAX_VALUE);
-
-        final Field lastId = IdentifiableModel.class.getDeclaredField("lastId");
-        UtilReflection.setAccessible(lastId, true);
-        lastId.setInt(lastId, 0);
+        final IdAllocator ids = UtilReflection.getField(IdentifiableModel.class, "IDS");
+        ids.reset();
+        final AtomicInteger next = UtilReflection.getField(ids, "next");
+        next.set(Integer.MAX_VALUE);
 
         try
         {
@@ -121,9 +151,7 @@ public final class IdentifiableModelTest
         }
         finally
         {
-            lastId.setInt(lastId, 0);
-            size.setInt(map, 0);
-            ids.clear();
+            ids.reset();
         }
     }
 
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link IntMap}.
+ */
+public final class IntMapTest
+{
+    /**
+     * Test the map.
+     */
+    @Test
+    public void testMap()
+    {
+        final IntMap<String> map = new IntMap<>();
+
+        assertTrue(map.isEmpty());
+        assertNull(map.put(1, "a"));
+        assertEquals("a", map.put(1, "b"));
+        assertNull(map.put(-5, "c"));
+
+        assertFalse(map.isEmpty());
+        assertEquals(2, map.size());
+        assertEquals("b", map.get(1));
+        assertEquals("c", map.get(-5));
+        assertNull(map.get(2));
+
+        assertEquals("b", map.remove(1));
+        assertNull(map.remove(1));
+        assertEquals(1, map.size());
+        assertEquals(-5, map.keys()[0]);
+
+        final Iterator<String> iterator = map.values().iterator();
+
+        assertEquals("c", iterator.next());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next, null);
+
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertNull(map.get(-5));
+    }
+
+    /**
+     * Test the map against reference with many colliding operations.
+     */
+    @Test
+    public void testReference()
+    {
+        final IntMap<Integer> map = new IntMap<>();
+        final Map<Integer, Integer> reference = new HashMap<>();
+        final Random random = new Random(0L);
+        for (int i = 0; i < 20_000; i++)
+        {
+            final int key = random.nextInt(512) * 64;
+            if (random.nextBoolean())
+            {
+                final Integer value = Integer.valueOf(i);
+                assertEquals(reference.put(Integer.valueOf(key), value), map.put(key, value));
+            }
+            else
+            {
+                assertEquals(reference.remove(Integer.valueOf(key)), map.remove(key));
+            }
+        }
+
+        assertEquals(reference.size(), map.size());
+        for (final Map.Entry<Integer, Integer> entry : reference.entrySet())
+        {
+            assertEquals(entry.getValue(), map.get(entry.getKey().intValue()));
+        }
+        int count = 0;
+        for (final Integer value : map.values())
+        {
+            assertTrue(reference.containsValue(value));
+            count++;
+        }
+        assertEquals(reference.size(), count);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link SpatialIndex}.
+ */
+public final class SpatialIndexTest
+{
+    /**
+     * Test constructor with invalid cell size.
+     */
+    @Test
+    public void testConstructorInvalid()
+    {
+        assertThrows(() -> new SpatialIndex<>(0.0), "Invalid argument: 0.0 is not strictly superior to 0.0");
+    }
+
+    /**
+     * Test index with add, move and remove.
+     */
+    @Test
+    public void testIndex()
+    {
+        final SpatialIndex<String> index = new SpatialIndex<>(16.0);
+        final Transformable transformable = new TransformableModel();
+        transformable.setSize(2, 2);
+        transformable.teleport(8.0, 8.0);
+
+        assertTrue(index.isEmpty());
+
+        index.add(transformable, "a");
+
+        assertEquals(1, index.getCellsNumber());
+
+        transformable.teleport(15.0, 8.0);
+
+        assertEquals(2, index.getCellsNumber());
+
+        transformable.teleport(100.0, 100.0);
+
+        assertEquals(1, index.getCellsNumber());
+
+        index.add(transformable, "b");
+
+        assertEquals(1, index.getCellsNumber());
+
+        index.remove(transformable);
+        transformable.teleport(0.0, 0.0);
+
+        assertTrue(index.isEmpty());
+        assertEquals(0, index.getCellsNumber());
+    }
+
+    /**
+     * Test found elements are the viewable ones, with random moves and camera locations.
+     */
+    @Test
+    public void testFindViewable()
+    {
+        final Random random = new Random(42L);
+        final SpatialIndex<Transformable> index = new SpatialIndex<>(32.0);
+        final List<Transformable> transformables = new ArrayList<>();
+        for (int i = 0; i < 200; i++)
+        {
+            final Transformable transformable = new TransformableModel();
+            transformable.setSize(1 + random.nextInt(64), 1 + random.nextInt(64));
+            transformables.add(transformable);
+            index.add(transformable, transformable);
+        }
+
+        final Camera camera = new Camera();
+        camera.setView(8, 16, 320, 240, 256);
+
+        final Set<Transformable> found = new HashSet<>();
+        final Set<Transformable> expected = new HashSet<>();
+        int viewable = 0;
+        for (int step = 0; step < 20; step++)
+        {
+            for (final Transformable transformable : transformables)
+            {
+                transformable.teleport(random.nextInt(2048) - 512, random.nextInt(2048) - 512);
+            }
+            camera.teleport(random.nextInt(1024) - 256, random.nextInt(1024) - 256);
+
+            final int margin = step % 3 * 16;
+            for (final Transformable transformable : transformables)
+            {
+                if (camera.isViewable(transformable, margin, margin))
+                {
+                    expected.add(transformable);
+                }
+            }
+            index.find(camera, margin, found);
+
+            assertEquals(expected, found);
+
+            viewable += found.size();
+            found.clear();
+            expected.clear();
+        }
+
+        assertTrue(viewable > 0);
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+
+/**
+ * Benchmark {@link BroadPhase} strategies on one frame (move all collidables and find candidates), for different
+ * entities distributions:
+ * <ul>
+ * <li><code>uniform</code>: medium units spread over a large map.</li>
+ * <li><code>crowded</code>: small projectiles packed in a small area.</li>
+ * <li><code>sparse</code>: small units spread over a huge map, with some huge bosses.</li>
+ * <li><code>column</code>: medium units spread over a narrow and tall map (worst case of horizontal sweep).</li>
+ * </ul>
+ * <p>
+ * Run with {@link #main(String[])} from test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadPhaseBenchmark
+{
+    /** Frames used to precompute movements. */
+    private static final int FRAMES = 64;
+
+    /**
+     * Run benchmark.
+     * 
+     * @param args Not used.
+     * @throws RunnerException If error.
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(BroadPhaseBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /** Broad phase strategy. */
+    @Param(
+    {
+        "grid", "sweep", "tree"
+    }) public String strategy;
+    /** Entities distribution. */
+    @Param(
+    {
+        "uniform", "crowded", "sparse", "column"
+    }) public String distribution;
+    /** Number of entities. */
+    @Param(
+    {
+        "2000"
+    }) public int count;
+
+    private final Services services = new Services();
+    private final CollisionCandidates candidates = new CollisionCandidates();
+    private final List<Transformable> transformables = new ArrayList<>();
+    private final List<Collidable> collidables = new ArrayList<>();
+    private BroadPhase broadPhase;
+    private double[] x;
+    private double[] y;
+    private int frame;
+
+    /**
+     * Prepare entities.
+     */
+    @Setup(Level.Trial)
+    public void prepare()
+    {
+        services.add(new Camera());
+        broadPhase = createBroadPhase();
+
+        final Random random = new Random(42L);
+        final double width = getWidth();
+        final double height = getHeight();
+        x = new double[count * FRAMES];
+        y = new double[count * FRAMES];
+        for (int i = 0; i < count; i++)
+        {
+            final Featurable featurable = UtilBroadPhase.create(services, i % 2, (i + 1) % 2, getSize(i));
+            transformables.add(featurable.getFeature(Transformable.class));
+            collidables.add(featurable.getFeature(Collidable.class));
+
+            double cx = random.nextDouble() * width;
+            double cy = random.nextDouble() * height;
+            for (int f = 0; f < FRAMES; f++)
+            {
+                cx += random.nextDouble() * 4.0 - 2.0;
+                cy += random.nextDouble() * 4.0 - 2.0;
+                x[f * count + i] = cx;
+                y[f * count + i] = cy;
+            }
+            UtilBroadPhase.move(broadPhase, featurable, cx, cy);
+        }
+    }
+
+    /**
+     * Move all collidables and find candidates.
+     * 
+     * @return The number of candidates.
+     */
+    @Benchmark
+    public int frame()
+    {
+        final int offset = frame * count;
+        for (int i = 0; i < count; i++)
+        {
+            final Transformable transformable = transformables.get(i);
+            transformable.teleport(x[offset + i], y[offset + i]);
+            broadPhase.move(transformable, collidables.get(i));
+        }
+        frame = (frame + 1) % FRAMES;
+
+        broadPhase.findCandidates(candidates);
+        final int size = candidates.size();
+        candidates.clear();
+        return size;
+    }
+
+    /**
+     * Create broad phase from strategy.
+     * 
+     * @return The broad phase instance.
+     */
+    private BroadPhase createBroadPhase()
+    {
+        if ("sweep".equals(strategy))
+        {
+            return new BroadPhaseSweep();
+        }
+        if ("tree".equals(strategy))
+        {
+            return new BroadPhaseTree(8.0);
+        }
+        return new BroadPhaseGrid(ComponentCollision.REDUCE_FACTOR);
+    }
+
+    /**
+     * Get the map width from distribution.
+     * 
+     * @return The map width.
+     */
+    private double getWidth()
+    {
+        if ("crowded".equals(distribution))
+        {
+            return 512.0;
+        }
+        if ("sparse".equals(distribution))
+        {
+            return 16384.0;
+        }
+        if ("column".equals(distribution))
+        {
+            return 256.0;
+        }
+        return 4096.0;
+    }
+
+    /**
+     * Get the map height from distribution.
+     * 
+     * @return The map height.
+     */
+    private double getHeight()
+    {
+        if ("crowded".equals(distribution))
+        {
+            return 512.0;
+        }
+        if ("sparse".equals(distribution) || "column".equals(distribution))
+        {
+            return 16384.0;
+        }
+        return 4096.0;
+    }
+
+    /**
+     * Get the collision size from distribution.
+     * 
+     * @param index The entity index.
+     * @return The collision size.
+     */
+    private int getSize(int index)
+    {
+        if ("crowded".equals(distribution))
+        {
+            return 4;
+        }
+        if ("sparse".equals(distribution) && index % 10 == 0)
+        {
+            return 1024;
+        }
+        return 16;
+    }
+}
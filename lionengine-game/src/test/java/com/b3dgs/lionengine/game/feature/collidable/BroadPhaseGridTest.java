@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.UtilSetup;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+
+/**
+ * Test {@link BroadPhaseGrid}.
+ */
+public final class BroadPhaseGridTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Graphics.setFactoryGraphic(new FactoryGraphicMock());
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilSetup.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Graphics.setFactoryGraphic(null);
+        Medias.setResourcesDirectory(null);
+    }
+
+    private final Services services = new Services();
+    private final BroadPhaseGrid grid = new BroadPhaseGrid(16.0);
+    private final CollisionCandidates candidates = new CollisionCandidates();
+
+    /**
+     * Create a collidable featurable.
+     * 
+     * @param group The collidable group.
+     * @param accept The accepted group.
+     * @return The created featurable.
+     */
+    private Featurable create(int group, int accept)
+    {
+        services.add(new Camera());
+        final Featurable featurable = CollidableModelTest.createFeaturable(config, services);
+        final Collidable collidable = featurable.getFeature(Collidable.class);
+        collidable.setGroup(Integer.valueOf(group));
+        collidable.addAccept(Integer.valueOf(accept));
+        return featurable;
+    }
+
+    /**
+     * Move featurable and update grid.
+     * 
+     * @param featurable The featurable to move.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     */
+    private void move(Featurable featurable, double x, double y)
+    {
+        final Transformable transformable = featurable.getFeature(Transformable.class);
+        transformable.teleport(x, y);
+        grid.move(transformable, featurable.getFeature(Collidable.class));
+    }
+
+    /**
+     * Test invalid cell size.
+     */
+    @Test
+    public void testInvalidSize()
+    {
+        assertThrows(() -> new BroadPhaseGrid(0.0), "Invalid argument: 0.0 is not strictly superior to 0.0");
+    }
+
+    /**
+     * Test candidates with accepted groups, and moved out.
+     */
+    @Test
+    public void testCandidates()
+    {
+        final Featurable featurable1 = create(1, 0);
+        final Featurable featurable2 = create(0, 2);
+        move(featurable1, 1.0, 1.0);
+        move(featurable2, 2.0, 2.0);
+
+        grid.findCandidates(candidates);
+
+        assertEquals(1, candidates.size());
+        assertEquals(featurable1.getFeature(Collidable.class), candidates.getFirst(0));
+        assertEquals(featurable2.getFeature(Collidable.class), candidates.getSecond(0));
+
+        candidates.clear();
+        move(featurable2, 100.0, 100.0);
+        grid.findCandidates(candidates);
+
+        assertEquals(0, candidates.size());
+        assertEquals(2, grid.getCellsNumber());
+
+        grid.remove(featurable1.getFeature(Collidable.class));
+        grid.remove(featurable2.getFeature(Collidable.class));
+
+        assertEquals(0, grid.getCellsNumber());
+    }
+
+    /**
+     * Test group change moves collidable to its new group cells.
+     */
+    @Test
+    public void testGroupChanged()
+    {
+        final Featurable featurable1 = create(1, 2);
+        final Featurable featurable2 = create(0, 1);
+        move(featurable1, 1.0, 1.0);
+        move(featurable2, 2.0, 2.0);
+
+        grid.findCandidates(candidates);
+
+        assertEquals(1, candidates.size());
+        assertEquals(featurable2.getFeature(Collidable.class), candidates.getFirst(0));
+
+        candidates.clear();
+        featurable2.getFeature(Collidable.class).setGroup(Integer.valueOf(2));
+        move(featurable2, 2.0, 2.0);
+        grid.findCandidates(candidates);
+
+        assertEquals(2, candidates.size());
+    }
+
+    /**
+     * Test many moves keep table consistent.
+     */
+    @Test
+    public void testManyMoves()
+    {
+        final List<Featurable> featurables = new ArrayList<>();
+        for (int i = 0; i < 256; i++)
+        {
+            final Featurable featurable = create(0, 0);
+            featurables.add(featurable);
+            move(featurable, i * 17.0, i * 5.0);
+        }
+        for (int step = 1; step < 8; step++)
+        {
+            for (int i = 0; i < featurables.size(); i++)
+            {
+                move(featurables.get(i), (i * 31.0 + step * 50.0) % 2048.0, (i * 7.0 - step * 40.0) % 2048.0);
+            }
+        }
+
+        for (final Featurable featurable : featurables)
+        {
+            move(featurable, 1.0, 1.0);
+        }
+        grid.findCandidates(candidates);
+
+        assertEquals(featurables.size() * (featurables.size() - 1), candidates.size());
+        assertEquals(1, grid.getCellsNumber());
+
+        for (final Featurable featurable : featurables)
+        {
+            grid.remove(featurable.getFeature(Collidable.class));
+        }
+
+        assertEquals(0, grid.getCellsNumber());
+    }
+}
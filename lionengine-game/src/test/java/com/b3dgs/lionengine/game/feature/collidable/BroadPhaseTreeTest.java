@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.geom.Geom;
+
+/**
+ * Test {@link BroadPhaseTree}.
+ */
+public final class BroadPhaseTreeTest
+{
+    private final Services services = new Services();
+    private final BroadPhaseTree broadPhase = new BroadPhaseTree(8.0);
+    private final CollisionCandidates candidates = new CollisionCandidates();
+
+    /**
+     * Create test.
+     */
+    public BroadPhaseTreeTest()
+    {
+        services.add(new Camera());
+    }
+
+    /**
+     * Test candidates with accepted groups, moved out and removed.
+     */
+    @Test
+    public void testCandidates()
+    {
+        final Featurable featurable1 = UtilBroadPhase.create(services, 1, 0, 4);
+        final Featurable featurable2 = UtilBroadPhase.create(services, 0, 2, 4);
+        UtilBroadPhase.move(broadPhase, featurable1, 1.0, 1.0);
+        UtilBroadPhase.move(broadPhase, featurable2, 2.0, 2.0);
+
+        broadPhase.findCandidates(candidates);
+
+        assertEquals(1, candidates.size());
+        assertEquals(featurable1.getFeature(Collidable.class), candidates.getFirst(0));
+        assertEquals(featurable2.getFeature(Collidable.class), candidates.getSecond(0));
+
+        candidates.clear();
+        UtilBroadPhase.move(broadPhase, featurable2, 100.0, 100.0);
+        UtilBroadPhase.move(broadPhase, featurable2, 100.0, 100.0);
+        broadPhase.findCandidates(candidates);
+
+        assertEquals(0, candidates.size());
+
+        UtilBroadPhase.move(broadPhase, featurable2, 3.0, 3.0);
+        UtilBroadPhase.move(broadPhase, featurable2, 3.0, 3.0);
+        broadPhase.remove(featurable1.getFeature(Collidable.class));
+        broadPhase.findCandidates(candidates);
+
+        assertEquals(0, candidates.size());
+    }
+
+    /**
+     * Test get inside.
+     */
+    @Test
+    public void testInside()
+    {
+        final Featurable featurable1 = UtilBroadPhase.create(services, 1, 0, 4);
+        final Featurable featurable2 = UtilBroadPhase.create(services, 0, 1, 4);
+        UtilBroadPhase.move(broadPhase, featurable1, 20.0, 20.0);
+        UtilBroadPhase.move(broadPhase, featurable2, 30.0, 30.0);
+
+        final Collection<Collidable> inside = new HashSet<>();
+        broadPhase.findInside(Geom.createArea(0, 0, 16, 16), inside);
+
+        assertTrue(inside.isEmpty());
+
+        broadPhase.findInside(Geom.createArea(15, 15, 32, 32), inside);
+
+        assertEquals(2, inside.size());
+    }
+
+    /**
+     * Test candidates against brute force.
+     */
+    @Test
+    public void testBruteForce()
+    {
+        UtilBroadPhase.checkBruteForce(services, broadPhase);
+    }
+
+    /**
+     * Test tree stays balanced with ordered insertions.
+     */
+    @Test
+    public void testBalanced()
+    {
+        for (int i = 0; i < 1024; i++)
+        {
+            UtilBroadPhase.move(broadPhase, UtilBroadPhase.create(services, 0, 0, 4), i * 16.0, 0.0);
+        }
+
+        assertTrue(broadPhase.getHeight() <= 24, String.valueOf(broadPhase.getHeight()));
+    }
+}
@@ -18,8 +18,15 @@ package com.b3dgs.lionengine.game.feature.collidable;
 
 import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -31,9 +38,11 @@ import org.junit.jupiter.api.Test;
 import com.b3dgs.lionengine.Media;
 import com.b3dgs.lionengine.Medias;
 import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.ComponentRefreshable;
 import com.b3dgs.lionengine.game.feature.Featurable;
 import com.b3dgs.lionengine.game.feature.FeaturableModel;
 import com.b3dgs.lionengine.game.feature.Handler;
+import com.b3dgs.lionengine.game.feature.RefreshableModel;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.Setup;
 import com.b3dgs.lionengine.game.feature.Transformable;
@@ -277,4 +286,164 @@ public final class ComponentCollisionTest
         assertTrue(component.getInside(Geom.createArea(0, 0, 16, 16)).isEmpty());
         assertEquals(2, component.getInside(Geom.createArea(15, 15, 32, 32)).size());
     }
+
+    /**
+     * Test parallel narrow phase arguments.
+     */
+    @Test
+    public void testParallelArguments()
+    {
+        final BroadPhase broadPhase = new BroadPhaseSweep();
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        assertThrows(() -> new ComponentCollision(null, pool, 1), "Unexpected null argument !");
+        assertThrows(() -> new ComponentCollision(broadPhase, null, 1), "Unexpected null argument !");
+        assertThrows(() -> new ComponentCollision(broadPhase, pool, 0),
+                     "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test parallel narrow phase notifies the same collisions in the same order as sequential one.
+     */
+    @Test
+    public void testParallelOrder()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            final List<String> sequential = simulate(new ComponentCollision(new BroadPhaseSweep()));
+            final List<String> parallel = simulate(new ComponentCollision(new BroadPhaseSweep(), pool, 4));
+
+            assertTrue(sequential.size() > 100);
+            assertEquals(sequential, parallel);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test collision results when collidables are moved by a parallel refresh are the same as with a serial refresh.
+     */
+    @Test
+    public void testParallelRefresh()
+    {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            final List<String> sequential = simulateRefresh(new ComponentRefreshable());
+            final ComponentRefreshable refreshable = new ComponentRefreshable();
+            refreshable.setParallel(pool, 4);
+            final List<String> parallel = simulateRefresh(refreshable);
+
+            assertTrue(sequential.size() > 100);
+            assertEquals(sequential, parallel);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Simulate collidables moving themselves on refresh and record notifications. Ensure transform listeners are
+     * always notified on the update thread.
+     * 
+     * @param refresher The refresh component to test.
+     * @return The notifications received, in order.
+     */
+    private static List<String> simulateRefresh(ComponentRefreshable refresher)
+    {
+        final Services services = new Services();
+        services.add(new Camera());
+        final Handler handler = new Handler(services);
+        handler.addComponent(refresher);
+        handler.addComponent(new ComponentCollision(new BroadPhaseSweep()));
+
+        final List<String> notified = new ArrayList<>();
+        final Map<Collidable, String> names = new HashMap<>();
+        final Thread thread = Thread.currentThread();
+        final AtomicInteger concurrent = new AtomicInteger();
+        for (int i = 0; i < 100; i++)
+        {
+            final Featurable featurable = UtilBroadPhase.create(services, i % 2, (i + 1) % 2, 4 + i % 16);
+            final String name = String.valueOf(i);
+            final Collidable collidable = featurable.getFeature(Collidable.class);
+            collidable.addListener((other, with, by) -> notified.add(name + " by " + names.get(other)));
+            names.put(collidable, name);
+
+            final TransformableModel transformable = featurable.getFeature(TransformableModel.class);
+            transformable.addListener(moved ->
+            {
+                if (Thread.currentThread() != thread)
+                {
+                    concurrent.incrementAndGet();
+                }
+            });
+            final Random random = new Random(i);
+            transformable.teleport(random.nextInt(128), random.nextInt(128));
+            featurable.addFeature(new RefreshableModel(extrp -> transformable.moveLocation(extrp,
+                                                                                          random.nextInt(9) - 4,
+                                                                                          random.nextInt(9) - 4)));
+            handler.add(featurable);
+            // Added one by one, as adding order depends on identifiers
+            handler.update(0.0);
+        }
+        notified.clear();
+
+        for (int step = 0; step < 10; step++)
+        {
+            handler.update(1.0);
+            notified.add("step");
+        }
+        assertEquals(0, concurrent.get());
+        return notified;
+    }
+
+    /**
+     * Simulate moving collidables and record notifications.
+     * 
+     * @param component The component to test.
+     * @return The notifications received, in order.
+     */
+    private static List<String> simulate(ComponentCollision component)
+    {
+        final Services services = new Services();
+        services.add(new Camera());
+        final Handler handler = new Handler(services);
+        handler.addComponent(component);
+
+        final List<String> notified = new ArrayList<>();
+        final Map<Collidable, String> names = new HashMap<>();
+        final List<Transformable> transformables = new ArrayList<>();
+        final Random random = new Random(42L);
+        for (int i = 0; i < 100; i++)
+        {
+            final Featurable featurable = UtilBroadPhase.create(services, i % 2, (i + 1) % 2, 4 + random.nextInt(16));
+            final String name = String.valueOf(i);
+            final Collidable collidable = featurable.getFeature(Collidable.class);
+            collidable.addListener((other, with, by) -> notified.add(name + " by " + names.get(other)));
+            names.put(collidable, name);
+            transformables.add(featurable.getFeature(Transformable.class));
+            handler.add(featurable);
+            // Added one by one, as adding order depends on identifiers
+            handler.update(1.0);
+        }
+
+        for (final Transformable transformable : transformables)
+        {
+            transformable.teleport(random.nextInt(128), random.nextInt(128));
+        }
+        for (int step = 0; step < 10; step++)
+        {
+            for (final Transformable transformable : transformables)
+            {
+                transformable.moveLocation(1.0, random.nextInt(9) - 4, random.nextInt(9) - 4);
+            }
+            handler.update(1.0);
+            notified.add("step");
+        }
+        return notified;
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.collidable;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import com.b3dgs.lionengine.game.feature.Featurable;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+
+/**
+ * Broad phase test utility.
+ */
+final class UtilBroadPhase
+{
+    /**
+     * Create a collidable featurable.
+     * 
+     * @param services The services reference.
+     * @param group The collidable group.
+     * @param accept The accepted group.
+     * @param size The collision size.
+     * @return The created featurable.
+     */
+    static Featurable create(Services services, int group, int accept, int size)
+    {
+        final Featurable featurable = new FeaturableModel();
+        featurable.addFeature(new TransformableModel());
+        final Collidable collidable = featurable.addFeatureAndGet(new CollidableModel(services));
+        collidable.setGroup(Integer.valueOf(group));
+        collidable.addAccept(Integer.valueOf(accept));
+        collidable.addCollision(new Collision("test", 0, 0, size, size, false));
+        collidable.setEnabled(true);
+        return featurable;
+    }
+
+    /**
+     * Move featurable and update broad phase.
+     * 
+     * @param broadPhase The broad phase reference.
+     * @param featurable The featurable to move.
+     * @param x The horizontal location.
+     * @param y The vertical location.
+     */
+    static void move(BroadPhase broadPhase, Featurable featurable, double x, double y)
+    {
+        final Transformable transformable = featurable.getFeature(Transformable.class);
+        transformable.teleport(x, y);
+        broadPhase.move(transformable, featurable.getFeature(Collidable.class));
+    }
+
+    /**
+     * Get candidates as couples.
+     * 
+     * @param candidates The candidates.
+     * @return The candidates couples.
+     */
+    static Collection<List<Collidable>> toCouples(CollisionCandidates candidates)
+    {
+        final Collection<List<Collidable>> couples = new HashSet<>();
+        for (int i = 0; i < candidates.size(); i++)
+        {
+            couples.add(Arrays.asList(candidates.getFirst(i), candidates.getSecond(i)));
+        }
+        assertEquals(candidates.size(), couples.size());
+        return couples;
+    }
+
+    /**
+     * Check broad phase candidates against brute force bounds intersection, with random moves.
+     * 
+     * @param services The services reference.
+     * @param broadPhase The broad phase to check.
+     */
+    static void checkBruteForce(Services services, BroadPhase broadPhase)
+    {
+        final Random random = new Random(42L);
+        final List<Featurable> featurables = new ArrayList<>();
+        final List<CollidableBounds> bounds = new ArrayList<>();
+        for (int i = 0; i < 200; i++)
+        {
+            final Featurable featurable = create(services, i % 3, (i + 1) % 3, 4 + random.nextInt(32));
+            featurables.add(featurable);
+            bounds.add(new CollidableBounds(featurable.getFeature(Collidable.class), i));
+        }
+
+        final CollisionCandidates candidates = new CollisionCandidates();
+        final CollisionCandidates expected = new CollisionCandidates();
+        for (int step = 0; step < 10; step++)
+        {
+            for (int i = 0; i < featurables.size(); i++)
+            {
+                final Featurable featurable = featurables.get(i);
+                if (step == 5 && i % 4 == 0)
+                {
+                    broadPhase.remove(featurable.getFeature(Collidable.class));
+                }
+                else if (step < 5 || i % 4 != 0)
+                {
+                    move(broadPhase, featurable, random.nextInt(1024), random.nextInt(1024));
+                    bounds.get(i).update(featurable.getFeature(Transformable.class));
+                }
+            }
+
+            for (int i = 0; i < bounds.size(); i++)
+            {
+                for (int j = i + 1; j < bounds.size(); j++)
+                {
+                    if ((step < 5 || i % 4 != 0 && j % 4 != 0) && bounds.get(i).intersects(bounds.get(j)))
+                    {
+                        expected.addAccepted(bounds.get(i).getCollidable(), bounds.get(j).getCollidable());
+                    }
+                }
+            }
+            broadPhase.findCandidates(candidates);
+
+            assertEquals(toCouples(expected), toCouples(candidates));
+
+            candidates.clear();
+            expected.clear();
+        }
+    }
+
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+
+/**
+ * Benchmark {@link MapTileGame} storage against {@link MapTileChunked} storage:
+ * <ul>
+ * <li><code>fill</code>: create map and set all tiles.</li>
+ * <li><code>scan</code>: read all tiles, row by row.</li>
+ * <li><code>viewport</code>: read tiles of a screen sized area at random location.</li>
+ * </ul>
+ * <p>
+ * Run with {@link #main(String[])} from test classpath. Retained heap per storage is printed before benchmark.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapTileBenchmark
+{
+    /** Tile size in pixel. */
+    private static final int TILE = 16;
+    /** Viewport width in tile. */
+    private static final int VIEW_WIDTH = 640 / TILE;
+    /** Viewport height in tile. */
+    private static final int VIEW_HEIGHT = 480 / TILE;
+    /** Precomputed viewport locations. */
+    private static final int VIEWS = 256;
+
+    /**
+     * Run benchmark.
+     * 
+     * @param args Not used.
+     * @throws RunnerException If error.
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        for (final String storage : new String[]
+        {
+            "list", "chunked"
+        })
+        {
+            for (final int size : new int[]
+            {
+                256, 1024
+            })
+            {
+                System.out.println("Requested " + storage + " " + size + ": " + getRetained(storage, size) + " KB");
+            }
+        }
+        new Runner(new OptionsBuilder().include(MapTileBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Get retained heap of a filled map, once all tiles have been requested. Heap after fill is also printed.
+     * 
+     * @param storage The storage type.
+     * @param size The map size in tile.
+     * @return The retained heap in kilo bytes.
+     */
+    private static long getRetained(String storage, int size)
+    {
+        final long before = getUsed();
+        final MapTile map = create(storage);
+        fill(map, size);
+        final long filled = getUsed();
+        for (int ty = 0; ty < size; ty++)
+        {
+            for (int tx = 0; tx < size; tx++)
+            {
+                map.getTile(tx, ty);
+            }
+        }
+        final long requested = getUsed();
+        System.out.println("Filled " + storage + " " + size + " (" + map.getTilesNumber() + " tiles): "
+                           + (filled - before) / 1024L
+                           + " KB");
+
+        return (requested - before) / 1024L;
+    }
+
+    /**
+     * Get used heap after garbage collection.
+     * 
+     * @return The used heap in bytes.
+     */
+    private static long getUsed()
+    {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++)
+        {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Create map from storage type.
+     * 
+     * @param storage The storage type.
+     * @return The map instance.
+     */
+    private static MapTile create(String storage)
+    {
+        if ("chunked".equals(storage))
+        {
+            return new MapTileChunked();
+        }
+        return new MapTileGame();
+    }
+
+    /**
+     * Create and fill map with all tiles.
+     * 
+     * @param map The map reference.
+     * @param size The map size in tile.
+     */
+    private static void fill(MapTile map, int size)
+    {
+        map.create(TILE, TILE, size, size);
+        for (int ty = 0; ty < size; ty++)
+        {
+            for (int tx = 0; tx < size; tx++)
+            {
+                map.setTile(map.createTile(Integer.valueOf(tx % 4), (tx ^ ty) & 0xFF, tx * TILE, ty * TILE));
+            }
+        }
+    }
+
+    /** Storage type. */
+    @Param(
+    {
+        "list", "chunked"
+    }) public String storage;
+    /** Map size in tile. */
+    @Param(
+    {
+        "256", "1024"
+    }) public int size;
+
+    private MapTile map;
+    private int[] views;
+    private int view;
+
+    /**
+     * Prepare map.
+     */
+    @Setup(Level.Trial)
+    public void prepare()
+    {
+        map = create(storage);
+        fill(map, size);
+
+        final Random random = new Random(42L);
+        views = new int[VIEWS * 2];
+        for (int i = 0; i < VIEWS; i++)
+        {
+            views[i * 2] = random.nextInt(size - VIEW_WIDTH);
+            views[i * 2 + 1] = random.nextInt(size - VIEW_HEIGHT);
+        }
+    }
+
+    /**
+     * Create map and set all tiles.
+     * 
+     * @return The number of tiles.
+     */
+    @Benchmark
+    public int fill()
+    {
+        final MapTile filled = create(storage);
+        fill(filled, size);
+        return filled.getTilesNumber();
+    }
+
+    /**
+     * Read all tiles.
+     * 
+     * @return The sum of tiles number.
+     */
+    @Benchmark
+    public int scan()
+    {
+        int sum = 0;
+        for (int ty = 0; ty < size; ty++)
+        {
+            for (int tx = 0; tx < size; tx++)
+            {
+                sum += map.getTile(tx, ty).getNumber();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Read tiles of a viewport.
+     * 
+     * @return The sum of tiles number.
+     */
+    @Benchmark
+    public int viewport()
+    {
+        final int sx = views[view * 2];
+        final int sy = views[view * 2 + 1];
+        view = (view + 1) % VIEWS;
+
+        int sum = 0;
+        for (int ty = sy; ty < sy + VIEW_HEIGHT; ty++)
+        {
+            for (int tx = sx; tx < sx + VIEW_WIDTH; tx++)
+            {
+                final Tile tile = map.getTile(tx, ty);
+                sum += tile.getNumber();
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.TileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.TilePath;
+import com.b3dgs.lionengine.game.feature.tile.map.pathfinding.TilePathModel;
+
+/**
+ * Test {@link MapTileChunked}.
+ */
+public final class MapTileChunkedTest
+{
+    private final MapTileChunked map = new MapTileChunked();
+
+    /**
+     * Test map creation.
+     */
+    @Test
+    public void testCreate()
+    {
+        assertFalse(map.isCreated());
+        assertEquals(0, map.getTilesNumber());
+
+        map.create(16, 32, 40, 70);
+
+        assertTrue(map.isCreated());
+        assertEquals(40, map.getInTileWidth());
+        assertEquals(70, map.getInTileHeight());
+        assertEquals(0, map.getTilesNumber());
+        assertNull(map.getTile(39, 69));
+        assertNull(map.getTile(40, 0));
+        assertNull(map.getTile(0, -1));
+    }
+
+    /**
+     * Test tiles are the same as list storage, with random set across chunks.
+     */
+    @Test
+    public void testSameAsList()
+    {
+        final MapTileGame expected = new MapTileGame();
+        final Random random = new Random(42L);
+        final int width = MapTileStorageChunked.CHUNK_SIZE * 3 + 5;
+        final int height = MapTileStorageChunked.CHUNK_SIZE * 2 + 1;
+
+        map.create(16, 8, width, height);
+        expected.create(16, 8, width, height);
+
+        for (int i = 0; i < 2000; i++)
+        {
+            final int tx = random.nextInt(width);
+            final int ty = random.nextInt(height);
+            final Integer sheet = Integer.valueOf(random.nextInt(4));
+            final int number = random.nextInt(500);
+            map.setTile(map.createTile(sheet, number, tx * 16.0, ty * 8.0));
+            expected.setTile(expected.createTile(sheet, number, tx * 16.0, ty * 8.0));
+
+            if (i % 100 == 0)
+            {
+                map.getTile(tx, ty);
+            }
+        }
+
+        assertEquals(expected.getTilesNumber(), map.getTilesNumber());
+        for (int ty = -1; ty <= height; ty++)
+        {
+            for (int tx = -1; tx <= width; tx++)
+            {
+                assertEquals(expected.getTile(tx, ty), map.getTile(tx, ty));
+            }
+        }
+        assertEquals(expected.getTileAt(100.0, 50.0), map.getTileAt(100.0, 50.0));
+        assertEquals(expected.getNeighbors(expected.getTile(32, 31)), map.getNeighbors(map.getTile(32, 31)));
+    }
+
+    /**
+     * Test requested tile is kept with its features, until replaced.
+     */
+    @Test
+    public void testTileKept()
+    {
+        map.create(1, 1, 64, 64);
+        map.setTile(map.createTile(Integer.valueOf(0), 1, 40.0, 2.0));
+
+        final Tile tile = map.getTile(40, 2);
+        final TilePath path = new TilePathModel("category");
+        tile.addFeature(path);
+
+        assertTrue(tile == map.getTile(40, 2));
+        assertTrue(path == map.getTile(40, 2).getFeature(TilePath.class));
+
+        final Tile replaced = map.createTile(Integer.valueOf(1), 2, 40.0, 2.0);
+        map.setTile(replaced);
+
+        assertTrue(replaced == map.getTile(40, 2));
+        assertEquals(1, map.getTilesNumber());
+    }
+
+    /**
+     * Test set tile is returned as is, with its state.
+     */
+    @Test
+    public void testSetTileKept()
+    {
+        map.create(1, 1, 64, 64);
+        final Tile tile = new TileGame(Integer.valueOf(2), 3, 10.0, 50.0, 1, 1)
+        {
+            @Override
+            public String toString()
+            {
+                return "custom";
+            }
+        };
+        map.setTile(tile);
+
+        assertTrue(tile == map.getTile(10, 50));
+        assertEquals("custom", map.getTile(10, 50).toString());
+        assertEquals(1, map.getTilesNumber());
+    }
+
+    /**
+     * Test set tile with features is returned as is, and plain set tile is created again.
+     */
+    @Test
+    public void testSetTileFeatureKept()
+    {
+        map.create(1, 1, 64, 64);
+        final Tile tile = map.createTile(Integer.valueOf(2), 3, 10.0, 50.0);
+        final TilePath path = new TilePathModel("category");
+        tile.addFeature(path);
+        map.setTile(tile);
+
+        assertTrue(tile == map.getTile(10, 50));
+        assertTrue(path == map.getTile(10, 50).getFeature(TilePath.class));
+
+        final Tile plain = map.createTile(Integer.valueOf(1), 4, 40.0, 40.0);
+        map.setTile(plain);
+
+        assertFalse(plain == map.getTile(40, 40));
+        assertEquals(plain, map.getTile(40, 40));
+        assertTrue(map.getTile(40, 40) == map.getTile(40, 40));
+        assertEquals(2, map.getTilesNumber());
+    }
+
+    /**
+     * Test resize keeps tiles.
+     */
+    @Test
+    public void testResize()
+    {
+        map.create(1, 1, 40, 40);
+        map.setTile(map.createTile(Integer.valueOf(0), 1, 39.0, 39.0));
+        map.setTile(map.createTile(Integer.valueOf(0), 2, 1.0, 0.0));
+
+        map.resize(100, 80);
+
+        assertEquals(100, map.getInTileWidth());
+        assertEquals(80, map.getInTileHeight());
+        assertEquals(1, map.getTile(39, 39).getNumber());
+        assertEquals(2, map.getTile(1, 0).getNumber());
+        assertNull(map.getTile(99, 79));
+
+        map.setTile(map.createTile(Integer.valueOf(0), 3, 99.0, 79.0));
+
+        assertEquals(3, map.getTile(99, 79).getNumber());
+        assertEquals(3, map.getTilesNumber());
+    }
+
+    /**
+     * Test clear.
+     */
+    @Test
+    public void testClear()
+    {
+        map.create(1, 1, 4, 4);
+        map.setTile(map.createTile(Integer.valueOf(0), 1, 1.0, 1.0));
+        map.clear();
+
+        assertTrue(map.isCreated());
+        assertEquals(0, map.getTilesNumber());
+        assertNull(map.getTile(1, 1));
+    }
+
+    /**
+     * Test unsupported sheet.
+     */
+    @Test
+    public void testInvalidSheet()
+    {
+        map.create(1, 1, 4, 4);
+
+        assertThrows(() -> map.setTile(map.createTile(Integer.valueOf(Short.MAX_VALUE), 0, 0.0, 0.0)),
+                     "Invalid argument: 32767 is not strictly inferior to 32767");
+        assertThrows(() -> map.setTile(map.createTile(Integer.valueOf(-1), 0, 0.0, 0.0)),
+                     "Invalid argument: -1 is not superior or equal to 0");
+        assertEquals(0, map.getTilesNumber());
+    }
+}
@@ -29,6 +29,9 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.Test;
@@ -291,4 +294,46 @@ public final class MapTileGameTest
 
         assertNull(set.get());
     }
+
+    /**
+     * Test map tiles set with batched listener.
+     */
+    @Test
+    public void testSetTiles()
+    {
+        map.create(16, 16, 3, 3);
+
+        final AtomicInteger single = new AtomicInteger();
+        final AtomicReference<Collection<Tile>> set = new AtomicReference<>();
+        map.addListener(new TileSetListener()
+        {
+            @Override
+            public void onTileSet(Tile tile)
+            {
+                single.incrementAndGet();
+            }
+
+            @Override
+            public void onTilesSet(Collection<Tile> tiles)
+            {
+                set.set(tiles);
+            }
+        });
+        final AtomicInteger fallback = new AtomicInteger();
+        map.addListener(tile -> fallback.incrementAndGet());
+
+        final List<Tile> tiles = Arrays.asList(map.createTile(Integer.valueOf(0), 1, 0.0, 0.0),
+                                               map.createTile(Integer.valueOf(0), 2, 32.0, 16.0));
+        map.setTiles(tiles);
+
+        assertEquals(tiles.get(0), map.getTile(0, 0));
+        assertEquals(tiles.get(1), map.getTile(2, 1));
+        assertEquals(2, map.getTilesNumber());
+        assertEquals(tiles, set.get());
+        assertEquals(0, single.get());
+        assertEquals(2, fallback.get());
+
+        assertThrows(() -> map.setTiles(Arrays.asList(map.createTile(Integer.valueOf(0), 0, 48.0, 0.0))),
+                     "Invalid argument: 3 is not strictly inferior to 3");
+    }
 }
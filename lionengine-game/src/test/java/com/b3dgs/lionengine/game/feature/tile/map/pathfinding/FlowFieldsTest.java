@@ -0,0 +1,317 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.UtilMath;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link FlowFields} and {@link FlowField}.
+ */
+public final class FlowFieldsTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilPathfinding.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Check path is a valid walk from start to destination, ignoring objects.
+     * 
+     * @param map The map reference.
+     * @param mover The mover reference.
+     * @param path The path to check.
+     * @param stx The horizontal start.
+     * @param sty The vertical start.
+     * @param dtx The horizontal destination.
+     * @param dty The vertical destination.
+     */
+    private static void assertValid(MapTile map, Pathfindable mover, Path path, int stx, int sty, int dtx, int dty)
+    {
+        final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+
+        assertEquals(stx, path.getX(0));
+        assertEquals(sty, path.getY(0));
+        assertEquals(dtx, path.getX(path.getLength() - 1));
+        assertEquals(dty, path.getY(path.getLength() - 1));
+
+        for (int i = 1; i < path.getLength(); i++)
+        {
+            assertTrue(Math.abs(path.getX(i) - path.getX(i - 1)) <= 1);
+            assertTrue(Math.abs(path.getY(i) - path.getY(i - 1)) <= 1);
+            assertFalse(mapPath.isBlocked(mover, path.getX(i), path.getY(i), true));
+        }
+    }
+
+    /**
+     * Set a tree tile.
+     * 
+     * @param map The map reference.
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     */
+    private static void setTree(MapTile map, int tx, int ty)
+    {
+        final Tile tile = map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, tx, ty);
+        tile.addFeature(new TilePathModel(UtilMap.TREE));
+        map.setTile(tile);
+    }
+
+    private final Services services = new Services();
+
+    /**
+     * Create test.
+     */
+    public FlowFieldsTest()
+    {
+        services.add(new Camera());
+    }
+
+    /**
+     * Test with invalid arguments.
+     */
+    @Test
+    public void testInvalid()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 8, 0, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final Pathfindable mover = UtilPathfinding.createMover(services, config, 0, 0);
+
+        assertThrows(() -> new FlowFields(null), "Unexpected null argument !");
+        assertThrows(() -> new FlowFields(services).get(null, 0, 0), "Unexpected null argument !");
+        assertThrows(() -> mover.setDestination((FlowField) null), "Unexpected null argument !");
+    }
+
+    /**
+     * Test field paths are valid and not longer than searched paths.
+     */
+    @Test
+    public void testPath()
+    {
+        final int size = 40;
+        final MapTile map = UtilPathfinding.createMap(services, size, 25, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+        final Pathfindable mover = UtilPathfinding.createMover(services, config, 0, 0);
+        final Transformable transformable = mover.getFeature(Transformable.class);
+        final PathFinder finder = Astar.createPathFinder(map, size * size, new HeuristicClosest());
+        final FlowFields fields = new FlowFields(services);
+
+        final Random random = new Random(7L);
+        int found = 0;
+        for (int d = 0; d < 5; d++)
+        {
+            final int dtx = random.nextInt(size);
+            final int dty = random.nextInt(size);
+            final FlowField field = fields.get(mover, dtx, dty);
+
+            assertEquals(dtx, field.getDestinationX());
+            assertEquals(dty, field.getDestinationY());
+
+            for (int i = 0; i < 50; i++)
+            {
+                final int stx = random.nextInt(size);
+                final int sty = random.nextInt(size);
+                if (mapPath.isBlocked(mover, stx, sty, true) || stx == dtx && sty == dty)
+                {
+                    continue;
+                }
+                transformable.teleport(stx, sty);
+
+                final Path expected = finder.findPath(mover, dtx, dty, true);
+                final Path path = field.getPath(stx, sty);
+
+                assertEquals(expected != null && !mapPath.isBlocked(mover, dtx, dty, true), path != null);
+                assertEquals(path != null, field.isReachable(stx, sty));
+
+                if (path != null)
+                {
+                    assertValid(map, mover, path, stx, sty, dtx, dty);
+                    assertTrue(path.getLength() <= expected.getLength());
+                    found++;
+                }
+            }
+        }
+
+        assertTrue(found > 50);
+        assertNull(fields.get(mover, 0, 0).getPath(-1, 0));
+    }
+
+    /**
+     * Test fields cache and references.
+     */
+    @Test
+    public void testCache()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 20, 0, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final FlowFields fields = new FlowFields(services);
+        final Pathfindable mover = UtilPathfinding.createMover(services, config, 0, 0);
+        final Pathfindable other = UtilPathfinding.createMover(services, config, 1, 0);
+        mover.setSpeed(1.0, 1.0);
+
+        final FlowField field = fields.get(mover, 5, 0);
+
+        assertEquals(field, fields.get(other, 5, 0));
+        assertEquals(1, fields.getCount());
+        assertEquals(0, field.getReferences());
+
+        assertTrue(mover.setDestination(field));
+        assertEquals(1, field.getReferences());
+
+        final FlowField next = fields.get(mover, 6, 0);
+
+        assertNotEquals(field, next);
+        assertEquals(2, fields.getCount());
+
+        for (int i = 0; i < 50; i++)
+        {
+            mover.update(1.0);
+        }
+
+        assertTrue(mover.isDestinationReached());
+        assertEquals(5, mover.getInTileX());
+        assertEquals(0, field.getReferences());
+
+        fields.get(mover, 7, 0);
+
+        assertEquals(1, fields.getCount());
+    }
+
+    /**
+     * Test field is computed again when a tile is set.
+     */
+    @Test
+    public void testTileSet()
+    {
+        final int size = 20;
+        final MapTile map = UtilPathfinding.createMap(services, size, 0, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final FlowFields fields = services.add(new FlowFields(services));
+        final Pathfindable mover = UtilPathfinding.createMover(services, config, 0, 0);
+        final FlowField field = fields.get(mover, size - 1, 0);
+
+        assertEquals(size, field.getPath(0, 0).getLength());
+
+        for (int ty = 0; ty < size - 1; ty++)
+        {
+            setTree(map, 10, ty);
+        }
+        final Path path = field.getPath(0, 0);
+
+        assertNotNull(path);
+        assertValid(map, mover, path, 0, 0, size - 1, 0);
+        assertTrue(path.getLength() > size);
+
+        setTree(map, 10, size - 1);
+
+        assertFalse(field.isReachable(0, 0));
+        assertNull(field.getPath(0, 0));
+    }
+
+    /**
+     * Test movers following the same field.
+     */
+    @Test
+    public void testFollow()
+    {
+        final int size = 30;
+        final MapTile map = UtilPathfinding.createMap(services, size, 10, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+        final FlowFields fields = new FlowFields(services);
+
+        final Random random = new Random(42L);
+        final List<Pathfindable> movers = new ArrayList<>();
+        FlowField field = null;
+        while (movers.size() < 20)
+        {
+            final int tx = random.nextInt(size);
+            final int ty = random.nextInt(size);
+            final Pathfindable mover = UtilPathfinding.createMover(services, config, tx, ty);
+            mover.setSpeed(1.0, 1.0);
+            if (field == null)
+            {
+                field = fields.get(mover, size / 2, size / 2);
+            }
+            if (!mapPath.isBlocked(mover, tx, ty, false) && field.isReachable(tx, ty))
+            {
+                mover.setDestination(field);
+                movers.add(mover);
+            }
+        }
+
+        boolean arrived = false;
+        for (int i = 0; i < size * 20 && !arrived; i++)
+        {
+            arrived = true;
+            for (final Pathfindable mover : movers)
+            {
+                mover.update(1.0);
+                arrived = arrived && mover.isDestinationReached();
+            }
+        }
+
+        assertTrue(arrived);
+        assertEquals(0, field.getReferences());
+        for (final Pathfindable mover : movers)
+        {
+            assertTrue(UtilMath.getDistance(mover.getInTileX(), mover.getInTileY(), size / 2, size / 2) < 5);
+        }
+    }
+}
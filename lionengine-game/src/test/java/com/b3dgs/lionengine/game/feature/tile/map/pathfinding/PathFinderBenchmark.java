@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+
+/**
+ * Benchmark {@link PathFinder} implementations on maps with 20% of randomly placed trees:
+ * <ul>
+ * <li><code>tree</code>: {@link PathFinderImpl}, sorted set open list and hash set closed list.</li>
+ * <li><code>heap</code>: {@link PathFinderHeap}, flat arrays and indexed binary heap.</li>
+ * <li><code>hierarchical</code>: {@link PathFinderHierarchical}, clusters of {@value #CLUSTER} tiles, computed during
+ * warmup.</li>
+ * <li><code>flow</code>: {@link FlowField}, computed once per order and followed by each unit.</li>
+ * </ul>
+ * <p>
+ * Each invocation finds paths of {@value #UNITS} units to one destination, as a group order does. Run with
+ * {@link #main(String[])} from test classpath, and add <code>-prof gc</code> to compare allocations.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PathFinderBenchmark
+{
+    /** Units per order. */
+    private static final int UNITS = 100;
+    /** Precomputed orders. */
+    private static final int ORDERS = 16;
+    /** Units group radius in tile. */
+    private static final int GROUP = 8;
+    /** Hierarchical cluster size in tile. */
+    private static final int CLUSTER = 16;
+
+    /**
+     * Run benchmark.
+     * 
+     * @param args Not used.
+     * @throws RunnerException If error.
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(PathFinderBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /** Path finder implementation. */
+    @Param(
+    {
+        "tree", "heap", "hierarchical", "flow"
+    }) public String finder;
+    /** Map size in tile. */
+    @Param(
+    {
+        "256", "1024"
+    }) public int size;
+
+    private final Services services = new Services();
+    private Media config;
+    private PathFinder pathFinder;
+    private FlowFields flowFields;
+    private Pathfindable mover;
+    private Transformable transformable;
+    private int[] starts;
+    private int[] destinations;
+    private int order;
+
+    /**
+     * Prepare map and orders.
+     */
+    @Setup(Level.Trial)
+    public void prepare()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilPathfinding.createConfig();
+        services.add(new Camera());
+
+        final MapTile map = UtilPathfinding.createMap(services, size, 20, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+        final int range = (int) Math.sqrt(size * size * 2.0);
+        if ("tree".equals(finder))
+        {
+            pathFinder = new PathFinderImpl(map, range, new HeuristicClosest());
+        }
+        else if ("flow".equals(finder))
+        {
+            flowFields = new FlowFields(services);
+        }
+        else if ("hierarchical".equals(finder))
+        {
+            pathFinder = new PathFinderHierarchical(map, range, new HeuristicClosest(), CLUSTER);
+        }
+        else
+        {
+            pathFinder = new PathFinderHeap(map, range, new HeuristicClosest());
+        }
+        mover = UtilPathfinding.createMover(services, config, 0, 0);
+        transformable = mover.getFeature(Transformable.class);
+
+        final Random random = new Random(42L);
+        starts = new int[ORDERS * UNITS * 2];
+        destinations = new int[ORDERS * 2];
+        for (int o = 0; o < ORDERS; o++)
+        {
+            final int cx = GROUP + random.nextInt(size - GROUP * 2);
+            final int cy = GROUP + random.nextInt(size - GROUP * 2);
+            for (int u = 0; u < UNITS; u++)
+            {
+                int tx;
+                int ty;
+                do
+                {
+                    tx = cx + random.nextInt(GROUP * 2) - GROUP;
+                    ty = cy + random.nextInt(GROUP * 2) - GROUP;
+                }
+                while (mapPath.isBlocked(mover, tx, ty, true));
+                starts[(o * UNITS + u) * 2] = tx;
+                starts[(o * UNITS + u) * 2 + 1] = ty;
+            }
+            int tx;
+            int ty;
+            do
+            {
+                tx = random.nextInt(size);
+                ty = random.nextInt(size);
+            }
+            while (mapPath.isBlocked(mover, tx, ty, true));
+            destinations[o * 2] = tx;
+            destinations[o * 2 + 1] = ty;
+        }
+    }
+
+    /**
+     * Clean up.
+     */
+    @TearDown(Level.Trial)
+    public void cleanup()
+    {
+        config.getFile().delete();
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Find paths of all units of one order.
+     * 
+     * @return The total path length.
+     */
+    @Benchmark
+    public int order()
+    {
+        final int dtx = destinations[order * 2];
+        final int dty = destinations[order * 2 + 1];
+        final FlowField field;
+        if (flowFields != null)
+        {
+            field = flowFields.get(mover, dtx, dty);
+        }
+        else
+        {
+            field = null;
+        }
+        int length = 0;
+        for (int u = 0; u < UNITS; u++)
+        {
+            final int index = (order * UNITS + u) * 2;
+            transformable.teleport(starts[index], starts[index + 1]);
+            final Path path;
+            if (field != null)
+            {
+                path = field.getPath(starts[index], starts[index + 1]);
+            }
+            else
+            {
+                path = pathFinder.findPath(mover, dtx, dty, true);
+            }
+            if (path != null)
+            {
+                length += path.getLength();
+            }
+        }
+        order = (order + 1) % ORDERS;
+        return length;
+    }
+}
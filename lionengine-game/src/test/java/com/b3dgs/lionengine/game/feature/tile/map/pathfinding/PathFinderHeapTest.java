@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathFinderHeap}.
+ */
+public final class PathFinderHeapTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilPathfinding.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Check path is a valid walk from start to destination.
+     * 
+     * @param map The map reference.
+     * @param mover The mover reference.
+     * @param path The path to check.
+     * @param dtx The horizontal destination.
+     * @param dty The vertical destination.
+     */
+    private static void assertValid(MapTile map, Pathfindable mover, Path path, int dtx, int dty)
+    {
+        final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+
+        assertEquals(mover.getInTileX(), path.getX(0));
+        assertEquals(mover.getInTileY(), path.getY(0));
+        assertEquals(dtx, path.getX(path.getLength() - 1));
+        assertEquals(dty, path.getY(path.getLength() - 1));
+
+        for (int i = 1; i < path.getLength(); i++)
+        {
+            assertTrue(Math.abs(path.getX(i) - path.getX(i - 1)) <= 1);
+            assertTrue(Math.abs(path.getY(i) - path.getY(i - 1)) <= 1);
+            assertFalse(mapPath.isBlocked(mover, path.getX(i), path.getY(i), false));
+        }
+    }
+
+    private final Services services = new Services();
+
+    /**
+     * Create test.
+     */
+    public PathFinderHeapTest()
+    {
+        services.add(new Camera());
+    }
+
+    /**
+     * Test paths are valid and found when reference implementation finds them, with searches reusing the same arrays.
+     */
+    @Test
+    public void testFindPath()
+    {
+        final int size = 40;
+        final MapTile map = UtilPathfinding.createMap(services, size, 25, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final Pathfindable mover = UtilPathfinding.createMover(services, config, 0, 0);
+        final Transformable transformable = mover.getFeature(Transformable.class);
+        final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+
+        final PathFinder reference = new PathFinderImpl(map, size * 2, new HeuristicClosest());
+        final PathFinder finder = Astar.createPathFinder(map, size * 2, new HeuristicClosest());
+
+        assertTrue(finder instanceof PathFinderHeap);
+
+        final Random random = new Random(7L);
+        int found = 0;
+        for (int i = 0; i < 200; i++)
+        {
+            final int stx = random.nextInt(size);
+            final int sty = random.nextInt(size);
+            final int dtx = random.nextInt(size);
+            final int dty = random.nextInt(size);
+            if (mapPath.isBlocked(mover, stx, sty, false) || mapPath.isBlocked(mover, dtx, dty, false))
+            {
+                continue;
+            }
+            transformable.teleport(stx, sty);
+
+            final Path expected = reference.findPath(mover, dtx, dty, false);
+            final Path path = finder.findPath(mover, dtx, dty, false);
+            if (expected != null)
+            {
+                assertNotNull(path);
+            }
+            if (path != null)
+            {
+                assertValid(map, mover, path, dtx, dty);
+                found++;
+            }
+        }
+
+        assertTrue(found > 50);
+    }
+
+    /**
+     * Test unreachable destination and same location.
+     */
+    @Test
+    public void testNoPath()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 10, 0, 42L);
+        for (int tx = 5; tx < 8; tx++)
+        {
+            for (int ty = 5; ty < 8; ty++)
+            {
+                if (tx != 6 || ty != 6)
+                {
+                    map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, tx, ty));
+                }
+            }
+        }
+        UtilPathfinding.loadPathfinding(map);
+
+        final Pathfindable mover = UtilPathfinding.createMover(services, config, 1, 1);
+        final PathFinder finder = Astar.createPathFinder(map, 100, new HeuristicClosest());
+
+        assertNull(finder.findPath(mover, 6, 6, false));
+        assertNull(finder.findPath(mover, 1, 1, false));
+
+        final Path path = finder.findPath(mover, 9, 9, false);
+
+        assertNotNull(path);
+        assertValid(map, mover, path, 9, 9);
+    }
+
+    /**
+     * Test search depth limit.
+     */
+    @Test
+    public void testMaxDepth()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 20, 0, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final Pathfindable mover = UtilPathfinding.createMover(services, config, 0, 0);
+
+        assertNull(Astar.createPathFinder(map, 5, new HeuristicClosest()).findPath(mover, 19, 0, false));
+        assertEquals(20, Astar.createPathFinder(map, 30, new HeuristicClosest()).findPath(mover, 19, 0, false)
+                               .getLength());
+    }
+
+    /**
+     * Test search after map recreation with another size.
+     */
+    @Test
+    public void testMapResize()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 8, 0, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final Pathfindable mover = UtilPathfinding.createMover(services, config, 0, 0);
+        final PathFinder finder = Astar.createPathFinder(map, 100, new HeuristicClosest());
+
+        assertEquals(8, finder.findPath(mover, 7, 7, false).getLength());
+
+        map.create(1, 1, 12, 10);
+        for (int tx = 0; tx < 12; tx++)
+        {
+            for (int ty = 0; ty < 10; ty++)
+            {
+                map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_GROUND, tx, ty));
+            }
+        }
+        UtilPathfinding.loadPathfinding(map);
+
+        final Path path = finder.findPath(mover, 11, 3, false);
+
+        assertEquals(12, path.getLength());
+        assertValid(map, mover, path, 11, 3);
+    }
+}
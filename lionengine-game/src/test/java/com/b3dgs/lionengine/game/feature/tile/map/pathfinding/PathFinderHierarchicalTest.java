@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathFinderHierarchical}.
+ */
+public final class PathFinderHierarchicalTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilPathfinding.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Check path is a valid walk from start to destination.
+     * 
+     * @param map The map reference.
+     * @param mover The mover reference.
+     * @param path The path to check.
+     * @param dtx The horizontal destination.
+     * @param dty The vertical destination.
+     */
+    private static void assertValid(MapTile map, Pathfindable mover, Path path, int dtx, int dty)
+    {
+        final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+
+        assertEquals(mover.getInTileX(), path.getX(0));
+        assertEquals(mover.getInTileY(), path.getY(0));
+        assertEquals(dtx, path.getX(path.getLength() - 1));
+        assertEquals(dty, path.getY(path.getLength() - 1));
+
+        for (int i = 1; i < path.getLength(); i++)
+        {
+            assertTrue(Math.abs(path.getX(i) - path.getX(i - 1)) <= 1);
+            assertTrue(Math.abs(path.getY(i) - path.getY(i - 1)) <= 1);
+            assertFalse(mapPath.isBlocked(mover, path.getX(i), path.getY(i), false));
+        }
+    }
+
+    /**
+     * Set a tree tile.
+     * 
+     * @param map The map reference.
+     * @param tx The horizontal tile.
+     * @param ty The vertical tile.
+     */
+    private static void setTree(MapTile map, int tx, int ty)
+    {
+        final Tile tile = map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, tx, ty);
+        tile.addFeature(new TilePathModel(UtilMap.TREE));
+        map.setTile(tile);
+    }
+
+    private final Services services = new Services();
+
+    /**
+     * Create test.
+     */
+    public PathFinderHierarchicalTest()
+    {
+        services.add(new Camera());
+    }
+
+    /**
+     * Test invalid cluster size.
+     */
+    @Test
+    public void testInvalidCluster()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 8, 0, 42L);
+        UtilPathfinding.loadPathfinding(map);
+
+        assertThrows(() -> Astar.createPathFinderHierarchical(map, 10, new HeuristicClosest(), 1),
+                     "Invalid argument: 1 is not strictly superior to 1");
+    }
+
+    /**
+     * Test paths are valid, found when complete search finds them, and close to optimal.
+     */
+    @Test
+    public void testFindPath()
+    {
+        final int size = 64;
+        final MapTile map = UtilPathfinding.createMap(services, size, 25, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final Pathfindable mover = UtilPathfinding.createMover(services, config, 0, 0);
+        final Transformable transformable = mover.getFeature(Transformable.class);
+        final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+
+        final PathFinder reference = Astar.createPathFinder(map, size * size, new HeuristicClosest());
+        final PathFinder finder = Astar.createPathFinderHierarchical(map, size * size, new HeuristicClosest(), 8);
+
+        final Random random = new Random(7L);
+        int found = 0;
+        int expectedLength = 0;
+        int length = 0;
+        for (int i = 0; i < 200; i++)
+        {
+            final int stx = random.nextInt(size);
+            final int sty = random.nextInt(size);
+            final int dtx = random.nextInt(size);
+            final int dty = random.nextInt(size);
+            if (mapPath.isBlocked(mover, stx, sty, false) || mapPath.isBlocked(mover, dtx, dty, false))
+            {
+                continue;
+            }
+            transformable.teleport(stx, sty);
+
+            final Path expected = reference.findPath(mover, dtx, dty, false);
+            final Path path = finder.findPath(mover, dtx, dty, false);
+
+            assertEquals(expected == null, path == null);
+
+            if (path != null)
+            {
+                assertValid(map, mover, path, dtx, dty);
+                expectedLength += expected.getLength();
+                length += path.getLength();
+                found++;
+            }
+        }
+
+        assertTrue(found > 50);
+        assertTrue(length < expectedLength * 1.2, length + " " + expectedLength);
+    }
+
+    /**
+     * Test long path beyond direct search depth.
+     */
+    @Test
+    public void testLongPath()
+    {
+        final int size = 100;
+        final MapTile map = UtilPathfinding.createMap(services, size, 10, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final Pathfindable mover = UtilPathfinding.createMover(services, config, 0, 0);
+        final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+        final int dtx = size - 1;
+        final int dty = size - 1;
+
+        assertFalse(mapPath.isBlocked(mover, dtx, dty, false));
+        assertNull(Astar.createPathFinder(map, 20, new HeuristicClosest()).findPath(mover, dtx, dty, false));
+
+        final Path path = Astar.createPathFinderHierarchical(map, 20, new HeuristicClosest(), 10)
+                               .findPath(mover, dtx, dty, false);
+
+        assertNotNull(path);
+        assertValid(map, mover, path, dtx, dty);
+    }
+
+    /**
+     * Test clusters are updated when tiles are set.
+     */
+    @Test
+    public void testTileSet()
+    {
+        final int size = 40;
+        final MapTile map = UtilPathfinding.createMap(services, size, 0, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final Pathfindable mover = UtilPathfinding.createMover(services, config, 0, 0);
+        final PathFinder finder = Astar.createPathFinderHierarchical(map, 100, new HeuristicClosest(), 8);
+
+        assertEquals(size, finder.findPath(mover, size - 1, 0, false).getLength());
+
+        for (int ty = 0; ty < size; ty++)
+        {
+            if (ty != 30)
+            {
+                setTree(map, 20, ty);
+            }
+        }
+
+        final Path path = finder.findPath(mover, size - 1, 0, false);
+
+        assertNotNull(path);
+        assertValid(map, mover, path, size - 1, 0);
+
+        boolean gap = false;
+        for (int i = 0; i < path.getLength(); i++)
+        {
+            gap |= path.getX(i) == 20 && path.getY(i) == 30;
+        }
+        assertTrue(gap);
+
+        setTree(map, 20, 30);
+
+        assertNull(finder.findPath(mover, size - 1, 0, false));
+    }
+}
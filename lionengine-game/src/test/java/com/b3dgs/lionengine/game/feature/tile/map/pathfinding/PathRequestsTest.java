@@ -0,0 +1,380 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Test {@link PathRequests}.
+ */
+public final class PathRequestsTest
+{
+    /** Test configuration. */
+    private static Media config;
+
+    /**
+     * Prepare test.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+        config = UtilPathfinding.createConfig();
+    }
+
+    /**
+     * Clean up test.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        assertTrue(config.getFile().delete());
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Update requests and movers until all movers have arrived.
+     * 
+     * @param requests The requests reference.
+     * @param movers The movers reference.
+     */
+    private static void updateUntilArrived(PathRequests requests, List<Pathfindable> movers)
+    {
+        final long end = System.currentTimeMillis() + 5000L;
+        boolean arrived = false;
+        while (!arrived)
+        {
+            assertTrue(System.currentTimeMillis() < end);
+            requests.update(1.0);
+            arrived = requests.getPending() == 0;
+            for (final Pathfindable mover : movers)
+            {
+                mover.update(1.0);
+                arrived = arrived && mover.isDestinationReached();
+            }
+        }
+    }
+
+    /**
+     * Create a mover counting notifications.
+     * 
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @param started The started counter.
+     * @param arrived The arrived counter.
+     * @return The created mover.
+     */
+    private Pathfindable createMover(int tx, int ty, AtomicInteger started, AtomicInteger arrived)
+    {
+        final Pathfindable mover = UtilPathfinding.createMover(services, config, tx, ty);
+        mover.setSpeed(1.0, 1.0);
+        mover.addListener(new PathfindableListenerVoid()
+        {
+            @Override
+            public void notifyStartMove()
+            {
+                started.incrementAndGet();
+            }
+
+            @Override
+            public void notifyArrived()
+            {
+                arrived.incrementAndGet();
+            }
+        });
+        return mover;
+    }
+
+    private final Services services = new Services();
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger arrived = new AtomicInteger();
+
+    /**
+     * Create test.
+     */
+    public PathRequestsTest()
+    {
+        services.add(new Camera());
+    }
+
+    /**
+     * Test with invalid arguments.
+     */
+    @Test
+    public void testInvalidArguments()
+    {
+        assertThrows(() -> new PathRequests(null, Runnable::run), "Unexpected null argument !");
+        assertThrows(() -> new PathRequests(services, null), "Unexpected null argument !");
+        assertThrows(() -> new PathRequests(services, Runnable::run, -1.0),
+                     "Invalid argument: -1.0 is not superior or equal to 0.0");
+    }
+
+    /**
+     * Test path is requested, then received on next updates.
+     */
+    @Test
+    public void testRequest()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 10, 0, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final PathRequests requests = services.add(new PathRequests(services, Runnable::run));
+        final Pathfindable mover = createMover(0, 0, started, arrived);
+
+        assertFalse(mover.setDestination(5, 3));
+        assertEquals(1, requests.getPending());
+
+        mover.update(1.0);
+
+        assertFalse(mover.isMoving());
+        assertEquals(0, started.get());
+
+        requests.update(1.0);
+
+        assertEquals(1, requests.getPending());
+        assertEquals(0, started.get());
+
+        requests.update(1.0);
+
+        assertEquals(0, requests.getPending());
+        assertEquals(1, started.get());
+
+        final List<Pathfindable> movers = new ArrayList<>();
+        movers.add(mover);
+        updateUntilArrived(requests, movers);
+
+        assertEquals(5, mover.getInTileX());
+        assertEquals(3, mover.getInTileY());
+        assertEquals(1, arrived.get());
+    }
+
+    /**
+     * Test identical requests are solved once, and movers receive their own path.
+     */
+    @Test
+    public void testDeduplicate()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 10, 0, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final AtomicInteger solved = new AtomicInteger();
+        final PathRequests requests = services.add(new PathRequests(services, runnable ->
+        {
+            solved.incrementAndGet();
+            runnable.run();
+        }, 0.0));
+
+        final List<Pathfindable> movers = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+        {
+            movers.add(createMover(0, 0, started, arrived));
+        }
+        final Pathfindable other = createMover(1, 0, started, arrived);
+        movers.add(other);
+        for (final Pathfindable mover : movers)
+        {
+            mover.setDestination(9, 9);
+        }
+
+        assertEquals(2, requests.getPending());
+
+        requests.update(1.0);
+
+        assertEquals(2, solved.get());
+
+        requests.update(1.0);
+
+        assertEquals(3, started.get());
+
+        requests.update(1.0);
+
+        assertEquals(movers.size(), started.get());
+
+        for (final Pathfindable mover : movers)
+        {
+            mover.update(1.0);
+
+            assertTrue(mover.isMoving());
+        }
+        assertEquals(2, solved.get());
+    }
+
+    /**
+     * Test unreachable destination notifies arrival.
+     */
+    @Test
+    public void testNoPath()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 10, 0, 42L);
+        for (int tx = 5; tx < 8; tx++)
+        {
+            for (int ty = 5; ty < 8; ty++)
+            {
+                if (tx != 6 || ty != 6)
+                {
+                    map.setTile(map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, tx, ty));
+                }
+            }
+        }
+        UtilPathfinding.loadPathfinding(map);
+        final PathRequests requests = services.add(new PathRequests(services, Runnable::run));
+        final Pathfindable mover = createMover(1, 1, started, arrived);
+
+        mover.setDestination(6, 6);
+        requests.update(1.0);
+        requests.update(1.0);
+
+        assertEquals(0, started.get());
+        assertEquals(1, arrived.get());
+        assertTrue(mover.isDestinationReached());
+    }
+
+    /**
+     * Test destination change while moving, mover continues current path until new one is received.
+     */
+    @Test
+    public void testRedirect()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 10, 0, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final PathRequests requests = services.add(new PathRequests(services, Runnable::run));
+        final Pathfindable mover = createMover(0, 0, started, arrived);
+
+        mover.setDestination(9, 0);
+        requests.update(1.0);
+        requests.update(1.0);
+        for (int i = 0; i < 4; i++)
+        {
+            mover.update(1.0);
+        }
+        final int tx = mover.getInTileX();
+
+        assertTrue(tx > 0);
+
+        mover.setDestination(tx, 9);
+        mover.update(1.0);
+
+        assertTrue(mover.isMoving());
+        assertEquals(0, mover.getInTileY());
+
+        final List<Pathfindable> movers = new ArrayList<>();
+        movers.add(mover);
+        updateUntilArrived(requests, movers);
+
+        assertEquals(tx, mover.getInTileX());
+        assertEquals(9, mover.getInTileY());
+        assertEquals(1, started.get());
+        assertEquals(1, arrived.get());
+    }
+
+    /**
+     * Test tiles set after a batch are considered by next batch.
+     */
+    @Test
+    public void testTileSet()
+    {
+        final MapTile map = UtilPathfinding.createMap(services, 10, 0, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final PathRequests requests = services.add(new PathRequests(services, Runnable::run));
+        final Pathfindable mover = createMover(0, 0, started, arrived);
+        final List<Pathfindable> movers = new ArrayList<>();
+        movers.add(mover);
+
+        mover.setDestination(1, 0);
+        updateUntilArrived(requests, movers);
+
+        for (int ty = 0; ty < 5; ty++)
+        {
+            final Tile tile = map.createTile(UtilMap.SHEET, UtilMap.TILE_TREE, 5, ty);
+            tile.addFeature(new TilePathModel(UtilMap.TREE));
+            map.setTile(tile);
+        }
+        mover.setDestination(9, 0);
+
+        final Transformable transformable = mover.getFeature(Transformable.class);
+        final long end = System.currentTimeMillis() + 5000L;
+        while (!mover.isDestinationReached() || requests.getPending() > 0)
+        {
+            assertTrue(System.currentTimeMillis() < end);
+            requests.update(1.0);
+            mover.update(1.0);
+
+            final boolean onStep = Double.compare(transformable.getX(), Math.floor(transformable.getX())) == 0
+                                   && Double.compare(transformable.getY(), Math.floor(transformable.getY())) == 0;
+            assertFalse(onStep && mover.getInTileX() == 5 && mover.getInTileY() < 5);
+        }
+
+        assertEquals(9, mover.getInTileX());
+        assertEquals(0, mover.getInTileY());
+    }
+
+    /**
+     * Test concurrent requests solved by a thread pool.
+     * 
+     * @throws InterruptedException If interrupted.
+     */
+    @Test
+    public void testExecutor() throws InterruptedException
+    {
+        final int size = 40;
+        final MapTile map = UtilPathfinding.createMap(services, size, 10, 42L);
+        UtilPathfinding.loadPathfinding(map);
+        final MapTilePath mapPath = map.getFeature(MapTilePath.class);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final PathRequests requests = services.add(new PathRequests(services, executor));
+
+        final Random random = new Random(42L);
+        final List<Pathfindable> movers = new ArrayList<>();
+        while (movers.size() < 50)
+        {
+            final int tx = random.nextInt(size);
+            final int ty = random.nextInt(size);
+            final Pathfindable mover = createMover(tx, ty, started, arrived);
+            if (!mapPath.isBlocked(mover, tx, ty, true))
+            {
+                mover.setDestination(random.nextInt(size), random.nextInt(size));
+                movers.add(mover);
+            }
+        }
+        updateUntilArrived(requests, movers);
+        executor.shutdown();
+
+        assertTrue(arrived.get() >= movers.size());
+        assertTrue(started.get() > movers.size() / 2);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.pathfinding;
+
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.Xml;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.FeaturableConfig;
+import com.b3dgs.lionengine.game.feature.FeaturableModel;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.Setup;
+import com.b3dgs.lionengine.game.feature.Transformable;
+import com.b3dgs.lionengine.game.feature.TransformableModel;
+import com.b3dgs.lionengine.game.feature.tile.TileGroupsConfig;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGroupModel;
+import com.b3dgs.lionengine.game.feature.tile.map.UtilMap;
+
+/**
+ * Utilities related to path finder tests.
+ */
+final class UtilPathfinding
+{
+    /**
+     * Create a map with ground and randomly placed trees, with its {@link MapTilePath} not yet loaded (see
+     * {@link #loadPathfinding(MapTile)}). Services must provide a {@link Camera}.
+     * 
+     * @param services The services reference.
+     * @param size The map size in tile.
+     * @param trees The trees ratio in percent.
+     * @param seed The random seed.
+     * @return The created map.
+     */
+    public static MapTile createMap(Services services, int size, int trees, long seed)
+    {
+        final MapTile map = services.create(MapTileGame.class);
+        map.addFeature(new MapTileGroupModel());
+        map.create(1, 1, size, size);
+        UtilMap.setGroups(map);
+
+        final Random random = new Random(seed);
+        for (int ty = 0; ty < size; ty++)
+        {
+            for (int tx = 0; tx < size; tx++)
+            {
+                final int number;
+                if (random.nextInt(100) < trees)
+                {
+                    number = UtilMap.TILE_TREE;
+                }
+                else
+                {
+                    number = UtilMap.TILE_GROUND;
+                }
+                map.setTile(map.createTile(UtilMap.SHEET, number, tx, ty));
+            }
+        }
+
+        final MapTilePath mapPath = map.addFeatureAndGet(new MapTilePathModel(services));
+        mapPath.prepare(map);
+
+        return map;
+    }
+
+    /**
+     * Load map pathfinding, with ground and tree categories. Must be called once all tiles are set.
+     * 
+     * @param map The map reference.
+     */
+    public static void loadPathfinding(MapTile map)
+    {
+        final Xml root = new Xml(PathfindingConfig.PATHFINDING);
+        for (final String category : Arrays.asList(UtilMap.GROUND, UtilMap.TREE))
+        {
+            final Xml node = root.createChild(PathfindingConfig.TILE_PATH);
+            node.writeString(PathfindingConfig.CATEGORY, category);
+            node.createChild(TileGroupsConfig.NODE_GROUP).setText(category);
+        }
+
+        final Media config = Medias.create(PathfindingConfig.FILENAME);
+        root.save(config);
+        map.getFeature(MapTilePath.class).loadPathfinding(config);
+
+        assertTrue(config.getFile().delete());
+    }
+
+    /**
+     * Create a mover configuration, walking on ground and blocked by trees.
+     * 
+     * @return The configuration media.
+     */
+    public static Media createConfig()
+    {
+        final Map<String, PathData> categories = new HashMap<>();
+        categories.put(UtilMap.GROUND,
+                       new PathData(UtilMap.GROUND, 1.0, false, Arrays.asList(MovementTile.values())));
+        categories.put(UtilMap.TREE, new PathData(UtilMap.TREE, 0.0, true, Arrays.asList(MovementTile.values())));
+
+        final Xml root = new Xml("test");
+        root.add(FeaturableConfig.exportClass("class"));
+        root.add(FeaturableConfig.exportSetup("setup"));
+        root.add(PathfindableConfig.exports(categories));
+
+        final Media media = Medias.create("mover.xml");
+        root.save(media);
+
+        return media;
+    }
+
+    /**
+     * Create a mover at tile location.
+     * 
+     * @param services The services reference.
+     * @param config The mover configuration.
+     * @param tx The horizontal tile location.
+     * @param ty The vertical tile location.
+     * @return The created mover.
+     */
+    public static Pathfindable createMover(Services services, Media config, int tx, int ty)
+    {
+        final Setup setup = new Setup(config);
+        final FeaturableModel object = new FeaturableModel();
+
+        final Transformable transformable = object.addFeatureAndGet(new TransformableModel(setup));
+        transformable.setSize(1, 1);
+        transformable.teleport(tx, ty);
+
+        return object.addFeatureAndGet(new PathfindableModel(services, setup));
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.game.feature.tile.map.persister;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNotNull;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.Media;
+import com.b3dgs.lionengine.Medias;
+import com.b3dgs.lionengine.game.feature.Camera;
+import com.b3dgs.lionengine.game.feature.Services;
+import com.b3dgs.lionengine.game.feature.tile.Tile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTile;
+import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
+import com.b3dgs.lionengine.game.feature.tile.map.TileSetListener;
+
+/**
+ * Test {@link MapTileFile}.
+ */
+public final class MapTileFileTest
+{
+    /**
+     * Prepare tests.
+     */
+    @BeforeAll
+    public static void beforeTests()
+    {
+        Medias.setResourcesDirectory(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Clean tests.
+     */
+    @AfterAll
+    public static void afterTests()
+    {
+        Medias.setResourcesDirectory(null);
+    }
+
+    /**
+     * Create a map with random tiles, some being empty.
+     * 
+     * @param width The width in tile.
+     * @param height The height in tile.
+     * @return The created map.
+     */
+    private static MapTile createMap(int width, int height)
+    {
+        final MapTile map = new MapTileGame();
+        map.create(16, 8, width, height);
+
+        final Random random = new Random(42L);
+        for (int ty = 0; ty < height; ty++)
+        {
+            for (int tx = 0; tx < width; tx++)
+            {
+                if (random.nextInt(4) > 0)
+                {
+                    map.setTile(map.createTile(Integer.valueOf(0), random.nextInt(300), tx * 16.0, ty * 8.0));
+                }
+            }
+        }
+        return map;
+    }
+
+    private final Media level = Medias.create("level.lmf");
+
+    /**
+     * Clean test.
+     */
+    @AfterEach
+    public void afterTest()
+    {
+        if (level.exists())
+        {
+            assertTrue(level.getFile().delete());
+        }
+    }
+
+    /**
+     * Test with invalid arguments.
+     */
+    @Test
+    public void testInvalidArguments()
+    {
+        final MapTile map = createMap(4, 4);
+
+        assertThrows(() -> MapTileFile.save(null, level), "Unexpected null argument !");
+        assertThrows(() -> MapTileFile.save(map, null), "Unexpected null argument !");
+        assertThrows(() -> MapTileFile.save(map, level, 0), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new MapTileFile(null, level), "Unexpected null argument !");
+        assertThrows(() -> new MapTileFile(map, null), "Unexpected null argument !");
+    }
+
+    /**
+     * Test save and load all chunks.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testSaveLoad() throws IOException
+    {
+        final MapTile map = createMap(70, 45);
+        MapTileFile.save(map, level);
+
+        final MapTile loaded = new MapTileGame();
+        try (MapTileFile file = new MapTileFile(loaded, level))
+        {
+            assertEquals(3, file.getChunksHorizontal());
+            assertEquals(2, file.getChunksVertical());
+            assertEquals(MapTileFile.CHUNK_SIZE, file.getChunkSize());
+            assertEquals(map.getTileWidth(), loaded.getTileWidth());
+            assertEquals(map.getTileHeight(), loaded.getTileHeight());
+            assertEquals(map.getInTileWidth(), loaded.getInTileWidth());
+            assertEquals(map.getInTileHeight(), loaded.getInTileHeight());
+            assertEquals(0, loaded.getTilesNumber());
+
+            file.loadAll();
+        }
+
+        assertEquals(map.getTilesNumber(), loaded.getTilesNumber());
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            for (int tx = 0; tx < map.getInTileWidth(); tx++)
+            {
+                final Tile expected = map.getTile(tx, ty);
+                final Tile tile = loaded.getTile(tx, ty);
+                if (expected == null)
+                {
+                    assertNull(tile);
+                }
+                else
+                {
+                    assertEquals(expected.getSheet(), tile.getSheet());
+                    assertEquals(expected.getNumber(), tile.getNumber());
+                    assertEquals(expected.getX(), tile.getX());
+                    assertEquals(expected.getY(), tile.getY());
+                }
+            }
+        }
+    }
+
+    /**
+     * Test compact file is smaller than legacy one.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testSmaller() throws IOException
+    {
+        final Services services = new Services();
+        final MapTile map = services.create(MapTileGame.class);
+        map.addFeature(new MapTilePersisterModel(services));
+        map.create(16, 8, 100, 100);
+        for (int ty = 0; ty < map.getInTileHeight(); ty++)
+        {
+            for (int tx = 0; tx < map.getInTileWidth(); tx++)
+            {
+                map.setTile(map.createTile(Integer.valueOf(0), (tx + ty) % 8, tx * 16.0, ty * 8.0));
+            }
+        }
+
+        final Media legacy = Medias.create("legacy");
+        UtilMapTilePersister.saveMap(map, legacy);
+        MapTileFile.save(map, level);
+
+        assertTrue(level.getFile().length() * 10 < legacy.getFile().length());
+        assertTrue(legacy.getFile().delete());
+    }
+
+    /**
+     * Test chunks are loaded on demand, with one batched event per chunk.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testLoadChunk() throws IOException
+    {
+        final MapTile map = createMap(20, 12);
+        MapTileFile.save(map, level, 8);
+
+        final MapTile loaded = new MapTileGame();
+        final List<Collection<Tile>> events = new ArrayList<>();
+        loaded.addListener(new TileSetListener()
+        {
+            @Override
+            public void onTileSet(Tile tile)
+            {
+                throw new AssertionError();
+            }
+
+            @Override
+            public void onTilesSet(Collection<Tile> tiles)
+            {
+                events.add(tiles);
+            }
+        });
+
+        try (MapTileFile file = new MapTileFile(loaded, level))
+        {
+            assertFalse(file.isLoaded(2, 1));
+
+            file.loadChunk(2, 1);
+
+            assertTrue(file.isLoaded(2, 1));
+            assertFalse(file.isLoaded(1, 1));
+            assertEquals(1, events.size());
+            assertEquals(events.get(0).size(), loaded.getTilesNumber());
+
+            for (int ty = 0; ty < loaded.getInTileHeight(); ty++)
+            {
+                for (int tx = 0; tx < loaded.getInTileWidth(); tx++)
+                {
+                    if (tx >= 16 && ty >= 8 && map.getTile(tx, ty) != null)
+                    {
+                        assertNotNull(loaded.getTile(tx, ty));
+                    }
+                    else
+                    {
+                        assertNull(loaded.getTile(tx, ty));
+                    }
+                }
+            }
+
+            file.loadChunk(2, 1);
+
+            assertEquals(1, events.size());
+            assertThrows(() -> file.loadChunk(-1, 0), "Invalid argument: -1 is not superior or equal to 0");
+            assertThrows(() -> file.loadChunk(0, 2), "Invalid argument: 2 is not strictly inferior to 2");
+            assertThrows(() -> file.isLoaded(3, 0), "Invalid argument: 3 is not strictly inferior to 3");
+        }
+    }
+
+    /**
+     * Test only chunks around viewer are loaded.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testLoadViewable() throws IOException
+    {
+        MapTileFile.save(createMap(100, 100), level, 8);
+
+        final MapTile loaded = new MapTileGame();
+        final Camera camera = new Camera();
+        camera.setView(0, 0, 320, 240, 240);
+
+        try (MapTileFile file = new MapTileFile(loaded, level))
+        {
+            assertThrows(() -> file.loadViewable(null, 0), "Unexpected null argument !");
+            assertThrows(() -> file.loadViewable(camera, -1), "Invalid argument: -1 is not superior or equal to 0");
+
+            camera.teleport(-1000.0, -1000.0);
+            file.loadViewable(camera, 0);
+
+            assertEquals(0, loaded.getTilesNumber());
+
+            camera.teleport(0.0, 0.0);
+            file.loadViewable(camera, 0);
+
+            assertTrue(file.isLoaded(2, 3));
+            assertFalse(file.isLoaded(3, 0));
+            assertFalse(file.isLoaded(0, 4));
+
+            camera.teleport(480.0, 240.0);
+            file.loadViewable(camera, 8);
+
+            assertTrue(file.isLoaded(2, 2));
+            assertTrue(file.isLoaded(7, 8));
+            assertFalse(file.isLoaded(1, 4));
+            assertFalse(file.isLoaded(8, 2));
+            assertFalse(file.isLoaded(3, 9));
+        }
+    }
+
+    /**
+     * Test invalid format.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testInvalidFormat() throws IOException
+    {
+        try (DataOutputStream output = new DataOutputStream(level.getOutputStream()))
+        {
+            output.writeInt(0);
+        }
+        assertThrows(IOException.class, () -> new MapTileFile(new MapTileGame(), level), MapTileFile.ERROR_FORMAT);
+
+        try (DataOutputStream output = new DataOutputStream(level.getOutputStream()))
+        {
+            output.writeInt(MapTileFile.MAGIC);
+            output.writeShort(MapTileFile.VERSION + 1);
+            output.write(new byte[32]);
+        }
+        assertThrows(IOException.class,
+                     () -> new MapTileFile(new MapTileGame(), level),
+                     MapTileFile.ERROR_VERSION + (MapTileFile.VERSION + 1));
+    }
+
+    /**
+     * Test invalid tile sheet number.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testInvalidSheet() throws IOException
+    {
+        final MapTile map = createMap(4, 4);
+        map.setTile(map.createTile(Integer.valueOf(5), 0, 0.0, 0.0));
+        MapTileFile.save(map, level);
+
+        try (MapTileFile file = new MapTileFile(new MapTileGame(), level))
+        {
+            assertThrows(IOException.class, () -> file.loadChunk(0, 0), "Sheet missing: : 5");
+        }
+    }
+}
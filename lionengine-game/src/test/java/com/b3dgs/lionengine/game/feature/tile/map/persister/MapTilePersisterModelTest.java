@@ -142,6 +142,41 @@ public final class MapTilePersisterModelTest
         assertTrue(level.getFile().delete());
     }
 
+    /**
+     * Test the save and load map from compact file with sheet config.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testSaveLoadCompact() throws IOException
+    {
+        final Media config = Medias.create("config");
+
+        TileSheetsConfig.exports(config, 16, 32, new ArrayList<String>());
+
+        final MapTile map = UtilMapTilePersister.createMap();
+        map.loadSheets(config);
+
+        final Media level = Medias.create("level");
+        map.getFeature(MapTilePersister.class).save(level);
+
+        final Services services = new Services();
+        final MapTile mapLoaded = services.create(MapTileGame.class);
+        mapLoaded.addFeature(new MapTilePersisterModel(services));
+        try (MapTileFile file = mapLoaded.getFeature(MapTilePersister.class).load(level))
+        {
+            file.loadAll();
+        }
+
+        assertEquals(config, mapLoaded.getMedia());
+        assertEquals(map.getInTileWidth(), mapLoaded.getInTileWidth());
+        assertEquals(map.getInTileHeight(), mapLoaded.getInTileHeight());
+        assertEquals(map.getTilesNumber(), mapLoaded.getTilesNumber());
+        assertEquals(4, mapLoaded.getTile(2, 2).getNumber());
+        assertTrue(config.getFile().delete());
+        assertTrue(level.getFile().delete());
+    }
+
     /**
      * Test the save and load map from file with invalid tile sheet number.
      * 
@@ -16,12 +16,14 @@
  */
 package com.b3dgs.lionengine.game.feature.tile.map.viewer;
 
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
 import static com.b3dgs.lionengine.UtilAssert.assertFalse;
 import static com.b3dgs.lionengine.UtilAssert.assertThrows;
 import static com.b3dgs.lionengine.UtilAssert.assertTrue;
 
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,9 +33,14 @@ import com.b3dgs.lionengine.game.feature.Camera;
 import com.b3dgs.lionengine.game.feature.Services;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileGame;
 import com.b3dgs.lionengine.game.feature.tile.map.MapTileRenderer;
+import com.b3dgs.lionengine.graphic.ColorRgba;
+import com.b3dgs.lionengine.graphic.FactoryGraphicMock;
 import com.b3dgs.lionengine.graphic.Graphic;
 import com.b3dgs.lionengine.graphic.GraphicMock;
+import com.b3dgs.lionengine.graphic.Graphics;
+import com.b3dgs.lionengine.graphic.ImageBuffer;
 import com.b3dgs.lionengine.graphic.ImageBufferMock;
+import com.b3dgs.lionengine.graphic.ImageSurface;
 import com.b3dgs.lionengine.graphic.drawable.Drawable;
 
 /**
@@ -71,6 +78,117 @@ public final class MapTileViewerModelTest
         assertThrows(() -> new MapTileViewerModel(null), "Unexpected null argument !");
     }
 
+    /**
+     * Test constructor with invalid chunk size.
+     */
+    @Test
+    public void testConstructorInvalidChunk()
+    {
+        assertThrows(() -> new MapTileViewerModel(services, 0), "Invalid argument: 0 is not strictly superior to 0");
+    }
+
+    /**
+     * Test the viewer with cached chunks.
+     */
+    @Test
+    public void testChunks()
+    {
+        final AtomicInteger created = new AtomicInteger();
+        Graphics.setFactoryGraphic(new FactoryGraphicMock()
+        {
+            @Override
+            public ImageBuffer createImageBuffer(int width, int height, ColorRgba transparency)
+            {
+                created.incrementAndGet();
+                return super.createImageBuffer(width, height, transparency);
+            }
+        });
+        final AtomicInteger images = new AtomicInteger();
+        final AtomicInteger tiles = new AtomicInteger();
+        final Graphic graphic = new GraphicMock()
+        {
+            @Override
+            public void drawImage(ImageSurface image, int x, int y)
+            {
+                images.incrementAndGet();
+            }
+
+            @Override
+            public void drawImage(ImageSurface image, int dx1, int dy1, int dx2, int dy2, int sx1, int sy1, int sx2,
+                                  int sy2)
+            {
+                tiles.incrementAndGet();
+            }
+        };
+        final Services chunkServices = new Services();
+        final Camera camera = chunkServices.add(new Camera());
+        final MapTileGame tileMap = chunkServices.add(new MapTileGame());
+        final MapTileViewer plain = new MapTileViewerModel(chunkServices);
+        plain.prepare(tileMap);
+        try
+        {
+            tileMap.loadSheets(Arrays.asList(Drawable.loadSpriteTiled(new ImageBufferMock(32, 32), 16, 16)));
+            tileMap.create(16, 16, 40, 40);
+            for (int tx = 0; tx < 40; tx++)
+            {
+                for (int ty = 0; ty < 40; ty++)
+                {
+                    tileMap.setTile(tileMap.createTile(Integer.valueOf(0), 0, tx * 16.0, ty * 16.0));
+                }
+            }
+            camera.setView(0, 0, 320, 240, 240);
+            camera.teleport(0.0, 0.0);
+
+            plain.render(graphic);
+
+            assertTrue(tiles.get() > 300);
+
+            final MapTileViewer cached = new MapTileViewerModel(chunkServices, 8);
+            cached.prepare(tileMap);
+            tiles.set(0);
+            cached.render(graphic);
+
+            assertEquals(0, tiles.get());
+            assertEquals(6, images.get());
+            assertEquals(7, created.get());
+
+            cached.render(graphic);
+
+            assertEquals(12, images.get());
+            assertEquals(8, created.get());
+
+            tileMap.setTile(tileMap.createTile(Integer.valueOf(0), 1, 0, 0));
+            cached.render(graphic);
+
+            assertEquals(10, created.get());
+
+            final AtomicInteger rendered = new AtomicInteger();
+            cached.addRenderer((g, map, tile, x, y) -> rendered.incrementAndGet());
+            cached.render(graphic);
+
+            assertEquals(21 * 16, rendered.get());
+            assertEquals(24, images.get());
+            assertEquals(11, created.get());
+
+            cached.invalidate();
+            cached.render(graphic);
+
+            assertEquals(18, created.get());
+
+            cached.clear();
+            images.set(0);
+            rendered.set(0);
+            cached.render(graphic);
+
+            assertEquals(0, images.get());
+            assertEquals(0, rendered.get());
+        }
+        finally
+        {
+            Graphics.setFactoryGraphic(null);
+        }
+    }
+
     /**
      * Test the viewer functions.
      */
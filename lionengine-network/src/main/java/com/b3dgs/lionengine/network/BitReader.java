@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+
+/**
+ * Bit stream reader, least significant bits first, matching {@link BitWriter}.
+ */
+final class BitReader
+{
+    /** Bits per byte. */
+    private static final int BYTE = 8;
+    /** Byte mask. */
+    private static final long BYTE_MASK = 0xFFL;
+    /** End of stream error. */
+    private static final String ERROR_END = "Unexpected end of bit stream";
+
+    /** Data to read. */
+    private final byte[] data;
+    /** Next byte index. */
+    private int index;
+    /** Read bits not yet consumed. */
+    private long scratch;
+    /** Number of bits in scratch. */
+    private int scratchBits;
+
+    /**
+     * Create reader.
+     * 
+     * @param data The data to read.
+     */
+    BitReader(byte[] data)
+    {
+        super();
+
+        this.data = data;
+    }
+
+    /**
+     * Read bits.
+     * 
+     * @param bits The number of bits (between 1 and 32 included).
+     * @return The read value.
+     * @throws IOException If end of stream.
+     */
+    int read(int bits) throws IOException
+    {
+        while (scratchBits < bits)
+        {
+            if (index == data.length)
+            {
+                throw new IOException(ERROR_END);
+            }
+            scratch |= (data[index] & BYTE_MASK) << scratchBits;
+            index++;
+            scratchBits += BYTE;
+        }
+        final int value = (int) (scratch & BitWriter.mask(bits));
+        scratch >>>= bits;
+        scratchBits -= bits;
+        return value;
+    }
+
+    /**
+     * Read a flag.
+     * 
+     * @return The flag value.
+     * @throws IOException If end of stream.
+     */
+    boolean readBoolean() throws IOException
+    {
+        return read(1) == 1;
+    }
+}
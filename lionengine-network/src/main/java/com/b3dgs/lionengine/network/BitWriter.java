@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.Arrays;
+
+/**
+ * Reusable bit stream writer, least significant bits first.
+ */
+final class BitWriter
+{
+    /** Initial capacity. */
+    private static final int CAPACITY = 256;
+    /** Bits per byte. */
+    private static final int BYTE = 8;
+    /** Byte mask. */
+    private static final int BYTE_MASK = 0xFF;
+
+    /**
+     * Get the mask of bits.
+     * 
+     * @param bits The number of bits (between 1 and 32 included).
+     * @return The mask.
+     */
+    static long mask(int bits)
+    {
+        return (1L << bits) - 1L;
+    }
+
+    /** Written bytes. */
+    private byte[] data = new byte[CAPACITY];
+    /** Bits not yet written to data. */
+    private long scratch;
+    /** Number of bits in scratch. */
+    private int scratchBits;
+    /** Number of written bytes. */
+    private int size;
+
+    /**
+     * Create writer.
+     */
+    BitWriter()
+    {
+        super();
+    }
+
+    /**
+     * Clear written bits, keeping allocated buffer.
+     */
+    void reset()
+    {
+        scratch = 0L;
+        scratchBits = 0;
+        size = 0;
+    }
+
+    /**
+     * Write the lowest bits of value.
+     * 
+     * @param value The value to write.
+     * @param bits The number of bits (between 1 and 32 included).
+     */
+    void write(int value, int bits)
+    {
+        scratch |= (value & mask(bits)) << scratchBits;
+        scratchBits += bits;
+        while (scratchBits >= BYTE)
+        {
+            if (size == data.length)
+            {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size] = (byte) (scratch & BYTE_MASK);
+            size++;
+            scratch >>>= BYTE;
+            scratchBits -= BYTE;
+        }
+    }
+
+    /**
+     * Write a flag.
+     * 
+     * @param value The flag value.
+     */
+    void writeBoolean(boolean value)
+    {
+        write(value ? 1 : 0, 1);
+    }
+
+    /**
+     * Get the number of written bits.
+     * 
+     * @return The number of written bits.
+     */
+    int getBits()
+    {
+        return size * BYTE + scratchBits;
+    }
+
+    /**
+     * Get a copy of written bytes, last byte padded with zeros.
+     * 
+     * @return The written bytes.
+     */
+    byte[] toByteArray()
+    {
+        if (scratchBits == 0)
+        {
+            return Arrays.copyOf(data, size);
+        }
+        final byte[] bytes = Arrays.copyOf(data, size + 1);
+        bytes[size] = (byte) (scratch & BYTE_MASK);
+        return bytes;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.DataOutputStream;
+
+import com.b3dgs.lionengine.network.message.NetworkDelivery;
+
+/**
+ * Server side connection to a client, independent from the underlying transport.
+ */
+interface ClientConnection
+{
+    /**
+     * Set the connection state.
+     * 
+     * @param state The connection state.
+     */
+    void setState(StateConnection state);
+
+    /**
+     * Get the current connection state.
+     * 
+     * @return The connection state.
+     */
+    StateConnection getState();
+
+    /**
+     * Set the client name.
+     * 
+     * @param name The client name.
+     */
+    void setName(String name);
+
+    /**
+     * Get the client name.
+     * 
+     * @return The client name.
+     */
+    String getName();
+
+    /**
+     * Terminate client.
+     */
+    void terminate();
+
+    /**
+     * Receive the next messages data from the client. Must be called until <code>null</code> to read all data.
+     * 
+     * @return The messages data, <code>null</code> if nothing received or on read error (never empty).
+     */
+    byte[] receiveMessages();
+
+    /**
+     * Send message to the client.
+     * 
+     * @param data The messages data.
+     */
+    void sendMessage(byte data);
+
+    /**
+     * Get the output stream. Written data are sent on flush.
+     * 
+     * @return The output stream.
+     */
+    DataOutputStream getOut();
+
+    /**
+     * Get the output stream used for a delivery. Written data are sent on flush. Transports without delivery
+     * distinction return {@link #getOut()}.
+     * 
+     * @param delivery The delivery required.
+     * @return The output stream.
+     */
+    DataOutputStream getOut(NetworkDelivery delivery);
+
+    /**
+     * Get the client id.
+     * 
+     * @return The client id.
+     */
+    byte getId();
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkDelivery;
+
+/**
+ * Client connection over a {@link DatagramPeer}, with one output stream per delivery. Each flush of an output stream is
+ * sent as one frame.
+ */
+final class ClientConnectionDatagram implements ClientConnection
+{
+    /** Peer reference. */
+    private final DatagramPeer peer;
+    /** Reliable output stream. */
+    private final DataOutputStream out;
+    /** Sequenced output stream. */
+    private final DataOutputStream outSequenced;
+    /** Client id. */
+    private final byte clientId;
+    /** State. */
+    private StateConnection state;
+    /** Name. */
+    private String name;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param id The client id.
+     * @param peer The peer reference.
+     */
+    ClientConnectionDatagram(byte id, DatagramPeer peer)
+    {
+        super();
+
+        clientId = id;
+        this.peer = peer;
+        out = new DataOutputStream(new FrameOutputStream(peer.getEndpoint(NetworkDelivery.RELIABLE_ORDERED)));
+        final FrameEndpoint sequenced = peer.getEndpoint(NetworkDelivery.UNRELIABLE_SEQUENCED);
+        outSequenced = new DataOutputStream(new FrameOutputStream(sequenced));
+    }
+
+    /*
+     * ClientConnection
+     */
+
+    @Override
+    public void setState(StateConnection state)
+    {
+        this.state = state;
+    }
+
+    @Override
+    public StateConnection getState()
+    {
+        return state;
+    }
+
+    @Override
+    public void setName(String name)
+    {
+        this.name = name;
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public void terminate()
+    {
+        try
+        {
+            outSequenced.flush();
+            out.flush();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+        peer.close();
+        state = StateConnection.DISCONNECTED;
+    }
+
+    @Override
+    public byte[] receiveMessages()
+    {
+        return peer.poll();
+    }
+
+    @Override
+    public void sendMessage(byte data)
+    {
+        try
+        {
+            out.write(data);
+            out.flush();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+    }
+
+    @Override
+    public DataOutputStream getOut()
+    {
+        return out;
+    }
+
+    @Override
+    public DataOutputStream getOut(NetworkDelivery delivery)
+    {
+        if (NetworkDelivery.UNRELIABLE_SEQUENCED == delivery)
+        {
+            return outSequenced;
+        }
+        return out;
+    }
+
+    @Override
+    public byte getId()
+    {
+        return clientId;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkDelivery;
+
+/**
+ * Client connection over a non blocking {@link FrameChannel}. Each flush of the output stream is sent as one frame.
+ */
+final class ClientConnectionNio implements ClientConnection
+{
+    /** Channel reference. */
+    private final FrameChannel channel;
+    /** Output stream. */
+    private final DataOutputStream out;
+    /** Client id. */
+    private final byte clientId;
+    /** State. */
+    private StateConnection state;
+    /** Name. */
+    private String name;
+
+    /**
+     * Internal constructor.
+     * 
+     * @param id The client id.
+     * @param channel The channel reference.
+     */
+    ClientConnectionNio(byte id, FrameChannel channel)
+    {
+        super();
+
+        clientId = id;
+        this.channel = channel;
+        out = new DataOutputStream(new FrameOutputStream(channel));
+    }
+
+    /*
+     * ClientConnection
+     */
+
+    @Override
+    public void setState(StateConnection state)
+    {
+        this.state = state;
+    }
+
+    @Override
+    public StateConnection getState()
+    {
+        return state;
+    }
+
+    @Override
+    public void setName(String name)
+    {
+        this.name = name;
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public void terminate()
+    {
+        try
+        {
+            out.flush();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+        channel.close();
+        state = StateConnection.DISCONNECTED;
+    }
+
+    @Override
+    public byte[] receiveMessages()
+    {
+        return channel.poll();
+    }
+
+    @Override
+    public void sendMessage(byte data)
+    {
+        try
+        {
+            out.write(data);
+            out.flush();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+    }
+
+    @Override
+    public DataOutputStream getOut()
+    {
+        return out;
+    }
+
+    @Override
+    public DataOutputStream getOut(NetworkDelivery delivery)
+    {
+        return out;
+    }
+
+    @Override
+    public byte getId()
+    {
+        return clientId;
+    }
+}
@@ -18,7 +18,9 @@ package com.b3dgs.lionengine.network;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -31,6 +33,7 @@ import com.b3dgs.lionengine.Constant;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Timing;
 import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkDelivery;
 import com.b3dgs.lionengine.network.message.NetworkMessage;
 import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
 
@@ -45,12 +48,18 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
     private final Timing pingRequestTimer;
     /** Average bandwidth. */
     private final Timing bandwidthTimer;
-    /** Socket. */
-    private Socket socket;
+    /** Transport used. */
+    private final NetworkTransport transport;
+    /** Connection (socket or selector). */
+    private Closeable socket;
     /** Output stream. */
-    private ObjectOutputStream out;
+    private DataOutputStream out;
+    /** Sequenced messages output stream (same as {@link #out} if not {@link NetworkTransport#UDP}). */
+    private DataOutputStream outSequenced;
+    /** Datagram network conditions simulator (<code>null</code> if none). */
+    private DatagramSimulator simulator;
     /** Input stream. */
-    private ObjectInputStream in;
+    private DataInputStream in;
     /** Client id. */
     private byte clientId;
     /** Client name. */
@@ -70,8 +79,20 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
      * @param decoder The message decoder.
      */
     ClientImpl(NetworkMessageDecoder decoder)
+    {
+        this(decoder, NetworkTransport.STREAM);
+    }
+
+    /**
+     * Internal constructor.
+     * 
+     * @param decoder The message decoder.
+     * @param transport The transport used.
+     */
+    ClientImpl(NetworkMessageDecoder decoder, NetworkTransport transport)
     {
         super(decoder);
+        this.transport = transport;
         pingTimer = new Timing();
         pingRequestTimer = new Timing();
         bandwidthTimer = new Timing();
@@ -81,6 +102,17 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
         bandwidth = 0;
     }
 
+    /**
+     * Set the network conditions simulator applied on sent datagrams. Must be set before {@link #connect(String, int)}.
+     * Only used with {@link NetworkTransport#UDP}.
+     * 
+     * @param simulator The simulator (<code>null</code> if none).
+     */
+    void setSimulator(DatagramSimulator simulator)
+    {
+        this.simulator = simulator;
+    }
+
     /**
      * Terminate connection.
      */
@@ -94,6 +126,10 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
         messagesOut.clear();
         try
         {
+            if (outSequenced != out)
+            {
+                outSequenced.close();
+            }
             out.close();
         }
         catch (final IOException exception)
@@ -125,6 +161,78 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
         Verbose.info("Disconnected from the server !");
     }
 
+    /**
+     * Connect with a blocking socket stream.
+     * 
+     * @param address The server address.
+     * @param port The server port.
+     * @throws IOException If unable to connect.
+     */
+    private void connectStream(InetAddress address, int port) throws IOException
+    {
+        final Socket stream = new Socket(address, port);
+        socket = stream;
+        out = new DataOutputStream(new ObjectOutputStream(stream.getOutputStream()));
+        outSequenced = out;
+        in = new DataInputStream(new ObjectInputStream(stream.getInputStream()));
+    }
+
+    /**
+     * Connect with a non blocking frame channel served by its own selector thread.
+     * 
+     * @param address The server address.
+     * @param port The server port.
+     * @throws IOException If unable to connect.
+     */
+    private void connectNio(InetAddress address, int port) throws IOException
+    {
+        final FrameSelector selector = new FrameSelector();
+        final FrameChannel channel;
+        try
+        {
+            channel = selector.connect(address, port);
+        }
+        catch (final IOException exception)
+        {
+            selector.terminate();
+            throw exception;
+        }
+        selector.start();
+        socket = selector;
+        out = new DataOutputStream(new FrameOutputStream(channel));
+        outSequenced = out;
+        in = new DataInputStream(new FrameInputStream(channel));
+    }
+
+    /**
+     * Connect with a datagram peer served by its own selector thread.
+     * 
+     * @param address The server address.
+     * @param port The server port.
+     * @throws IOException If unable to connect.
+     */
+    private void connectDatagram(InetAddress address, int port) throws IOException
+    {
+        final DatagramSelector selector = new DatagramSelector(simulator);
+        final DatagramPeer peer;
+        try
+        {
+            peer = selector.connect(address, port);
+        }
+        catch (final IOException exception)
+        {
+            selector.terminate();
+            throw exception;
+        }
+        selector.start();
+        socket = selector;
+        final FrameEndpoint reliable = peer.getEndpoint(NetworkDelivery.RELIABLE_ORDERED);
+        final FrameEndpoint sequenced = peer.getEndpoint(NetworkDelivery.UNRELIABLE_SEQUENCED);
+        out = new DataOutputStream(new FrameOutputStream(reliable));
+        outSequenced = new DataOutputStream(new FrameOutputStream(sequenced));
+        in = new DataInputStream(new FrameInputStream(reliable));
+    }
+
     /**
      * Get the name value read from the stream.
      * 
@@ -322,24 +430,33 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
     }
 
     /**
-     * Send message over the network.
+     * Send message over the network, on the stream of its delivery.
      * 
      * @param message The message to send.
      */
     private void sendMessage(NetworkMessage message)
     {
+        final DataOutputStream stream;
+        if (NetworkDelivery.UNRELIABLE_SEQUENCED == message.getDelivery())
+        {
+            stream = outSequenced;
+        }
+        else
+        {
+            stream = out;
+        }
         try (ByteArrayOutputStream encode = message.encode())
         {
             final byte[] encoded = encode.toByteArray();
             // Message header
-            out.writeByte(NetworkMessageSystemId.USER_MESSAGE);
-            out.writeByte(message.getClientId());
-            out.writeByte(message.getClientDestId());
-            out.writeByte(message.getType());
+            stream.writeByte(NetworkMessageSystemId.USER_MESSAGE);
+            stream.writeByte(message.getClientId());
+            stream.writeByte(message.getClientDestId());
+            stream.writeByte(message.getType());
             // Message content
-            out.writeInt(encoded.length);
-            out.write(encoded);
-            out.flush();
+            stream.writeInt(encoded.length);
+            stream.write(encoded);
+            stream.flush();
 
             final int headerSize = 8;
             bandwidth += headerSize + encoded.length;
@@ -363,9 +480,18 @@ final class ClientImpl extends NetworkModel<ConnectionListener> implements Clien
 
         try
         {
-            socket = new Socket(InetAddress.getByName(ip), port);
-            out = new ObjectOutputStream(socket.getOutputStream());
-            in = new ObjectInputStream(socket.getInputStream());
+            if (NetworkTransport.NIO == transport)
+            {
+                connectNio(InetAddress.getByName(ip), port);
+            }
+            else if (NetworkTransport.UDP == transport)
+            {
+                connectDatagram(InetAddress.getByName(ip), port);
+            }
+            else
+            {
+                connectStream(InetAddress.getByName(ip), port);
+            }
             connected = true;
             clientId = -1;
             pingRequestTimer.start();
@@ -16,6 +16,7 @@
  */
 package com.b3dgs.lionengine.network;
 
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -23,16 +24,17 @@ import java.net.Socket;
 
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkDelivery;
 
 /**
  * Client socket (bridge between server and client).
  */
-final class ClientSocket
+final class ClientSocket implements ClientConnection
 {
     /** Client socket. */
     private final Socket socket;
     /** Output stream. */
-    private final ObjectOutputStream out;
+    private final DataOutputStream out;
     /** Input stream. */
     private final ObjectInputStream in;
     /** Client id. */
@@ -56,7 +58,7 @@ final class ClientSocket
         name = null;
         try
         {
-            out = new ObjectOutputStream(socket.getOutputStream());
+            out = new DataOutputStream(new ObjectOutputStream(socket.getOutputStream()));
             in = new ObjectInputStream(socket.getInputStream());
         }
         catch (final IOException exception)
@@ -66,48 +68,62 @@ final class ClientSocket
     }
 
     /**
-     * Set the connection state.
+     * Send message to the client.
      * 
-     * @param state The connection state.
+     * @param data The messages data.
      */
-    public void setState(StateConnection state)
+    public void sendMessages(byte[] data)
     {
-        this.state = state;
+        try
+        {
+            out.write(data);
+            out.flush();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
     }
 
     /**
-     * Get the current connection state.
+     * Get the input stream.
      * 
-     * @return The connection state.
+     * @return The input stream.
+     */
+    public ObjectInputStream getIn()
+    {
+        return in;
+    }
+
+    /*
+     * ClientConnection
      */
+
+    @Override
+    public void setState(StateConnection state)
+    {
+        this.state = state;
+    }
+
+    @Override
     public StateConnection getState()
     {
         return state;
     }
 
-    /**
-     * Set the client name.
-     * 
-     * @param name The client name.
-     */
+    @Override
     public void setName(String name)
     {
         this.name = name;
     }
 
-    /**
-     * Get the client name.
-     * 
-     * @return The client name.
-     */
+    @Override
     public String getName()
     {
         return name;
     }
 
-    /**
-     * Terminate client.
-     */
+    @Override
     public void terminate()
     {
         try
@@ -137,11 +153,7 @@ final class ClientSocket
         state = StateConnection.DISCONNECTED;
     }
 
-    /**
-     * Receive messages data from the client.
-     * 
-     * @return The messages data.
-     */
+    @Override
     public byte[] receiveMessages()
     {
         try
@@ -162,15 +174,11 @@ final class ClientSocket
         catch (final IOException exception)
         {
             Verbose.exception(exception);
-            return new byte[0];
+            return null;
         }
     }
 
-    /**
-     * Send message to the client.
-     * 
-     * @param data The messages data.
-     */
+    @Override
     public void sendMessage(byte data)
     {
         try
@@ -184,49 +192,19 @@ final class ClientSocket
         }
     }
 
-    /**
-     * Send message to the client.
-     * 
-     * @param data The messages data.
-     */
-    public void sendMessages(byte[] data)
-    {
-        try
-        {
-            out.write(data);
-            out.flush();
-        }
-        catch (final IOException exception)
-        {
-            Verbose.exception(exception);
-        }
-    }
-
-    /**
-     * Get the output stream.
-     * 
-     * @return The output stream.
-     */
-    public ObjectOutputStream getOut()
+    @Override
+    public DataOutputStream getOut()
     {
         return out;
     }
 
-    /**
-     * Get the input stream.
-     * 
-     * @return The input stream.
-     */
-    public ObjectInputStream getIn()
+    @Override
+    public DataOutputStream getOut(NetworkDelivery delivery)
     {
-        return in;
+        return out;
     }
 
-    /**
-     * Get the client id.
-     * 
-     * @return The client id.
-     */
+    @Override
     public byte getId()
     {
         return clientId;
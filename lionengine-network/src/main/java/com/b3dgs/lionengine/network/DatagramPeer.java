@@ -0,0 +1,807 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.b3dgs.lionengine.network.message.NetworkDelivery;
+
+/**
+ * Datagram connection to a remote address, adding delivery guarantees over unreliable datagrams.
+ * <p>
+ * Frames are split into fragments fitting a datagram, and sent on one of the two channels:
+ * </p>
+ * <ul>
+ * <li>{@link NetworkDelivery#RELIABLE_ORDERED}: each fragment is acknowledged and sent again until acknowledged, frames
+ * are delivered in sending order once all their fragments are received,</li>
+ * <li>{@link NetworkDelivery#UNRELIABLE_SEQUENCED}: fragments are sent once, a frame is delivered only if all its
+ * fragments are received before a newer frame, older frames are dropped.</li>
+ * </ul>
+ * <p>
+ * A lost datagram on one channel never delays the other one. Datagram format is <code>kind</code> (byte) followed by
+ * kind data: fragments have a <code>sequence</code> (int), <code>index</code> (short), <code>count</code> (short) and
+ * the fragment payload, acknowledgements have a <code>count</code> (short) followed by <code>sequence</code> and
+ * <code>index</code> of each acknowledged fragment.
+ * </p>
+ * <p>
+ * {@link #send(byte[], NetworkDelivery)}, {@link #poll()} and {@link #close()} are called by engine thread, other
+ * operations by the selector thread.
+ * </p>
+ */
+final class DatagramPeer
+{
+    /** Connection request, sent by client until server answers. */
+    static final byte CONNECT = 0;
+    /** Keep alive, sent when nothing has been sent for a while. */
+    static final byte ALIVE = 1;
+    /** Connection closed. */
+    static final byte CLOSE = 2;
+    /** Fragments acknowledgement. */
+    static final byte ACK = 3;
+    /** Reliable ordered fragment. */
+    static final byte RELIABLE = 4;
+    /** Unreliable sequenced fragment. */
+    static final byte SEQUENCED = 5;
+    /** Fragment header size (kind, sequence, index, count). */
+    static final int HEADER = 1 + Integer.BYTES + Short.BYTES * 2;
+    /** Maximum fragment payload, keeping datagrams under common path MTU. */
+    static final int FRAGMENT = 1200;
+    /** Maximum datagram size. */
+    static final int MAX_DATAGRAM = HEADER + FRAGMENT;
+    /** Maximum delay to send pending reliable fragments on close, in milli. */
+    static final long LINGER = 1000L;
+    /** Connection timeout in milli. */
+    static final long TIMEOUT = 10000L;
+    /** Maximum fragments per frame. */
+    private static final int MAX_FRAGMENTS = FrameChannel.MAX_FRAME / FRAGMENT + 1;
+    /** Acknowledgement entry size (sequence, index). */
+    private static final int ACK_SIZE = Integer.BYTES + Short.BYTES;
+    /** Maximum acknowledgements per datagram. */
+    private static final int ACK_MAX = (MAX_DATAGRAM - 1 - Short.BYTES) / ACK_SIZE;
+    /** Maximum reliable fragments in flight, also maximum reliable frames received ahead. */
+    private static final int WINDOW = 256;
+    /** Minimum resend delay in milli. */
+    private static final long RESEND_MIN = 20L;
+    /** Maximum resend delay in milli. */
+    private static final long RESEND_MAX = 1000L;
+    /** Initial round trip time estimation in milli. */
+    private static final long RTT_INIT = 100L;
+    /** Close notification repeat, as it is not acknowledged. */
+    private static final int CLOSE_REPEAT = 3;
+    /** Keep alive delay in milli. */
+    private static final long KEEP_ALIVE = 1000L;
+    /** Invalid datagram error. */
+    private static final String ERROR_DATAGRAM = "Invalid datagram of kind: ";
+
+    /**
+     * Get fragment key.
+     * 
+     * @param sequence The frame sequence.
+     * @param index The fragment index.
+     * @return The fragment key.
+     */
+    private static long key(int sequence, int index)
+    {
+        return (long) sequence << Short.SIZE | index;
+    }
+
+    /** Complete received frames, consumed by engine thread. */
+    private final Queue<byte[]> received = new ConcurrentLinkedQueue<>();
+    /** Reliable frames to send, produced by engine thread. */
+    private final Queue<byte[]> pendingReliable = new ConcurrentLinkedQueue<>();
+    /** Sequenced frames to send, produced by engine thread. */
+    private final Queue<byte[]> pendingSequenced = new ConcurrentLinkedQueue<>();
+    /** Update scheduled flag. */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    /** Reliable fragments waiting room in window. */
+    private final Queue<Fragment> waiting = new ArrayDeque<>();
+    /** Reliable fragments sent and not yet acknowledged, in sending order. */
+    private final Map<Long, Fragment> inflight = new LinkedHashMap<>();
+    /** Reliable frames received ahead or incomplete, by sequence. */
+    private final Map<Integer, Assembly> assemblies = new HashMap<>();
+    /** Reliable frame endpoint. */
+    private final FrameEndpoint reliable = new Endpoint(NetworkDelivery.RELIABLE_ORDERED);
+    /** Sequenced frame endpoint. */
+    private final FrameEndpoint sequenced = new Endpoint(NetworkDelivery.UNRELIABLE_SEQUENCED);
+    /** Owner selector. */
+    private final DatagramSelector selector;
+    /** Remote address. */
+    private final SocketAddress address;
+    /** Fragments to acknowledge (sequence and index key). */
+    private final long[] acks = new long[ACK_MAX];
+    /** Number of fragments to acknowledge. */
+    private int acksCount;
+    /** Next reliable sequence to send. */
+    private int reliableSequence;
+    /** Next sequenced sequence to send. */
+    private int sequencedSequence;
+    /** Next reliable sequence to deliver. */
+    private int expected;
+    /** Last delivered sequenced sequence. */
+    private int latest = -1;
+    /** Sequenced frame being received (<code>null</code> if none). */
+    private Assembly assembly;
+    /** Sequenced frame being received sequence. */
+    private int assemblySequence = -1;
+    /** Smoothed round trip time in milli. */
+    private long rtt = RTT_INIT;
+    /** Current time in milli. */
+    private long now;
+    /** Last receive time in milli. */
+    private long lastReceived;
+    /** Last send time in milli. */
+    private long lastSent;
+    /** Closing start time in milli. */
+    private long closingTime;
+    /** Closing started flag. */
+    private boolean lingering;
+    /** Connected flag (remote has answered). */
+    private boolean connected;
+    /** Closing requested flag. */
+    private volatile boolean closing;
+    /** Closed flag. */
+    private volatile boolean closed;
+
+    /**
+     * Create peer.
+     * 
+     * @param selector The owner selector.
+     * @param address The remote address.
+     * @param connected <code>true</code> if remote is known as connected (server side), <code>false</code> to request
+     *            connection (client side).
+     * @param now The current time in milli.
+     */
+    DatagramPeer(DatagramSelector selector, SocketAddress address, boolean connected, long now)
+    {
+        super();
+
+        this.selector = selector;
+        this.address = address;
+        this.connected = connected;
+        this.now = now;
+        lastReceived = now;
+        lastSent = now - RTT_INIT;
+    }
+
+    /**
+     * Send a frame. Frame is sent asynchronously by the selector thread.
+     * 
+     * @param frame The frame content (must not be modified after call).
+     * @param delivery The frame delivery.
+     */
+    void send(byte[] frame, NetworkDelivery delivery)
+    {
+        if (!closed && !closing)
+        {
+            if (NetworkDelivery.UNRELIABLE_SEQUENCED == delivery)
+            {
+                pendingSequenced.offer(frame);
+            }
+            else
+            {
+                pendingReliable.offer(frame);
+            }
+            schedule();
+        }
+    }
+
+    /**
+     * Poll the next received frame, whatever its delivery.
+     * 
+     * @return The next frame, <code>null</code> if none.
+     */
+    byte[] poll()
+    {
+        return received.poll();
+    }
+
+    /**
+     * Close peer once pending reliable frames are acknowledged, or after {@link #LINGER} delay.
+     */
+    void close()
+    {
+        closing = true;
+        schedule();
+    }
+
+    /**
+     * Check if peer is closed.
+     * 
+     * @return <code>true</code> if closed, <code>false</code> else.
+     */
+    boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     * Get the remote address.
+     * 
+     * @return The remote address.
+     */
+    SocketAddress getAddress()
+    {
+        return address;
+    }
+
+    /**
+     * Get the frame endpoint of a delivery. Received frames are shared by both endpoints.
+     * 
+     * @param delivery The delivery used to send frames.
+     * @return The frame endpoint.
+     */
+    FrameEndpoint getEndpoint(NetworkDelivery delivery)
+    {
+        if (NetworkDelivery.UNRELIABLE_SEQUENCED == delivery)
+        {
+            return sequenced;
+        }
+        return reliable;
+    }
+
+    /**
+     * Check if reliable fragments are still waiting acknowledgement. Must be called by selector thread.
+     * 
+     * @return <code>true</code> if reliable data are pending, <code>false</code> else.
+     */
+    boolean isPending()
+    {
+        return !closed && (!inflight.isEmpty() || !waiting.isEmpty() || !pendingReliable.isEmpty());
+    }
+
+    /**
+     * Handle a received datagram. Must be called by selector thread.
+     * 
+     * @param packet The datagram content, positioned at kind.
+     * @param now The current time in milli.
+     * @throws IOException If invalid datagram.
+     */
+    void receive(ByteBuffer packet, long now) throws IOException
+    {
+        this.now = now;
+        lastReceived = now;
+        connected = true;
+
+        final byte kind = packet.get();
+        switch (kind)
+        {
+            case CONNECT:
+            case ALIVE:
+                break;
+            case CLOSE:
+                dispose();
+                break;
+            case ACK:
+                receiveAcks(packet);
+                break;
+            case RELIABLE:
+            case SEQUENCED:
+                receiveFragment(packet, kind);
+                break;
+            default:
+                throw new IOException(ERROR_DATAGRAM + kind);
+        }
+    }
+
+    /**
+     * Send pending frames, acknowledgements and fragments to resend. Must be called by selector thread.
+     * 
+     * @param now The current time in milli.
+     */
+    void update(long now)
+    {
+        scheduled.set(false);
+        if (closed)
+        {
+            return;
+        }
+        this.now = now;
+        if (now - lastReceived > TIMEOUT)
+        {
+            dispose();
+            return;
+        }
+        for (byte[] frame = pendingSequenced.poll(); frame != null; frame = pendingSequenced.poll())
+        {
+            sendSequenced(frame);
+        }
+        for (byte[] frame = pendingReliable.poll(); frame != null; frame = pendingReliable.poll())
+        {
+            fragment(frame);
+        }
+        sendReliable();
+        sendAcks();
+
+        if (!connected && now - lastSent >= RTT_INIT)
+        {
+            sendControl(CONNECT);
+        }
+        else if (now - lastSent >= KEEP_ALIVE)
+        {
+            sendControl(ALIVE);
+        }
+        if (closing)
+        {
+            linger();
+        }
+    }
+
+    /**
+     * Notify remote and close peer. Must be called by selector thread.
+     */
+    void shutdown()
+    {
+        if (!closed)
+        {
+            for (int i = 0; i < CLOSE_REPEAT; i++)
+            {
+                sendControl(CLOSE);
+            }
+            dispose();
+        }
+    }
+
+    /**
+     * Schedule an update on selector thread if not already scheduled.
+     */
+    private void schedule()
+    {
+        if (scheduled.compareAndSet(false, true))
+        {
+            selector.schedule();
+        }
+    }
+
+    /**
+     * Shutdown once reliable frames are acknowledged, or after {@link #LINGER} delay.
+     */
+    private void linger()
+    {
+        if (!lingering)
+        {
+            lingering = true;
+            closingTime = now;
+        }
+        if (!isPending() || now - closingTime >= LINGER)
+        {
+            shutdown();
+        }
+    }
+
+    /**
+     * Close peer without notifying remote.
+     */
+    private void dispose()
+    {
+        closed = true;
+        pendingReliable.clear();
+        pendingSequenced.clear();
+        waiting.clear();
+        inflight.clear();
+        assemblies.clear();
+        assembly = null;
+    }
+
+    /**
+     * Handle received acknowledgements, updating round trip time with fragments sent only once.
+     * 
+     * @param packet The datagram content.
+     * @throws IOException If invalid datagram.
+     */
+    private void receiveAcks(ByteBuffer packet) throws IOException
+    {
+        final int count = packet.getShort();
+        if (count < 0 || packet.remaining() < count * ACK_SIZE)
+        {
+            throw new IOException(ERROR_DATAGRAM + ACK);
+        }
+        for (int i = 0; i < count; i++)
+        {
+            final Fragment fragment = inflight.remove(Long.valueOf(key(packet.getInt(), packet.getShort())));
+            if (fragment != null && !fragment.resent)
+            {
+                rtt = (rtt * 7 + now - fragment.sent) / 8;
+            }
+        }
+    }
+
+    /**
+     * Handle received fragment.
+     * 
+     * @param packet The datagram content.
+     * @param kind The fragment kind.
+     * @throws IOException If invalid datagram.
+     */
+    private void receiveFragment(ByteBuffer packet, byte kind) throws IOException
+    {
+        if (packet.remaining() < HEADER - 1)
+        {
+            throw new IOException(ERROR_DATAGRAM + kind);
+        }
+        final int sequence = packet.getInt();
+        final int index = packet.getShort();
+        final int count = packet.getShort();
+        if (count < 1 || count > MAX_FRAGMENTS || index < 0 || index >= count)
+        {
+            throw new IOException(ERROR_DATAGRAM + kind);
+        }
+        if (RELIABLE == kind)
+        {
+            receiveReliable(packet, sequence, index, count);
+        }
+        else
+        {
+            receiveSequenced(packet, sequence, index, count);
+        }
+    }
+
+    /**
+     * Handle received reliable fragment. Fragment is acknowledged, even if already received, and complete frames are
+     * delivered in order.
+     * 
+     * @param payload The fragment payload.
+     * @param sequence The frame sequence.
+     * @param index The fragment index.
+     * @param count The fragments number.
+     */
+    private void receiveReliable(ByteBuffer payload, int sequence, int index, int count)
+    {
+        if (sequence - expected >= WINDOW)
+        {
+            return;
+        }
+        ack(sequence, index);
+        if (sequence < expected)
+        {
+            return;
+        }
+        Assembly current = assemblies.get(Integer.valueOf(sequence));
+        if (current == null)
+        {
+            current = new Assembly(count);
+            assemblies.put(Integer.valueOf(sequence), current);
+        }
+        current.add(index, count, payload);
+
+        current = assemblies.get(Integer.valueOf(expected));
+        while (current != null && current.isComplete())
+        {
+            assemblies.remove(Integer.valueOf(expected));
+            received.offer(current.toFrame());
+            expected++;
+            current = assemblies.get(Integer.valueOf(expected));
+        }
+    }
+
+    /**
+     * Handle received sequenced fragment. Only the newest frame is assembled, older ones are dropped.
+     * 
+     * @param payload The fragment payload.
+     * @param sequence The frame sequence.
+     * @param index The fragment index.
+     * @param count The fragments number.
+     */
+    private void receiveSequenced(ByteBuffer payload, int sequence, int index, int count)
+    {
+        if (sequence <= latest || sequence < assemblySequence)
+        {
+            return;
+        }
+        if (sequence > assemblySequence)
+        {
+            assembly = new Assembly(count);
+            assemblySequence = sequence;
+        }
+        assembly.add(index, count, payload);
+        if (assembly.isComplete())
+        {
+            received.offer(assembly.toFrame());
+            latest = sequence;
+            assembly = null;
+        }
+    }
+
+    /**
+     * Queue fragment acknowledgement, sending them if full.
+     * 
+     * @param sequence The frame sequence.
+     * @param index The fragment index.
+     */
+    private void ack(int sequence, int index)
+    {
+        if (acksCount == acks.length)
+        {
+            sendAcks();
+        }
+        acks[acksCount] = key(sequence, index);
+        acksCount++;
+    }
+
+    /**
+     * Split reliable frame into waiting fragments.
+     * 
+     * @param frame The frame to split.
+     */
+    private void fragment(byte[] frame)
+    {
+        final int count = Math.max(1, (frame.length + FRAGMENT - 1) / FRAGMENT);
+        for (int i = 0; i < count; i++)
+        {
+            waiting.offer(new Fragment(reliableSequence, i, count, frame));
+        }
+        reliableSequence++;
+    }
+
+    /**
+     * Send new reliable fragments allowed by window, and fragments not acknowledged in time.
+     */
+    private void sendReliable()
+    {
+        final long resend = Math.min(RESEND_MAX, Math.max(RESEND_MIN, rtt * 2));
+        for (final Fragment fragment : inflight.values())
+        {
+            if (now - fragment.sent >= resend)
+            {
+                fragment.resent = true;
+                sendFragment(RELIABLE, fragment);
+            }
+        }
+        while (inflight.size() < WINDOW && !waiting.isEmpty())
+        {
+            final Fragment fragment = waiting.poll();
+            inflight.put(Long.valueOf(key(fragment.sequence, fragment.index)), fragment);
+            sendFragment(RELIABLE, fragment);
+        }
+    }
+
+    /**
+     * Send sequenced frame fragments once.
+     * 
+     * @param frame The frame to send.
+     */
+    private void sendSequenced(byte[] frame)
+    {
+        final int count = Math.max(1, (frame.length + FRAGMENT - 1) / FRAGMENT);
+        for (int i = 0; i < count; i++)
+        {
+            sendFragment(SEQUENCED, new Fragment(sequencedSequence, i, count, frame));
+        }
+        sequencedSequence++;
+    }
+
+    /**
+     * Send fragment datagram.
+     * 
+     * @param kind The fragment kind.
+     * @param fragment The fragment to send.
+     */
+    private void sendFragment(byte kind, Fragment fragment)
+    {
+        final ByteBuffer packet = selector.getPacket();
+        packet.put(kind);
+        packet.putInt(fragment.sequence);
+        packet.putShort((short) fragment.index);
+        packet.putShort((short) fragment.count);
+        final int offset = fragment.index * FRAGMENT;
+        packet.put(fragment.frame, offset, Math.min(FRAGMENT, fragment.frame.length - offset));
+        fragment.sent = now;
+        write(packet);
+    }
+
+    /**
+     * Send queued acknowledgements.
+     */
+    private void sendAcks()
+    {
+        if (acksCount > 0)
+        {
+            final ByteBuffer packet = selector.getPacket();
+            packet.put(ACK);
+            packet.putShort((short) acksCount);
+            for (int i = 0; i < acksCount; i++)
+            {
+                packet.putInt((int) (acks[i] >> Short.SIZE));
+                packet.putShort((short) acks[i]);
+            }
+            acksCount = 0;
+            write(packet);
+        }
+    }
+
+    /**
+     * Send control datagram.
+     * 
+     * @param kind The control kind.
+     */
+    private void sendControl(byte kind)
+    {
+        final ByteBuffer packet = selector.getPacket();
+        packet.put(kind);
+        write(packet);
+    }
+
+    /**
+     * Write datagram to remote.
+     * 
+     * @param packet The datagram content.
+     */
+    private void write(ByteBuffer packet)
+    {
+        packet.flip();
+        selector.write(packet, address);
+        lastSent = now;
+    }
+
+    /**
+     * Reliable or sequenced fragment to send.
+     */
+    private static final class Fragment
+    {
+        /** Frame sequence. */
+        private final int sequence;
+        /** Fragment index. */
+        private final int index;
+        /** Fragments number. */
+        private final int count;
+        /** Whole frame. */
+        private final byte[] frame;
+        /** Last sending time in milli. */
+        private long sent;
+        /** Sent more than once flag. */
+        private boolean resent;
+
+        /**
+         * Create fragment.
+         * 
+         * @param sequence The frame sequence.
+         * @param index The fragment index.
+         * @param count The fragments number.
+         * @param frame The whole frame.
+         */
+        Fragment(int sequence, int index, int count, byte[] frame)
+        {
+            super();
+
+            this.sequence = sequence;
+            this.index = index;
+            this.count = count;
+            this.frame = frame;
+        }
+    }
+
+    /**
+     * Received frame being assembled.
+     */
+    private static final class Assembly
+    {
+        /** Received fragments payload. */
+        private final byte[][] fragments;
+        /** Missing fragments. */
+        private int missing;
+        /** Received length. */
+        private int length;
+
+        /**
+         * Create assembly.
+         * 
+         * @param count The fragments number.
+         */
+        Assembly(int count)
+        {
+            super();
+
+            fragments = new byte[count][];
+            missing = count;
+        }
+
+        /**
+         * Add received fragment. Duplicated or inconsistent fragments are ignored.
+         * 
+         * @param index The fragment index.
+         * @param count The fragments number.
+         * @param payload The fragment payload.
+         */
+        void add(int index, int count, ByteBuffer payload)
+        {
+            if (count == fragments.length && fragments[index] == null)
+            {
+                final byte[] data = new byte[payload.remaining()];
+                payload.get(data);
+                fragments[index] = data;
+                length += data.length;
+                missing--;
+            }
+        }
+
+        /**
+         * Check if all fragments are received.
+         * 
+         * @return <code>true</code> if complete, <code>false</code> else.
+         */
+        boolean isComplete()
+        {
+            return missing == 0;
+        }
+
+        /**
+         * Get the assembled frame.
+         * 
+         * @return The frame content.
+         */
+        byte[] toFrame()
+        {
+            if (fragments.length == 1)
+            {
+                return fragments[0];
+            }
+            final byte[] frame = new byte[length];
+            int offset = 0;
+            for (final byte[] fragment : fragments)
+            {
+                System.arraycopy(fragment, 0, frame, offset, fragment.length);
+                offset += fragment.length;
+            }
+            return frame;
+        }
+    }
+
+    /**
+     * Frame endpoint sending with a delivery.
+     */
+    private final class Endpoint implements FrameEndpoint
+    {
+        /** Delivery used. */
+        private final NetworkDelivery delivery;
+
+        /**
+         * Create endpoint.
+         * 
+         * @param delivery The delivery used.
+         */
+        Endpoint(NetworkDelivery delivery)
+        {
+            super();
+
+            this.delivery = delivery;
+        }
+
+        /*
+         * FrameEndpoint
+         */
+
+        @Override
+        public void send(byte[] frame)
+        {
+            DatagramPeer.this.send(frame, delivery);
+        }
+
+        @Override
+        public byte[] poll()
+        {
+            return DatagramPeer.this.poll();
+        }
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.b3dgs.lionengine.Verbose;
+
+/**
+ * Thread serving all {@link DatagramPeer} of a single datagram channel.
+ * <p>
+ * Server side accepts a new peer on each connection request from an unknown address. Client side serves only the
+ * connected server peer. Peers are updated on each received datagram, on each send request and at least every
+ * {@link #TICK} to resend lost fragments.
+ * </p>
+ */
+final class DatagramSelector extends Thread implements Closeable
+{
+    /** Update delay in milli. */
+    private static final long TICK = 5L;
+
+    /**
+     * Get the current time.
+     * 
+     * @return The current time in milli.
+     */
+    private static long time()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /** Accepted peers, consumed by engine thread. */
+    private final Queue<DatagramPeer> accepted = new ConcurrentLinkedQueue<>();
+    /** Peers waiting registration. */
+    private final Queue<DatagramPeer> registering = new ConcurrentLinkedQueue<>();
+    /** Peers by address. */
+    private final Map<SocketAddress, DatagramPeer> peers = new HashMap<>();
+    /** Received datagram buffer. */
+    private final ByteBuffer input = ByteBuffer.allocateDirect(DatagramPeer.MAX_DATAGRAM);
+    /** Sent datagram buffer. */
+    private final ByteBuffer output = ByteBuffer.allocateDirect(DatagramPeer.MAX_DATAGRAM);
+    /** Selector. */
+    private final Selector selector;
+    /** Datagram channel. */
+    private final DatagramChannel channel;
+    /** Server side flag. */
+    private final boolean server;
+    /** Network conditions simulator (<code>null</code> if none). */
+    private final DatagramSimulator simulator;
+    /** Current time in milli. */
+    private long now;
+    /** Running flag. */
+    private volatile boolean isRunning;
+
+    /**
+     * Create a client side selector.
+     * 
+     * @param simulator The network conditions simulator (<code>null</code> if none).
+     * @throws IOException If unable to open channel.
+     */
+    DatagramSelector(DatagramSimulator simulator) throws IOException
+    {
+        this(null, simulator);
+    }
+
+    /**
+     * Create a server side selector, accepting connections on port.
+     * 
+     * @param port The port to listen.
+     * @param simulator The network conditions simulator (<code>null</code> if none).
+     * @throws IOException If unable to bind port.
+     */
+    DatagramSelector(int port, DatagramSimulator simulator) throws IOException
+    {
+        this(new InetSocketAddress(port), simulator);
+    }
+
+    /**
+     * Create selector.
+     * 
+     * @param local The local address to bind (<code>null</code> if client side).
+     * @param simulator The network conditions simulator (<code>null</code> if none).
+     * @throws IOException If unable to open channel.
+     */
+    private DatagramSelector(SocketAddress local, DatagramSimulator simulator) throws IOException
+    {
+        super("Network Datagram Selector");
+
+        this.simulator = simulator;
+        server = local != null;
+        selector = Selector.open();
+        channel = DatagramChannel.open();
+        try
+        {
+            channel.bind(local);
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ);
+        }
+        catch (final IOException exception)
+        {
+            channel.close();
+            selector.close();
+            throw exception;
+        }
+        now = time();
+        isRunning = true;
+    }
+
+    /**
+     * Connect to a server. Connection is requested by the selector thread until server answers.
+     * 
+     * @param address The server address.
+     * @param port The server port.
+     * @return The server peer.
+     * @throws IOException If unable to connect.
+     */
+    DatagramPeer connect(InetAddress address, int port) throws IOException
+    {
+        final SocketAddress remote = new InetSocketAddress(address, port);
+        channel.connect(remote);
+        final DatagramPeer peer = new DatagramPeer(this, remote, false, time());
+        registering.offer(peer);
+        selector.wakeup();
+        return peer;
+    }
+
+    /**
+     * Poll the next accepted peer.
+     * 
+     * @return The next accepted peer, <code>null</code> if none.
+     */
+    DatagramPeer pollAccepted()
+    {
+        return accepted.poll();
+    }
+
+    /**
+     * Get the bound port.
+     * 
+     * @return The bound port.
+     */
+    int getPort()
+    {
+        return channel.socket().getLocalPort();
+    }
+
+    /**
+     * Schedule peers update.
+     */
+    void schedule()
+    {
+        selector.wakeup();
+    }
+
+    /**
+     * Get the datagram buffer to fill before {@link #write(ByteBuffer, SocketAddress)}. Must be called by selector
+     * thread.
+     * 
+     * @return The cleared datagram buffer.
+     */
+    ByteBuffer getPacket()
+    {
+        output.clear();
+        return output;
+    }
+
+    /**
+     * Send datagram. A datagram which cannot be sent is lost, as it may be on network. Must be called by selector
+     * thread.
+     * 
+     * @param packet The datagram content.
+     * @param address The destination.
+     */
+    void write(ByteBuffer packet, SocketAddress address)
+    {
+        try
+        {
+            if (simulator == null)
+            {
+                channel.send(packet, address);
+            }
+            else
+            {
+                simulator.send(channel, packet, address, now);
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+    }
+
+    /**
+     * Terminate the thread. Pending reliable frames are sent during {@link DatagramPeer#LINGER} at most before closing
+     * peers.
+     */
+    public void terminate()
+    {
+        isRunning = false;
+        selector.wakeup();
+        if (!isAlive())
+        {
+            dispose();
+        }
+    }
+
+    /**
+     * Register waiting peers.
+     */
+    private void register()
+    {
+        for (DatagramPeer peer = registering.poll(); peer != null; peer = registering.poll())
+        {
+            peers.put(peer.getAddress(), peer);
+        }
+    }
+
+    /**
+     * Receive available datagrams and dispatch them to their peer.
+     */
+    private void receive()
+    {
+        while (true)
+        {
+            input.clear();
+            final SocketAddress address;
+            try
+            {
+                address = channel.receive(input);
+            }
+            catch (final PortUnreachableException exception)
+            {
+                // Server not yet listening, connection is requested again
+                return;
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+                return;
+            }
+            if (address == null)
+            {
+                return;
+            }
+            input.flip();
+            if (input.hasRemaining())
+            {
+                dispatch(address);
+            }
+        }
+    }
+
+    /**
+     * Dispatch received datagram to its peer, accepting a new peer on connection request if server side.
+     * 
+     * @param address The datagram source.
+     */
+    private void dispatch(SocketAddress address)
+    {
+        DatagramPeer peer = peers.get(address);
+        if (peer == null && server && input.get(0) == DatagramPeer.CONNECT)
+        {
+            peer = new DatagramPeer(this, address, true, now);
+            peers.put(address, peer);
+            accepted.offer(peer);
+        }
+        if (peer != null)
+        {
+            try
+            {
+                peer.receive(input, now);
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+            }
+        }
+    }
+
+    /**
+     * Update all peers, removing closed ones.
+     */
+    private void update()
+    {
+        if (simulator != null)
+        {
+            try
+            {
+                simulator.flush(channel, now);
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+            }
+        }
+        final Iterator<DatagramPeer> iterator = peers.values().iterator();
+        while (iterator.hasNext())
+        {
+            final DatagramPeer peer = iterator.next();
+            peer.update(now);
+            if (peer.isClosed())
+            {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Check if a peer has reliable frames not yet acknowledged.
+     * 
+     * @return <code>true</code> if pending, <code>false</code> else.
+     */
+    private boolean isPending()
+    {
+        for (final DatagramPeer peer : peers.values())
+        {
+            if (peer.isPending())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wait next event and process it.
+     * 
+     * @throws IOException If selector error.
+     */
+    private void process() throws IOException
+    {
+        selector.select(TICK);
+        selector.selectedKeys().clear();
+        now = time();
+        register();
+        receive();
+        update();
+    }
+
+    /**
+     * Close all peers, channel and selector.
+     */
+    private synchronized void dispose()
+    {
+        if (!selector.isOpen())
+        {
+            return;
+        }
+        for (final DatagramPeer peer : peers.values())
+        {
+            peer.shutdown();
+        }
+        peers.clear();
+        try
+        {
+            channel.close();
+            selector.close();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+    }
+
+    /*
+     * Thread
+     */
+
+    @Override
+    public void run()
+    {
+        try
+        {
+            while (isRunning)
+            {
+                process();
+            }
+            final long end = now + DatagramPeer.LINGER;
+            while (isPending() && now < end)
+            {
+                process();
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+        dispose();
+    }
+
+    /*
+     * Closeable
+     */
+
+    @Override
+    public void close()
+    {
+        terminate();
+    }
+}
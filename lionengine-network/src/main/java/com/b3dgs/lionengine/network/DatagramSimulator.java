@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Random;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Local network conditions simulator, applied on datagrams sent by a {@link DatagramSelector}: each datagram may be
+ * lost, and is delayed by a latency with a random jitter. Jitter may reorder datagrams, as a real network does.
+ * <p>
+ * Must only be used by the selector thread.
+ * </p>
+ */
+final class DatagramSimulator
+{
+    /** Loss ratio. */
+    private final double loss;
+    /** Latency in milli. */
+    private final int latency;
+    /** Jitter in milli. */
+    private final int jitter;
+    /** Random generator. */
+    private final Random random;
+    /** Delayed datagrams, sorted by sending time. */
+    private final Queue<Delayed> delayed = new PriorityQueue<>();
+    /** Sent datagrams counter, used to keep sending order on same time. */
+    private long counter;
+
+    /**
+     * Create simulator.
+     * 
+     * @param loss The loss ratio (between 0.0 and 1.0 included).
+     * @param latency The latency in milli (positive).
+     * @param jitter The maximum random latency added in milli (positive).
+     * @param seed The random seed.
+     * @throws LionEngineException If invalid argument(s).
+     */
+    DatagramSimulator(double loss, int latency, int jitter, long seed)
+    {
+        super();
+
+        Check.superiorOrEqual(loss, 0.0);
+        Check.inferiorOrEqual(loss, 1.0);
+        Check.superiorOrEqual(latency, 0);
+        Check.superiorOrEqual(jitter, 0);
+
+        this.loss = loss;
+        this.latency = latency;
+        this.jitter = jitter;
+        random = new Random(seed);
+    }
+
+    /**
+     * Send datagram, applying simulated conditions.
+     * 
+     * @param channel The datagram channel.
+     * @param packet The packet to send.
+     * @param address The destination.
+     * @param now The current time in milli.
+     * @throws IOException If send error.
+     */
+    void send(DatagramChannel channel, ByteBuffer packet, SocketAddress address, long now) throws IOException
+    {
+        if (random.nextDouble() < loss)
+        {
+            return;
+        }
+        final int delay = latency + random.nextInt(jitter + 1);
+        if (delay == 0 && delayed.isEmpty())
+        {
+            channel.send(packet, address);
+        }
+        else
+        {
+            final byte[] data = new byte[packet.remaining()];
+            packet.get(data);
+            delayed.offer(new Delayed(now + delay, counter++, data, address));
+        }
+    }
+
+    /**
+     * Send delayed datagrams which are due.
+     * 
+     * @param channel The datagram channel.
+     * @param now The current time in milli.
+     * @throws IOException If send error.
+     */
+    void flush(DatagramChannel channel, long now) throws IOException
+    {
+        for (Delayed next = delayed.peek(); next != null && next.time <= now; next = delayed.peek())
+        {
+            delayed.poll();
+            channel.send(ByteBuffer.wrap(next.data), next.address);
+        }
+    }
+
+    /**
+     * Delayed datagram.
+     */
+    private static final class Delayed implements Comparable<Delayed>
+    {
+        /** Sending time in milli. */
+        private final long time;
+        /** Sending order. */
+        private final long order;
+        /** Datagram content. */
+        private final byte[] data;
+        /** Destination. */
+        private final SocketAddress address;
+
+        /**
+         * Create delayed datagram.
+         * 
+         * @param time The sending time in milli.
+         * @param order The sending order.
+         * @param data The datagram content.
+         * @param address The destination.
+         */
+        Delayed(long time, long order, byte[] data, SocketAddress address)
+        {
+            super();
+
+            this.time = time;
+            this.order = order;
+            this.data = data;
+            this.address = address;
+        }
+
+        /*
+         * Comparable
+         */
+
+        @Override
+        public int compareTo(Delayed other)
+        {
+            final int compare = Long.compare(time, other.time);
+            if (compare == 0)
+            {
+                return Long.compare(order, other.order);
+            }
+            return compare;
+        }
+    }
+}
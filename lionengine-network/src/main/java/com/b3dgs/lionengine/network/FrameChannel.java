@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.b3dgs.lionengine.Verbose;
+
+/**
+ * Non blocking connection exchanging length prefixed frames.
+ * <p>
+ * Socket reads and writes are only performed by the owning {@link FrameSelector} thread, through two direct buffers
+ * used as rings (filled, drained, then compacted). Complete received frames and frames to send are exchanged with the
+ * engine thread through lock-free queues.
+ * </p>
+ */
+final class FrameChannel implements FrameEndpoint
+{
+    /** Frame header size (frame length). */
+    static final int HEADER = Integer.BYTES;
+    /** Maximum frame length. */
+    static final int MAX_FRAME = 1 << 20;
+    /** Buffer capacity. */
+    private static final int CAPACITY = 16 * 1024;
+    /** Invalid frame error. */
+    private static final String ERROR_FRAME = "Invalid frame length: ";
+
+    /** Complete received frames, consumed by engine thread. */
+    private final Queue<byte[]> received = new ConcurrentLinkedQueue<>();
+    /** Frames to send, produced by engine thread. */
+    private final Queue<byte[]> pending = new ConcurrentLinkedQueue<>();
+    /** Write scheduled flag. */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    /** Read ring. */
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(CAPACITY);
+    /** Write ring. */
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(CAPACITY);
+    /** Owner selector. */
+    private final FrameSelector selector;
+    /** Socket channel. */
+    private final SocketChannel channel;
+    /** Frame being read (<code>null</code> if waiting header). */
+    private byte[] reading;
+    /** Frame being read offset. */
+    private int readingOffset;
+    /** Frame being written (<code>null</code> if none). */
+    private byte[] writing;
+    /** Frame being written offset. */
+    private int writingOffset;
+    /** Selection key (<code>null</code> until registered). */
+    private SelectionKey key;
+    /** Closing requested flag. */
+    private volatile boolean closing;
+    /** Closed flag. */
+    private volatile boolean closed;
+
+    /**
+     * Create channel.
+     * 
+     * @param selector The owner selector.
+     * @param channel The non blocking socket channel.
+     */
+    FrameChannel(FrameSelector selector, SocketChannel channel)
+    {
+        super();
+
+        this.selector = selector;
+        this.channel = channel;
+    }
+
+    /**
+     * Close channel once pending frames are written.
+     */
+    void close()
+    {
+        closing = true;
+        schedule();
+    }
+
+    /**
+     * Check if channel is closed.
+     * 
+     * @return <code>true</code> if closed, <code>false</code> else.
+     */
+    boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     * Register channel for read events. Must be called by selector thread.
+     * 
+     * @param selector The selector to register to.
+     * @throws ClosedChannelException If channel is closed.
+     */
+    void register(Selector selector) throws ClosedChannelException
+    {
+        key = channel.register(selector, SelectionKey.OP_READ, this);
+    }
+
+    /**
+     * Read available data and extract complete frames. Must be called by selector thread.
+     * 
+     * @throws IOException If read error or invalid frame.
+     */
+    void read() throws IOException
+    {
+        if (channel.read(readBuffer) < 0)
+        {
+            dispose();
+            return;
+        }
+        readBuffer.flip();
+        try
+        {
+            extract();
+        }
+        finally
+        {
+            readBuffer.compact();
+        }
+    }
+
+    /**
+     * Write pending frames as much as possible. Must be called by selector thread.
+     * <p>
+     * Write interest is kept until everything is written, and channel is disposed once flushed if closing.
+     * </p>
+     * 
+     * @throws IOException If write error.
+     */
+    void write() throws IOException
+    {
+        scheduled.set(false);
+        if (closed)
+        {
+            return;
+        }
+        if (flush())
+        {
+            if (closing)
+            {
+                dispose();
+            }
+            else
+            {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+        else
+        {
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * Close socket channel. Must be called by selector thread.
+     */
+    void dispose()
+    {
+        closed = true;
+        if (key != null)
+        {
+            key.cancel();
+        }
+        try
+        {
+            channel.close();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Schedule a write on selector thread if not already scheduled.
+     */
+    private void schedule()
+    {
+        if (scheduled.compareAndSet(false, true))
+        {
+            selector.schedule(this);
+        }
+    }
+
+    /**
+     * Extract complete frames from read ring.
+     * 
+     * @throws IOException If invalid frame length.
+     */
+    private void extract() throws IOException
+    {
+        while (true)
+        {
+            if (reading == null)
+            {
+                if (readBuffer.remaining() < HEADER)
+                {
+                    return;
+                }
+                final int length = readBuffer.getInt();
+                if (length < 0 || length > MAX_FRAME)
+                {
+                    throw new IOException(ERROR_FRAME + length);
+                }
+                reading = new byte[length];
+                readingOffset = 0;
+            }
+            final int count = Math.min(readBuffer.remaining(), reading.length - readingOffset);
+            readBuffer.get(reading, readingOffset, count);
+            readingOffset += count;
+            if (readingOffset < reading.length)
+            {
+                return;
+            }
+            received.offer(reading);
+            reading = null;
+        }
+    }
+
+    /**
+     * Write pending frames until done or socket buffer full.
+     * 
+     * @return <code>true</code> if everything has been written, <code>false</code> if socket buffer is full.
+     * @throws IOException If write error.
+     */
+    private boolean flush() throws IOException
+    {
+        while (true)
+        {
+            fill();
+            writeBuffer.flip();
+            channel.write(writeBuffer);
+            final boolean full = writeBuffer.hasRemaining();
+            writeBuffer.compact();
+            if (full)
+            {
+                return false;
+            }
+            if (writing == null && pending.isEmpty())
+            {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Fill write ring with pending frames.
+     */
+    private void fill()
+    {
+        while (writeBuffer.hasRemaining())
+        {
+            if (writing == null)
+            {
+                if (writeBuffer.remaining() < HEADER)
+                {
+                    return;
+                }
+                writing = pending.poll();
+                if (writing == null)
+                {
+                    return;
+                }
+                writeBuffer.putInt(writing.length);
+                writingOffset = 0;
+            }
+            final int count = Math.min(writeBuffer.remaining(), writing.length - writingOffset);
+            writeBuffer.put(writing, writingOffset, count);
+            writingOffset += count;
+            if (writingOffset == writing.length)
+            {
+                writing = null;
+            }
+        }
+    }
+
+    /*
+     * FrameEndpoint
+     */
+
+    @Override
+    public void send(byte[] frame)
+    {
+        if (!closed && !closing)
+        {
+            pending.offer(frame);
+            schedule();
+        }
+    }
+
+    @Override
+    public byte[] poll()
+    {
+        return received.poll();
+    }
+}
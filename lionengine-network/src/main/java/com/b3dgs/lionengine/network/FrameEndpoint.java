@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+/**
+ * Frames exchange point of a connection, used by {@link FrameOutputStream} and {@link FrameInputStream}.
+ */
+interface FrameEndpoint
+{
+    /**
+     * Send a frame. Frame is written asynchronously by the selector thread.
+     * 
+     * @param frame The frame content (must not be modified after call).
+     */
+    void send(byte[] frame);
+
+    /**
+     * Poll the next received frame.
+     * 
+     * @return The next frame, <code>null</code> if none.
+     */
+    byte[] poll();
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.InputStream;
+
+/**
+ * Input stream reading received frames one after the other, without blocking.
+ */
+final class FrameInputStream extends InputStream
+{
+    /** Channel reference. */
+    private final FrameEndpoint channel;
+    /** Current frame. */
+    private byte[] frame;
+    /** Current frame offset. */
+    private int offset;
+
+    /**
+     * Create stream.
+     * 
+     * @param channel The channel reference.
+     */
+    FrameInputStream(FrameEndpoint channel)
+    {
+        super();
+
+        this.channel = channel;
+    }
+
+    /**
+     * Ensure current frame has remaining data, polling next frame if needed.
+     * 
+     * @return <code>true</code> if data are available, <code>false</code> else.
+     */
+    private boolean next()
+    {
+        while (frame == null || offset == frame.length)
+        {
+            frame = channel.poll();
+            offset = 0;
+            if (frame == null)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * InputStream
+     */
+
+    @Override
+    public int available()
+    {
+        if (next())
+        {
+            return frame.length - offset;
+        }
+        return 0;
+    }
+
+    @Override
+    public int read()
+    {
+        if (next())
+        {
+            return frame[offset++] & 0xFF;
+        }
+        return -1;
+    }
+
+    @Override
+    public int read(byte[] data, int off, int len)
+    {
+        if (len == 0)
+        {
+            return 0;
+        }
+        if (!next())
+        {
+            return -1;
+        }
+        final int count = Math.min(len, frame.length - offset);
+        System.arraycopy(frame, offset, data, off, count);
+        offset += count;
+        return count;
+    }
+}
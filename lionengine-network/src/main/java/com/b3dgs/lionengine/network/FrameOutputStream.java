@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Output stream sending written data as a single frame on each flush.
+ */
+final class FrameOutputStream extends ByteArrayOutputStream
+{
+    /** Frame too large error. */
+    private static final String ERROR_FRAME = "Frame too large: ";
+
+    /** Channel reference. */
+    private final FrameEndpoint channel;
+
+    /**
+     * Create stream.
+     * 
+     * @param channel The channel reference.
+     */
+    FrameOutputStream(FrameEndpoint channel)
+    {
+        super();
+
+        this.channel = channel;
+    }
+
+    /*
+     * ByteArrayOutputStream
+     */
+
+    @Override
+    public void flush() throws IOException
+    {
+        if (count > FrameChannel.MAX_FRAME)
+        {
+            reset();
+            throw new IOException(ERROR_FRAME + count);
+        }
+        if (count > 0)
+        {
+            channel.send(toByteArray());
+            reset();
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        flush();
+    }
+}
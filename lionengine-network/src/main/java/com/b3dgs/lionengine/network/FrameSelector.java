@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.b3dgs.lionengine.Verbose;
+
+/**
+ * Selector thread serving all {@link FrameChannel} of a server or a client.
+ * <p>
+ * Accepted channels are handed to the engine thread with {@link #pollAccepted()}.
+ * </p>
+ */
+final class FrameSelector extends Thread implements Closeable
+{
+    /** Accepted channels, consumed by engine thread. */
+    private final Queue<FrameChannel> accepted = new ConcurrentLinkedQueue<>();
+    /** Channels waiting registration. */
+    private final Queue<FrameChannel> registering = new ConcurrentLinkedQueue<>();
+    /** Channels with pending writes. */
+    private final Queue<FrameChannel> scheduled = new ConcurrentLinkedQueue<>();
+    /** Selector. */
+    private final Selector selector;
+    /** Server channel (<code>null</code> if client side). */
+    private final ServerSocketChannel server;
+    /** Running flag. */
+    private volatile boolean isRunning;
+
+    /**
+     * Create a client side selector.
+     * 
+     * @throws IOException If unable to open selector.
+     */
+    FrameSelector() throws IOException
+    {
+        super("Network Selector");
+
+        selector = Selector.open();
+        server = null;
+        isRunning = true;
+    }
+
+    /**
+     * Create a server side selector, accepting connections on port.
+     * 
+     * @param port The port to listen.
+     * @throws IOException If unable to bind port.
+     */
+    FrameSelector(int port) throws IOException
+    {
+        super("Network Selector");
+
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        try
+        {
+            server.bind(new InetSocketAddress(port));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        }
+        catch (final IOException exception)
+        {
+            server.close();
+            selector.close();
+            throw exception;
+        }
+        isRunning = true;
+    }
+
+    /**
+     * Connect to a server. Channel is registered by the selector thread.
+     * 
+     * @param address The server address.
+     * @param port The server port.
+     * @return The connected channel.
+     * @throws IOException If unable to connect.
+     */
+    FrameChannel connect(InetAddress address, int port) throws IOException
+    {
+        final SocketChannel channel = SocketChannel.open(new InetSocketAddress(address, port));
+        final FrameChannel frames = create(channel);
+        registering.offer(frames);
+        selector.wakeup();
+        return frames;
+    }
+
+    /**
+     * Poll the next accepted channel.
+     * 
+     * @return The next accepted channel, <code>null</code> if none.
+     */
+    FrameChannel pollAccepted()
+    {
+        return accepted.poll();
+    }
+
+    /**
+     * Get the listening port.
+     * 
+     * @return The listening port, <code>-1</code> if client side.
+     */
+    int getPort()
+    {
+        if (server == null)
+        {
+            return -1;
+        }
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Schedule pending writes of channel.
+     * 
+     * @param channel The channel to write.
+     */
+    void schedule(FrameChannel channel)
+    {
+        scheduled.offer(channel);
+        selector.wakeup();
+    }
+
+    /**
+     * Terminate the thread. Pending writes are flushed before closing channels.
+     */
+    public void terminate()
+    {
+        isRunning = false;
+        selector.wakeup();
+        if (!isAlive())
+        {
+            dispose();
+        }
+    }
+
+    /**
+     * Create a non blocking frame channel.
+     * 
+     * @param channel The socket channel.
+     * @return The frame channel.
+     * @throws IOException If unable to configure channel.
+     */
+    private FrameChannel create(SocketChannel channel) throws IOException
+    {
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        return new FrameChannel(this, channel);
+    }
+
+    /**
+     * Register waiting channels.
+     */
+    private void register()
+    {
+        for (FrameChannel channel = registering.poll(); channel != null; channel = registering.poll())
+        {
+            try
+            {
+                channel.register(selector);
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+                channel.dispose();
+            }
+        }
+    }
+
+    /**
+     * Write scheduled channels.
+     */
+    private void flush()
+    {
+        for (FrameChannel channel = scheduled.poll(); channel != null; channel = scheduled.poll())
+        {
+            try
+            {
+                channel.write();
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+                channel.dispose();
+            }
+        }
+    }
+
+    /**
+     * Accept pending connections.
+     */
+    private void accept()
+    {
+        try
+        {
+            for (SocketChannel socket = server.accept(); socket != null; socket = server.accept())
+            {
+                final FrameChannel channel = create(socket);
+                channel.register(selector);
+                accepted.offer(channel);
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+    }
+
+    /**
+     * Handle selected key.
+     * 
+     * @param key The selected key.
+     */
+    private void handle(SelectionKey key)
+    {
+        if (key.isAcceptable())
+        {
+            accept();
+            return;
+        }
+        final FrameChannel channel = (FrameChannel) key.attachment();
+        try
+        {
+            if (key.isReadable())
+            {
+                channel.read();
+            }
+            if (key.isValid() && key.isWritable())
+            {
+                channel.write();
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+            channel.dispose();
+        }
+    }
+
+    /**
+     * Close all channels and selector.
+     */
+    private synchronized void dispose()
+    {
+        if (!selector.isOpen())
+        {
+            return;
+        }
+        for (final SelectionKey key : selector.keys())
+        {
+            if (key.attachment() instanceof FrameChannel)
+            {
+                ((FrameChannel) key.attachment()).dispose();
+            }
+        }
+        for (FrameChannel channel = registering.poll(); channel != null; channel = registering.poll())
+        {
+            channel.dispose();
+        }
+        try
+        {
+            if (server != null)
+            {
+                server.close();
+            }
+            selector.close();
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception);
+        }
+    }
+
+    /*
+     * Thread
+     */
+
+    @Override
+    public void run()
+    {
+        while (isRunning)
+        {
+            try
+            {
+                selector.select();
+                register();
+                flush();
+                final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext())
+                {
+                    final SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid())
+                    {
+                        handle(key);
+                    }
+                }
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception);
+                isRunning = false;
+            }
+        }
+        register();
+        flush();
+        dispose();
+    }
+
+    /*
+     * Closeable
+     */
+
+    @Override
+    public void close()
+    {
+        terminate();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Reusable buffer storing the encoded messages of a tick, allowing to write any part of it to several outputs.
+ */
+final class MessageBuffer extends ByteArrayOutputStream
+{
+    /**
+     * Create buffer.
+     * 
+     * @param capacity The initial capacity.
+     */
+    MessageBuffer(int capacity)
+    {
+        super(capacity);
+    }
+
+    /**
+     * Reserve space for an int, to be written later with {@link #setInt(int, int)}.
+     * 
+     * @return The reserved position offset.
+     */
+    int reserveInt()
+    {
+        final int offset = count;
+        for (int i = 0; i < Integer.BYTES; i++)
+        {
+            write(0);
+        }
+        return offset;
+    }
+
+    /**
+     * Write an int at an already written position.
+     * 
+     * @param offset The position offset.
+     * @param value The value to write.
+     */
+    void setInt(int offset, int value)
+    {
+        buf[offset] = (byte) (value >>> 24);
+        buf[offset + 1] = (byte) (value >>> 16);
+        buf[offset + 2] = (byte) (value >>> 8);
+        buf[offset + 3] = (byte) value;
+    }
+
+    /**
+     * Truncate buffer to size, discarding data written after.
+     * 
+     * @param size The size to keep.
+     */
+    void truncate(int size)
+    {
+        count = size;
+    }
+
+    /**
+     * Write a part of buffer to output.
+     * 
+     * @param out The output to write to.
+     * @param offset The start offset.
+     * @param length The number of bytes.
+     * @throws IOException If error on writing.
+     */
+    void writeTo(OutputStream out, int offset, int length) throws IOException
+    {
+        out.write(buf, offset, length);
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+/**
+ * List of available network transports.
+ */
+public enum NetworkTransport
+{
+    /** One blocking socket stream per client, with a dedicated accept thread. */
+    STREAM,
+    /** Non blocking length prefixed frames, all connections served by a single selector thread. */
+    NIO,
+    /**
+     * Datagrams over a single channel served by a selector thread, with reliable ordered and unreliable sequenced
+     * deliveries: a lost sequenced message never delays the following ones.
+     */
+    UDP;
+}
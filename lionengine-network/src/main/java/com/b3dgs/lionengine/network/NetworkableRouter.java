@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageEntity;
+import com.b3dgs.lionengine.network.purview.Networkable;
+
+/**
+ * Route received messages to their addressee only:
+ * <ul>
+ * <li>{@link NetworkMessageEntity} to the networkable registered with its entity id,</li>
+ * <li>else to the networkables registered with its type,</li>
+ * <li>else to the fallback networkables (system messages and unknown addressees).</li>
+ * </ul>
+ * Entity and type registries are arrays indexed by key.
+ */
+final class NetworkableRouter
+{
+    /** Number of message types. */
+    private static final int TYPES = 256;
+    /** Type mask. */
+    private static final int TYPE_MASK = 0xFF;
+    /** No networkable. */
+    private static final Networkable[] NONE = new Networkable[0];
+
+    /**
+     * Get array without networkable.
+     * 
+     * @param current The current array.
+     * @param networkable The networkable to remove.
+     * @return The array without networkable, <code>null</code> if empty.
+     */
+    private static Networkable[] without(Networkable[] current, Networkable networkable)
+    {
+        int count = 0;
+        final Networkable[] kept = new Networkable[current.length];
+        for (final Networkable other : current)
+        {
+            if (other != networkable)
+            {
+                kept[count] = other;
+                count++;
+            }
+        }
+        if (count == current.length)
+        {
+            return current;
+        }
+        if (count == 0)
+        {
+            return null;
+        }
+        return Arrays.copyOf(kept, count);
+    }
+
+    /** Networkables by entity id. */
+    private Networkable[] entities = NONE;
+    /** Networkables by unsigned message type (<code>null</code> if none). */
+    private final Networkable[][] types = new Networkable[TYPES][];
+    /** Entity id of registered networkables. */
+    private final Map<Networkable, Short> entityIds = new IdentityHashMap<>();
+    /** Fallback networkables. */
+    private final Collection<Networkable> fallback = new LinkedHashSet<>();
+
+    /**
+     * Create router.
+     */
+    NetworkableRouter()
+    {
+        super();
+    }
+
+    /**
+     * Register a networkable receiving the messages not routed to another one.
+     * 
+     * @param networkable The networkable reference.
+     */
+    void addFallback(Networkable networkable)
+    {
+        fallback.add(networkable);
+    }
+
+    /**
+     * Register a networkable receiving the entity messages of its id. Replaces previous one with same id, and previous
+     * id of the networkable.
+     * 
+     * @param entityId The entity id (must be positive).
+     * @param networkable The networkable reference.
+     */
+    void addEntity(short entityId, Networkable networkable)
+    {
+        if (entityId >= entities.length)
+        {
+            entities = Arrays.copyOf(entities, Math.max(entityId + 1, entities.length * 2));
+        }
+        final Short previous = entityIds.get(networkable);
+        if (previous != null)
+        {
+            entities[previous.shortValue()] = null;
+        }
+        final Networkable old = entities[entityId];
+        if (old != null)
+        {
+            entityIds.remove(old);
+        }
+        entities[entityId] = networkable;
+        entityIds.put(networkable, Short.valueOf(entityId));
+    }
+
+    /**
+     * Register a networkable receiving the messages of type.
+     * 
+     * @param type The message type.
+     * @param networkable The networkable reference.
+     */
+    void addType(byte type, Networkable networkable)
+    {
+        final int index = type & TYPE_MASK;
+        final Networkable[] current = types[index];
+        if (current == null)
+        {
+            types[index] = new Networkable[]
+            {
+                networkable
+            };
+        }
+        else
+        {
+            final Networkable[] added = Arrays.copyOf(current, current.length + 1);
+            added[current.length] = networkable;
+            types[index] = added;
+        }
+    }
+
+    /**
+     * Remove networkable from all registries.
+     * 
+     * @param networkable The networkable reference.
+     */
+    void remove(Networkable networkable)
+    {
+        fallback.remove(networkable);
+        final Short entityId = entityIds.remove(networkable);
+        if (entityId != null)
+        {
+            entities[entityId.shortValue()] = null;
+        }
+        for (int i = 0; i < TYPES; i++)
+        {
+            final Networkable[] current = types[i];
+            if (current != null)
+            {
+                types[i] = without(current, networkable);
+            }
+        }
+    }
+
+    /**
+     * Route message to its addressee.
+     * 
+     * @param message The message to route.
+     */
+    void route(NetworkMessage message)
+    {
+        if (message instanceof NetworkMessageEntity)
+        {
+            final int entityId = ((NetworkMessageEntity<?>) message).getEntityId();
+            if (entityId > -1 && entityId < entities.length && entities[entityId] != null)
+            {
+                entities[entityId].applyMessage(message);
+                return;
+            }
+        }
+        final Networkable[] subscribers = types[message.getType() & TYPE_MASK];
+        if (subscribers != null)
+        {
+            for (final Networkable networkable : subscribers)
+            {
+                networkable.applyMessage(message);
+            }
+            return;
+        }
+        for (final Networkable networkable : fallback)
+        {
+            networkable.applyMessage(message);
+        }
+    }
+}
@@ -19,6 +19,7 @@ package com.b3dgs.lionengine.network;
 import java.util.Collection;
 
 import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageEntity;
 import com.b3dgs.lionengine.network.purview.Networkable;
 
 /**
@@ -32,12 +33,31 @@ public interface NetworkedWorld extends ClientListener
     void disconnect();
 
     /**
-     * Add a networkable entity to the world.
+     * Add a networkable entity to the world. It receives the messages not routed to another networkable (system
+     * messages, unknown entities and types).
      * 
      * @param networkable The networkable entity.
      */
     void addNetworkable(Networkable networkable);
 
+    /**
+     * Add a networkable entity to the world, only receiving the {@link NetworkMessageEntity} of its entity id.
+     * Replaces the networkable previously added with the same entity id.
+     * 
+     * @param entityId The entity id (must be superior or equal to 0).
+     * @param networkable The networkable entity.
+     */
+    void addNetworkableEntity(short entityId, Networkable networkable);
+
+    /**
+     * Add a networkable entity to the world, only receiving the messages of type not addressed to an entity added with
+     * {@link #addNetworkableEntity(short, Networkable)}.
+     * 
+     * @param type The message type.
+     * @param networkable The networkable entity.
+     */
+    void addNetworkableType(byte type, Networkable networkable);
+
     /**
      * Remove a networkable entity to the world.
      * 
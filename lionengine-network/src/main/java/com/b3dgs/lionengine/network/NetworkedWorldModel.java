@@ -20,6 +20,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.network.message.NetworkMessage;
 import com.b3dgs.lionengine.network.purview.Networkable;
 
@@ -39,6 +41,10 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
     protected final Collection<L> listeners;
     /** The network. */
     protected final N network;
+    /** Received messages router. */
+    private final NetworkableRouter router;
+    /** Pending routes registration. */
+    private final Collection<Runnable> toRoute;
     /** Will add. */
     private boolean willAdd;
 
@@ -53,6 +59,8 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
         networkables = new HashSet<>(1);
         toAdd = new ArrayList<>(1);
         listeners = new ArrayList<>(1);
+        router = new NetworkableRouter();
+        toRoute = new ArrayList<>(1);
         willAdd = false;
     }
 
@@ -95,6 +103,30 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
     public void addNetworkable(Networkable networkable)
     {
         toAdd.add(networkable);
+        toRoute.add(() -> router.addFallback(networkable));
+        willAdd = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws LionEngineException If invalid argument(s).
+     */
+    @Override
+    public void addNetworkableEntity(short entityId, Networkable networkable)
+    {
+        Check.superiorOrEqual(entityId, 0);
+
+        toAdd.add(networkable);
+        toRoute.add(() -> router.addEntity(entityId, networkable));
+        willAdd = true;
+    }
+
+    @Override
+    public void addNetworkableType(byte type, Networkable networkable)
+    {
+        toAdd.add(networkable);
+        toRoute.add(() -> router.addType(type, networkable));
         willAdd = true;
     }
 
@@ -102,6 +134,7 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
     public void removeNetworkable(Networkable networkable)
     {
         networkables.remove(networkable);
+        router.remove(networkable);
     }
 
     @Override
@@ -137,15 +170,17 @@ abstract class NetworkedWorldModel<L extends ClientListener, N extends NetworkMo
                 networkables.add(networkable);
             }
             toAdd.clear();
+            for (final Runnable route : toRoute)
+            {
+                route.run();
+            }
+            toRoute.clear();
             willAdd = false;
         }
         network.receiveMessages();
         for (final NetworkMessage message : network.getMessages())
         {
-            for (final Networkable networkable : networkables)
-            {
-                networkable.applyMessage(message);
-            }
+            router.route(message);
         }
     }
 
@@ -34,6 +34,17 @@ public class NetworkedWorldModelClient extends NetworkedWorldModel<ConnectionLis
         super(new ClientImpl(decoder));
     }
 
+    /**
+     * Constructor.
+     * 
+     * @param decoder The decoder reference.
+     * @param transport The transport used.
+     */
+    public NetworkedWorldModelClient(NetworkMessageDecoder decoder, NetworkTransport transport)
+    {
+        super(new ClientImpl(decoder, transport));
+    }
+
     /*
      * NetworkedWorld
      */
@@ -34,6 +34,17 @@ public class NetworkedWorldModelServer extends NetworkedWorldModel<ClientListene
         super(new ServerImpl(decoder));
     }
 
+    /**
+     * Constructor.
+     * 
+     * @param decoder The decoder reference.
+     * @param transport The transport used.
+     */
+    public NetworkedWorldModelServer(NetworkMessageDecoder decoder, NetworkTransport transport)
+    {
+        super(new ServerImpl(decoder, transport));
+    }
+
     /*
      * NetworkedWorld
      */
@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshot;
+import com.b3dgs.lionengine.network.purview.Networkable;
+import com.b3dgs.lionengine.network.purview.ReplicaSchema;
+import com.b3dgs.lionengine.network.purview.Replicable;
+
+/**
+ * Client side snapshot replication, applying {@link ReplicationServer} snapshots to local {@link Replicable}.
+ * <p>
+ * Each received snapshot is decoded against its baseline, applied to changed entities, kept as a future baseline, then
+ * acknowledged. Older snapshots received out of order are ignored.
+ * </p>
+ * <p>
+ * Must be added to the client world with {@link NetworkedWorld#addNetworkableType(byte, Networkable)} for the
+ * snapshot type. All {@link ReplicaSchema} used by server must be added.
+ * </p>
+ */
+public final class ReplicationClient implements Networkable
+{
+    /** Number of schemas. */
+    private static final int SCHEMAS = 256;
+    /** Schema id mask. */
+    private static final int SCHEMA_MASK = 0xFF;
+
+    /** Received snapshots, indexed by tick modulo {@link ReplicationServer#HISTORY}. */
+    private final Snapshot[] history = new Snapshot[ReplicationServer.HISTORY];
+    /** Known schemas, indexed by unsigned schema id. */
+    private final ReplicaSchema[] schemas = new ReplicaSchema[SCHEMAS];
+    /** Listeners. */
+    private final Collection<ReplicationListener> listeners = new ArrayList<>();
+    /** Messages to send. */
+    private final Collection<NetworkMessage> messages = new ArrayList<>();
+    /** Empty baseline. */
+    private final Snapshot empty = new Snapshot(NetworkMessageSnapshot.NO_BASELINE);
+    /** Decoded changes applier. */
+    private final SnapshotCodec.Listener applier = new Applier();
+    /** Snapshot message type. */
+    private final byte snapshotType;
+    /** Acknowledgement message type. */
+    private final byte ackType;
+    /** Replicables by entity id. */
+    private Replicable[] replicables = new Replicable[0];
+    /** Fields buffer. */
+    private int[] fields = new int[0];
+    /** Last received tick. */
+    private int last = NetworkMessageSnapshot.NO_BASELINE;
+    /** Client id. */
+    private Byte clientId = Byte.valueOf((byte) -1);
+
+    /**
+     * Create replication.
+     * 
+     * @param snapshotType The snapshot message type.
+     * @param ackType The acknowledgement message type.
+     */
+    public ReplicationClient(byte snapshotType, byte ackType)
+    {
+        super();
+
+        this.snapshotType = snapshotType;
+        this.ackType = ackType;
+    }
+
+    /**
+     * Add a known schema.
+     * 
+     * @param schema The schema to add.
+     * @throws LionEngineException If invalid argument(s).
+     */
+    public void addSchema(ReplicaSchema schema)
+    {
+        Check.notNull(schema);
+
+        schemas[schema.getId() & SCHEMA_MASK] = schema;
+    }
+
+    /**
+     * Add a replicable receiving the fields of its entity id. Replaces the previous one with the same entity id.
+     * 
+     * @param replicable The replicable to add (entity id must be positive and fit in snapshot id bits).
+     * @throws LionEngineException If invalid argument(s).
+     */
+    public void addReplicable(Replicable replicable)
+    {
+        Check.notNull(replicable);
+        Check.superiorOrEqual(replicable.getEntityId(), 0);
+        Check.inferiorStrict(replicable.getEntityId(), 1 << SnapshotCodec.ID_BITS);
+
+        final int id = replicable.getEntityId();
+        if (id >= replicables.length)
+        {
+            replicables = Arrays.copyOf(replicables, Math.max(id + 1, replicables.length * 2));
+        }
+        replicables[id] = replicable;
+    }
+
+    /**
+     * Remove a replicable.
+     * 
+     * @param replicable The replicable to remove.
+     */
+    public void removeReplicable(Replicable replicable)
+    {
+        final int id = replicable.getEntityId();
+        if (getReplicable(id) == replicable)
+        {
+            replicables[id] = null;
+        }
+    }
+
+    /**
+     * Add a replication listener.
+     * 
+     * @param listener The listener to add.
+     * @throws LionEngineException If invalid argument(s).
+     */
+    public void addListener(ReplicationListener listener)
+    {
+        Check.notNull(listener);
+
+        listeners.add(listener);
+    }
+
+    /**
+     * Get the last received snapshot tick.
+     * 
+     * @return The last received tick ({@link NetworkMessageSnapshot#NO_BASELINE} if none).
+     */
+    public int getLastTick()
+    {
+        return last;
+    }
+
+    /**
+     * Get replicable by entity id.
+     * 
+     * @param id The entity id.
+     * @return The replicable, <code>null</code> if none.
+     */
+    private Replicable getReplicable(int id)
+    {
+        if (id > -1 && id < replicables.length)
+        {
+            return replicables[id];
+        }
+        return null;
+    }
+
+    /**
+     * Get the received baseline.
+     * 
+     * @param tick The baseline tick.
+     * @return The baseline snapshot, <code>null</code> if not available.
+     */
+    private Snapshot getBaseline(int tick)
+    {
+        if (tick == NetworkMessageSnapshot.NO_BASELINE)
+        {
+            return empty;
+        }
+        final Snapshot baseline = history[tick % ReplicationServer.HISTORY];
+        if (baseline != null && baseline.getTick() == tick)
+        {
+            return baseline;
+        }
+        return null;
+    }
+
+    /**
+     * Decode and apply snapshot, then acknowledge it.
+     * 
+     * @param snapshot The received snapshot.
+     */
+    private void receive(NetworkMessageSnapshot snapshot)
+    {
+        final int tick = snapshot.getTick();
+        final Snapshot baseline = getBaseline(snapshot.getBaseline());
+        if (tick <= last || baseline == null)
+        {
+            return;
+        }
+        final int index = tick % ReplicationServer.HISTORY;
+        if (history[index] == null)
+        {
+            history[index] = new Snapshot(tick);
+        }
+        final Snapshot target = history[index];
+        target.reset(tick);
+        try
+        {
+            SnapshotCodec.decode(baseline, new BitReader(snapshot.getData()), schemas, target, applier);
+            last = tick;
+            messages.add(new NetworkMessageSnapshot(ackType, snapshot.getClientDestId(), tick));
+        }
+        catch (final IOException exception)
+        {
+            target.reset(NetworkMessageSnapshot.NO_BASELINE);
+            Verbose.exception(exception, "Invalid snapshot: ", String.valueOf(tick));
+        }
+    }
+
+    /*
+     * Networkable
+     */
+
+    @Override
+    public void applyMessage(NetworkMessage message)
+    {
+        if (message.getType() == snapshotType && message instanceof NetworkMessageSnapshot)
+        {
+            receive((NetworkMessageSnapshot) message);
+        }
+    }
+
+    @Override
+    public void addNetworkMessage(NetworkMessage message)
+    {
+        messages.add(message);
+    }
+
+    @Override
+    public Collection<NetworkMessage> getNetworkMessages()
+    {
+        return messages;
+    }
+
+    @Override
+    public void clearNetworkMessages()
+    {
+        messages.clear();
+    }
+
+    @Override
+    public void setClientId(Byte id)
+    {
+        clientId = id;
+    }
+
+    @Override
+    public Byte getClientId()
+    {
+        return clientId;
+    }
+
+    /**
+     * Apply decoded changes to replicables.
+     */
+    private final class Applier implements SnapshotCodec.Listener
+    {
+        /**
+         * Create applier.
+         */
+        Applier()
+        {
+            super();
+        }
+
+        @Override
+        public void notifyUpdated(short id, Snapshot snapshot, int index, boolean created)
+        {
+            final ReplicaSchema schema = snapshot.getSchema(index);
+            if (created && getReplicable(id) == null)
+            {
+                for (final ReplicationListener listener : listeners)
+                {
+                    listener.notifyReplicaCreated(id, schema);
+                }
+            }
+            final Replicable replicable = getReplicable(id);
+            if (replicable != null)
+            {
+                final int count = schema.getFields();
+                if (fields.length < count)
+                {
+                    fields = new int[count];
+                }
+                System.arraycopy(snapshot.getData(), snapshot.getOffset(index), fields, 0, count);
+                replicable.readFields(fields);
+            }
+        }
+
+        @Override
+        public void notifyRemoved(short id)
+        {
+            if (getReplicable(id) != null)
+            {
+                replicables[id] = null;
+            }
+            for (final ReplicationListener listener : listeners)
+            {
+                listener.notifyReplicaRemoved(id);
+            }
+        }
+    }
+}
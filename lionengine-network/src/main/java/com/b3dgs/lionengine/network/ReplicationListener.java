@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import com.b3dgs.lionengine.network.purview.ReplicaSchema;
+
+/**
+ * Notified by {@link ReplicationClient} when replicated entities appear or disappear.
+ */
+public interface ReplicationListener
+{
+    /**
+     * Notify a new replicated entity, not yet added to the replication. A {@link ReplicationClient#addReplicable}
+     * during this call receives the entity fields immediately.
+     * 
+     * @param entityId The entity id.
+     * @param schema The entity schema.
+     */
+    void notifyReplicaCreated(short entityId, ReplicaSchema schema);
+
+    /**
+     * Notify a replicated entity removed by server.
+     * 
+     * @param entityId The entity id.
+     */
+    void notifyReplicaRemoved(short entityId);
+}
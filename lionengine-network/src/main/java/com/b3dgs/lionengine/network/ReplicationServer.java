@@ -0,0 +1,308 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.Updatable;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshot;
+import com.b3dgs.lionengine.network.purview.Networkable;
+import com.b3dgs.lionengine.network.purview.ReplicaSchema;
+import com.b3dgs.lionengine.network.purview.Replicable;
+
+/**
+ * Server side snapshot replication.
+ * <p>
+ * On each update, the fields of all {@link Replicable} are captured in a snapshot, and each client receives a single
+ * {@link NetworkMessageSnapshot} containing the delta against the last snapshot it acknowledged (or full state if
+ * none).
+ * </p>
+ * <p>
+ * Must be added to the server world with {@link NetworkedWorld#addNetworkableType(byte, Networkable)} for the
+ * acknowledgement type, and as a client listener.
+ * </p>
+ */
+public final class ReplicationServer implements Networkable, ClientListener, Updatable
+{
+    /** Number of kept snapshots (maximum acknowledgement delay in ticks). */
+    static final int HISTORY = 32;
+
+    /** Snapshots history, indexed by tick modulo {@link #HISTORY}. */
+    private final Snapshot[] history = new Snapshot[HISTORY];
+    /** Last acknowledged tick by client id. */
+    private final Map<Byte, Integer> acks = new HashMap<>();
+    /** Encoded deltas of current tick by baseline tick. */
+    private final Map<Integer, byte[]> encoded = new HashMap<>();
+    /** Messages to send. */
+    private final Collection<NetworkMessage> messages = new ArrayList<>();
+    /** Delta writer. */
+    private final BitWriter writer = new BitWriter();
+    /** Empty baseline. */
+    private final Snapshot empty = new Snapshot(NetworkMessageSnapshot.NO_BASELINE);
+    /** Snapshot message type. */
+    private final byte snapshotType;
+    /** Acknowledgement message type. */
+    private final byte ackType;
+    /** Replicables by entity id. */
+    private Replicable[] replicables = new Replicable[0];
+    /** Fields buffer. */
+    private int[] fields = new int[0];
+    /** Current tick. */
+    private int tick;
+    /** Client id. */
+    private Byte clientId = Byte.valueOf((byte) -1);
+
+    /**
+     * Create replication.
+     * 
+     * @param snapshotType The snapshot message type.
+     * @param ackType The acknowledgement message type.
+     */
+    public ReplicationServer(byte snapshotType, byte ackType)
+    {
+        super();
+
+        this.snapshotType = snapshotType;
+        this.ackType = ackType;
+    }
+
+    /**
+     * Add a replicable. Replaces the previous one with the same entity id.
+     * 
+     * @param replicable The replicable to add (entity id must be positive and fit in snapshot id bits).
+     * @throws LionEngineException If invalid argument(s).
+     */
+    public void addReplicable(Replicable replicable)
+    {
+        Check.notNull(replicable);
+        Check.superiorOrEqual(replicable.getEntityId(), 0);
+        Check.inferiorStrict(replicable.getEntityId(), 1 << SnapshotCodec.ID_BITS);
+
+        final int id = replicable.getEntityId();
+        if (id >= replicables.length)
+        {
+            replicables = Arrays.copyOf(replicables, Math.max(id + 1, replicables.length * 2));
+        }
+        replicables[id] = replicable;
+    }
+
+    /**
+     * Remove a replicable. Clients are notified on next update.
+     * 
+     * @param replicable The replicable to remove.
+     */
+    public void removeReplicable(Replicable replicable)
+    {
+        final int id = replicable.getEntityId();
+        if (id > -1 && id < replicables.length && replicables[id] == replicable)
+        {
+            replicables[id] = null;
+        }
+    }
+
+    /**
+     * Get the next snapshot tick.
+     * 
+     * @return The next snapshot tick.
+     */
+    public int getTick()
+    {
+        return tick;
+    }
+
+    /**
+     * Capture the current snapshot.
+     * 
+     * @return The captured snapshot.
+     */
+    private Snapshot capture()
+    {
+        final int index = tick % HISTORY;
+        if (history[index] == null)
+        {
+            history[index] = new Snapshot(tick);
+        }
+        final Snapshot snapshot = history[index];
+        snapshot.reset(tick);
+        for (int id = 0; id < replicables.length; id++)
+        {
+            final Replicable replicable = replicables[id];
+            if (replicable != null)
+            {
+                final ReplicaSchema schema = replicable.getSchema();
+                final int count = schema.getFields();
+                if (fields.length < count)
+                {
+                    fields = new int[count];
+                }
+                replicable.writeFields(fields);
+                final int offset = snapshot.add((short) id, schema);
+                final int[] data = snapshot.getData();
+                for (int i = 0; i < count; i++)
+                {
+                    data[offset + i] = fields[i] & schema.getMask(i);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get the baseline from acknowledged tick.
+     * 
+     * @param ack The acknowledged tick.
+     * @return The baseline snapshot, empty if none or too old.
+     */
+    private Snapshot getBaseline(int ack)
+    {
+        if (ack < 0 || tick - ack >= HISTORY)
+        {
+            return empty;
+        }
+        final Snapshot baseline = history[ack % HISTORY];
+        if (baseline == null || baseline.getTick() != ack)
+        {
+            return empty;
+        }
+        return baseline;
+    }
+
+    /**
+     * Get the delta against baseline, encoded once per baseline.
+     * 
+     * @param baseline The baseline snapshot.
+     * @param current The current snapshot.
+     * @return The encoded delta.
+     */
+    private byte[] getDelta(Snapshot baseline, Snapshot current)
+    {
+        final Integer key = Integer.valueOf(baseline.getTick());
+        byte[] data = encoded.get(key);
+        if (data == null)
+        {
+            writer.reset();
+            SnapshotCodec.encode(baseline, current, writer);
+            data = writer.toByteArray();
+            encoded.put(key, data);
+        }
+        return data;
+    }
+
+    /*
+     * Updatable
+     */
+
+    /**
+     * Capture snapshot and prepare one message per client.
+     * 
+     * @param extrp Not used.
+     */
+    @Override
+    public void update(double extrp)
+    {
+        final Snapshot current = capture();
+        encoded.clear();
+        for (final Map.Entry<Byte, Integer> client : acks.entrySet())
+        {
+            final Snapshot baseline = getBaseline(client.getValue().intValue());
+            messages.add(new NetworkMessageSnapshot(snapshotType,
+                                                    client.getKey().byteValue(),
+                                                    tick,
+                                                    baseline.getTick(),
+                                                    getDelta(baseline, current)));
+        }
+        tick++;
+    }
+
+    /*
+     * Networkable
+     */
+
+    @Override
+    public void applyMessage(NetworkMessage message)
+    {
+        if (message.getType() == ackType && message instanceof NetworkMessageSnapshot)
+        {
+            final Byte client = Byte.valueOf(message.getClientId());
+            final Integer ack = acks.get(client);
+            final int received = ((NetworkMessageSnapshot) message).getTick();
+            if (ack != null && received > ack.intValue() && received < tick)
+            {
+                acks.put(client, Integer.valueOf(received));
+            }
+        }
+    }
+
+    @Override
+    public void addNetworkMessage(NetworkMessage message)
+    {
+        messages.add(message);
+    }
+
+    @Override
+    public Collection<NetworkMessage> getNetworkMessages()
+    {
+        return messages;
+    }
+
+    @Override
+    public void clearNetworkMessages()
+    {
+        messages.clear();
+    }
+
+    @Override
+    public void setClientId(Byte id)
+    {
+        clientId = id;
+    }
+
+    @Override
+    public Byte getClientId()
+    {
+        return clientId;
+    }
+
+    /*
+     * ClientListener
+     */
+
+    @Override
+    public void notifyClientConnected(Byte id, String name)
+    {
+        acks.put(id, Integer.valueOf(NetworkMessageSnapshot.NO_BASELINE));
+    }
+
+    @Override
+    public void notifyClientDisconnected(Byte id, String name)
+    {
+        acks.remove(id);
+    }
+
+    @Override
+    public void notifyClientNameChanged(Byte id, String name)
+    {
+        // Nothing to do
+    }
+}
@@ -17,8 +17,8 @@
 package com.b3dgs.lionengine.network;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
@@ -31,6 +31,7 @@ import java.util.Map;
 import com.b3dgs.lionengine.LionEngineException;
 import com.b3dgs.lionengine.Timing;
 import com.b3dgs.lionengine.Verbose;
+import com.b3dgs.lionengine.network.message.NetworkDelivery;
 import com.b3dgs.lionengine.network.message.NetworkMessage;
 import com.b3dgs.lionengine.network.message.NetworkMessageDecoder;
 
@@ -42,6 +43,10 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
 {
     /** Server name log. */
     private static final String SERVER = "Server: ";
+    /** User message header size (system id, from, destination, type, length). */
+    private static final int HEADER_SIZE = 4 + Integer.BYTES;
+    /** Initial tick buffer capacity. */
+    private static final int TICK_CAPACITY = 4096;
 
     /**
      * Send the id and the name to the client.
@@ -51,7 +56,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param name The name to send.
      * @throws IOException In case of error.
      */
-    private static void writeIdAndName(ClientSocket client, int id, String name) throws IOException
+    private static void writeIdAndName(ClientConnection client, int id, String name) throws IOException
     {
         // New client id
         client.getOut().writeByte(id);
@@ -69,21 +74,31 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param expected The expected client state.
      * @return <code>true</code> if valid, <code>false</code> else.
      */
-    private static boolean checkValidity(ClientSocket client, byte from, StateConnection expected)
+    private static boolean checkValidity(ClientConnection client, byte from, StateConnection expected)
     {
         return from >= 0 && client.getState() == expected;
     }
 
     /** Client list. */
-    private final Map<Byte, ClientSocket> clients;
+    private final Map<Byte, ClientConnection> clients;
     /** Remove list. */
-    private final Collection<ClientSocket> toRemove;
+    private final Collection<ClientConnection> toRemove;
     /** Average bandwidth. */
     private final Timing bandwidthTimer;
+    /** Encoded messages of current tick, reused between ticks. */
+    private final MessageBuffer tick;
+    /** Transport used. */
+    private final NetworkTransport transport;
     /** Connection listener. */
     private ClientConnecter clientConnectionListener;
     /** Server socket. */
     private ServerSocket serverSocket;
+    /** Selector thread (<code>null</code> if not {@link NetworkTransport#NIO}). */
+    private FrameSelector selector;
+    /** Datagram selector thread (<code>null</code> if not {@link NetworkTransport#UDP}). */
+    private DatagramSelector datagrams;
+    /** Datagram network conditions simulator (<code>null</code> if none). */
+    private DatagramSimulator simulator;
     /** Current port. */
     private int port;
     /** Message of the day. */
@@ -100,6 +115,14 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
     private int bandwidth;
     /** Bandwidth per second. */
     private int bandwidthPerSecond;
+    /** Encoded messages end offset in tick buffer, reused between ticks. */
+    private int[] ends;
+    /** Encoded messages destination, reused between ticks. */
+    private byte[] destinations;
+    /** Encoded messages delivery, reused between ticks. */
+    private NetworkDelivery[] deliveries;
+    /** Number of encoded messages in current tick. */
+    private int encoded;
 
     /**
      * Internal constructor.
@@ -107,11 +130,27 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param decoder The message decoder.
      */
     ServerImpl(NetworkMessageDecoder decoder)
+    {
+        this(decoder, NetworkTransport.STREAM);
+    }
+
+    /**
+     * Internal constructor.
+     * 
+     * @param decoder The message decoder.
+     * @param transport The transport used.
+     */
+    ServerImpl(NetworkMessageDecoder decoder, NetworkTransport transport)
     {
         super(decoder);
+        this.transport = transport;
         clients = new HashMap<>(1);
         toRemove = new HashSet<>(1);
         bandwidthTimer = new Timing();
+        tick = new MessageBuffer(TICK_CAPACITY);
+        ends = new int[0];
+        destinations = new byte[0];
+        deliveries = new NetworkDelivery[0];
         willRemove = false;
         clientsNumber = 0;
         messageOfTheDay = null;
@@ -130,27 +169,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
     {
         try
         {
-            int secure = 0;
-            while (clients.containsKey(Byte.valueOf(lastId)))
-            {
-                lastId++;
-                secure++;
-                final int max = 127;
-                if (secure > max)
-                {
-                    break;
-                }
-            }
-            // Prepare first data
-            final ClientSocket client = new ClientSocket(lastId, socket);
-            client.setState(StateConnection.CONNECTING);
-            client.getOut().writeByte(NetworkMessageSystemId.CONNECTING);
-            client.getOut().writeByte(client.getId());
-            client.getOut().flush();
-
-            // Update list
-            clients.put(Byte.valueOf(client.getId()), client);
-            clientsNumber++;
+            addClient(new ClientSocket(nextId(), socket));
         }
         catch (final IOException exception)
         {
@@ -167,7 +186,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * 
      * @param client The client to remove.
      */
-    void removeClient(ClientSocket client)
+    void removeClient(ClientConnection client)
     {
         if (client != null)
         {
@@ -179,6 +198,217 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
         }
     }
 
+    /**
+     * Set the network conditions simulator applied on sent datagrams. Must be set before {@link #start(String, int)}.
+     * Only used with {@link NetworkTransport#UDP}.
+     * 
+     * @param simulator The simulator (<code>null</code> if none).
+     */
+    void setSimulator(DatagramSimulator simulator)
+    {
+        this.simulator = simulator;
+    }
+
+    /**
+     * Add a client accepted by the datagram selector thread.
+     * 
+     * @param peer The accepted peer.
+     */
+    private void notifyNewClientConnected(DatagramPeer peer)
+    {
+        try
+        {
+            addClient(new ClientConnectionDatagram(nextId(), peer));
+        }
+        catch (final IOException exception)
+        {
+            errorNewClientConnected(exception);
+        }
+    }
+
+    /**
+     * Add a client accepted by the selector thread.
+     * 
+     * @param channel The accepted channel.
+     */
+    private void notifyNewClientConnected(FrameChannel channel)
+    {
+        try
+        {
+            addClient(new ClientConnectionNio(nextId(), channel));
+        }
+        catch (final IOException exception)
+        {
+            errorNewClientConnected(exception);
+        }
+    }
+
+    /**
+     * Find the next free client id.
+     * 
+     * @return The next free client id.
+     */
+    private byte nextId()
+    {
+        int secure = 0;
+        while (clients.containsKey(Byte.valueOf(lastId)))
+        {
+            lastId++;
+            secure++;
+            final int max = 127;
+            if (secure > max)
+            {
+                break;
+            }
+        }
+        return lastId;
+    }
+
+    /**
+     * Send the first data to the new client and add it to the list.
+     * 
+     * @param client The client to add.
+     * @throws IOException If error when writing.
+     */
+    private void addClient(ClientConnection client) throws IOException
+    {
+        // Prepare first data
+        client.setState(StateConnection.CONNECTING);
+        client.getOut().writeByte(NetworkMessageSystemId.CONNECTING);
+        client.getOut().writeByte(client.getId());
+        client.getOut().flush();
+
+        // Update list
+        clients.put(Byte.valueOf(client.getId()), client);
+        clientsNumber++;
+    }
+
+    /**
+     * Update client with its received data.
+     * 
+     * @param client The client reference.
+     * @param data The received data.
+     */
+    private void updateClient(ClientConnection client, byte[] data)
+    {
+        try (DataInputStream buffer = new DataInputStream(new ByteArrayInputStream(data)))
+        {
+            final byte messageSystemId = buffer.readByte();
+            final byte from = buffer.readByte();
+
+            // Check id
+            if (from == client.getId())
+            {
+                // Check message header type
+                updateMessage(client, buffer, messageSystemId, from);
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Error on updating server");
+        }
+    }
+
+    /**
+     * Encode all messages of the tick once, with their user message header.
+     */
+    private void encodeMessages()
+    {
+        final int count = messagesOut.size();
+        if (ends.length < count)
+        {
+            ends = new int[count];
+            destinations = new byte[count];
+            deliveries = new NetworkDelivery[count];
+        }
+        tick.reset();
+        encoded = 0;
+        for (final NetworkMessage message : messagesOut)
+        {
+            if (message.getClientDestId() == NetworkMessage.SERVER)
+            {
+                continue;
+            }
+            final int start = tick.size();
+            try
+            {
+                // Message header
+                tick.write(NetworkMessageSystemId.USER_MESSAGE);
+                tick.write(message.getClientId());
+                tick.write(message.getClientDestId());
+                tick.write(message.getType());
+                // Message content, length written once known
+                final int length = tick.reserveInt();
+                message.encodeTo(tick);
+                tick.setInt(length, tick.size() - start - HEADER_SIZE);
+
+                ends[encoded] = tick.size();
+                destinations[encoded] = message.getClientDestId();
+                deliveries[encoded] = message.getDelivery();
+                encoded++;
+            }
+            catch (final IOException exception)
+            {
+                tick.truncate(start);
+                Verbose.exception(exception, "Unable to encode the message: ", String.valueOf(message.getType()));
+            }
+        }
+    }
+
+    /**
+     * Send the encoded messages addressed to the client with a single flush per delivery. Consecutive messages of the
+     * same delivery are written at once.
+     * 
+     * @param client The client to send to.
+     */
+    private void sendMessages(ClientConnection client)
+    {
+        final byte id = client.getId();
+        int written = 0;
+        int start = -1;
+        NetworkDelivery delivery = null;
+        try
+        {
+            for (int i = 0; i < encoded; i++)
+            {
+                final int begin = i > 0 ? ends[i - 1] : 0;
+                final boolean addressed = destinations[i] == id || destinations[i] == -1;
+                if (start > -1 && (!addressed || deliveries[i] != delivery))
+                {
+                    tick.writeTo(client.getOut(delivery), start, begin - start);
+                    written += begin - start;
+                    start = -1;
+                }
+                if (addressed && start < 0)
+                {
+                    start = begin;
+                    delivery = deliveries[i];
+                }
+            }
+            if (start > -1)
+            {
+                final int end = ends[encoded - 1];
+                tick.writeTo(client.getOut(delivery), start, end - start);
+                written += end - start;
+            }
+            if (written > 0)
+            {
+                final DataOutputStream out = client.getOut(NetworkDelivery.RELIABLE_ORDERED);
+                out.flush();
+                final DataOutputStream sequenced = client.getOut(NetworkDelivery.UNRELIABLE_SEQUENCED);
+                if (sequenced != out)
+                {
+                    sequenced.flush();
+                }
+                bandwidth += written;
+            }
+        }
+        catch (final IOException exception)
+        {
+            Verbose.exception(exception, "Unable to send the messages for client: ", String.valueOf(id));
+        }
+    }
+
     /**
      * Error on new client connection.
      * 
@@ -202,7 +432,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param expected The expected client state.
      * @throws IOException If error.
      */
-    private void receiveConnecting(ClientSocket client, DataInputStream buffer, byte from, StateConnection expected)
+    private void receiveConnecting(ClientConnection client, DataInputStream buffer, byte from, StateConnection expected)
             throws IOException
     {
         if (ServerImpl.checkValidity(client, from, expected))
@@ -222,7 +452,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
             client.getOut().writeByte(clientsNumber - 1);
 
             // Send the list of other clients
-            for (final ClientSocket other : clients.values())
+            for (final ClientConnection other : clients.values())
             {
                 if (other.getId() != from)
                 {
@@ -249,7 +479,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param expected The expected client state.
      * @throws IOException If error.
      */
-    private void receiveConnected(ClientSocket client, byte from, StateConnection expected) throws IOException
+    private void receiveConnected(ClientConnection client, byte from, StateConnection expected) throws IOException
     {
         if (ServerImpl.checkValidity(client, from, expected))
         {
@@ -261,7 +491,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
             }
 
             // Notify other clients
-            for (final ClientSocket other : clients.values())
+            for (final ClientConnection other : clients.values())
             {
                 if (other.getId() == from)
                 {
@@ -283,7 +513,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param expected The expected client state.
      * @throws IOException If error.
      */
-    private void receiveDisconnected(ClientSocket client, byte from, StateConnection expected) throws IOException
+    private void receiveDisconnected(ClientConnection client, byte from, StateConnection expected) throws IOException
     {
         if (ServerImpl.checkValidity(client, from, expected))
         {
@@ -293,7 +523,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
             {
                 listener.notifyClientDisconnected(Byte.valueOf(client.getId()), client.getName());
             }
-            for (final ClientSocket other : clients.values())
+            for (final ClientConnection other : clients.values())
             {
                 if (other.getId() == from || other.getState() != StateConnection.CONNECTED)
                 {
@@ -317,7 +547,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param expected The expected client state.
      * @throws IOException If error.
      */
-    private void receiveRenamed(ClientSocket client, DataInputStream buffer, byte from, StateConnection expected)
+    private void receiveRenamed(ClientConnection client, DataInputStream buffer, byte from, StateConnection expected)
             throws IOException
     {
         if (ServerImpl.checkValidity(client, from, expected))
@@ -338,7 +568,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
             }
 
             // Notify all clients
-            for (final ClientSocket other : clients.values())
+            for (final ClientConnection other : clients.values())
             {
                 other.getOut().writeByte(NetworkMessageSystemId.OTHER_CLIENT_RENAMED);
                 ServerImpl.writeIdAndName(other, client.getId(), client.getName());
@@ -356,7 +586,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param expected The expected client state.
      * @throws IOException If error.
      */
-    private void receiveMessage(ClientSocket client, DataInputStream buffer, byte from, StateConnection expected)
+    private void receiveMessage(ClientConnection client, DataInputStream buffer, byte from, StateConnection expected)
             throws IOException
     {
         if (ServerImpl.checkValidity(client, from, expected))
@@ -387,7 +617,7 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
      * @param from The source ID.
      * @throws IOException If error when reading.
      */
-    private void updateMessage(ClientSocket client, DataInputStream buffer, byte messageSystemId, byte from)
+    private void updateMessage(ClientConnection client, DataInputStream buffer, byte messageSystemId, byte from)
             throws IOException
     {
         switch (messageSystemId)
@@ -434,9 +664,22 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
         {
             try
             {
-                serverSocket = new ServerSocket(port);
-                clientConnectionListener = new ClientConnecter(serverSocket, this);
-                clientConnectionListener.start();
+                if (NetworkTransport.NIO == transport)
+                {
+                    selector = new FrameSelector(port);
+                    selector.start();
+                }
+                else if (NetworkTransport.UDP == transport)
+                {
+                    datagrams = new DatagramSelector(port, simulator);
+                    datagrams.start();
+                }
+                else
+                {
+                    serverSocket = new ServerSocket(port);
+                    clientConnectionListener = new ClientConnecter(serverSocket, this);
+                    clientConnectionListener.start();
+                }
                 this.port = port;
                 bandwidthTimer.start();
                 started = true;
@@ -484,13 +727,16 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
             return;
         }
         receiveMessages();
-        clientConnectionListener.terminate();
+        if (clientConnectionListener != null)
+        {
+            clientConnectionListener.terminate();
+        }
 
         // Disconnect all clients
-        final Collection<ClientSocket> delete = new ArrayList<>(clients.size());
-        for (final ClientSocket client : clients.values())
+        final Collection<ClientConnection> delete = new ArrayList<>(clients.size());
+        for (final ClientConnection client : clients.values())
         {
-            for (final ClientSocket other : clients.values())
+            for (final ClientConnection other : clients.values())
             {
                 if (other.getId() == client.getId())
                 {
@@ -509,20 +755,33 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
             }
             delete.add(client);
         }
-        for (final ClientSocket client : delete)
+        for (final ClientConnection client : delete)
         {
             client.sendMessage(NetworkMessageSystemId.KICKED);
             removeClient(client);
         }
         delete.clear();
         clients.clear();
-        try
+        if (selector != null)
         {
-            serverSocket.close();
+            selector.terminate();
+            selector = null;
         }
-        catch (final IOException exception)
+        else if (datagrams != null)
         {
-            Verbose.exception(exception, "Error on closing server");
+            datagrams.terminate();
+            datagrams = null;
+        }
+        else
+        {
+            try
+            {
+                serverSocket.close();
+            }
+            catch (final IOException exception)
+            {
+                Verbose.exception(exception, "Error on closing server");
+            }
         }
         started = false;
     }
@@ -531,32 +790,32 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
     public void receiveMessages()
     {
         messagesIn.clear();
-        for (final ClientSocket client : clients.values())
+        if (selector != null)
         {
-            // Get client data from socket
-            final byte[] data = client.receiveMessages();
-            try (DataInputStream buffer = new DataInputStream(new ByteArrayInputStream(data)))
+            for (FrameChannel channel = selector.pollAccepted(); channel != null; channel = selector.pollAccepted())
             {
-                final byte messageSystemId = buffer.readByte();
-                final byte from = buffer.readByte();
-
-                // Check id
-                if (from != client.getId())
-                {
-                    continue;
-                }
-                // Check message header type
-                updateMessage(client, buffer, messageSystemId, from);
+                notifyNewClientConnected(channel);
             }
-            catch (final IOException exception)
+        }
+        if (datagrams != null)
+        {
+            for (DatagramPeer peer = datagrams.pollAccepted(); peer != null; peer = datagrams.pollAccepted())
+            {
+                notifyNewClientConnected(peer);
+            }
+        }
+        for (final ClientConnection client : clients.values())
+        {
+            // Get client data from connection
+            for (byte[] data = client.receiveMessages(); data != null; data = client.receiveMessages())
             {
-                Verbose.exception(exception, "Error on updating server");
+                updateClient(client, data);
             }
         }
         // Remove deleted clients
         if (willRemove)
         {
-            for (final ClientSocket client : toRemove)
+            for (final ClientConnection client : toRemove)
             {
                 clients.remove(Byte.valueOf(client.getId()));
             }
@@ -568,38 +827,14 @@ final class ServerImpl extends NetworkModel<ClientListener> implements Server
     @Override
     public void sendMessages()
     {
-        // Send messages
+        // Encode messages once, then send them to each client in one go
         messagesOut.addAll(messagesIn);
-        for (final NetworkMessage message : messagesOut)
+        encodeMessages();
+        if (encoded > 0)
         {
-            for (final ClientSocket client : clients.values())
+            for (final ClientConnection client : clients.values())
             {
-                if (!(message.getClientDestId() == client.getId() || message.getClientDestId() == -1))
-                {
-                    continue;
-                }
-                try (ByteArrayOutputStream encode = message.encode())
-                {
-                    final byte[] encoded = encode.toByteArray();
-                    // Message header
-                    client.getOut().writeByte(NetworkMessageSystemId.USER_MESSAGE);
-                    client.getOut().writeByte(message.getClientId());
-                    client.getOut().writeByte(message.getClientDestId());
-                    client.getOut().writeByte(message.getType());
-                    // Message content
-                    client.getOut().writeInt(encoded.length);
-                    client.getOut().write(encoded);
-                    client.getOut().flush();
-
-                    final int headerSize = 4;
-                    bandwidth += headerSize + encoded.length;
-                }
-                catch (final IOException exception)
-                {
-                    Verbose.exception(exception,
-                                      "Unable to send the messages for client: ",
-                                      String.valueOf(client.getId()));
-                }
+                sendMessages(client);
             }
         }
         final long bandwidthMilli = 1000L;
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.Arrays;
+
+import com.b3dgs.lionengine.network.purview.ReplicaSchema;
+
+/**
+ * Replicated fields of all entities at a tick, sorted by entity id and stored in flat reusable arrays.
+ */
+final class Snapshot
+{
+    /** Initial capacity. */
+    private static final int CAPACITY = 64;
+
+    /** Entities id, ascending. */
+    private short[] ids = new short[CAPACITY];
+    /** Entities schema. */
+    private ReplicaSchema[] schemas = new ReplicaSchema[CAPACITY];
+    /** Entities fields offset in data. */
+    private int[] offsets = new int[CAPACITY];
+    /** Fields values of all entities. */
+    private int[] data = new int[CAPACITY];
+    /** Snapshot tick. */
+    private int tick;
+    /** Number of entities. */
+    private int count;
+    /** Number of used values. */
+    private int size;
+
+    /**
+     * Create snapshot.
+     * 
+     * @param tick The snapshot tick.
+     */
+    Snapshot(int tick)
+    {
+        super();
+
+        this.tick = tick;
+    }
+
+    /**
+     * Clear entities to reuse snapshot for another tick.
+     * 
+     * @param tick The new tick.
+     */
+    void reset(int tick)
+    {
+        this.tick = tick;
+        Arrays.fill(schemas, 0, count, null);
+        count = 0;
+        size = 0;
+    }
+
+    /**
+     * Add an entity, with an id greater than previous one.
+     * 
+     * @param id The entity id.
+     * @param schema The entity schema.
+     * @return The entity fields offset in {@link #getData()}, to be filled by caller.
+     */
+    int add(short id, ReplicaSchema schema)
+    {
+        if (count == ids.length)
+        {
+            final int capacity = count * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            schemas = Arrays.copyOf(schemas, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+        }
+        final int offset = size;
+        size += schema.getFields();
+        if (size > data.length)
+        {
+            data = Arrays.copyOf(data, Math.max(size, data.length * 2));
+        }
+        ids[count] = id;
+        schemas[count] = schema;
+        offsets[count] = offset;
+        count++;
+        return offset;
+    }
+
+    /**
+     * Get the snapshot tick.
+     * 
+     * @return The snapshot tick.
+     */
+    int getTick()
+    {
+        return tick;
+    }
+
+    /**
+     * Get the number of entities.
+     * 
+     * @return The number of entities.
+     */
+    int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Get entity id.
+     * 
+     * @param index The entity index.
+     * @return The entity id.
+     */
+    short getId(int index)
+    {
+        return ids[index];
+    }
+
+    /**
+     * Get entity schema.
+     * 
+     * @param index The entity index.
+     * @return The entity schema.
+     */
+    ReplicaSchema getSchema(int index)
+    {
+        return schemas[index];
+    }
+
+    /**
+     * Get entity fields offset in {@link #getData()}.
+     * 
+     * @param index The entity index.
+     * @return The fields offset.
+     */
+    int getOffset(int index)
+    {
+        return offsets[index];
+    }
+
+    /**
+     * Get fields values of all entities. Reference changes when entities are added.
+     * 
+     * @return The fields values.
+     */
+    int[] getData()
+    {
+        return data;
+    }
+}
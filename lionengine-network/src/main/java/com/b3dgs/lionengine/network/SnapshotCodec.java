@@ -0,0 +1,359 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+
+import com.b3dgs.lionengine.LionEngineException;
+import com.b3dgs.lionengine.network.purview.ReplicaSchema;
+
+/**
+ * Encode a snapshot as a delta against a baseline snapshot, and decode it back.
+ * <p>
+ * Bit stream is a list of records sorted by entity id, each prefixed by a continuation flag:
+ * </p>
+ * <ul>
+ * <li><code>NEW</code>: entity id, schema id, all fields,</li>
+ * <li><code>CHANGED</code>: entity id, then for each field a changed flag followed by value if changed,</li>
+ * <li><code>REMOVED</code>: entity id.</li>
+ * </ul>
+ * <p>
+ * Unchanged entities are not written.
+ * </p>
+ */
+final class SnapshotCodec
+{
+    /** Entity id bits. */
+    static final int ID_BITS = 15;
+    /** Record kind bits. */
+    private static final int KIND_BITS = 2;
+    /** Schema id bits. */
+    private static final int SCHEMA_BITS = 8;
+    /** Schema id mask. */
+    private static final int SCHEMA_MASK = 0xFF;
+    /** New entity record. */
+    private static final int NEW = 0;
+    /** Changed entity record. */
+    private static final int CHANGED = 1;
+    /** Removed entity record. */
+    private static final int REMOVED = 2;
+    /** No entity id. */
+    private static final int NONE = Integer.MAX_VALUE;
+    /** Unknown schema error. */
+    private static final String ERROR_SCHEMA = "Unknown schema: ";
+    /** Invalid record error. */
+    private static final String ERROR_RECORD = "Invalid record for entity: ";
+
+    /**
+     * Decoded changes listener.
+     */
+    interface Listener
+    {
+        /**
+         * Notify entity created or updated.
+         * 
+         * @param id The entity id.
+         * @param snapshot The decoded snapshot.
+         * @param index The entity index in snapshot.
+         * @param created <code>true</code> if new entity, <code>false</code> if changed.
+         */
+        void notifyUpdated(short id, Snapshot snapshot, int index, boolean created);
+
+        /**
+         * Notify entity removed.
+         * 
+         * @param id The entity id.
+         */
+        void notifyRemoved(short id);
+    }
+
+    /**
+     * Encode the delta of current snapshot against baseline.
+     * 
+     * @param baseline The baseline snapshot (may be empty).
+     * @param current The current snapshot.
+     * @param out The output stream.
+     */
+    static void encode(Snapshot baseline, Snapshot current, BitWriter out)
+    {
+        int b = 0;
+        int c = 0;
+        while (b < baseline.getCount() || c < current.getCount())
+        {
+            final int bid = getId(baseline, b);
+            final int cid = getId(current, c);
+            if (cid < bid)
+            {
+                writeNew(current, c, out);
+                c++;
+            }
+            else if (bid < cid)
+            {
+                writeHeader(bid, REMOVED, out);
+                b++;
+            }
+            else
+            {
+                if (baseline.getSchema(b) != current.getSchema(c))
+                {
+                    writeNew(current, c, out);
+                }
+                else if (isChanged(baseline, b, current, c))
+                {
+                    writeChanged(baseline, b, current, c, out);
+                }
+                b++;
+                c++;
+            }
+        }
+        out.writeBoolean(false);
+    }
+
+    /**
+     * Decode a delta against baseline.
+     * 
+     * @param baseline The baseline snapshot (may be empty).
+     * @param in The delta stream.
+     * @param schemas The known schemas, indexed by unsigned schema id.
+     * @param target The decoded snapshot, already reset.
+     * @param listener The changes listener.
+     * @throws IOException If invalid stream.
+     */
+    static void decode(Snapshot baseline, BitReader in, ReplicaSchema[] schemas, Snapshot target, Listener listener)
+            throws IOException
+    {
+        int rid = in.readBoolean() ? in.read(ID_BITS) : NONE;
+        int b = 0;
+        while (b < baseline.getCount() || rid != NONE)
+        {
+            final int bid = getId(baseline, b);
+            if (rid <= bid)
+            {
+                final int kind = in.read(KIND_BITS);
+                final short id = (short) rid;
+                if (kind == NEW)
+                {
+                    readNew(id, in, schemas, target);
+                    listener.notifyUpdated(id, target, target.getCount() - 1, true);
+                }
+                else if (rid == bid && kind == CHANGED)
+                {
+                    readChanged(baseline, b, in, target);
+                    listener.notifyUpdated(id, target, target.getCount() - 1, false);
+                }
+                else if (rid == bid && kind == REMOVED)
+                {
+                    listener.notifyRemoved(id);
+                }
+                else
+                {
+                    throw new IOException(ERROR_RECORD + rid);
+                }
+                if (rid == bid)
+                {
+                    b++;
+                }
+                rid = in.readBoolean() ? in.read(ID_BITS) : NONE;
+            }
+            else
+            {
+                copy(baseline, b, target);
+                b++;
+            }
+        }
+    }
+
+    /**
+     * Get the entity id at index.
+     * 
+     * @param snapshot The snapshot reference.
+     * @param index The entity index.
+     * @return The entity id, {@link #NONE} if out of snapshot.
+     */
+    private static int getId(Snapshot snapshot, int index)
+    {
+        if (index < snapshot.getCount())
+        {
+            return snapshot.getId(index);
+        }
+        return NONE;
+    }
+
+    /**
+     * Check if entity fields changed.
+     * 
+     * @param baseline The baseline snapshot.
+     * @param b The baseline entity index.
+     * @param current The current snapshot.
+     * @param c The current entity index.
+     * @return <code>true</code> if at least one field changed, <code>false</code> else.
+     */
+    private static boolean isChanged(Snapshot baseline, int b, Snapshot current, int c)
+    {
+        final int fields = current.getSchema(c).getFields();
+        final int[] old = baseline.getData();
+        final int[] data = current.getData();
+        final int bo = baseline.getOffset(b);
+        final int co = current.getOffset(c);
+        for (int i = 0; i < fields; i++)
+        {
+            if (old[bo + i] != data[co + i])
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write record header.
+     * 
+     * @param id The entity id.
+     * @param kind The record kind.
+     * @param out The output stream.
+     */
+    private static void writeHeader(int id, int kind, BitWriter out)
+    {
+        out.writeBoolean(true);
+        out.write(id, ID_BITS);
+        out.write(kind, KIND_BITS);
+    }
+
+    /**
+     * Write new entity record.
+     * 
+     * @param current The current snapshot.
+     * @param c The entity index.
+     * @param out The output stream.
+     */
+    private static void writeNew(Snapshot current, int c, BitWriter out)
+    {
+        final ReplicaSchema schema = current.getSchema(c);
+        writeHeader(current.getId(c), NEW, out);
+        out.write(schema.getId(), SCHEMA_BITS);
+        final int[] data = current.getData();
+        final int offset = current.getOffset(c);
+        for (int i = 0; i < schema.getFields(); i++)
+        {
+            out.write(data[offset + i], schema.getBits(i));
+        }
+    }
+
+    /**
+     * Write changed entity record.
+     * 
+     * @param baseline The baseline snapshot.
+     * @param b The baseline entity index.
+     * @param current The current snapshot.
+     * @param c The current entity index.
+     * @param out The output stream.
+     */
+    private static void writeChanged(Snapshot baseline, int b, Snapshot current, int c, BitWriter out)
+    {
+        final ReplicaSchema schema = current.getSchema(c);
+        writeHeader(current.getId(c), CHANGED, out);
+        final int[] old = baseline.getData();
+        final int[] data = current.getData();
+        final int bo = baseline.getOffset(b);
+        final int co = current.getOffset(c);
+        for (int i = 0; i < schema.getFields(); i++)
+        {
+            final boolean changed = old[bo + i] != data[co + i];
+            out.writeBoolean(changed);
+            if (changed)
+            {
+                out.write(data[co + i], schema.getBits(i));
+            }
+        }
+    }
+
+    /**
+     * Read new entity record.
+     * 
+     * @param id The entity id.
+     * @param in The input stream.
+     * @param schemas The known schemas.
+     * @param target The decoded snapshot.
+     * @throws IOException If invalid stream.
+     */
+    private static void readNew(short id, BitReader in, ReplicaSchema[] schemas, Snapshot target) throws IOException
+    {
+        final int schemaId = in.read(SCHEMA_BITS);
+        final ReplicaSchema schema = schemas[schemaId & SCHEMA_MASK];
+        if (schema == null)
+        {
+            throw new IOException(ERROR_SCHEMA + schemaId);
+        }
+        final int offset = target.add(id, schema);
+        final int[] data = target.getData();
+        for (int i = 0; i < schema.getFields(); i++)
+        {
+            data[offset + i] = in.read(schema.getBits(i));
+        }
+    }
+
+    /**
+     * Read changed entity record.
+     * 
+     * @param baseline The baseline snapshot.
+     * @param b The baseline entity index.
+     * @param in The input stream.
+     * @param target The decoded snapshot.
+     * @throws IOException If invalid stream.
+     */
+    private static void readChanged(Snapshot baseline, int b, BitReader in, Snapshot target) throws IOException
+    {
+        final ReplicaSchema schema = baseline.getSchema(b);
+        final int offset = target.add(baseline.getId(b), schema);
+        final int[] old = baseline.getData();
+        final int[] data = target.getData();
+        final int bo = baseline.getOffset(b);
+        for (int i = 0; i < schema.getFields(); i++)
+        {
+            if (in.readBoolean())
+            {
+                data[offset + i] = in.read(schema.getBits(i));
+            }
+            else
+            {
+                data[offset + i] = old[bo + i];
+            }
+        }
+    }
+
+    /**
+     * Copy unchanged entity.
+     * 
+     * @param baseline The baseline snapshot.
+     * @param b The baseline entity index.
+     * @param target The decoded snapshot.
+     */
+    private static void copy(Snapshot baseline, int b, Snapshot target)
+    {
+        final ReplicaSchema schema = baseline.getSchema(b);
+        final int offset = target.add(baseline.getId(b), schema);
+        System.arraycopy(baseline.getData(), baseline.getOffset(b), target.getData(), offset, schema.getFields());
+    }
+
+    /**
+     * Private constructor.
+     */
+    private SnapshotCodec()
+    {
+        throw new LionEngineException(LionEngineException.ERROR_PRIVATE_CONSTRUCTOR);
+    }
+}
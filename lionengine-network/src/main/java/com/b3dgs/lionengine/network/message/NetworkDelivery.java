@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network.message;
+
+/**
+ * Delivery guarantee required by a message.
+ * <p>
+ * Only the datagram transport makes the distinction, stream transports always deliver reliable and ordered.
+ * </p>
+ */
+public enum NetworkDelivery
+{
+    /** Always delivered, in sending order. Suited for chat, commands and connection handling. */
+    RELIABLE_ORDERED,
+    /** May be lost, older messages are dropped once a newer one has been received. Suited for movement and state. */
+    UNRELIABLE_SEQUENCED;
+}
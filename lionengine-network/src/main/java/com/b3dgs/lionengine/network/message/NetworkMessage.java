@@ -31,6 +31,8 @@ public abstract class NetworkMessage
 {
     /** Charset. */
     public static final Charset CHARSET = NetworkMessage.getCharset("UTF-8");
+    /** Destination reaching server only, never relayed to clients. */
+    public static final byte SERVER = -2;
 
     /**
      * Get the charset.
@@ -137,6 +139,16 @@ public abstract class NetworkMessage
         return clientDestId;
     }
 
+    /**
+     * Get the delivery required by this message. Default is {@link NetworkDelivery#RELIABLE_ORDERED}.
+     * 
+     * @return The message delivery.
+     */
+    public NetworkDelivery getDelivery()
+    {
+        return NetworkDelivery.RELIABLE_ORDERED;
+    }
+
     /**
      * Encode the message.
      * 
@@ -146,13 +158,22 @@ public abstract class NetworkMessage
     public final ByteArrayOutputStream encode() throws IOException
     {
         final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        encodeTo(buffer);
+        return buffer;
+    }
 
+    /**
+     * Encode the message at the end of an existing buffer, allowing to reuse it for several messages.
+     * 
+     * @param buffer The buffer to write to.
+     * @throws IOException Error on writing.
+     */
+    public final void encodeTo(ByteArrayOutputStream buffer) throws IOException
+    {
         buffer.write(type);
         buffer.write(clientId);
         buffer.write(clientDestId);
         encode(buffer);
-
-        return buffer;
     }
 
     /**
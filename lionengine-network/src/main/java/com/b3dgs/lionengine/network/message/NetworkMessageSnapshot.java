@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network.message;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import com.b3dgs.lionengine.UtilConversion;
+
+/**
+ * Snapshot message, used for both directions:
+ * <ul>
+ * <li>server to client: delta of snapshot <code>tick</code> against acknowledged snapshot <code>baseline</code>,</li>
+ * <li>client to server: acknowledgement of snapshot <code>tick</code>, without data.</li>
+ * </ul>
+ */
+public class NetworkMessageSnapshot extends NetworkMessage
+{
+    /** No baseline. */
+    public static final int NO_BASELINE = -1;
+
+    /** Snapshot tick. */
+    private int tick;
+    /** Baseline tick ({@link #NO_BASELINE} if none). */
+    private int baseline;
+    /** Snapshot delta data. */
+    private byte[] data;
+
+    /**
+     * Constructor (used in decoding case).
+     */
+    public NetworkMessageSnapshot()
+    {
+        super();
+        baseline = NO_BASELINE;
+        data = new byte[0];
+    }
+
+    /**
+     * Create a snapshot delta (server side).
+     * 
+     * @param type The message type.
+     * @param clientDestId The client destination.
+     * @param tick The snapshot tick.
+     * @param baseline The baseline tick ({@link #NO_BASELINE} if none).
+     * @param data The snapshot delta data.
+     */
+    public NetworkMessageSnapshot(byte type, byte clientDestId, int tick, int baseline, byte[] data)
+    {
+        super(type, (byte) -1, clientDestId);
+        this.tick = tick;
+        this.baseline = baseline;
+        this.data = data;
+    }
+
+    /**
+     * Create a snapshot acknowledgement (client side).
+     * 
+     * @param type The message type.
+     * @param clientId The client id.
+     * @param tick The acknowledged snapshot tick.
+     */
+    public NetworkMessageSnapshot(byte type, byte clientId, int tick)
+    {
+        super(type, clientId, SERVER);
+        this.tick = tick;
+        baseline = NO_BASELINE;
+        data = new byte[0];
+    }
+
+    /**
+     * Get the snapshot tick.
+     * 
+     * @return The snapshot tick.
+     */
+    public int getTick()
+    {
+        return tick;
+    }
+
+    /**
+     * Get the baseline tick.
+     * 
+     * @return The baseline tick ({@link #NO_BASELINE} if none).
+     */
+    public int getBaseline()
+    {
+        return baseline;
+    }
+
+    /**
+     * Get the snapshot delta data.
+     * 
+     * @return The snapshot delta data.
+     */
+    public byte[] getData()
+    {
+        return data;
+    }
+
+    /*
+     * NetworkMessage
+     */
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Snapshots are sequenced: a lost snapshot is replaced by the next one, acknowledgements keep track of received
+     * ones.
+     * </p>
+     */
+    @Override
+    public NetworkDelivery getDelivery()
+    {
+        return NetworkDelivery.UNRELIABLE_SEQUENCED;
+    }
+
+    @Override
+    protected void encode(ByteArrayOutputStream buffer) throws IOException
+    {
+        buffer.write(UtilConversion.intToByteArray(tick));
+        buffer.write(UtilConversion.intToByteArray(baseline));
+        buffer.write(data);
+    }
+
+    @Override
+    protected void decode(DataInputStream buffer) throws IOException
+    {
+        tick = buffer.readInt();
+        baseline = buffer.readInt();
+        data = new byte[buffer.available()];
+        buffer.readFully(data);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network.purview;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Quantize a bounded real value (such as a position) on a fixed number of bits, with a constant precision.
+ */
+public final class Quantizer
+{
+    /** Maximum number of bits. */
+    public static final int MAX_BITS = 31;
+
+    /** Minimum value. */
+    private final double min;
+    /** Maximum value. */
+    private final double max;
+    /** Number of steps. */
+    private final int steps;
+    /** Number of bits. */
+    private final int bits;
+
+    /**
+     * Create quantizer.
+     * 
+     * @param min The minimum value.
+     * @param max The maximum value (must be strictly superior to min).
+     * @param bits The number of bits (must be between 1 and {@link #MAX_BITS} included).
+     * @throws LionEngineException If invalid argument(s).
+     */
+    public Quantizer(double min, double max, int bits)
+    {
+        super();
+
+        Check.superiorStrict(max, min);
+        Check.superiorStrict(bits, 0);
+        Check.inferiorOrEqual(bits, MAX_BITS);
+
+        this.min = min;
+        this.max = max;
+        this.bits = bits;
+        steps = (int) ((1L << bits) - 1L);
+    }
+
+    /**
+     * Quantize value. Value is clamped to bounds.
+     * 
+     * @param value The value to quantize.
+     * @return The quantized value.
+     */
+    public int quantize(double value)
+    {
+        final double clamped = Math.max(min, Math.min(max, value));
+        return (int) Math.round((clamped - min) / (max - min) * steps);
+    }
+
+    /**
+     * Get the value from its quantized value.
+     * 
+     * @param value The quantized value.
+     * @return The value.
+     */
+    public double dequantize(int value)
+    {
+        return min + value * (max - min) / steps;
+    }
+
+    /**
+     * Get the number of bits.
+     * 
+     * @return The number of bits.
+     */
+    public int getBits()
+    {
+        return bits;
+    }
+
+    /**
+     * Get the precision (maximum error is half of it).
+     * 
+     * @return The precision.
+     */
+    public double getPrecision()
+    {
+        return (max - min) / steps;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network.purview;
+
+import com.b3dgs.lionengine.Check;
+import com.b3dgs.lionengine.LionEngineException;
+
+/**
+ * Describe the replicated fields of a {@link Replicable}: one number of bits per field.
+ * <p>
+ * Schemas are identified, and must be known by server and clients to decode new entities.
+ * </p>
+ */
+public final class ReplicaSchema
+{
+    /** Maximum number of bits per field. */
+    public static final int MAX_BITS = 32;
+
+    /** Schema id. */
+    private final byte id;
+    /** Bits per field. */
+    private final int[] bits;
+
+    /**
+     * Create schema.
+     * 
+     * @param id The schema id.
+     * @param bits The number of bits of each field (each between 1 and {@link #MAX_BITS} included).
+     * @throws LionEngineException If invalid argument(s).
+     */
+    public ReplicaSchema(byte id, int... bits)
+    {
+        super();
+
+        Check.notNull(bits);
+        Check.superiorStrict(bits.length, 0);
+        for (final int value : bits)
+        {
+            Check.superiorStrict(value, 0);
+            Check.inferiorOrEqual(value, MAX_BITS);
+        }
+
+        this.id = id;
+        this.bits = bits.clone();
+    }
+
+    /**
+     * Get the schema id.
+     * 
+     * @return The schema id.
+     */
+    public byte getId()
+    {
+        return id;
+    }
+
+    /**
+     * Get the number of fields.
+     * 
+     * @return The number of fields.
+     */
+    public int getFields()
+    {
+        return bits.length;
+    }
+
+    /**
+     * Get the number of bits of a field.
+     * 
+     * @param field The field index.
+     * @return The number of bits.
+     */
+    public int getBits(int field)
+    {
+        return bits[field];
+    }
+
+    /**
+     * Get the value mask of a field.
+     * 
+     * @param field The field index.
+     * @return The value mask.
+     */
+    public int getMask(int field)
+    {
+        if (bits[field] == MAX_BITS)
+        {
+            return -1;
+        }
+        return (1 << bits[field]) - 1;
+    }
+}
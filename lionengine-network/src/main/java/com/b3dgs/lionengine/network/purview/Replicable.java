@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network.purview;
+
+/**
+ * Describe an entity whose fields are replicated by snapshots, from server to clients.
+ * <p>
+ * Fields are integers, only their lowest bits (as defined by {@link #getSchema()}) are replicated. Real values such
+ * as positions can be stored with a {@link Quantizer}.
+ * </p>
+ */
+public interface Replicable
+{
+    /**
+     * Get the entity id, shared by server and clients.
+     * 
+     * @return The entity id (superior or equal to 0).
+     */
+    short getEntityId();
+
+    /**
+     * Get the replicated fields schema.
+     * 
+     * @return The schema reference.
+     */
+    ReplicaSchema getSchema();
+
+    /**
+     * Write the current fields values (server side).
+     * 
+     * @param fields The fields to fill, in schema order.
+     */
+    void writeFields(int[] fields);
+
+    /**
+     * Read the replicated fields values (client side).
+     * 
+     * @param fields The fields values, in schema order.
+     */
+    void readFields(int[] fields);
+}
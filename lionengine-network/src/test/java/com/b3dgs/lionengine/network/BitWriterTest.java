@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertThrowsIo;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link BitWriter} and {@link BitReader}.
+ */
+public final class BitWriterTest
+{
+    /**
+     * Test round trip of each width, misaligned on byte boundaries.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testWidths() throws IOException
+    {
+        for (int offset = 0; offset < 8; offset++)
+        {
+            final BitWriter writer = new BitWriter();
+            if (offset > 0)
+            {
+                writer.write(-1, offset);
+            }
+            for (int bits = 1; bits <= 32; bits++)
+            {
+                writer.write(0, bits);
+                writer.write(-1, bits);
+                writer.write(0x5A5A5A5A, bits);
+            }
+            assertEquals(offset + 3 * 32 * 33 / 2, writer.getBits());
+
+            final BitReader reader = new BitReader(writer.toByteArray());
+            if (offset > 0)
+            {
+                assertEquals((int) BitWriter.mask(offset), reader.read(offset));
+            }
+            for (int bits = 1; bits <= 32; bits++)
+            {
+                final int mask = (int) BitWriter.mask(bits);
+                assertEquals(0, reader.read(bits));
+                assertEquals(mask, reader.read(bits));
+                assertEquals(0x5A5A5A5A & mask, reader.read(bits));
+            }
+        }
+    }
+
+    /**
+     * Test random values of random widths, crossing byte boundaries, with buffer growth.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testRandom() throws IOException
+    {
+        final Random random = new Random(42L);
+        final int count = 2000;
+        final int[] widths = new int[count];
+        final int[] values = new int[count];
+        final BitWriter writer = new BitWriter();
+        int total = 0;
+        for (int i = 0; i < count; i++)
+        {
+            widths[i] = 1 + random.nextInt(32);
+            values[i] = random.nextInt();
+            writer.write(values[i], widths[i]);
+            total += widths[i];
+        }
+        assertEquals(total, writer.getBits());
+        assertEquals((total + 7) / 8, writer.toByteArray().length);
+
+        final BitReader reader = new BitReader(writer.toByteArray());
+        for (int i = 0; i < count; i++)
+        {
+            assertEquals(values[i] & (int) BitWriter.mask(widths[i]), reader.read(widths[i]));
+        }
+    }
+
+    /**
+     * Test signed values: full width round trip, lower widths read unsigned.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testSigned() throws IOException
+    {
+        final BitWriter writer = new BitWriter();
+        writer.write(-1, 32);
+        writer.write(Integer.MIN_VALUE, 32);
+        writer.write(-5, 8);
+        writer.write(-5, 13);
+        writer.write(Integer.MAX_VALUE, 31);
+        writer.writeBoolean(true);
+        writer.writeBoolean(false);
+
+        final BitReader reader = new BitReader(writer.toByteArray());
+        assertEquals(-1, reader.read(32));
+        assertEquals(Integer.MIN_VALUE, reader.read(32));
+        assertEquals(251, reader.read(8));
+        assertEquals(8187, reader.read(13));
+        assertEquals(Integer.MAX_VALUE, reader.read(31));
+        assertTrue(reader.readBoolean());
+        assertFalse(reader.readBoolean());
+    }
+
+    /**
+     * Test last byte padding and reset.
+     */
+    @Test
+    public void testPaddingReset()
+    {
+        final BitWriter writer = new BitWriter();
+        assertEquals(0, writer.toByteArray().length);
+
+        writer.write(0b101, 3);
+        writer.write(0xFF, 8);
+        assertEquals(11, writer.getBits());
+        assertTrue(Arrays.equals(new byte[]
+        {
+            (byte) 0xFD, 0x07
+        }, writer.toByteArray()));
+
+        writer.reset();
+        assertEquals(0, writer.getBits());
+        writer.write(1, 1);
+        assertTrue(Arrays.equals(new byte[]
+        {
+            1
+        }, writer.toByteArray()));
+    }
+
+    /**
+     * Test read after end of stream.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testEnd() throws IOException
+    {
+        final BitWriter writer = new BitWriter();
+        writer.write(3, 10);
+        final BitReader reader = new BitReader(writer.toByteArray());
+        assertEquals(3, reader.read(10));
+        assertEquals(0, reader.read(6));
+
+        assertThrowsIo(() -> reader.read(1), "Unexpected end of bit stream");
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTimeout;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.UtilTests;
+
+/**
+ * Test {@link ClientSocket}.
+ */
+public final class ClientSocketTest
+{
+    /** Timeout in milli. */
+    private static final long TIMEOUT = 5_000L;
+
+    /**
+     * Test messages exchange, and <code>null</code> when nothing received or once terminated.
+     * 
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     * @throws ExecutionException If error.
+     */
+    @Test
+    public void testReceive() throws IOException, InterruptedException, ExecutionException
+    {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress()))
+        {
+            final Future<ClientSocket> accepted = executor.submit(() -> new ClientSocket((byte) 0, server.accept()));
+            final ClientSocket client = new ClientSocket((byte) 1,
+                                                         new Socket(InetAddress.getLoopbackAddress(),
+                                                                    server.getLocalPort()));
+            final ClientSocket other = accepted.get();
+
+            assertEquals(1, client.getId());
+            assertNull(other.receiveMessages());
+
+            final byte[] data = new byte[100];
+            for (int i = 0; i < data.length; i++)
+            {
+                data[i] = (byte) i;
+            }
+            client.sendMessages(data);
+
+            final ByteArrayOutputStream received = new ByteArrayOutputStream();
+            assertTimeout(TIMEOUT, () ->
+            {
+                while (received.size() < data.length)
+                {
+                    for (byte[] read = other.receiveMessages(); read != null; read = other.receiveMessages())
+                    {
+                        assertTrue(read.length > 0);
+                        received.write(read);
+                    }
+                    UtilTests.pause(1L);
+                }
+            });
+            assertTrue(Arrays.equals(data, received.toByteArray()));
+
+            other.terminate();
+            assertEquals(StateConnection.DISCONNECTED, other.getState());
+            assertNull(other.receiveMessages());
+
+            client.terminate();
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Test <code>null</code> on read error (corrupted stream), and not an empty array which would never end the read
+     * loop of {@link ServerImpl#receiveMessages()}.
+     * 
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     * @throws ExecutionException If error.
+     */
+    @Test
+    public void testReceiveError() throws IOException, InterruptedException, ExecutionException
+    {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+             Socket raw = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort()))
+        {
+            final Future<ClientSocket> accepted = executor.submit(() -> new ClientSocket((byte) 0, server.accept()));
+            final ObjectOutputStream out = new ObjectOutputStream(raw.getOutputStream());
+            out.flush();
+            final ClientSocket client = accepted.get();
+
+            // Invalid block header
+            raw.getOutputStream().write(1);
+            raw.getOutputStream().flush();
+            UtilTests.pause(50L);
+
+            assertNull(client.receiveMessages());
+
+            client.terminate();
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.b3dgs.lionengine.UtilConversion;
+import com.b3dgs.lionengine.network.message.NetworkDelivery;
+
+/**
+ * Benchmark {@link DatagramPeer} deliveries under simulated loss: each game tick, client sends its input tagged with
+ * the tick, server answers each input with the resulting state, until client receives the state of the current tick.
+ * <p>
+ * Reliable frames are received in order, so a lost frame delays all the following ones until resent, where a
+ * sequenced frame lost is replaced by the one of next tick. Run with {@link #main(String[])} from test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatagramBenchmark
+{
+    /** Game tick in nano. */
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(5L);
+
+    /**
+     * Run benchmark.
+     * 
+     * @param args Not used.
+     * @throws RunnerException If error.
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(DatagramBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /** Delivery used. */
+    @Param(
+    {
+        "RELIABLE_ORDERED", "UNRELIABLE_SEQUENCED"
+    }) public NetworkDelivery delivery;
+    /** Simulated loss ratio. */
+    @Param(
+    {
+        "0.0", "0.05"
+    }) public double loss;
+
+    private DatagramSelector server;
+    private DatagramSelector client;
+    private DatagramPeer serverPeer;
+    private DatagramPeer clientPeer;
+    private int tick;
+
+    /**
+     * Connect client.
+     * 
+     * @throws IOException If error.
+     */
+    @Setup(Level.Trial)
+    public void prepare() throws IOException
+    {
+        server = new DatagramSelector(0, new DatagramSimulator(loss, 0, 0, 1L));
+        server.start();
+        client = new DatagramSelector(new DatagramSimulator(loss, 0, 0, 2L));
+        clientPeer = client.connect(InetAddress.getLoopbackAddress(), server.getPort());
+        client.start();
+        serverPeer = server.pollAccepted();
+        while (serverPeer == null)
+        {
+            Thread.yield();
+            serverPeer = server.pollAccepted();
+        }
+    }
+
+    /**
+     * Close connection.
+     */
+    @TearDown(Level.Trial)
+    public void close()
+    {
+        clientPeer.close();
+        client.terminate();
+        server.terminate();
+    }
+
+    /**
+     * Run ticks until state of current tick is received.
+     * 
+     * @return The received tick.
+     */
+    @Benchmark
+    public int tick()
+    {
+        tick++;
+        long next = System.nanoTime();
+        int received = -1;
+        while (received < tick)
+        {
+            if (System.nanoTime() - next >= 0)
+            {
+                clientPeer.send(UtilConversion.intToByteArray(tick), delivery);
+                next += TICK;
+            }
+            for (byte[] input = serverPeer.poll(); input != null; input = serverPeer.poll())
+            {
+                serverPeer.send(input, delivery);
+            }
+            for (byte[] state = clientPeer.poll(); state != null; state = clientPeer.poll())
+            {
+                received = Math.max(received, UtilConversion.byteArrayToInt(state));
+            }
+            Thread.yield();
+        }
+        return received;
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertFalse;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertThrowsIo;
+import static com.b3dgs.lionengine.UtilAssert.assertTimeout;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.UtilTests;
+import com.b3dgs.lionengine.network.message.NetworkDelivery;
+
+/**
+ * Test {@link DatagramPeer} and {@link DatagramSelector}.
+ */
+public final class DatagramPeerTest
+{
+    /** Timeout in milli. */
+    private static final long TIMEOUT = 20_000L;
+
+    /**
+     * Create a fragment datagram.
+     * 
+     * @param kind The fragment kind.
+     * @param sequence The frame sequence.
+     * @param index The fragment index.
+     * @param count The fragments number.
+     * @param payload The fragment payload.
+     * @return The datagram, positioned at kind.
+     */
+    private static ByteBuffer fragment(byte kind, int sequence, int index, int count, byte... payload)
+    {
+        final ByteBuffer packet = ByteBuffer.allocate(DatagramPeer.HEADER + payload.length);
+        packet.put(kind).putInt(sequence).putShort((short) index).putShort((short) count).put(payload);
+        packet.flip();
+        return packet;
+    }
+
+    /**
+     * Create a control datagram.
+     * 
+     * @param kind The control kind.
+     * @return The datagram, positioned at kind.
+     */
+    private static ByteBuffer control(byte kind)
+    {
+        return ByteBuffer.wrap(new byte[]
+        {
+            kind
+        });
+    }
+
+    /**
+     * Create a random frame, first byte being its number.
+     * 
+     * @param random The random generator.
+     * @param number The frame number.
+     * @param length The frame length.
+     * @return The frame.
+     */
+    private static byte[] frame(Random random, int number, int length)
+    {
+        final byte[] frame = new byte[length];
+        random.nextBytes(frame);
+        frame[0] = (byte) number;
+        return frame;
+    }
+
+    /**
+     * Wait next received frame.
+     * 
+     * @param peer The peer to poll.
+     * @return The received frame.
+     */
+    private static byte[] poll(DatagramPeer peer)
+    {
+        final AtomicReference<byte[]> frame = new AtomicReference<>();
+        assertTimeout(TIMEOUT, () ->
+        {
+            while (frame.get() == null)
+            {
+                frame.set(peer.poll());
+                UtilTests.pause(1L);
+            }
+        });
+        return frame.get();
+    }
+
+    /**
+     * Wait next accepted peer.
+     * 
+     * @param selector The server selector.
+     * @return The accepted peer.
+     */
+    private static DatagramPeer accept(DatagramSelector selector)
+    {
+        final AtomicReference<DatagramPeer> peer = new AtomicReference<>();
+        assertTimeout(TIMEOUT, () ->
+        {
+            while (peer.get() == null)
+            {
+                peer.set(selector.pollAccepted());
+                UtilTests.pause(1L);
+            }
+        });
+        return peer.get();
+    }
+
+    /**
+     * Wait until peer is closed.
+     * 
+     * @param peer The peer to wait.
+     */
+    private static void awaitClosed(DatagramPeer peer)
+    {
+        assertTimeout(TIMEOUT, () ->
+        {
+            while (!peer.isClosed())
+            {
+                UtilTests.pause(1L);
+            }
+        });
+    }
+
+    /** Server selector (<code>null</code> if not started). */
+    private DatagramSelector server;
+    /** Client selector. */
+    private DatagramSelector client;
+
+    /**
+     * Create a peer driven by the test, its owner selector not being started.
+     * 
+     * @return The created peer.
+     * @throws IOException If error.
+     */
+    private DatagramPeer createPeer() throws IOException
+    {
+        client = new DatagramSelector(null);
+        return new DatagramPeer(client,
+                                new InetSocketAddress(InetAddress.getLoopbackAddress(), client.getPort()),
+                                true,
+                                0L);
+    }
+
+    /**
+     * Start server and client, with simulated network conditions.
+     * 
+     * @param serverSimulator The server simulator (<code>null</code> if none).
+     * @param clientSimulator The client simulator (<code>null</code> if none).
+     * @return The client peer, connected to server.
+     * @throws IOException If error.
+     */
+    private DatagramPeer start(DatagramSimulator serverSimulator, DatagramSimulator clientSimulator)
+            throws IOException
+    {
+        server = new DatagramSelector(0, serverSimulator);
+        server.start();
+        client = new DatagramSelector(clientSimulator);
+        client.start();
+        return client.connect(InetAddress.getLoopbackAddress(), server.getPort());
+    }
+
+    /**
+     * Terminate selectors.
+     * 
+     * @throws InterruptedException If interrupted.
+     */
+    @AfterEach
+    public void cleanUp() throws InterruptedException
+    {
+        if (client != null)
+        {
+            client.terminate();
+            client.join(TIMEOUT);
+        }
+        if (server != null)
+        {
+            server.terminate();
+            server.join(TIMEOUT);
+        }
+    }
+
+    /**
+     * Test reliable frames delivered once and in order, whatever fragments order and duplicates.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testReliableOrder() throws IOException
+    {
+        final DatagramPeer peer = createPeer();
+
+        peer.receive(fragment(DatagramPeer.RELIABLE, 1, 0, 1, (byte) 1), 0L);
+        peer.receive(fragment(DatagramPeer.RELIABLE, 2, 1, 2, (byte) 22), 0L);
+        assertNull(peer.poll());
+
+        peer.receive(fragment(DatagramPeer.RELIABLE, 0, 0, 1, (byte) 0), 0L);
+        peer.receive(fragment(DatagramPeer.RELIABLE, 1, 0, 1, (byte) 1), 0L);
+        assertTrue(Arrays.equals(new byte[]
+        {
+            0
+        }, peer.poll()));
+        assertTrue(Arrays.equals(new byte[]
+        {
+            1
+        }, peer.poll()));
+        assertNull(peer.poll());
+
+        peer.receive(fragment(DatagramPeer.RELIABLE, 2, 1, 2, (byte) 22), 0L);
+        peer.receive(fragment(DatagramPeer.RELIABLE, 0, 0, 1, (byte) 0), 0L);
+        assertNull(peer.poll());
+
+        peer.receive(fragment(DatagramPeer.RELIABLE, 2, 0, 2, (byte) 2, (byte) 20), 0L);
+        assertTrue(Arrays.equals(new byte[]
+        {
+            2, 20, 22
+        }, peer.poll()));
+        assertNull(peer.poll());
+    }
+
+    /**
+     * Test sequenced frames drop stale data: older frames and incomplete frames overtaken by a newer one.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testSequencedStale() throws IOException
+    {
+        final DatagramPeer peer = createPeer();
+
+        peer.receive(fragment(DatagramPeer.SEQUENCED, 2, 0, 1, (byte) 2), 0L);
+        peer.receive(fragment(DatagramPeer.SEQUENCED, 1, 0, 1, (byte) 1), 0L);
+        peer.receive(fragment(DatagramPeer.SEQUENCED, 2, 0, 1, (byte) 2), 0L);
+        peer.receive(fragment(DatagramPeer.SEQUENCED, 3, 0, 2, (byte) 3), 0L);
+        peer.receive(fragment(DatagramPeer.SEQUENCED, 5, 1, 2, (byte) 55), 0L);
+        peer.receive(fragment(DatagramPeer.SEQUENCED, 3, 1, 2, (byte) 33), 0L);
+        peer.receive(fragment(DatagramPeer.SEQUENCED, 4, 0, 1, (byte) 4), 0L);
+        peer.receive(fragment(DatagramPeer.SEQUENCED, 5, 0, 2, (byte) 5), 0L);
+        peer.receive(fragment(DatagramPeer.SEQUENCED, 4, 0, 1, (byte) 4), 0L);
+
+        assertTrue(Arrays.equals(new byte[]
+        {
+            2
+        }, peer.poll()));
+        assertTrue(Arrays.equals(new byte[]
+        {
+            5, 55
+        }, peer.poll()));
+        assertNull(peer.poll());
+    }
+
+    /**
+     * Test invalid datagrams.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testInvalid() throws IOException
+    {
+        final DatagramPeer peer = createPeer();
+
+        assertThrowsIo(() -> peer.receive(control((byte) 9), 0L), "Invalid datagram of kind: 9");
+        assertThrowsIo(() -> peer.receive(fragment(DatagramPeer.RELIABLE, 0, 1, 1), 0L), "Invalid datagram of kind");
+        assertThrowsIo(() -> peer.receive(fragment(DatagramPeer.RELIABLE, 0, 0, 0), 0L), "Invalid datagram of kind");
+        assertThrowsIo(() -> peer.receive(control(DatagramPeer.SEQUENCED), 0L), "Invalid datagram of kind");
+        assertThrowsIo(() -> peer.receive(ByteBuffer.wrap(new byte[]
+        {
+            DatagramPeer.ACK, 0, 2
+        }), 0L), "Invalid datagram of kind");
+        assertFalse(peer.isClosed());
+    }
+
+    /**
+     * Test connection timeout when nothing is received, delayed by any received datagram.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testTimeout() throws IOException
+    {
+        final DatagramPeer peer = createPeer();
+
+        peer.update(DatagramPeer.TIMEOUT);
+        assertFalse(peer.isClosed());
+
+        peer.receive(control(DatagramPeer.ALIVE), DatagramPeer.TIMEOUT);
+        peer.update(DatagramPeer.TIMEOUT * 2);
+        assertFalse(peer.isClosed());
+
+        peer.update(DatagramPeer.TIMEOUT * 2 + 1L);
+        assertTrue(peer.isClosed());
+
+        peer.send(new byte[1], NetworkDelivery.RELIABLE_ORDERED);
+        assertFalse(peer.isPending());
+    }
+
+    /**
+     * Test close notification received.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testClose() throws IOException
+    {
+        final DatagramPeer peer = createPeer();
+        peer.receive(control(DatagramPeer.CLOSE), 0L);
+
+        assertTrue(peer.isClosed());
+    }
+
+    /**
+     * Test handshake accepted by server despite lost connection requests, and closing notified to server.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testHandshake() throws IOException
+    {
+        final DatagramPeer peer = start(null, new DatagramSimulator(0.5, 0, 0, 1L));
+        final DatagramPeer accepted = accept(server);
+        assertNull(server.pollAccepted());
+
+        accepted.send(new byte[]
+        {
+            1
+        }, NetworkDelivery.RELIABLE_ORDERED);
+        assertTrue(Arrays.equals(new byte[]
+        {
+            1
+        }, poll(peer)));
+
+        peer.close();
+        awaitClosed(peer);
+        awaitClosed(accepted);
+    }
+
+    /**
+     * Test reliable frames, including fragmented ones, delivered exactly once and in order in both directions under
+     * loss and reordering.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testReliableLoss() throws IOException
+    {
+        final DatagramPeer peer = start(new DatagramSimulator(0.2, 5, 30, 1L), new DatagramSimulator(0.2, 5, 30, 2L));
+        final Random random = new Random(3L);
+        final byte[][] frames = new byte[100][];
+        for (int i = 0; i < frames.length; i++)
+        {
+            final int length = i % 10 == 0 ? 20 * DatagramPeer.FRAGMENT + 7 : 1 + random.nextInt(2000);
+            frames[i] = frame(random, i, length);
+            peer.send(frames[i], NetworkDelivery.RELIABLE_ORDERED);
+        }
+        final DatagramPeer accepted = accept(server);
+        for (final byte[] frame : frames)
+        {
+            assertTrue(Arrays.equals(frame, poll(accepted)));
+        }
+        for (final byte[] frame : frames)
+        {
+            accepted.send(frame, NetworkDelivery.RELIABLE_ORDERED);
+        }
+        for (final byte[] frame : frames)
+        {
+            assertTrue(Arrays.equals(frame, poll(peer)));
+        }
+        UtilTests.pause(200L);
+        assertNull(accepted.poll());
+        assertNull(peer.poll());
+    }
+
+    /**
+     * Test sequenced frames, including fragmented ones, delivered in increasing order under loss and reordering.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testSequencedLoss() throws IOException
+    {
+        final DatagramPeer peer = start(new DatagramSimulator(0.2, 5, 30, 4L), null);
+        final DatagramPeer accepted = accept(server);
+        final Random random = new Random(5L);
+        final byte[][] frames = new byte[100][];
+        for (int i = 0; i < frames.length; i++)
+        {
+            frames[i] = frame(random, i, 1 + random.nextInt(3 * DatagramPeer.FRAGMENT));
+            accepted.send(frames[i], NetworkDelivery.UNRELIABLE_SEQUENCED);
+            UtilTests.pause(2L);
+        }
+        UtilTests.pause(200L);
+
+        int last = -1;
+        int count = 0;
+        for (byte[] frame = peer.poll(); frame != null; frame = peer.poll())
+        {
+            final int number = frame[0];
+            assertTrue(number > last);
+            assertTrue(Arrays.equals(frames[number], frame));
+            last = number;
+            count++;
+        }
+        assertTrue(count > 0);
+        assertTrue(count < frames.length);
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTimeout;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.UtilTests;
+
+/**
+ * Test {@link FrameChannel} and {@link FrameSelector}.
+ */
+public final class FrameChannelTest
+{
+    /** Timeout in milli. */
+    private static final long TIMEOUT = 5_000L;
+
+    /**
+     * Create frame filled with a pattern.
+     * 
+     * @param length The frame length.
+     * @param seed The pattern seed.
+     * @return The created frame.
+     */
+    private static byte[] frame(int length, int seed)
+    {
+        final byte[] frame = new byte[length];
+        for (int i = 0; i < length; i++)
+        {
+            frame[i] = (byte) (i * 31 + seed);
+        }
+        return frame;
+    }
+
+    /**
+     * Wait next received frame.
+     * 
+     * @param endpoint The endpoint to poll.
+     * @return The received frame.
+     */
+    private static byte[] poll(FrameEndpoint endpoint)
+    {
+        final AtomicReference<byte[]> frame = new AtomicReference<>();
+        assertTimeout(TIMEOUT, () ->
+        {
+            while (frame.get() == null)
+            {
+                frame.set(endpoint.poll());
+                UtilTests.pause(1L);
+            }
+        });
+        return frame.get();
+    }
+
+    /**
+     * Wait until channel is closed.
+     * 
+     * @param channel The channel to wait.
+     */
+    private static void awaitClosed(FrameChannel channel)
+    {
+        assertTimeout(TIMEOUT, () ->
+        {
+            while (!channel.isClosed())
+            {
+                UtilTests.pause(1L);
+            }
+        });
+    }
+
+    /**
+     * Write raw data and give time to the selector to read it separately.
+     * 
+     * @param raw The raw channel.
+     * @param data The data to write.
+     * @throws IOException If error.
+     */
+    private static void write(SocketChannel raw, ByteBuffer data) throws IOException
+    {
+        data.flip();
+        while (data.hasRemaining())
+        {
+            raw.write(data);
+        }
+        data.clear();
+        UtilTests.pause(5L);
+    }
+
+    /** Server selector. */
+    private FrameSelector server;
+    /** Raw client socket. */
+    private SocketChannel raw;
+    /** Accepted server channel. */
+    private FrameChannel accepted;
+
+    /**
+     * Start server and connect a raw client.
+     * 
+     * @throws IOException If error.
+     */
+    @BeforeEach
+    public void prepare() throws IOException
+    {
+        server = new FrameSelector(0);
+        server.start();
+        raw = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+        raw.socket().setTcpNoDelay(true);
+
+        final AtomicReference<FrameChannel> channel = new AtomicReference<>();
+        assertTimeout(TIMEOUT, () ->
+        {
+            while (channel.get() == null)
+            {
+                channel.set(server.pollAccepted());
+                UtilTests.pause(1L);
+            }
+        });
+        accepted = channel.get();
+    }
+
+    /**
+     * Terminate server and client.
+     * 
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    @AfterEach
+    public void cleanUp() throws IOException, InterruptedException
+    {
+        raw.close();
+        server.terminate();
+        server.join(TIMEOUT);
+    }
+
+    /**
+     * Test frames reassembled across partial reads, and many frames in a single read.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testPartialRead() throws IOException
+    {
+        final byte[] first = frame(1000, 1);
+        final ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        buffer.put((byte) 0).put((byte) 0);
+        write(raw, buffer);
+        buffer.put((byte) 0x03).put((byte) 0xE8);
+        write(raw, buffer);
+        int offset = 0;
+        for (int length = 1; offset < first.length; length *= 3)
+        {
+            final int count = Math.min(length, first.length - offset);
+            buffer.put(first, offset, count);
+            write(raw, buffer);
+            offset += count;
+        }
+
+        final byte[] second = frame(10, 2);
+        final byte[] third = frame(0, 3);
+        final byte[] fourth = frame(20, 4);
+        buffer.putInt(second.length).put(second).putInt(third.length).put(third).putInt(fourth.length);
+        buffer.put(fourth, 0, 5);
+        write(raw, buffer);
+        buffer.put(fourth, 5, fourth.length - 5);
+        write(raw, buffer);
+
+        assertTrue(Arrays.equals(first, poll(accepted)));
+        assertTrue(Arrays.equals(second, poll(accepted)));
+        assertTrue(Arrays.equals(third, poll(accepted)));
+        assertTrue(Arrays.equals(fourth, poll(accepted)));
+        assertNull(accepted.poll());
+    }
+
+    /**
+     * Test frames larger than buffers and socket buffer are fully written, in order, with a slow reader.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testPartialWrite() throws IOException
+    {
+        final byte[] big = frame(FrameChannel.MAX_FRAME, 1);
+        final byte[] small = frame(3, 2);
+        accepted.send(big);
+        accepted.send(small);
+        UtilTests.pause(50L);
+
+        final DataInputStream in = new DataInputStream(raw.socket().getInputStream());
+        assertEquals(big.length, in.readInt());
+        final byte[] read = new byte[big.length];
+        in.readFully(read);
+        assertTrue(Arrays.equals(big, read));
+        assertEquals(small.length, in.readInt());
+        final byte[] readSmall = new byte[small.length];
+        in.readFully(readSmall);
+        assertTrue(Arrays.equals(small, readSmall));
+    }
+
+    /**
+     * Test peer disconnecting in the middle of a frame closes channel without delivering the partial frame.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testDisconnectMidFrame() throws IOException
+    {
+        final byte[] complete = frame(8, 1);
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.putInt(complete.length).put(complete).putInt(100).put(frame(10, 2));
+        write(raw, buffer);
+        raw.close();
+
+        awaitClosed(accepted);
+
+        assertTrue(Arrays.equals(complete, accepted.poll()));
+        assertNull(accepted.poll());
+
+        accepted.send(complete);
+        assertNull(accepted.poll());
+    }
+
+    /**
+     * Test invalid frame length closes channel.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testInvalidLength() throws IOException
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.putInt(-1);
+        write(raw, buffer);
+
+        awaitClosed(accepted);
+
+        assertNull(accepted.poll());
+    }
+
+    /**
+     * Test client side selector exchanging frames, and flushing pending frames on terminate.
+     * 
+     * @throws IOException If error.
+     * @throws InterruptedException If interrupted.
+     */
+    @Test
+    public void testClient() throws IOException, InterruptedException
+    {
+        final FrameSelector client = new FrameSelector();
+        client.start();
+        assertEquals(-1, client.getPort());
+
+        final FrameChannel channel = client.connect(InetAddress.getLoopbackAddress(), server.getPort());
+        final AtomicReference<FrameChannel> other = new AtomicReference<>();
+        assertTimeout(TIMEOUT, () ->
+        {
+            while (other.get() == null)
+            {
+                other.set(server.pollAccepted());
+                UtilTests.pause(1L);
+            }
+        });
+
+        final byte[] request = frame(100, 1);
+        final byte[] response = frame(200, 2);
+        channel.send(request);
+        assertTrue(Arrays.equals(request, poll(other.get())));
+        other.get().send(response);
+        assertTrue(Arrays.equals(response, poll(channel)));
+
+        final byte[] last = frame(50_000, 3);
+        channel.send(last);
+        client.terminate();
+        client.join(TIMEOUT);
+
+        assertTrue(channel.isClosed());
+        assertTrue(Arrays.equals(last, poll(other.get())));
+        awaitClosed(other.get());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link MessageBuffer}.
+ */
+public final class MessageBufferTest
+{
+    /**
+     * Test reserved int written later.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testReserveInt() throws IOException
+    {
+        final MessageBuffer buffer = new MessageBuffer(2);
+        buffer.write(7);
+        final int offset = buffer.reserveInt();
+        buffer.write(8);
+        buffer.setInt(offset, 0x12345678);
+
+        assertEquals(1, offset);
+        assertEquals(6, buffer.size());
+
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+        assertEquals(7, in.readByte());
+        assertEquals(0x12345678, in.readInt());
+        assertEquals(8, in.readByte());
+
+        buffer.setInt(offset, -2);
+        assertEquals(-2, new DataInputStream(new ByteArrayInputStream(buffer.toByteArray(), 1, 4)).readInt());
+    }
+
+    /**
+     * Test truncate discards data written after.
+     */
+    @Test
+    public void testTruncate()
+    {
+        final MessageBuffer buffer = new MessageBuffer(4);
+        buffer.write(1);
+        buffer.write(2);
+        buffer.truncate(1);
+        buffer.write(3);
+
+        assertTrue(Arrays.equals(new byte[]
+        {
+            1, 3
+        }, buffer.toByteArray()));
+    }
+
+    /**
+     * Test write part of buffer to several outputs, and reuse after reset.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testWriteTo() throws IOException
+    {
+        final MessageBuffer buffer = new MessageBuffer(4);
+        for (int i = 0; i < 10; i++)
+        {
+            buffer.write(i);
+        }
+        final ByteArrayOutputStream first = new ByteArrayOutputStream();
+        final ByteArrayOutputStream second = new ByteArrayOutputStream();
+        buffer.writeTo(first, 2, 3);
+        buffer.writeTo(second, 2, 3);
+        buffer.writeTo(second, 9, 1);
+
+        assertTrue(Arrays.equals(new byte[]
+        {
+            2, 3, 4
+        }, first.toByteArray()));
+        assertTrue(Arrays.equals(new byte[]
+        {
+            2, 3, 4, 9
+        }, second.toByteArray()));
+
+        buffer.reset();
+        buffer.write(5);
+        assertEquals(1, buffer.size());
+    }
+}
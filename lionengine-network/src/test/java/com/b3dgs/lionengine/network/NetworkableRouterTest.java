@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageEntity;
+import com.b3dgs.lionengine.network.purview.NetworkableModel;
+
+/**
+ * Test {@link NetworkableRouter}.
+ */
+public final class NetworkableRouterTest
+{
+    /** Routed messages as <code>receiver:message</code>. */
+    private final List<String> routed = new ArrayList<>();
+    /** Router tested. */
+    private final NetworkableRouter router = new NetworkableRouter();
+
+    /**
+     * Route message and get its receivers.
+     * 
+     * @param message The message to route.
+     * @return The receivers, in order.
+     */
+    private List<String> route(NetworkMessage message)
+    {
+        routed.clear();
+        router.route(message);
+        return new ArrayList<>(routed);
+    }
+
+    /**
+     * Test routing order: entity, then type, then fallback.
+     */
+    @Test
+    public void testRouteOrder()
+    {
+        final Receiver entity = new Receiver("entity");
+        final Receiver first = new Receiver("first");
+        final Receiver second = new Receiver("second");
+        final Receiver fallback1 = new Receiver("fallback1");
+        final Receiver fallback2 = new Receiver("fallback2");
+        router.addFallback(fallback1);
+        router.addFallback(fallback2);
+        router.addType((byte) 1, first);
+        router.addType((byte) 1, second);
+        router.addEntity((short) 3, entity);
+
+        assertEquals(Arrays.asList("entity"), route(new MessageEntity((byte) 1, (short) 3)));
+        assertEquals(Arrays.asList("first", "second"), route(new MessageEntity((byte) 1, (short) 4)));
+        assertEquals(Arrays.asList("first", "second"), route(new MessageEntity((byte) 1, (short) 1000)));
+        assertEquals(Arrays.asList("first", "second"), route(new MessageType((byte) 1)));
+        assertEquals(Arrays.asList("fallback1", "fallback2"), route(new MessageEntity((byte) 2, (short) 4)));
+        assertEquals(Arrays.asList("fallback1", "fallback2"), route(new MessageType((byte) 2)));
+    }
+
+    /**
+     * Test message types are unsigned indexes.
+     */
+    @Test
+    public void testRouteTypeUnsigned()
+    {
+        final Receiver negative = new Receiver("negative");
+        final Receiver positive = new Receiver("positive");
+        router.addType((byte) -56, negative);
+        router.addType((byte) 127, positive);
+
+        assertEquals(Arrays.asList("negative"), route(new MessageType((byte) 200)));
+        assertEquals(Arrays.asList("positive"), route(new MessageType((byte) 127)));
+        assertEquals(Collections.emptyList(), route(new MessageType((byte) 0)));
+    }
+
+    /**
+     * Test entity registration replaces previous networkable of id, and previous id of networkable.
+     */
+    @Test
+    public void testAddEntityAgain()
+    {
+        final Receiver fallback = new Receiver("fallback");
+        final Receiver entity = new Receiver("entity");
+        final Receiver other = new Receiver("other");
+        router.addFallback(fallback);
+        router.addEntity((short) 1, entity);
+        router.addEntity((short) 2, entity);
+
+        assertEquals(Arrays.asList("fallback"), route(new MessageEntity((byte) 0, (short) 1)));
+        assertEquals(Arrays.asList("entity"), route(new MessageEntity((byte) 0, (short) 2)));
+
+        router.addEntity((short) 2, other);
+
+        assertEquals(Arrays.asList("other"), route(new MessageEntity((byte) 0, (short) 2)));
+
+        router.remove(entity);
+
+        assertEquals(Arrays.asList("other"), route(new MessageEntity((byte) 0, (short) 2)));
+
+        router.addEntity((short) 1, other);
+
+        assertEquals(Arrays.asList("other"), route(new MessageEntity((byte) 0, (short) 1)));
+        assertEquals(Arrays.asList("fallback"), route(new MessageEntity((byte) 0, (short) 2)));
+    }
+
+    /**
+     * Test networkable removed from all registries.
+     */
+    @Test
+    public void testRemove()
+    {
+        final Receiver fallback = new Receiver("fallback");
+        final Receiver removed = new Receiver("removed");
+        final Receiver kept = new Receiver("kept");
+        router.addFallback(fallback);
+        router.addFallback(removed);
+        router.addType((byte) 1, removed);
+        router.addType((byte) 1, kept);
+        router.addType((byte) 2, removed);
+        router.addEntity((short) 0, removed);
+
+        router.remove(removed);
+
+        assertEquals(Arrays.asList("kept"), route(new MessageEntity((byte) 1, (short) 0)));
+        assertEquals(Arrays.asList("fallback"), route(new MessageType((byte) 2)));
+    }
+
+    /**
+     * Entity message.
+     */
+    private static final class MessageEntity extends NetworkMessageEntity<Action>
+    {
+        /**
+         * Create message.
+         * 
+         * @param type The message type.
+         * @param entityId The entity id.
+         */
+        MessageEntity(byte type, short entityId)
+        {
+            super(type, entityId);
+        }
+
+        @Override
+        protected void encode(ByteArrayOutputStream buffer, Action key)
+        {
+            // Not used
+        }
+
+        @Override
+        protected void decode(DataInputStream buffer, int i)
+        {
+            // Not used
+        }
+    }
+
+    /**
+     * Type message.
+     */
+    private static final class MessageType extends NetworkMessage
+    {
+        /**
+         * Create message.
+         * 
+         * @param type The message type.
+         */
+        MessageType(byte type)
+        {
+            super(type, (byte) 0);
+        }
+
+        @Override
+        protected void encode(ByteArrayOutputStream buffer)
+        {
+            // Not used
+        }
+
+        @Override
+        protected void decode(DataInputStream buffer)
+        {
+            // Not used
+        }
+    }
+
+    /**
+     * Message actions.
+     */
+    private enum Action
+    {
+        /** Move action. */
+        MOVE;
+    }
+
+    /**
+     * Networkable recording its received messages.
+     */
+    private final class Receiver extends NetworkableModel
+    {
+        /** Receiver name. */
+        private final String name;
+
+        /**
+         * Create receiver.
+         * 
+         * @param name The receiver name.
+         */
+        Receiver(String name)
+        {
+            super();
+
+            this.name = name;
+        }
+
+        @Override
+        public void applyMessage(NetworkMessage message)
+        {
+            routed.add(name);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageSnapshot;
+import com.b3dgs.lionengine.network.purview.Quantizer;
+import com.b3dgs.lionengine.network.purview.ReplicaSchema;
+import com.b3dgs.lionengine.network.purview.Replicable;
+
+/**
+ * Benchmark {@link ReplicationServer} on one tick: move a part of entities, capture snapshot and prepare delta of each
+ * client, all clients acknowledging previous tick.
+ * <p>
+ * Run with {@link #main(String[])} from test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplicationBenchmark
+{
+    /** Snapshot type. */
+    private static final byte SNAPSHOT = 0;
+    /** Acknowledgement type. */
+    private static final byte ACK = 1;
+    /** Map size. */
+    private static final double SIZE = 4096.0;
+    /** Position quantizer. */
+    private static final Quantizer POSITION = new Quantizer(0.0, SIZE, 16);
+    /** Entity schema (x, y, life, state). */
+    private static final ReplicaSchema SCHEMA = new ReplicaSchema((byte) 0, 16, 16, 8, 4);
+
+    /**
+     * Run benchmark.
+     * 
+     * @param args Not used.
+     * @throws RunnerException If error.
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(ReplicationBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /** Number of replicated entities. */
+    @Param(
+    {
+        "1000"
+    }) public int count;
+    /** Number of clients. */
+    @Param(
+    {
+        "32"
+    }) public int clients;
+    /** Percentage of moving entities per tick. */
+    @Param(
+    {
+        "10", "100"
+    }) public int moving;
+
+    private final Random random = new Random(42L);
+    private final List<Entity> entities = new ArrayList<>();
+    private final ReplicationServer server = new ReplicationServer(SNAPSHOT, ACK);
+
+    /**
+     * Prepare entities and clients.
+     */
+    @Setup(Level.Trial)
+    public void prepare()
+    {
+        for (int i = 0; i < count; i++)
+        {
+            final Entity entity = new Entity((short) i, random.nextDouble() * SIZE, random.nextDouble() * SIZE);
+            entities.add(entity);
+            server.addReplicable(entity);
+        }
+        for (int i = 0; i < clients; i++)
+        {
+            server.notifyClientConnected(Byte.valueOf((byte) i), String.valueOf(i));
+        }
+    }
+
+    /**
+     * Move entities, replicate and acknowledge.
+     * 
+     * @return The sent bytes.
+     */
+    @Benchmark
+    public int tick()
+    {
+        final int moved = count * moving / 100;
+        for (int i = 0; i < moved; i++)
+        {
+            entities.get(random.nextInt(count)).move(random.nextDouble() * 4.0 - 2.0, random.nextDouble() * 4.0 - 2.0);
+        }
+        server.update(1.0);
+
+        int bytes = 0;
+        for (final NetworkMessage message : server.getNetworkMessages())
+        {
+            final NetworkMessageSnapshot snapshot = (NetworkMessageSnapshot) message;
+            bytes += snapshot.getData().length;
+            server.applyMessage(new NetworkMessageSnapshot(ACK, snapshot.getClientDestId(), snapshot.getTick()));
+        }
+        server.clearNetworkMessages();
+        return bytes;
+    }
+
+    /**
+     * Replicated entity.
+     */
+    private static final class Entity implements Replicable
+    {
+        /** Entity id. */
+        private final short id;
+        /** Horizontal position. */
+        private double x;
+        /** Vertical position. */
+        private double y;
+
+        /**
+         * Create entity.
+         * 
+         * @param id The entity id.
+         * @param x The horizontal position.
+         * @param y The vertical position.
+         */
+        Entity(short id, double x, double y)
+        {
+            super();
+
+            this.id = id;
+            this.x = x;
+            this.y = y;
+        }
+
+        /**
+         * Move entity.
+         * 
+         * @param vx The horizontal move.
+         * @param vy The vertical move.
+         */
+        void move(double vx, double vy)
+        {
+            x += vx;
+            y += vy;
+        }
+
+        @Override
+        public short getEntityId()
+        {
+            return id;
+        }
+
+        @Override
+        public ReplicaSchema getSchema()
+        {
+            return SCHEMA;
+        }
+
+        @Override
+        public void writeFields(int[] fields)
+        {
+            fields[0] = POSITION.quantize(x);
+            fields[1] = POSITION.quantize(y);
+            fields[2] = 100;
+            fields[3] = 0;
+        }
+
+        @Override
+        public void readFields(int[] fields)
+        {
+            // Server side only
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+import com.b3dgs.lionengine.network.message.NetworkMessageEntity;
+import com.b3dgs.lionengine.network.purview.Networkable;
+import com.b3dgs.lionengine.network.purview.NetworkableModel;
+
+/**
+ * Benchmark received messages dispatch on one tick, where each entity receives one message:
+ * <ul>
+ * <li><code>broadcast</code>: each message applied to all networkables.</li>
+ * <li><code>routed</code>: each message applied to its addressee with {@link NetworkableRouter}.</li>
+ * </ul>
+ * <p>
+ * Run with {@link #main(String[])} from test classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark
+{
+    /**
+     * Run benchmark.
+     * 
+     * @param args Not used.
+     * @throws RunnerException If error.
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(RoutingBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /** Dispatch strategy. */
+    @Param(
+    {
+        "broadcast", "routed"
+    }) public String dispatch;
+    /** Number of networked entities. */
+    @Param(
+    {
+        "1000"
+    }) public int count;
+
+    private final List<Networkable> networkables = new ArrayList<>();
+    private final List<NetworkMessage> messages = new ArrayList<>();
+    private final NetworkableRouter router = new NetworkableRouter();
+
+    /**
+     * Prepare entities and their messages.
+     */
+    @Setup(Level.Trial)
+    public void prepare()
+    {
+        for (int i = 0; i < count; i++)
+        {
+            final Networkable networkable = new Entity((short) i);
+            networkables.add(networkable);
+            router.addEntity((short) i, networkable);
+            messages.add(new Message((short) i));
+        }
+    }
+
+    /**
+     * Dispatch all messages.
+     * 
+     * @return The number of applied messages.
+     */
+    @Benchmark
+    public int tick()
+    {
+        if ("routed".equals(dispatch))
+        {
+            for (final NetworkMessage message : messages)
+            {
+                router.route(message);
+            }
+        }
+        else
+        {
+            for (final NetworkMessage message : messages)
+            {
+                for (final Networkable networkable : networkables)
+                {
+                    networkable.applyMessage(message);
+                }
+            }
+        }
+        int applied = 0;
+        for (final Networkable networkable : networkables)
+        {
+            applied += ((Entity) networkable).consume();
+        }
+        return applied;
+    }
+
+    /**
+     * Message actions.
+     */
+    private enum Action
+    {
+        /** Move action. */
+        MOVE;
+    }
+
+    /**
+     * Entity message.
+     */
+    private static final class Message extends NetworkMessageEntity<Action>
+    {
+        /**
+         * Create message.
+         * 
+         * @param entityId The entity id.
+         */
+        Message(short entityId)
+        {
+            super((byte) 0, entityId);
+        }
+
+        @Override
+        protected void encode(ByteArrayOutputStream buffer, Action key)
+        {
+            // Not used
+        }
+
+        @Override
+        protected void decode(DataInputStream buffer, int i)
+        {
+            // Not used
+        }
+    }
+
+    /**
+     * Networkable filtering its own messages.
+     */
+    private static final class Entity extends NetworkableModel
+    {
+        /** Entity id. */
+        private final short id;
+        /** Applied messages. */
+        private int applied;
+
+        /**
+         * Create entity.
+         * 
+         * @param id The entity id.
+         */
+        Entity(short id)
+        {
+            super();
+
+            this.id = id;
+        }
+
+        /**
+         * Get and reset applied messages.
+         * 
+         * @return The applied messages.
+         */
+        int consume()
+        {
+            final int value = applied;
+            applied = 0;
+            return value;
+        }
+
+        @Override
+        public void applyMessage(NetworkMessage message)
+        {
+            if (message instanceof Message && ((Message) message).getEntityId() == id)
+            {
+                applied++;
+            }
+        }
+    }
+}
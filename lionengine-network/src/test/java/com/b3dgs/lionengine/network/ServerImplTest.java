@@ -0,0 +1,332 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertNull;
+import static com.b3dgs.lionengine.UtilAssert.assertTimeout;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.UtilTests;
+import com.b3dgs.lionengine.network.message.NetworkMessage;
+
+/**
+ * Test {@link ServerImpl} messages encoding and batching.
+ */
+public final class ServerImplTest
+{
+    /** Timeout in milli. */
+    private static final long TIMEOUT = 5_000L;
+    /** Test message type. */
+    private static final byte TYPE = 1;
+
+    /**
+     * Get a free port.
+     * 
+     * @return The free port.
+     * @throws IOException If error.
+     */
+    private static int getFreePort() throws IOException
+    {
+        try (ServerSocket socket = new ServerSocket(0))
+        {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Decode the user messages of a frame.
+     * 
+     * @param frame The frame to decode.
+     * @return The messages as <code>from>dest:value</code>.
+     * @throws IOException If error.
+     */
+    private static List<String> decode(byte[] frame) throws IOException
+    {
+        final List<String> messages = new ArrayList<>();
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        while (in.available() > 0)
+        {
+            assertEquals(NetworkMessageSystemId.USER_MESSAGE, in.readByte());
+            final byte from = in.readByte();
+            final byte dest = in.readByte();
+            assertEquals(TYPE, in.readByte());
+            assertEquals(4, in.readInt());
+            // Encoded message header
+            in.skipBytes(3);
+            messages.add(from + ">" + dest + ":" + in.readByte());
+        }
+        return messages;
+    }
+
+    /**
+     * Encode a client user message frame.
+     * 
+     * @param message The message to encode.
+     * @return The frame.
+     * @throws IOException If error.
+     */
+    private static byte[] encode(NetworkMessage message) throws IOException
+    {
+        final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(frame);
+        final byte[] data = message.encode().toByteArray();
+        out.writeByte(NetworkMessageSystemId.USER_MESSAGE);
+        out.writeByte(message.getClientId());
+        out.writeByte(message.getClientDestId());
+        out.writeByte(message.getType());
+        out.writeInt(data.length);
+        out.write(data);
+        return frame.toByteArray();
+    }
+
+    /**
+     * Drain the pending frames of channel.
+     * 
+     * @param channel The channel to drain.
+     */
+    private static void drain(FrameChannel channel)
+    {
+        UtilTests.pause(50L);
+        while (channel.poll() != null)
+        {
+            continue;
+        }
+    }
+
+    /** Encoded messages counter. */
+    private final AtomicInteger encoded = new AtomicInteger();
+    /** Connected clients counter. */
+    private final AtomicInteger connected = new AtomicInteger();
+    /** Server port. */
+    private int port;
+    /** Server tested. */
+    private ServerImpl server;
+    /** Client selector. */
+    private FrameSelector client;
+
+    /**
+     * Start server and client selector.
+     * 
+     * @throws IOException If error.
+     */
+    @BeforeEach
+    public void prepare() throws IOException
+    {
+        port = getFreePort();
+        server = new ServerImpl(type -> new MessageValue(), NetworkTransport.NIO);
+        server.addListener(new ClientListener()
+        {
+            @Override
+            public void notifyClientConnected(Byte id, String name)
+            {
+                connected.incrementAndGet();
+            }
+
+            @Override
+            public void notifyClientDisconnected(Byte id, String name)
+            {
+                // Nothing to do
+            }
+
+            @Override
+            public void notifyClientNameChanged(Byte id, String name)
+            {
+                // Nothing to do
+            }
+        });
+        server.start("server", port);
+        client = new FrameSelector();
+        client.start();
+    }
+
+    /**
+     * Terminate server and client selector.
+     * 
+     * @throws InterruptedException If interrupted.
+     */
+    @AfterEach
+    public void cleanUp() throws InterruptedException
+    {
+        server.disconnect();
+        client.terminate();
+        client.join(TIMEOUT);
+    }
+
+    /**
+     * Wait next received frame, updating server meanwhile.
+     * 
+     * @param channel The channel to poll.
+     * @return The received frame.
+     */
+    private byte[] poll(FrameChannel channel)
+    {
+        final AtomicReference<byte[]> frame = new AtomicReference<>();
+        assertTimeout(TIMEOUT, () ->
+        {
+            while (frame.get() == null)
+            {
+                server.receiveMessages();
+                frame.set(channel.poll());
+                UtilTests.pause(1L);
+            }
+        });
+        return frame.get();
+    }
+
+    /**
+     * Connect a client with the handshake.
+     * 
+     * @param name The client name.
+     * @return The connected client channel.
+     * @throws IOException If error.
+     */
+    private FrameChannel connect(String name) throws IOException
+    {
+        final FrameChannel channel = client.connect(InetAddress.getLoopbackAddress(), port);
+        final byte[] connecting = poll(channel);
+        assertEquals(NetworkMessageSystemId.CONNECTING, connecting[0]);
+        final byte id = connecting[1];
+
+        final byte[] data = name.getBytes(NetworkMessage.CHARSET);
+        final byte[] request = new byte[3 + data.length];
+        request[0] = NetworkMessageSystemId.CONNECTING;
+        request[1] = id;
+        request[2] = (byte) data.length;
+        System.arraycopy(data, 0, request, 3, data.length);
+        channel.send(request);
+        assertEquals(NetworkMessageSystemId.CONNECTED, poll(channel)[0]);
+
+        final int count = connected.get();
+        channel.send(new byte[]
+        {
+            NetworkMessageSystemId.CONNECTED, id
+        });
+        assertTimeout(TIMEOUT, () ->
+        {
+            while (connected.get() == count)
+            {
+                server.receiveMessages();
+                UtilTests.pause(1L);
+            }
+        });
+        return channel;
+    }
+
+    /**
+     * Test each message is encoded once, each client receives one frame per tick with its messages in order, messages
+     * to server are not sent, and relayed messages are also sent back to their sender.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testBatch() throws IOException
+    {
+        final FrameChannel first = connect("first");
+        final FrameChannel second = connect("second");
+        drain(first);
+        drain(second);
+        final byte idFirst = 0;
+        final byte idSecond = 1;
+
+        first.send(encode(new MessageValue(idFirst, (byte) -1, 5)));
+        first.send(encode(new MessageValue(idFirst, NetworkMessage.SERVER, 6)));
+        UtilTests.pause(100L);
+        server.receiveMessages();
+        assertEquals(2, server.getMessages().size());
+
+        server.addMessage(new MessageValue(idSecond, (byte) -1, 1));
+        server.addMessage(new MessageValue(idFirst, (byte) -1, 2));
+        server.addMessage(new MessageValue(idSecond, idSecond, 3));
+        server.addMessage(new MessageValue(idFirst, NetworkMessage.SERVER, 4));
+        encoded.set(0);
+        server.sendMessages();
+
+        assertEquals(4, encoded.get());
+        assertEquals(Arrays.asList("1>-1:1", "0>-1:2", "0>-1:5"), decode(poll(first)));
+        assertEquals(Arrays.asList("1>-1:1", "0>-1:2", "1>1:3", "0>-1:5"), decode(poll(second)));
+        UtilTests.pause(50L);
+        assertNull(first.poll());
+        assertNull(second.poll());
+
+        server.receiveMessages();
+        server.sendMessages();
+        UtilTests.pause(50L);
+        assertNull(first.poll());
+        assertNull(second.poll());
+    }
+
+    /**
+     * Test message storing a value, counting its encoding.
+     */
+    private final class MessageValue extends NetworkMessage
+    {
+        /** Stored value. */
+        private byte value;
+
+        /**
+         * Create message to decode.
+         */
+        MessageValue()
+        {
+            super();
+        }
+
+        /**
+         * Create message.
+         * 
+         * @param from The client id.
+         * @param dest The client destination id.
+         * @param value The stored value.
+         */
+        MessageValue(byte from, byte dest, int value)
+        {
+            super(TYPE, from, dest);
+
+            this.value = (byte) value;
+        }
+
+        @Override
+        protected void encode(ByteArrayOutputStream buffer)
+        {
+            encoded.incrementAndGet();
+            buffer.write(value);
+        }
+
+        @Override
+        protected void decode(DataInputStream buffer) throws IOException
+        {
+            value = buffer.readByte();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrowsIo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.b3dgs.lionengine.network.purview.ReplicaSchema;
+
+/**
+ * Test {@link SnapshotCodec}.
+ */
+public final class SnapshotCodecTest
+{
+    /** Position schema. */
+    private static final ReplicaSchema POSITION = new ReplicaSchema((byte) 1, 16, 16);
+    /** State schema. */
+    private static final ReplicaSchema STATE = new ReplicaSchema((byte) -1, 3, 32);
+
+    /**
+     * Get the known schemas.
+     * 
+     * @return The schemas indexed by unsigned id.
+     */
+    private static ReplicaSchema[] getSchemas()
+    {
+        final ReplicaSchema[] schemas = new ReplicaSchema[256];
+        schemas[POSITION.getId() & 0xFF] = POSITION;
+        schemas[STATE.getId() & 0xFF] = STATE;
+        return schemas;
+    }
+
+    /**
+     * Add entity to snapshot.
+     * 
+     * @param snapshot The snapshot reference.
+     * @param id The entity id.
+     * @param schema The entity schema.
+     * @param values The fields values.
+     */
+    private static void add(Snapshot snapshot, int id, ReplicaSchema schema, int... values)
+    {
+        final int offset = snapshot.add((short) id, schema);
+        System.arraycopy(values, 0, snapshot.getData(), offset, values.length);
+    }
+
+    /**
+     * Describe snapshot entities.
+     * 
+     * @param snapshot The snapshot reference.
+     * @return The entities as <code>id:schema:fields</code>.
+     */
+    private static List<String> describe(Snapshot snapshot)
+    {
+        final List<String> entities = new ArrayList<>();
+        for (int i = 0; i < snapshot.getCount(); i++)
+        {
+            final ReplicaSchema schema = snapshot.getSchema(i);
+            final int offset = snapshot.getOffset(i);
+            final int[] fields = Arrays.copyOfRange(snapshot.getData(), offset, offset + schema.getFields());
+            entities.add(snapshot.getId(i) + ":" + schema.getId() + ":" + Arrays.toString(fields));
+        }
+        return entities;
+    }
+
+    /**
+     * Encode and decode current snapshot against baseline.
+     * 
+     * @param baseline The baseline snapshot.
+     * @param current The current snapshot.
+     * @param events The decoded events.
+     * @return The decoded snapshot.
+     * @throws IOException If error.
+     */
+    private static Snapshot roundTrip(Snapshot baseline, Snapshot current, List<String> events) throws IOException
+    {
+        final BitWriter out = new BitWriter();
+        SnapshotCodec.encode(baseline, current, out);
+        final Snapshot target = new Snapshot(current.getTick());
+        SnapshotCodec.decode(baseline, new BitReader(out.toByteArray()), getSchemas(), target, new Recorder(events));
+        return target;
+    }
+
+    /**
+     * Test new entities against empty baseline.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testNew() throws IOException
+    {
+        final Snapshot current = new Snapshot(1);
+        add(current, 0, POSITION, 1, 65535);
+        add(current, 5, STATE, 7, -1);
+        add(current, 32767, POSITION, 300, 0);
+
+        final List<String> events = new ArrayList<>();
+        final Snapshot target = roundTrip(new Snapshot(0), current, events);
+
+        assertEquals(describe(current), describe(target));
+        assertEquals(Arrays.asList("new 0", "new 5", "new 32767"), events);
+    }
+
+    /**
+     * Test changed, unchanged, removed and new entities against baseline.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testDelta() throws IOException
+    {
+        final Snapshot baseline = new Snapshot(1);
+        add(baseline, 1, POSITION, 10, 20);
+        add(baseline, 2, POSITION, 30, 40);
+        add(baseline, 3, STATE, 1, 2);
+        add(baseline, 5, POSITION, 50, 60);
+        add(baseline, 7, POSITION, 70, 80);
+
+        final Snapshot current = new Snapshot(2);
+        add(current, 1, POSITION, 10, 20);
+        add(current, 2, POSITION, 31, 40);
+        add(current, 3, POSITION, 1, 2);
+        add(current, 4, STATE, 4, Integer.MIN_VALUE);
+        add(current, 7, POSITION, 70, 81);
+        add(current, 9, STATE, 0, 0);
+
+        final List<String> events = new ArrayList<>();
+        final Snapshot target = roundTrip(baseline, current, events);
+
+        assertEquals(describe(current), describe(target));
+        assertEquals(Arrays.asList("changed 2", "new 3", "new 4", "removed 5", "changed 7", "new 9"), events);
+    }
+
+    /**
+     * Test unchanged snapshot encoded as an empty delta.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testUnchanged() throws IOException
+    {
+        final Snapshot baseline = new Snapshot(1);
+        add(baseline, 1, POSITION, 10, 20);
+        add(baseline, 2, STATE, 3, 4);
+        final Snapshot current = new Snapshot(2);
+        add(current, 1, POSITION, 10, 20);
+        add(current, 2, STATE, 3, 4);
+
+        final BitWriter out = new BitWriter();
+        SnapshotCodec.encode(baseline, current, out);
+        assertEquals(1, out.getBits());
+
+        final List<String> events = new ArrayList<>();
+        assertEquals(describe(current), describe(roundTrip(baseline, current, events)));
+        assertEquals(0, events.size());
+    }
+
+    /**
+     * Test all entities removed.
+     * 
+     * @throws IOException If error.
+     */
+    @Test
+    public void testRemoved() throws IOException
+    {
+        final Snapshot baseline = new Snapshot(1);
+        add(baseline, 1, POSITION, 10, 20);
+        add(baseline, 2, STATE, 3, 4);
+
+        final List<String> events = new ArrayList<>();
+        final Snapshot target = roundTrip(baseline, new Snapshot(2), events);
+
+        assertEquals(0, target.getCount());
+        assertEquals(Arrays.asList("removed 1", "removed 2"), events);
+    }
+
+    /**
+     * Test invalid streams.
+     */
+    @Test
+    public void testInvalid()
+    {
+        final Snapshot current = new Snapshot(1);
+        add(current, 1, new ReplicaSchema((byte) 2, 4), 1);
+        final BitWriter unknown = new BitWriter();
+        SnapshotCodec.encode(new Snapshot(0), current, unknown);
+
+        assertThrowsIo(() -> SnapshotCodec.decode(new Snapshot(0),
+                                                  new BitReader(unknown.toByteArray()),
+                                                  getSchemas(),
+                                                  new Snapshot(1),
+                                                  new Recorder(new ArrayList<>())),
+                       "Unknown schema: 2");
+
+        final Snapshot baseline = new Snapshot(1);
+        add(baseline, 1, POSITION, 10, 20);
+        final Snapshot changed = new Snapshot(2);
+        add(changed, 1, POSITION, 11, 20);
+        final BitWriter delta = new BitWriter();
+        SnapshotCodec.encode(baseline, changed, delta);
+
+        assertThrowsIo(() -> SnapshotCodec.decode(new Snapshot(0),
+                                                  new BitReader(delta.toByteArray()),
+                                                  getSchemas(),
+                                                  new Snapshot(2),
+                                                  new Recorder(new ArrayList<>())),
+                       "Invalid record for entity: 1");
+    }
+
+    /**
+     * Record decoded events.
+     */
+    private static final class Recorder implements SnapshotCodec.Listener
+    {
+        /** Recorded events. */
+        private final List<String> events;
+
+        /**
+         * Create recorder.
+         * 
+         * @param events The recorded events.
+         */
+        Recorder(List<String> events)
+        {
+            super();
+
+            this.events = events;
+        }
+
+        @Override
+        public void notifyUpdated(short id, Snapshot snapshot, int index, boolean created)
+        {
+            assertEquals(id, snapshot.getId(index));
+            events.add((created ? "new " : "changed ") + id);
+        }
+
+        @Override
+        public void notifyRemoved(short id)
+        {
+            events.add("removed " + id);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark {@link NetworkTransport} on one loopback server tick: each client sends its input, server waits all inputs
+ * then sends the resulting state to every client, and each client waits the state.
+ * <p>
+ * Server side uses the {@link ClientConnection} of each transport. Run with {@link #main(String[])} from test
+ * classpath.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransportBenchmark
+{
+    /** Input size per client. */
+    private static final int INPUT = 32;
+
+    /**
+     * Run benchmark.
+     * 
+     * @param args Not used.
+     * @throws RunnerException If error.
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(TransportBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /** Transport used. */
+    @Param(
+    {
+        "STREAM", "NIO"
+    }) public NetworkTransport transport;
+    /** Number of connected clients. */
+    @Param(
+    {
+        "64", "200"
+    }) public int clients;
+
+    private final List<ClientConnection> connections = new ArrayList<>();
+    private final List<DataOutputStream> outs = new ArrayList<>();
+    private final List<DataInputStream> ins = new ArrayList<>();
+    private final List<FrameChannel> channels = new ArrayList<>();
+    private final byte[] input = new byte[INPUT];
+    private byte[] state;
+    private byte[] received;
+    private ServerSocket serverSocket;
+    private FrameSelector server;
+    private FrameSelector client;
+
+    /**
+     * Connect all clients.
+     * 
+     * @throws IOException If error.
+     */
+    @Setup(Level.Trial)
+    public void prepare() throws IOException
+    {
+        state = new byte[INPUT * clients];
+        received = new byte[state.length];
+        if (NetworkTransport.NIO == transport)
+        {
+            prepareNio();
+        }
+        else
+        {
+            prepareStream();
+        }
+    }
+
+    /**
+     * Close all connections.
+     * 
+     * @throws IOException If error.
+     */
+    @TearDown(Level.Trial)
+    public void close() throws IOException
+    {
+        for (final ClientConnection connection : connections)
+        {
+            connection.terminate();
+        }
+        for (final DataOutputStream out : outs)
+        {
+            out.close();
+        }
+        if (serverSocket != null)
+        {
+            serverSocket.close();
+        }
+        if (server != null)
+        {
+            server.terminate();
+            client.terminate();
+        }
+    }
+
+    /**
+     * Run one server tick.
+     * 
+     * @return The received state size.
+     * @throws IOException If error.
+     */
+    @Benchmark
+    public int tick() throws IOException
+    {
+        if (NetworkTransport.NIO == transport)
+        {
+            return tickNio();
+        }
+        return tickStream();
+    }
+
+    /**
+     * Connect clients with socket streams.
+     * 
+     * @throws IOException If error.
+     */
+    private void prepareStream() throws IOException
+    {
+        serverSocket = new ServerSocket(0, clients);
+        for (int i = 0; i < clients; i++)
+        {
+            final Socket socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+            socket.setTcpNoDelay(true);
+            final DataOutputStream out = new DataOutputStream(new ObjectOutputStream(socket.getOutputStream()));
+            out.flush();
+            final Socket accepted = serverSocket.accept();
+            accepted.setTcpNoDelay(true);
+            connections.add(new ClientSocket((byte) i, accepted));
+            outs.add(out);
+            ins.add(new DataInputStream(new ObjectInputStream(socket.getInputStream())));
+        }
+    }
+
+    /**
+     * Connect clients with frame channels, all clients sharing the same selector.
+     * 
+     * @throws IOException If error.
+     */
+    private void prepareNio() throws IOException
+    {
+        server = new FrameSelector(0);
+        server.start();
+        client = new FrameSelector();
+        client.start();
+        for (int i = 0; i < clients; i++)
+        {
+            channels.add(client.connect(InetAddress.getLoopbackAddress(), server.getPort()));
+            FrameChannel accepted = server.pollAccepted();
+            while (accepted == null)
+            {
+                Thread.yield();
+                accepted = server.pollAccepted();
+            }
+            connections.add(new ClientConnectionNio((byte) i, accepted));
+        }
+    }
+
+    /**
+     * Run one tick with socket streams.
+     * 
+     * @return The received state size.
+     * @throws IOException If error.
+     */
+    private int tickStream() throws IOException
+    {
+        for (final DataOutputStream out : outs)
+        {
+            out.write(input);
+            out.flush();
+        }
+        // Server reads available data of each client until all inputs are complete
+        final int[] sizes = new int[clients];
+        int remaining = clients;
+        while (remaining > 0)
+        {
+            for (int i = 0; i < clients; i++)
+            {
+                if (sizes[i] < INPUT)
+                {
+                    final byte[] data = connections.get(i).receiveMessages();
+                    if (data != null)
+                    {
+                        sizes[i] += data.length;
+                        if (sizes[i] >= INPUT)
+                        {
+                            remaining--;
+                        }
+                    }
+                }
+            }
+        }
+        sendState();
+        int total = 0;
+        for (final DataInputStream in : ins)
+        {
+            in.readFully(received);
+            total += received.length;
+        }
+        return total;
+    }
+
+    /**
+     * Run one tick with frame channels.
+     * 
+     * @return The received state size.
+     * @throws IOException If error.
+     */
+    private int tickNio() throws IOException
+    {
+        for (final FrameChannel channel : channels)
+        {
+            channel.send(input);
+        }
+        for (final ClientConnection connection : connections)
+        {
+            while (connection.receiveMessages() == null)
+            {
+                Thread.yield();
+            }
+        }
+        sendState();
+        int total = 0;
+        for (final FrameChannel channel : channels)
+        {
+            byte[] data = channel.poll();
+            while (data == null)
+            {
+                Thread.yield();
+                data = channel.poll();
+            }
+            total += data.length;
+        }
+        return total;
+    }
+
+    /**
+     * Send state to all clients.
+     * 
+     * @throws IOException If error.
+     */
+    private void sendState() throws IOException
+    {
+        for (final ClientConnection connection : connections)
+        {
+            connection.getOut().write(state);
+            connection.getOut().flush();
+        }
+    }
+}
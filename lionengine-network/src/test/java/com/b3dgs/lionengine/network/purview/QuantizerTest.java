@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2013-2019 Byron 3D Games Studio (www.b3dgs.com) Pierre-Alexandre (contact@b3dgs.com)
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.b3dgs.lionengine.network.purview;
+
+import static com.b3dgs.lionengine.UtilAssert.assertEquals;
+import static com.b3dgs.lionengine.UtilAssert.assertThrows;
+import static com.b3dgs.lionengine.UtilAssert.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test {@link Quantizer}.
+ */
+public final class QuantizerTest
+{
+    /**
+     * Test constructor with invalid arguments.
+     */
+    @Test
+    public void testConstructorInvalid()
+    {
+        assertThrows(() -> new Quantizer(1.0, 1.0, 8), "Invalid argument: 1.0 is not strictly superior to 1.0");
+        assertThrows(() -> new Quantizer(0.0, 1.0, 0), "Invalid argument: 0 is not strictly superior to 0");
+        assertThrows(() -> new Quantizer(0.0, 1.0, 32), "Invalid argument: 32 is not inferior or equal to 31");
+    }
+
+    /**
+     * Test bounds are exactly represented, and values out of bounds clamped.
+     */
+    @Test
+    public void testBounds()
+    {
+        final Quantizer quantizer = new Quantizer(-100.0, 100.0, 10);
+
+        assertEquals(10, quantizer.getBits());
+        assertEquals(0, quantizer.quantize(-100.0));
+        assertEquals(1023, quantizer.quantize(100.0));
+        assertEquals(0, quantizer.quantize(-1000.0));
+        assertEquals(1023, quantizer.quantize(Double.MAX_VALUE));
+        assertEquals(-100.0, quantizer.dequantize(0));
+        assertEquals(100.0, quantizer.dequantize(1023));
+        assertEquals(200.0 / 1023, quantizer.getPrecision());
+    }
+
+    /**
+     * Test maximum bits bounds fit in an unsigned value.
+     */
+    @Test
+    public void testMaxBits()
+    {
+        final Quantizer quantizer = new Quantizer(0.0, 1.0, Quantizer.MAX_BITS);
+
+        assertEquals(0, quantizer.quantize(0.0));
+        assertEquals(Integer.MAX_VALUE, quantizer.quantize(1.0));
+        assertEquals(1.0, quantizer.dequantize(Integer.MAX_VALUE));
+
+        final Quantizer bit = new Quantizer(0.0, 1.0, 1);
+        assertEquals(0, bit.quantize(0.49));
+        assertEquals(1, bit.quantize(0.51));
+    }
+
+    /**
+     * Test round trip error is at most half precision.
+     */
+    @Test
+    public void testPrecision()
+    {
+        final Quantizer quantizer = new Quantizer(-12.5, 37.25, 12);
+        final double error = quantizer.getPrecision() / 2.0;
+        for (double value = -12.5; value <= 37.25; value += 0.013)
+        {
+            final int quantized = quantizer.quantize(value);
+            assertTrue(quantized >= 0 && quantized < 1 << 12);
+            assertTrue(Math.abs(quantizer.dequantize(quantized) - value) <= error + 1E-9);
+        }
+    }
+}